@@ -68,6 +68,18 @@ public class LocalRing<C extends GcdRingElem<C>>
      * @param i localization polynomial ideal.
      */
     public LocalRing(Ideal<C> i) {
+        this(i, null);
+    }
+
+
+    /**
+     * The constructor creates a LocalRing object from an Ideal and a gcd
+     * engine, e.g. a <code>GCDCache</code>.
+     * @param i localization polynomial ideal.
+     * @param e gcd engine, if null a default engine is used.
+     * @see edu.jas.ufd.GCDFactory#getCachedProxy
+     */
+    public LocalRing(Ideal<C> i, GreatestCommonDivisor<C> e) {
         if (i == null) {
             throw new IllegalArgumentException("ideal may not be null");
         }
@@ -83,8 +95,12 @@ public class LocalRing<C extends GcdRingElem<C>>
             //throw new IllegalArgumentException("ideal must be maximal");
         }
         ring = ideal.list.ring;
-        //engine = GCDFactory.<C>getImplementation( ring.coFac );
-        engine = GCDFactory.<C> getProxy(ring.coFac);
+        if (e == null) {
+            //engine = GCDFactory.<C>getImplementation( ring.coFac );
+            engine = GCDFactory.<C> getProxy(ring.coFac);
+        } else {
+            engine = e;
+        }
     }
 
 
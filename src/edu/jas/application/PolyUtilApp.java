@@ -39,7 +39,6 @@ import edu.jas.root.RealAlgebraicNumber;
 import edu.jas.root.RealAlgebraicRing;
 import edu.jas.root.RealRootTuple;
 import edu.jas.root.RealRootsAbstract;
-import edu.jas.root.RealRootsSturm;
 import edu.jas.root.Rectangle;
 import edu.jas.root.RootFactory;
 import edu.jas.structure.GcdRingElem;
@@ -430,7 +429,7 @@ public class PolyUtilApp<C extends RingElem<C>> {
         List<List<Complex<BigDecimal>>> croots = new ArrayList<List<Complex<BigDecimal>>>();
         RingFactory<D> cf = I.list.ring.coFac;
         ComplexRing<D> cr = new ComplexRing<D>(cf);
-        ComplexRootsAbstract<D> cra = new ComplexRootsSturm<D>(cr);
+        ComplexRootsAbstract<D> cra = RootFactory.<D> getComplexRootsImplementation(cr);
         List<GenPolynomial<Complex<D>>> cunivs = new ArrayList<GenPolynomial<Complex<D>>>();
         for (GenPolynomial<D> p : univs) {
             GenPolynomialRing<Complex<D>> pfac = new GenPolynomialRing<Complex<D>>(cr, p.ring);
@@ -525,7 +524,7 @@ public class PolyUtilApp<C extends RingElem<C>> {
                     List<GenPolynomial<D>> univs, BigRational eps) {
         List<List<BigDecimal>> roots = new ArrayList<List<BigDecimal>>();
         //RingFactory<D> cf = (RingFactory<D>) I.list.ring.coFac;
-        RealRootsAbstract<D> rra = new RealRootsSturm<D>();
+        RealRootsAbstract<D> rra = RootFactory.<D> getRealRootsImplementation();
         for (int i = 0; i < I.list.ring.nvar; i++) {
             List<BigDecimal> rri = rra.approximateRoots(univs.get(i), eps);
             //System.out.println("rri = " + rri);
@@ -77,10 +77,38 @@ public class ResidueRing<C extends GcdRingElem<C>> implements RingFactory<Residu
      * @param isMaximal true, if ideal is maxmal.
      */
     public ResidueRing(Ideal<C> i, boolean isMaximal) {
+        this(i, isMaximal, null);
+    }
+
+
+    /**
+     * The constructor creates a ResidueRing object from an Ideal and a gcd
+     * engine, e.g. a <code>GCDCache</code>.
+     * @param i polynomial ideal.
+     * @param e gcd engine, if null a default engine is used.
+     * @see edu.jas.ufd.GCDFactory#getCachedProxy
+     */
+    public ResidueRing(Ideal<C> i, GreatestCommonDivisor<C> e) {
+        this(i, false, e);
+    }
+
+
+    /**
+     * The constructor creates a ResidueRing object from an Ideal and a gcd
+     * engine.
+     * @param i polynomial ideal.
+     * @param isMaximal true, if ideal is maxmal.
+     * @param e gcd engine, if null a default engine is used.
+     */
+    public ResidueRing(Ideal<C> i, boolean isMaximal, GreatestCommonDivisor<C> e) {
         ideal = i.GB(); // cheap if isGB
         ring = ideal.list.ring;
-        //engine = GCDFactory.<C>getImplementation( ring.coFac );
-        engine = GCDFactory.<C> getProxy(ring.coFac);
+        if (e == null) {
+            //engine = GCDFactory.<C>getImplementation( ring.coFac );
+            engine = GCDFactory.<C> getProxy(ring.coFac);
+        } else {
+            engine = e;
+        }
         if (isMaximal) {
             isField = 1;
             return;
@@ -0,0 +1,880 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.io.Reader;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import edu.jas.kern.StringUtil;
+import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * BigBall class for arbitrary precision ball arithmetic. A ball is a midpoint
+ * m, a java.math.BigDecimal rounded to the precision of the MathContext, and a
+ * radius r &ge; 0 with few digits, rounded upwards. The ball represents the
+ * interval [m-r, m+r] and every operation returns a ball containing all
+ * results of the operation on the points of the argument balls, the rounding
+ * errors of the midpoint are added to the radius. Objects of this class are
+ * immutable. Operations use the larger precision of the arguments, so the
+ * precision can be increased by constructing the arguments with a larger
+ * MathContext.
+ * @author Heinz Kredel
+ * @see java.math.BigDecimal
+ */
+
+public final class BigBall implements RingElem<BigBall>, RingFactory<BigBall> {
+
+
+    /**
+     * The midpoint.
+     */
+    public final java.math.BigDecimal mid;
+
+
+    /**
+     * The radius, non-negative.
+     */
+    public final java.math.BigDecimal rad;
+
+
+    /**
+     * The context for the midpoint.
+     */
+    public final MathContext context;
+
+
+    private final static Random random = new Random();
+
+
+    public static final MathContext DEFAULT_CONTEXT = MathContext.DECIMAL128;
+
+
+    public static final int DEFAULT_PRECISION = DEFAULT_CONTEXT.getPrecision();
+
+
+    /**
+     * The context for the radius, rounding upwards.
+     */
+    public static final MathContext RADIUS_CONTEXT = new MathContext(8, RoundingMode.UP);
+
+
+    /**
+     * The constant 0.
+     */
+    public final static BigBall ZERO = new BigBall(java.math.BigDecimal.ZERO);
+
+
+    /**
+     * The constant 1.
+     */
+    public final static BigBall ONE = new BigBall(java.math.BigDecimal.ONE);
+
+
+    /**
+     * Constructor for BigBall from midpoint and radius. The midpoint is
+     * rounded to mc and the rounding error is added to the radius.
+     * @param m java.math.BigDecimal midpoint.
+     * @param r java.math.BigDecimal radius &ge; 0.
+     * @param mc MathContext.
+     */
+    public BigBall(java.math.BigDecimal m, java.math.BigDecimal r, MathContext mc) {
+        if (r.signum() < 0) {
+            throw new IllegalArgumentException("negative radius " + r);
+        }
+        java.math.BigDecimal mr = m.round(mc);
+        if (mr.compareTo(m) != 0) {
+            r = r.add(m.subtract(mr).abs());
+        }
+        mid = mr;
+        rad = r.round(RADIUS_CONTEXT);
+        context = mc;
+    }
+
+
+    /**
+     * Constructor for BigBall from midpoint and radius.
+     * @param m java.math.BigDecimal midpoint.
+     * @param r java.math.BigDecimal radius &ge; 0.
+     */
+    public BigBall(java.math.BigDecimal m, java.math.BigDecimal r) {
+        this(m, r, DEFAULT_CONTEXT);
+    }
+
+
+    /**
+     * Constructor for BigBall from math.BigDecimal.
+     * @param a java.math.BigDecimal.
+     * @param mc MathContext.
+     */
+    public BigBall(java.math.BigDecimal a, MathContext mc) {
+        this(a, java.math.BigDecimal.ZERO, mc);
+    }
+
+
+    /**
+     * Constructor for BigBall from math.BigDecimal.
+     * @param a java.math.BigDecimal.
+     */
+    public BigBall(java.math.BigDecimal a) {
+        this(a, DEFAULT_CONTEXT);
+    }
+
+
+    /**
+     * Constructor for BigBall from long and a context.
+     * @param a long.
+     * @param mc MathContext.
+     */
+    public BigBall(long a, MathContext mc) {
+        this(java.math.BigDecimal.valueOf(a), mc);
+    }
+
+
+    /**
+     * Constructor for BigBall from long.
+     * @param a long.
+     */
+    public BigBall(long a) {
+        this(a, DEFAULT_CONTEXT);
+    }
+
+
+    /**
+     * Constructor for BigBall from java.math.BigInteger and a context.
+     * @param a java.math.BigInteger.
+     * @param mc MathContext.
+     */
+    public BigBall(java.math.BigInteger a, MathContext mc) {
+        this(new java.math.BigDecimal(a), mc);
+    }
+
+
+    /**
+     * Constructor for BigBall from java.math.BigInteger.
+     * @param a java.math.BigInteger.
+     */
+    public BigBall(java.math.BigInteger a) {
+        this(a, DEFAULT_CONTEXT);
+    }
+
+
+    /**
+     * Constructor for BigBall from BigRational and a context.
+     * @param a BigRational.
+     * @param mc MathContext.
+     */
+    public BigBall(BigRational a, MathContext mc) {
+        this(quotient(new java.math.BigDecimal(a.num), new java.math.BigDecimal(a.den), mc), mc);
+    }
+
+
+    /**
+     * Constructor for BigBall from quotient ball.
+     * @param q ball.
+     * @param mc MathContext.
+     */
+    private BigBall(BigBall q, MathContext mc) {
+        this(q.mid, q.rad, mc);
+    }
+
+
+    /**
+     * Constructor for BigBall from BigRational.
+     * @param a BigRational.
+     */
+    public BigBall(BigRational a) {
+        this(a, DEFAULT_CONTEXT);
+    }
+
+
+    /**
+     * Constructor for BigBall from String, "m" or "m +- r".
+     * @param s String.
+     * @param mc MathContext.
+     */
+    public BigBall(String s, MathContext mc) {
+        this(parseMid(s), parseRad(s), mc);
+    }
+
+
+    /**
+     * Constructor for BigBall from String.
+     * @param s String.
+     */
+    public BigBall(String s) {
+        this(s, DEFAULT_CONTEXT);
+    }
+
+
+    /**
+     * Constructor for BigBall zero with a context.
+     * @param mc MathContext.
+     */
+    public BigBall(MathContext mc) {
+        this(java.math.BigDecimal.ZERO, mc);
+    }
+
+
+    /**
+     * Constructor for BigBall without parameters.
+     */
+    public BigBall() {
+        this(java.math.BigDecimal.ZERO, DEFAULT_CONTEXT);
+    }
+
+
+    /**
+     * Parse the midpoint of a ball.
+     * @param s String "m" or "m +- r".
+     * @return m.
+     */
+    static java.math.BigDecimal parseMid(String s) {
+        int i = s.indexOf("+-");
+        return new java.math.BigDecimal((i < 0 ? s : s.substring(0, i)).trim());
+    }
+
+
+    /**
+     * Parse the radius of a ball.
+     * @param s String "m" or "m +- r".
+     * @return r or 0.
+     */
+    static java.math.BigDecimal parseRad(String s) {
+        int i = s.indexOf("+-");
+        return (i < 0 ? java.math.BigDecimal.ZERO : new java.math.BigDecimal(s.substring(i + 2).trim()));
+    }
+
+
+    /**
+     * Quotient with enclosure.
+     * @param n numerator.
+     * @param d denominator, non-zero.
+     * @param mc MathContext.
+     * @return ball containing n/d.
+     */
+    static BigBall quotient(java.math.BigDecimal n, java.math.BigDecimal d, MathContext mc) {
+        java.math.BigDecimal q = n.divide(d, mc);
+        if (q.multiply(d).compareTo(n) == 0) {
+            return new BigBall(q, mc);
+        }
+        return new BigBall(q, q.ulp(), mc);
+    }
+
+
+    /**
+     * Get the midpoint.
+     * @return mid.
+     */
+    public java.math.BigDecimal getMid() {
+        return mid;
+    }
+
+
+    /**
+     * Get the radius.
+     * @return rad.
+     */
+    public java.math.BigDecimal getRad() {
+        return rad;
+    }
+
+
+    /**
+     * Get the lower bound.
+     * @return mid - rad.
+     */
+    public java.math.BigDecimal lower() {
+        return mid.subtract(rad);
+    }
+
+
+    /**
+     * Get the upper bound.
+     * @return mid + rad.
+     */
+    public java.math.BigDecimal upper() {
+        return mid.add(rad);
+    }
+
+
+    /**
+     * Get the precision of the midpoint.
+     * @return number of decimal digits of the context.
+     */
+    public int precision() {
+        return context.getPrecision();
+    }
+
+
+    /**
+     * Get this ball with a different precision.
+     * @param mc MathContext.
+     * @return ball containing this with midpoint rounded to mc.
+     */
+    public BigBall setContext(MathContext mc) {
+        return new BigBall(mid, rad, mc);
+    }
+
+
+    /**
+     * Get the midpoint as decimal.
+     * @return mid as BigDecimal.
+     */
+    public BigDecimal toDecimal() {
+        return new BigDecimal(mid, context);
+    }
+
+
+    /**
+     * Get the corresponding element factory.
+     * @return factory for this Element.
+     * @see edu.jas.structure.Element#factory()
+     */
+    public BigBall factory() {
+        return this;
+    }
+
+
+    /**
+     * Get a list of the generating elements.
+     * @return list of generators for the algebraic structure.
+     * @see edu.jas.structure.ElemFactory#generators()
+     */
+    public List<BigBall> generators() {
+        List<BigBall> g = new ArrayList<BigBall>(1);
+        g.add(getONE());
+        return g;
+    }
+
+
+    /**
+     * Is this structure finite or infinite.
+     * @return true if this structure is finite, else false.
+     * @see edu.jas.structure.ElemFactory#isFinite()
+     */
+    public boolean isFinite() {
+        return false;
+    }
+
+
+    /**
+     * Clone this.
+     * @see java.lang.Object#clone()
+     */
+    @Override
+    public BigBall copy() {
+        return new BigBall(mid, rad, context);
+    }
+
+
+    /**
+     * Copy BigBall element c.
+     * @param c BigBall.
+     * @return a copy of c.
+     */
+    public BigBall copy(BigBall c) {
+        return new BigBall(c.mid, c.rad, c.context);
+    }
+
+
+    /**
+     * Get the zero element.
+     * @return 0 with the context of this.
+     */
+    public BigBall getZERO() {
+        return new BigBall(java.math.BigDecimal.ZERO, context);
+    }
+
+
+    /**
+     * Get the one element.
+     * @return 1 with the context of this.
+     */
+    public BigBall getONE() {
+        return new BigBall(java.math.BigDecimal.ONE, context);
+    }
+
+
+    /**
+     * Query if this ring is commutative.
+     * @return true.
+     */
+    public boolean isCommutative() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is associative. Ball arithmetic is associative up to
+     * the size of the radius.
+     * @return true.
+     */
+    public boolean isAssociative() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is a field.
+     * @return true.
+     */
+    public boolean isField() {
+        return true;
+    }
+
+
+    /**
+     * Characteristic of this ring.
+     * @return characteristic of this ring.
+     */
+    public java.math.BigInteger characteristic() {
+        return java.math.BigInteger.ZERO;
+    }
+
+
+    /**
+     * Get a BigBall element from a math.BigInteger.
+     * @param a math.BigInteger.
+     * @return a as BigBall.
+     */
+    public BigBall fromInteger(java.math.BigInteger a) {
+        return new BigBall(a, context);
+    }
+
+
+    /**
+     * Get a BigBall element from long.
+     * @param a long.
+     * @return a as BigBall.
+     */
+    public BigBall fromInteger(long a) {
+        return new BigBall(a, context);
+    }
+
+
+    /**
+     * Get a BigBall element from a BigRational.
+     * @param a BigRational.
+     * @return a ball containing a.
+     */
+    public BigBall fromRational(BigRational a) {
+        return new BigBall(a, context);
+    }
+
+
+    /**
+     * Get a BigBall element from a math.BigDecimal.
+     * @param a math.BigDecimal.
+     * @return a as BigBall.
+     */
+    public static BigBall valueOf(java.math.BigDecimal a) {
+        return new BigBall(a, DEFAULT_CONTEXT);
+    }
+
+
+    /**
+     * Get a BigBall element from long.
+     * @param a long.
+     * @return a as BigBall.
+     */
+    public static BigBall valueOf(long a) {
+        return new BigBall(a, DEFAULT_CONTEXT);
+    }
+
+
+    /**
+     * Is BigBall number zero.
+     * @return If this is the exact 0 then true is returned, else false.
+     * @see edu.jas.structure.RingElem#isZERO()
+     */
+    public boolean isZERO() {
+        return mid.signum() == 0 && rad.signum() == 0;
+    }
+
+
+    /**
+     * Is BigBall number one.
+     * @return If this is the exact 1 then true is returned, else false.
+     * @see edu.jas.structure.RingElem#isONE()
+     */
+    public boolean isONE() {
+        return mid.compareTo(java.math.BigDecimal.ONE) == 0 && rad.signum() == 0;
+    }
+
+
+    /**
+     * Is BigBall number unit.
+     * @return true if the ball does not contain 0, else false.
+     * @see edu.jas.structure.RingElem#isUnit()
+     */
+    public boolean isUnit() {
+        return !containsZero();
+    }
+
+
+    /**
+     * Is BigBall number exact.
+     * @return true if the radius is 0, else false.
+     */
+    public boolean isExact() {
+        return rad.signum() == 0;
+    }
+
+
+    /**
+     * Test if the ball contains 0.
+     * @return true if mid-rad &le; 0 &le; mid+rad, else false.
+     */
+    public boolean containsZero() {
+        return mid.abs().compareTo(rad) <= 0;
+    }
+
+
+    /**
+     * Test if the ball contains a number.
+     * @param a java.math.BigDecimal.
+     * @return true if |a - mid| &le; rad, else false.
+     */
+    public boolean contains(java.math.BigDecimal a) {
+        return a.subtract(mid).abs().compareTo(rad) <= 0;
+    }
+
+
+    /**
+     * Test if the ball contains a rational number.
+     * @param a BigRational.
+     * @return true if |a - mid| &le; rad, else false.
+     */
+    public boolean contains(BigRational a) {
+        BigRational l = toRational(lower());
+        BigRational u = toRational(upper());
+        return l.compareTo(a) <= 0 && a.compareTo(u) <= 0;
+    }
+
+
+    /**
+     * Test if the ball contains another ball.
+     * @param b BigBall.
+     * @return true if b is a subset of this, else false.
+     */
+    public boolean contains(BigBall b) {
+        return lower().compareTo(b.lower()) <= 0 && b.upper().compareTo(upper()) <= 0;
+    }
+
+
+    /**
+     * Exact rational value of a decimal.
+     * @param a java.math.BigDecimal.
+     * @return a as BigRational.
+     */
+    public static BigRational toRational(java.math.BigDecimal a) {
+        java.math.BigInteger u = a.unscaledValue();
+        int s = a.scale();
+        if (s <= 0) {
+            return new BigRational(u.multiply(java.math.BigInteger.TEN.pow(-s)));
+        }
+        return new BigRational(new BigInteger(u), new BigInteger(java.math.BigInteger.TEN.pow(s)));
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        if (rad.signum() == 0) {
+            return mid.toString();
+        }
+        return mid.toString() + " +- " + rad.toString();
+    }
+
+
+    /**
+     * Get the midpoint as a <tt>double</tt>.
+     * @return the midpoint as a <tt>double</tt>
+     * @see java.lang.Number#doubleValue()
+     */
+    public double doubleValue() {
+        return mid.doubleValue();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this Element.
+     * @see edu.jas.structure.Element#toScript()
+     */
+    @Override
+    public String toScript() {
+        // Python+Ruby case
+        return toString();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation of the factory.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.Element#toScriptFactory()
+     */
+    @Override
+    public String toScriptFactory() {
+        // Python+Ruby case
+        return "BigBall(" + context.getPrecision() + ")";
+    }
+
+
+    /**
+     * Compare to BigBall b. This is a total order by midpoint and radius, a
+     * certified comparison is the signum of the difference.
+     * @param b BigBall.
+     * @return sign of mid-b.mid, or of rad-b.rad if the midpoints are equal.
+     */
+    @Override
+    public int compareTo(BigBall b) {
+        int s = mid.compareTo(b.mid);
+        if (s != 0) {
+            return s;
+        }
+        return rad.compareTo(b.rad);
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object b) {
+        if (!(b instanceof BigBall)) {
+            return false;
+        }
+        return compareTo((BigBall) b) == 0;
+    }
+
+
+    /**
+     * Hash code for this BigBall.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return 37 * mid.stripTrailingZeros().hashCode() + rad.stripTrailingZeros().hashCode();
+    }
+
+
+    /**
+     * Context for an operation.
+     * @param S BigBall.
+     * @return the context with the larger precision.
+     */
+    MathContext context(BigBall S) {
+        return (context.getPrecision() >= S.context.getPrecision() ? context : S.context);
+    }
+
+
+    /**
+     * Absolute value of this.
+     * @return a ball containing |x| for all x in this.
+     * @see edu.jas.structure.RingElem#abs()
+     */
+    public BigBall abs() {
+        if (!containsZero()) {
+            return (mid.signum() < 0 ? negate() : this);
+        }
+        // [0, |mid|+rad]
+        java.math.BigDecimal h = mid.abs().add(rad).multiply(new java.math.BigDecimal("0.5"));
+        return new BigBall(h, h, context);
+    }
+
+
+    /**
+     * Negative value of this.
+     * @see edu.jas.structure.RingElem#negate()
+     */
+    public BigBall negate() {
+        return new BigBall(mid.negate(), rad, context);
+    }
+
+
+    /**
+     * Certified signum.
+     * @return 1 or -1 if all elements of the ball are positive or negative,
+     *         0 if the ball contains 0.
+     * @see edu.jas.structure.RingElem#signum()
+     */
+    public int signum() {
+        if (containsZero()) {
+            return 0;
+        }
+        return mid.signum();
+    }
+
+
+    /**
+     * BigBall summation.
+     * @param S BigBall.
+     * @return this+S.
+     */
+    public BigBall sum(BigBall S) {
+        return new BigBall(mid.add(S.mid), rad.add(S.rad), context(S));
+    }
+
+
+    /**
+     * BigBall subtract.
+     * @param S BigBall.
+     * @return this-S.
+     */
+    public BigBall subtract(BigBall S) {
+        return new BigBall(mid.subtract(S.mid), rad.add(S.rad), context(S));
+    }
+
+
+    /**
+     * BigBall multiply.
+     * @param S BigBall.
+     * @return this*S.
+     */
+    public BigBall multiply(BigBall S) {
+        java.math.BigDecimal m = mid.multiply(S.mid);
+        java.math.BigDecimal r = rad.multiply(S.rad);
+        if (S.rad.signum() != 0) {
+            r = r.add(mid.abs().multiply(S.rad));
+        }
+        if (rad.signum() != 0) {
+            r = r.add(S.mid.abs().multiply(rad));
+        }
+        return new BigBall(m, r, context(S));
+    }
+
+
+    /**
+     * BigBall inverse.
+     * @return a ball containing 1/x for all x in this.
+     * @throws NotInvertibleException if the ball contains 0.
+     * @see edu.jas.structure.RingElem#inverse()
+     */
+    public BigBall inverse() {
+        if (containsZero()) {
+            throw new NotInvertibleException("ball contains zero: " + this);
+        }
+        BigBall q = quotient(java.math.BigDecimal.ONE, mid, context);
+        if (rad.signum() == 0) {
+            return q;
+        }
+        // |1/x - 1/mid| <= rad / (|mid| (|mid| - rad))
+        java.math.BigDecimal am = mid.abs();
+        java.math.BigDecimal d = am.multiply(am.subtract(rad));
+        java.math.BigDecimal r = rad.divide(d, RADIUS_CONTEXT);
+        return new BigBall(q.mid, q.rad.add(r), context);
+    }
+
+
+    /**
+     * BigBall divide.
+     * @param S BigBall.
+     * @return this/S.
+     */
+    public BigBall divide(BigBall S) {
+        if (rad.signum() == 0 && S.rad.signum() == 0) {
+            if (S.mid.signum() == 0) {
+                throw new NotInvertibleException("division by zero");
+            }
+            return new BigBall(quotient(mid, S.mid, context(S)), context(S));
+        }
+        return multiply(S.inverse().setContext(context(S)));
+    }
+
+
+    /**
+     * BigBall remainder.
+     * @param S BigBall.
+     * @return 0.
+     */
+    public BigBall remainder(BigBall S) {
+        if (S.containsZero()) {
+            throw new NotInvertibleException("ball contains zero: " + S);
+        }
+        return getZERO();
+    }
+
+
+    /**
+     * BigBall greatest common divisor.
+     * @param S BigBall.
+     * @return gcd(this,S).
+     */
+    public BigBall gcd(BigBall S) {
+        throw new UnsupportedOperationException("BigBall.gcd() not implemented");
+    }
+
+
+    /**
+     * BigBall extended greatest common divisor.
+     * @param S BigBall.
+     * @return [ gcd(this,S), a, b ] with a*this + b*S = gcd(this,S).
+     */
+    public BigBall[] egcd(BigBall S) {
+        throw new UnsupportedOperationException("BigBall.egcd() not implemented");
+    }
+
+
+    /**
+     * BigBall random.
+     * @param n such that 0 &le; mid(r) &le; (2<sup>n</sup>-1). 0 &le; exp(r)
+     *            &le; (10-1).
+     * @return r, a random exact BigBall.
+     */
+    public BigBall random(int n) {
+        return random(n, random);
+    }
+
+
+    /**
+     * BigBall random.
+     * @param n such that 0 &le; mid(r) &le; (2<sup>n</sup>-1). 0 &le; exp(r)
+     *            &le; (10-1).
+     * @param rnd is a source for random bits.
+     * @return r, a random exact BigBall.
+     */
+    public BigBall random(int n, Random rnd) {
+        java.math.BigInteger r = new java.math.BigInteger(n, rnd);
+        if (rnd.nextBoolean()) {
+            r = r.negate();
+        }
+        int scale = rnd.nextInt(10);
+        return new BigBall(new java.math.BigDecimal(r, scale), context);
+    }
+
+
+    /**
+     * BigBall parse from String.
+     * @param s String.
+     * @return BigBall from s.
+     */
+    public BigBall parse(String s) {
+        return new BigBall(s, context);
+    }
+
+
+    /**
+     * BigBall parse from Reader.
+     * @param r Reader.
+     * @return next BigBall from r.
+     */
+    public BigBall parse(Reader r) {
+        return parse(StringUtil.nextString(r));
+    }
+
+}
@@ -70,7 +70,7 @@ public final class BigInteger
      * @param a long.
      */
     public BigInteger(long a) {
-        val = new java.math.BigInteger(String.valueOf(a));
+        val = java.math.BigInteger.valueOf(a);
     }
 
 
@@ -435,6 +435,9 @@ public final class BigInteger
      * @return this-S.
      */
     public BigInteger subtract(BigInteger S) {
+        if (val.bitLength() < 63 && S.val.bitLength() < 63) { // no overflow
+            return new BigInteger(val.longValue() - S.val.longValue());
+        }
         return new BigInteger(val.subtract(S.val));
     }
 
@@ -552,10 +555,43 @@ public final class BigInteger
      * @return gcd(this,S).
      */
     public BigInteger gcd(BigInteger S) {
+        if (val.bitLength() < 63 && S.val.bitLength() < 63) {
+            return new BigInteger(gcd(val.longValue(), S.val.longValue()));
+        }
         return new BigInteger(val.gcd(S.val));
     }
 
 
+    /**
+     * Long greatest common divisor. Binary gcd algorithm of J. Stein.
+     * @param a long with |a| &lt; 2^63.
+     * @param b long with |b| &lt; 2^63.
+     * @return gcd(a,b) &ge; 0.
+     */
+    public static long gcd(long a, long b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if (a == 0L) {
+            return b;
+        }
+        if (b == 0L) {
+            return a;
+        }
+        int s = Long.numberOfTrailingZeros(a | b);
+        a >>= Long.numberOfTrailingZeros(a);
+        do {
+            b >>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                long t = a;
+                a = b;
+                b = t;
+            }
+            b -= a;
+        } while (b != 0L);
+        return a << s;
+    }
+
+
     /**
      * BigInteger extended greatest common divisor.
      * @param S BigInteger.
@@ -664,6 +700,9 @@ public final class BigInteger
      * @return this*S.
      */
     public BigInteger multiply(BigInteger S) {
+        if (val.bitLength() + S.val.bitLength() < 63) { // no overflow
+            return new BigInteger(val.longValue() * S.val.longValue());
+        }
         return new BigInteger(val.multiply(S.val));
     }
 
@@ -698,6 +737,9 @@ public final class BigInteger
      * @return this+S.
      */
     public BigInteger sum(BigInteger S) {
+        if (val.bitLength() < 63 && S.val.bitLength() < 63) { // no overflow
+            return new BigInteger(val.longValue() + S.val.longValue());
+        }
         return new BigInteger(val.add(S.val));
     }
 
@@ -580,6 +580,9 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
             den = BigInteger.ONE;
             return new BigRational(num, den);
         }
+        if (n.bitLength() < 63 && d.bitLength() < 63) {
+            return reduction(n.longValue(), d.longValue());
+        }
         BigInteger c = n.gcd(d);
         if (c.equals(BigInteger.ONE)) {
             num = n;
@@ -607,6 +610,42 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
     }
 
 
+    /**
+     * Rational number reduction to lowest terms. Uses the binary long gcd.
+     * @param n long with |n| &lt; 2^63.
+     * @param d long with 0 &lt; |d| &lt; 2^63.
+     * @return a/b ~ n/d, gcd(a,b) = 1, b > 0.
+     */
+    static BigRational reduction(long n, long d) {
+        if (n == 0L) {
+            return ZERO;
+        }
+        long c = edu.jas.arith.BigInteger.gcd(n, d);
+        if (c != 1L) {
+            n /= c;
+            d /= c;
+        }
+        if (d < 0L) {
+            n = -n;
+            d = -d;
+        }
+        return new BigRational(BigInteger.valueOf(n), BigInteger.valueOf(d));
+    }
+
+
+    /**
+     * Test if the numerators and denominators of two rational numbers are
+     * small enough for long products and sums.
+     * @param R BigRational.
+     * @param S BigRational.
+     * @return true, if all numbers are less than 2^31 in absolute value.
+     */
+    static boolean isSmall(BigRational R, BigRational S) {
+        return R.num.bitLength() < 32 && R.den.bitLength() < 32 && S.num.bitLength() < 32
+                        && S.den.bitLength() < 32;
+    }
+
+
     /**
      * Rational number absolute value.
      * @return the absolute value of this.
@@ -843,6 +882,9 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
             T = ZERO;
             return T;
         }
+        if (isSmall(this, S)) { // products < 2^62
+            return reduction(num.longValue() * S.num.longValue(), den.longValue() * S.den.longValue());
+        }
         R1 = num; //this.numerator(); 
         R2 = den; //this.denominator();
         S1 = S.num;
@@ -1048,6 +1090,11 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
         if (S.equals(ZERO)) {
             return this;
         }
+        if (isSmall(this, S)) { // sum of products < 2^63
+            long r2 = den.longValue();
+            long s2 = S.den.longValue();
+            return reduction(num.longValue() * s2 + S.num.longValue() * r2, r2 * s2);
+        }
         R1 = num; //this.numerator(); 
         R2 = den; //this.denominator();
         S1 = S.num;
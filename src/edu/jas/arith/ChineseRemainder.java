@@ -0,0 +1,314 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Batch Chinese remainder algorithm for a fixed list of pairwise coprime
+ * moduli m<sub>0</sub>, ..., m<sub>k-1</sub> with product M. The subproduct
+ * tree of the moduli and the inverses c<sub>i</sub> of M/m<sub>i</sub> modulo
+ * m<sub>i</sub> are computed once in the constructor. A list of residues
+ * r<sub>i</sub> is combined to sum<sub>i</sub> r<sub>i</sub> c<sub>i</sub>
+ * M/m<sub>i</sub> mod M bottom up in the tree, which costs O(M(log M) log k)
+ * instead of the O(k log<sup>2</sup> M) of k incremental Garner steps. The
+ * remainder tree computes all residues of an integer, rational
+ * reconstruction recovers fractions from their modular images.
+ * @author Heinz Kredel
+ * @see ModularRingFactory#chineseRemainder(ChineseRemainder, List)
+ */
+
+public class ChineseRemainder implements Serializable {
+
+
+    private static final Logger logger = LogManager.getLogger(ChineseRemainder.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Subproduct tree, tree[0] are the moduli, tree[l][i] = tree[l-1][2i] *
+     * tree[l-1][2i+1], the last level contains the product of all moduli.
+     */
+    protected final java.math.BigInteger[][] tree;
+
+
+    /**
+     * Inverses of M/m<sub>i</sub> modulo m<sub>i</sub>.
+     */
+    protected final java.math.BigInteger[] cofactorInverse;
+
+
+    /**
+     * Product of all moduli.
+     */
+    public final java.math.BigInteger modul;
+
+
+    /**
+     * Constructor.
+     * @param moduli list of pairwise coprime moduli &gt; 1.
+     */
+    public ChineseRemainder(List<java.math.BigInteger> moduli) {
+        int k = moduli.size();
+        if (k == 0) {
+            throw new IllegalArgumentException("no moduli");
+        }
+        List<java.math.BigInteger[]> t = new ArrayList<java.math.BigInteger[]>();
+        java.math.BigInteger[] level = moduli.toArray(new java.math.BigInteger[k]);
+        for (java.math.BigInteger m : level) {
+            if (m.compareTo(java.math.BigInteger.ONE) <= 0) {
+                throw new IllegalArgumentException("modul must be > 1: " + m);
+            }
+        }
+        t.add(level);
+        while (level.length > 1) {
+            java.math.BigInteger[] up = new java.math.BigInteger[(level.length + 1) / 2];
+            for (int i = 0; i < up.length; i++) {
+                up[i] = (2 * i + 1 < level.length ? level[2 * i].multiply(level[2 * i + 1]) : level[2 * i]);
+            }
+            t.add(up);
+            level = up;
+        }
+        tree = t.toArray(new java.math.BigInteger[t.size()][]);
+        modul = level[0];
+        // M mod m_i^2 down the tree of squares, then M/m_i mod m_i
+        java.math.BigInteger[] r = new java.math.BigInteger[] { modul };
+        for (int l = tree.length - 2; l >= 0; l--) {
+            java.math.BigInteger[] ml = tree[l];
+            java.math.BigInteger[] rl = new java.math.BigInteger[ml.length];
+            for (int i = 0; i < ml.length; i++) {
+                rl[i] = r[i / 2].mod(ml[i].multiply(ml[i]));
+            }
+            r = rl;
+        }
+        cofactorInverse = new java.math.BigInteger[k];
+        for (int i = 0; i < k; i++) {
+            java.math.BigInteger m = tree[0][i];
+            try {
+                cofactorInverse[i] = r[i].divide(m).modInverse(m);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("moduli not coprime: " + m);
+            }
+        }
+        if (debug) {
+            logger.debug("moduli = " + k + ", bits(M) = " + modul.bitLength());
+        }
+    }
+
+
+    /**
+     * Constructor.
+     * @param fac list of modular ring factories with pairwise coprime moduli.
+     * @return ChineseRemainder for the moduli of the factories.
+     */
+    public static <C extends RingElem<C> & Modular> ChineseRemainder fromFactories(
+                    List<? extends ModularRingFactory<C>> fac) {
+        List<java.math.BigInteger> m = new ArrayList<java.math.BigInteger>(fac.size());
+        for (ModularRingFactory<C> f : fac) {
+            m.add(f.getIntegerModul().getVal());
+        }
+        return new ChineseRemainder(m);
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ChineseRemainder(" + size() + ", " + modul + ")";
+    }
+
+
+    /**
+     * Number of moduli.
+     * @return k.
+     */
+    public int size() {
+        return tree[0].length;
+    }
+
+
+    /**
+     * Product of the moduli.
+     * @return M.
+     */
+    public java.math.BigInteger getModul() {
+        return modul;
+    }
+
+
+    /**
+     * Modul.
+     * @param i index.
+     * @return m<sub>i</sub>.
+     */
+    public java.math.BigInteger getModul(int i) {
+        return tree[0][i];
+    }
+
+
+    /**
+     * Chinese remainder algorithm.
+     * @param r array of residues, r[i] modulo m<sub>i</sub>.
+     * @return S with 0 &le; S &lt; M and S mod m<sub>i</sub> == r[i].
+     */
+    public java.math.BigInteger combine(java.math.BigInteger[] r) {
+        int k = size();
+        if (r.length != k) {
+            throw new IllegalArgumentException("wrong number of residues " + r.length + " != " + k);
+        }
+        java.math.BigInteger[] v = new java.math.BigInteger[k];
+        for (int i = 0; i < k; i++) {
+            java.math.BigInteger m = tree[0][i];
+            v[i] = (r[i].signum() == 0 ? r[i] : r[i].multiply(cofactorInverse[i]).mod(m));
+        }
+        return combineTree(v);
+    }
+
+
+    /**
+     * Chinese remainder algorithm.
+     * @param r array of residues, r[i] modulo m<sub>i</sub>.
+     * @return S with 0 &le; S &lt; M and S mod m<sub>i</sub> == r[i].
+     */
+    public java.math.BigInteger combine(long[] r) {
+        java.math.BigInteger[] b = new java.math.BigInteger[r.length];
+        for (int i = 0; i < r.length; i++) {
+            b[i] = java.math.BigInteger.valueOf(r[i]);
+        }
+        return combine(b);
+    }
+
+
+    /**
+     * Chinese remainder algorithm.
+     * @param a list of modular elements, a.get(i) modulo m<sub>i</sub>.
+     * @return S with 0 &le; S &lt; M and S mod m<sub>i</sub> == a.get(i).
+     */
+    public java.math.BigInteger combine(List<? extends Modular> a) {
+        java.math.BigInteger[] b = new java.math.BigInteger[a.size()];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = a.get(i).getInteger().getVal();
+        }
+        return combine(b);
+    }
+
+
+    /**
+     * Combine v[i] M/m<sub>i</sub> bottom up in the subproduct tree.
+     * @param v array of v[i] = r[i] c<sub>i</sub> mod m<sub>i</sub>.
+     * @return sum v[i] M/m<sub>i</sub> mod M.
+     */
+    protected java.math.BigInteger combineTree(java.math.BigInteger[] v) {
+        for (int l = 0; l < tree.length - 1; l++) {
+            java.math.BigInteger[] ml = tree[l];
+            java.math.BigInteger[] u = new java.math.BigInteger[(v.length + 1) / 2];
+            for (int i = 0; i < u.length; i++) {
+                if (2 * i + 1 < v.length) {
+                    java.math.BigInteger a = v[2 * i];
+                    java.math.BigInteger b = v[2 * i + 1];
+                    a = (a.signum() == 0 ? a : a.multiply(ml[2 * i + 1]));
+                    b = (b.signum() == 0 ? b : b.multiply(ml[2 * i]));
+                    u[i] = a.add(b);
+                } else {
+                    u[i] = v[2 * i];
+                }
+            }
+            v = u;
+        }
+        return v[0].mod(modul);
+    }
+
+
+    /**
+     * Symmetric representative.
+     * @param S integer with 0 &le; S &lt; M.
+     * @return S or S - M with -M/2 &lt; result &le; M/2.
+     */
+    public java.math.BigInteger symmetric(java.math.BigInteger S) {
+        if (S.shiftLeft(1).compareTo(modul) > 0) {
+            return S.subtract(modul);
+        }
+        return S;
+    }
+
+
+    /**
+     * Remainder tree, the inverse of the Chinese remainder algorithm.
+     * @param S integer.
+     * @return array r with r[i] = S mod m<sub>i</sub>.
+     */
+    public java.math.BigInteger[] remainders(java.math.BigInteger S) {
+        java.math.BigInteger[] r = new java.math.BigInteger[] { S.mod(modul) };
+        for (int l = tree.length - 2; l >= 0; l--) {
+            java.math.BigInteger[] ml = tree[l];
+            java.math.BigInteger[] rl = new java.math.BigInteger[ml.length];
+            for (int i = 0; i < ml.length; i++) {
+                java.math.BigInteger p = r[i / 2];
+                rl[i] = (p.compareTo(ml[i]) < 0 ? p : p.mod(ml[i]));
+            }
+            r = rl;
+        }
+        return r;
+    }
+
+
+    /**
+     * Rational reconstruction of a combined residue list.
+     * @param r array of residues, r[i] modulo m<sub>i</sub>.
+     * @return a/b with a/b == r[i] mod m<sub>i</sub> and |a|, b &le;
+     *         sqrt(M/2), or null if no such fraction exists.
+     */
+    public BigRational rationalReconstruction(java.math.BigInteger[] r) {
+        return rationalReconstruction(combine(r), modul);
+    }
+
+
+    /**
+     * Rational reconstruction, Wang's algorithm with the half extended
+     * Euclidean algorithm.
+     * @param S integer.
+     * @param M modul &gt; 1.
+     * @return a/b with a == b S mod M, gcd(a,b) == 1 and |a|, b &le;
+     *         sqrt((M-1)/2), or null if no such fraction exists.
+     */
+    public static BigRational rationalReconstruction(java.math.BigInteger S, java.math.BigInteger M) {
+        java.math.BigInteger N = Roots.sqrtInt(new BigInteger(M.subtract(java.math.BigInteger.ONE).shiftRight(1)))
+                        .getVal();
+        java.math.BigInteger r0 = M;
+        java.math.BigInteger r1 = S.mod(M);
+        java.math.BigInteger s0 = java.math.BigInteger.ZERO;
+        java.math.BigInteger s1 = java.math.BigInteger.ONE;
+        while (r1.compareTo(N) > 0) {
+            java.math.BigInteger[] qr = r0.divideAndRemainder(r1);
+            r0 = r1;
+            r1 = qr[1];
+            java.math.BigInteger s = s0.subtract(qr[0].multiply(s1));
+            s0 = s1;
+            s1 = s;
+        }
+        if (s1.abs().compareTo(N) > 0 || !r1.gcd(s1).equals(java.math.BigInteger.ONE)) {
+            return null;
+        }
+        if (s1.signum() < 0) {
+            return new BigRational(r1.negate(), s1.negate());
+        }
+        return new BigRational(r1, s1);
+    }
+
+}
@@ -0,0 +1,356 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.kern.ComputerThreads;
+
+
+/**
+ * Lenstra elliptic curve method for integer factorization. The curves are
+ * Montgomery curves B y<sup>2</sup> = x<sup>3</sup> + A x<sup>2</sup> + x
+ * with Suyama's parametrization, points are represented by (x:z) and
+ * multiplied with the Montgomery ladder. Stage 1 multiplies the point by all
+ * prime powers up to B1, stage 2 is the standard continuation with baby
+ * steps j Q and giant steps m D Q for the primes m D &plusmn; j up to B2.
+ * Independent curves run in parallel in the <code>ComputerThreads</code>
+ * pool.
+ * @author Heinz Kredel
+ * @see PrimeInteger#factors(java.math.BigInteger)
+ */
+
+public final class EllipticCurveMethod {
+
+
+    private static final Logger logger = LogManager.getLogger(EllipticCurveMethod.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Stage 2 bound is B2_FACTOR * B1.
+     */
+    public final static long B2_FACTOR = 100L;
+
+
+    /**
+     * Maximal stage 2 bound.
+     */
+    public final static long MAX_B2 = 100000000L;
+
+
+    /**
+     * Giant step size of stage 2.
+     */
+    final static int D = 2310;
+
+
+    /**
+     * Parameters for finding factors with a given number of decimal digits:
+     * digits, B1 and number of curves.
+     */
+    public final static long[][] LEVELS = { { 15, 2000, 25 }, { 20, 11000, 90 }, { 25, 50000, 300 },
+            { 30, 250000, 700 }, { 35, 1000000, 1800 }, { 40, 3000000, 5100 } };
+
+
+    /**
+     * Random number generator for curve parameters.
+     */
+    final static Random random = new Random();
+
+
+    /**
+     * Sieve of odd composite numbers, bit i is set if 2 i + 1 is composite.
+     */
+    private static BitSet sieve = new BitSet();
+
+
+    private static long sieveLimit = 1L;
+
+
+    private EllipticCurveMethod() {
+    }
+
+
+    /**
+     * Search a divisor with the elliptic curve method.
+     * @param n odd composite integer, not a prime power.
+     * @param B1 stage 1 bound.
+     * @param curves number of curves.
+     * @return a divisor d of n with 1 &lt; d &lt; n, or null if no divisor
+     *         was found.
+     */
+    public static java.math.BigInteger divisor(java.math.BigInteger n, long B1, int curves) {
+        final java.math.BigInteger N = n;
+        final long b1 = B1;
+        final long b2 = Math.max(B1, Math.min(B2_FACTOR * B1, MAX_B2));
+        final BitSet composite = oddComposites(b2);
+        int threads = ComputerThreads.N_CPUS;
+        if (threads <= 1 || ComputerThreads.NO_THREADS || curves <= 1) {
+            for (int c = 0; c < curves; c++) {
+                java.math.BigInteger d = curve(N, sigma(), b1, b2, composite);
+                if (d != null) {
+                    return d;
+                }
+            }
+            return null;
+        }
+        final AtomicReference<java.math.BigInteger> found = new AtomicReference<java.math.BigInteger>();
+        threads = Math.min(threads, curves);
+        List<Callable<Boolean>> cs = new ArrayList<Callable<Boolean>>(threads);
+        for (int t = 0; t < threads; t++) {
+            final int nc = curves / threads + (t < curves % threads ? 1 : 0);
+            cs.add(new Callable<Boolean>() {
+
+
+                public Boolean call() {
+                    for (int c = 0; c < nc && found.get() == null; c++) {
+                        java.math.BigInteger d = curve(N, sigma(), b1, b2, composite);
+                        if (d != null) {
+                            found.compareAndSet(null, d);
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+            });
+        }
+        if (debug) {
+            logger.debug("ECM with " + curves + " curves in " + threads + " threads, B1 = " + b1);
+        }
+        ComputerThreads.invokeAll(cs, threads);
+        return found.get();
+    }
+
+
+    /**
+     * Random curve parameter.
+     * @return sigma with 6 &le; sigma &lt; 2<sup>31</sup>.
+     */
+    static long sigma() {
+        synchronized (random) {
+            return 6L + random.nextInt(Integer.MAX_VALUE - 6);
+        }
+    }
+
+
+    /**
+     * Odd composite numbers.
+     * @param limit upper bound.
+     * @return bit set with bit i set if 2 i + 1 &le; limit is composite.
+     */
+    static synchronized BitSet oddComposites(long limit) {
+        if (limit <= sieveLimit) {
+            return sieve;
+        }
+        int m = (int) ((limit - 1L) >>> 1) + 1;
+        BitSet s = new BitSet(m);
+        for (long i = 3; i * i <= limit; i += 2) {
+            if (s.get((int) (i >>> 1))) {
+                continue;
+            }
+            for (long j = i * i; j <= limit; j += 2 * i) {
+                s.set((int) (j >>> 1));
+            }
+        }
+        s.set(0); // 1 is no prime
+        sieve = s;
+        sieveLimit = limit;
+        return sieve;
+    }
+
+
+    /**
+     * Test primality with the sieve.
+     * @param composite sieve of odd composites.
+     * @param p integer with p up to the sieve limit.
+     * @return true if p is prime, else false.
+     */
+    static boolean isPrime(BitSet composite, long p) {
+        if (p < 3L) {
+            return p == 2L;
+        }
+        if ((p & 1L) == 0L) {
+            return false;
+        }
+        return !composite.get((int) (p >>> 1));
+    }
+
+
+    /**
+     * Run one curve.
+     * @param n odd composite integer.
+     * @param sigma curve parameter.
+     * @param B1 stage 1 bound.
+     * @param B2 stage 2 bound.
+     * @param composite sieve of odd composites up to B2.
+     * @return a divisor d of n with 1 &lt; d &lt; n, or null if no divisor
+     *         was found.
+     */
+    static java.math.BigInteger curve(java.math.BigInteger n, long sigma, long B1, long B2,
+                    BitSet composite) {
+        // Suyama parametrization
+        java.math.BigInteger s = java.math.BigInteger.valueOf(sigma);
+        java.math.BigInteger u = s.multiply(s).subtract(java.math.BigInteger.valueOf(5L)).mod(n);
+        java.math.BigInteger v = s.shiftLeft(2).mod(n);
+        java.math.BigInteger u3 = u.multiply(u).multiply(u).mod(n);
+        java.math.BigInteger vu = v.subtract(u);
+        java.math.BigInteger num = vu.multiply(vu).multiply(vu).mod(n)
+                        .multiply(u.multiply(java.math.BigInteger.valueOf(3L)).add(v)).mod(n);
+        java.math.BigInteger den = u3.multiply(v).shiftLeft(4).mod(n);
+        java.math.BigInteger g = den.gcd(n);
+        if (!g.equals(java.math.BigInteger.ONE)) {
+            return (g.equals(n) ? null : g);
+        }
+        java.math.BigInteger a24 = num.multiply(den.modInverse(n)).mod(n);
+        java.math.BigInteger[] P = new java.math.BigInteger[] { u3, v.multiply(v).multiply(v).mod(n) };
+        // stage 1
+        long k = 1L;
+        for (long p = 2; p <= B1; p = (p == 2L ? 3L : p + 2L)) {
+            if (!isPrime(composite, p)) {
+                continue;
+            }
+            long q = p;
+            while (q <= B1 / p) {
+                q *= p;
+            }
+            if (k > Long.MAX_VALUE / q) {
+                P = ladder(P, k, a24, n);
+                k = 1L;
+            }
+            k *= q;
+        }
+        P = ladder(P, k, a24, n);
+        g = P[1].gcd(n);
+        if (!g.equals(java.math.BigInteger.ONE)) {
+            return (g.equals(n) ? null : g);
+        }
+        if (B2 <= B1) {
+            return null;
+        }
+        // stage 2, baby steps j P for odd j < D/2
+        int h = D / 2;
+        java.math.BigInteger[][] S = new java.math.BigInteger[h][];
+        java.math.BigInteger[] P2 = dbl(P, a24, n);
+        S[1] = P;
+        S[3] = add(P2, P, P, n);
+        for (int j = 5; j < h; j += 2) {
+            S[j] = add(S[j - 2], P2, S[j - 4], n);
+        }
+        boolean[] coprime = new boolean[h];
+        for (int j = 1; j < h; j += 2) {
+            coprime[j] = (java.math.BigInteger.valueOf(j).gcd(java.math.BigInteger.valueOf(D)).intValue() == 1);
+        }
+        // giant steps m D P
+        java.math.BigInteger[] DP = ladder(P, D, a24, n);
+        long m = Math.max(1L, B1 / D);
+        java.math.BigInteger[] R = ladder(P, m * D, a24, n);
+        java.math.BigInteger[] Rn = ladder(P, (m + 1) * D, a24, n);
+        java.math.BigInteger acc = java.math.BigInteger.ONE;
+        for (; m * D - h <= B2; m++) {
+            long c = m * D;
+            for (int j = 1; j < h; j += 2) {
+                if (!coprime[j]) {
+                    continue;
+                }
+                long p1 = c + j;
+                long p2 = c - j;
+                if ((p1 > B1 && p1 <= B2 && isPrime(composite, p1))
+                                || (p2 > B1 && p2 <= B2 && isPrime(composite, p2))) {
+                    java.math.BigInteger t = R[0].multiply(S[j][1]).subtract(S[j][0].multiply(R[1]));
+                    acc = acc.multiply(t).mod(n);
+                }
+            }
+            java.math.BigInteger[] T = add(Rn, DP, R, n);
+            R = Rn;
+            Rn = T;
+        }
+        g = acc.gcd(n);
+        if (!g.equals(java.math.BigInteger.ONE) && !g.equals(n)) {
+            return g;
+        }
+        return null;
+    }
+
+
+    /**
+     * Point doubling on a Montgomery curve.
+     * @param P point (x:z).
+     * @param a24 curve constant (A+2)/4.
+     * @param n modulus.
+     * @return 2 P.
+     */
+    static java.math.BigInteger[] dbl(java.math.BigInteger[] P, java.math.BigInteger a24,
+                    java.math.BigInteger n) {
+        java.math.BigInteger s = P[0].add(P[1]);
+        s = s.multiply(s).mod(n);
+        java.math.BigInteger d = P[0].subtract(P[1]);
+        d = d.multiply(d).mod(n);
+        java.math.BigInteger t = s.subtract(d);
+        java.math.BigInteger x = s.multiply(d).mod(n);
+        java.math.BigInteger z = t.multiply(d.add(a24.multiply(t))).mod(n);
+        return new java.math.BigInteger[] { x, z };
+    }
+
+
+    /**
+     * Differential point addition on a Montgomery curve.
+     * @param P point (x:z).
+     * @param Q point (x:z).
+     * @param M the difference P - Q.
+     * @param n modulus.
+     * @return P + Q.
+     */
+    static java.math.BigInteger[] add(java.math.BigInteger[] P, java.math.BigInteger[] Q,
+                    java.math.BigInteger[] M, java.math.BigInteger n) {
+        java.math.BigInteger u = P[0].subtract(P[1]).multiply(Q[0].add(Q[1]));
+        java.math.BigInteger v = P[0].add(P[1]).multiply(Q[0].subtract(Q[1]));
+        java.math.BigInteger s = u.add(v).mod(n);
+        java.math.BigInteger d = u.subtract(v).mod(n);
+        java.math.BigInteger x = M[1].multiply(s.multiply(s).mod(n)).mod(n);
+        java.math.BigInteger z = M[0].multiply(d.multiply(d).mod(n)).mod(n);
+        return new java.math.BigInteger[] { x, z };
+    }
+
+
+    /**
+     * Montgomery ladder.
+     * @param P point (x:z).
+     * @param k positive multiplier.
+     * @param a24 curve constant (A+2)/4.
+     * @param n modulus.
+     * @return k P.
+     */
+    static java.math.BigInteger[] ladder(java.math.BigInteger[] P, long k, java.math.BigInteger a24,
+                    java.math.BigInteger n) {
+        if (k == 1L) {
+            return P;
+        }
+        java.math.BigInteger[] R0 = P;
+        java.math.BigInteger[] R1 = dbl(P, a24, n);
+        for (int i = 62 - Long.numberOfLeadingZeros(k); i >= 0; i--) {
+            if (((k >>> i) & 1L) != 0L) {
+                R0 = add(R1, R0, P, n);
+                R1 = dbl(R1, a24, n);
+            } else {
+                R1 = add(R1, R0, P, n);
+                R0 = dbl(R0, a24, n);
+            }
+        }
+        return R0;
+    }
+
+}
@@ -0,0 +1,402 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import edu.jas.structure.GcdRingElem;
+
+
+/**
+ * GaloisFieldElem class with GcdRingElem interface. Objects of this class
+ * are immutable. Elements of GF(p<sup>k</sup>) are polynomials in the
+ * generator of degree less than k, packed as long with base p digits.
+ * @author Heinz Kredel
+ * @see GaloisFieldRing
+ */
+
+public final class GaloisFieldElem implements GcdRingElem<GaloisFieldElem> {
+
+
+    /**
+     * GaloisFieldRing reference.
+     */
+    public final GaloisFieldRing ring;
+
+
+    /**
+     * Value part of the element data structure, the coefficient of a^i is
+     * the i-th base p digit of val.
+     */
+    public final long val;
+
+
+    /**
+     * The constructor creates a GaloisFieldElem object from a packed value.
+     * @param m GaloisFieldRing.
+     * @param v packed value with 0 &le; v &lt; m.size.
+     */
+    GaloisFieldElem(GaloisFieldRing m, long v) {
+        ring = m;
+        val = v;
+    }
+
+
+    /**
+     * The constructor creates a GaloisFieldElem object from coefficients.
+     * @param m GaloisFieldRing.
+     * @param c coefficients c_0, c_1, ... of c_0 + c_1 a + c_2
+     *            a<sup>2</sup> + ....
+     */
+    public GaloisFieldElem(GaloisFieldRing m, long[] c) {
+        ring = m;
+        long v = 0L;
+        long x = m.generatorVal();
+        for (int i = c.length - 1; i >= 0; i--) { // Horner
+            long d = c[i] % m.p;
+            if (d < 0L) {
+                d += m.p;
+            }
+            v = m.sum(m.multiply(v, x), d);
+        }
+        val = v;
+    }
+
+
+    /**
+     * Get the packed value part.
+     * @return val.
+     */
+    public long getVal() {
+        return val;
+    }
+
+
+    /**
+     * Get the coefficients.
+     * @return coefficients c_0, ..., c_{k-1} with this = sum_i c_i
+     *         a<sup>i</sup>.
+     */
+    public long[] coefficients() {
+        return ring.unpack(val);
+    }
+
+
+    /**
+     * Get the corresponding element factory.
+     * @return factory for this Element.
+     * @see edu.jas.structure.Element#factory()
+     */
+    public GaloisFieldRing factory() {
+        return ring;
+    }
+
+
+    /**
+     * Clone this.
+     * @see java.lang.Object#clone()
+     */
+    @Override
+    public GaloisFieldElem copy() {
+        return new GaloisFieldElem(ring, val);
+    }
+
+
+    /**
+     * Is GaloisFieldElem zero.
+     * @return If this is 0 then true is returned, else false.
+     * @see edu.jas.structure.RingElem#isZERO()
+     */
+    public boolean isZERO() {
+        return val == 0L;
+    }
+
+
+    /**
+     * Is GaloisFieldElem one.
+     * @return If this is 1 then true is returned, else false.
+     * @see edu.jas.structure.RingElem#isONE()
+     */
+    public boolean isONE() {
+        return val == 1L;
+    }
+
+
+    /**
+     * Is GaloisFieldElem a unit.
+     * @return If this is a unit then true is returned, else false.
+     * @see edu.jas.structure.RingElem#isUnit()
+     */
+    public boolean isUnit() {
+        return val != 0L;
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return toString(" ", "^");
+    }
+
+
+    /**
+     * Get the String representation.
+     * @param mul multiplication sign.
+     * @param pow power sign.
+     * @return this as polynomial in the generator.
+     */
+    String toString(String mul, String pow) {
+        if (val == 0L) {
+            return "0";
+        }
+        long[] c = ring.unpack(val);
+        StringBuffer s = new StringBuffer();
+        for (int i = c.length - 1; i >= 0; i--) {
+            if (c[i] == 0L) {
+                continue;
+            }
+            if (s.length() > 0) {
+                s.append(" + ");
+            }
+            if (i == 0) {
+                s.append(c[i]);
+                continue;
+            }
+            if (c[i] != 1L) {
+                s.append(c[i]).append(mul);
+            }
+            s.append(ring.var);
+            if (i > 1) {
+                s.append(pow).append(i);
+            }
+        }
+        return s.toString();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this Element.
+     * @see edu.jas.structure.Element#toScript()
+     */
+    @Override
+    public String toScript() {
+        // Python case
+        return toString("*", "**");
+    }
+
+
+    /**
+     * Get a scripting compatible string representation of the factory.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.Element#toScriptFactory()
+     */
+    @Override
+    public String toScriptFactory() {
+        // Python case
+        return factory().toScript();
+    }
+
+
+    /**
+     * GaloisFieldElem comparison.
+     * @param b GaloisFieldElem.
+     * @return sign(this-b) with respect to the packed values.
+     */
+    @Override
+    public int compareTo(GaloisFieldElem b) {
+        return Long.compare(val, b.val);
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object b) {
+        if (!(b instanceof GaloisFieldElem)) {
+            return false;
+        }
+        return (0 == compareTo((GaloisFieldElem) b));
+    }
+
+
+    /**
+     * Hash code for this GaloisFieldElem.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return (int) (val ^ (val >>> 32));
+    }
+
+
+    /**
+     * GaloisFieldElem absolute value.
+     * @return this.
+     * @see edu.jas.structure.RingElem#abs()
+     */
+    public GaloisFieldElem abs() {
+        return this;
+    }
+
+
+    /**
+     * GaloisFieldElem negative.
+     * @see edu.jas.structure.RingElem#negate()
+     * @return -this.
+     */
+    public GaloisFieldElem negate() {
+        return new GaloisFieldElem(ring, ring.negate(val));
+    }
+
+
+    /**
+     * GaloisFieldElem signum.
+     * @see edu.jas.structure.RingElem#signum()
+     * @return 0 if this is zero, else 1.
+     */
+    public int signum() {
+        return (val == 0L ? 0 : 1);
+    }
+
+
+    /**
+     * GaloisFieldElem subtraction.
+     * @param S GaloisFieldElem.
+     * @return this-S.
+     */
+    public GaloisFieldElem subtract(GaloisFieldElem S) {
+        return new GaloisFieldElem(ring, ring.subtract(val, S.val));
+    }
+
+
+    /**
+     * GaloisFieldElem divide.
+     * @param S GaloisFieldElem.
+     * @return this/S.
+     */
+    public GaloisFieldElem divide(GaloisFieldElem S) {
+        return new GaloisFieldElem(ring, ring.multiply(val, ring.inverse(S.val)));
+    }
+
+
+    /**
+     * GaloisFieldElem inverse.
+     * @see edu.jas.structure.RingElem#inverse()
+     * @throws NotInvertibleException if the element is zero.
+     * @return S with S=1/this.
+     */
+    public GaloisFieldElem inverse() /*throws NotInvertibleException*/ {
+        return new GaloisFieldElem(ring, ring.inverse(val));
+    }
+
+
+    /**
+     * GaloisFieldElem remainder.
+     * @param S GaloisFieldElem.
+     * @return remainder(this,S).
+     */
+    public GaloisFieldElem remainder(GaloisFieldElem S) {
+        if (S == null || S.isZERO()) {
+            throw new ArithmeticException("division by zero");
+        }
+        return ring.getZERO();
+    }
+
+
+    /**
+     * GaloisFieldElem multiply.
+     * @param S GaloisFieldElem.
+     * @return this*S.
+     */
+    public GaloisFieldElem multiply(GaloisFieldElem S) {
+        return new GaloisFieldElem(ring, ring.multiply(val, S.val));
+    }
+
+
+    /**
+     * GaloisFieldElem summation.
+     * @param S GaloisFieldElem.
+     * @return this+S.
+     */
+    public GaloisFieldElem sum(GaloisFieldElem S) {
+        return new GaloisFieldElem(ring, ring.sum(val, S.val));
+    }
+
+
+    /**
+     * GaloisFieldElem power.
+     * @param n exponent.
+     * @return this<sup>n</sup>.
+     */
+    @Override
+    public GaloisFieldElem power(long n) {
+        return new GaloisFieldElem(ring, ring.power(val, n));
+    }
+
+
+    /**
+     * Frobenius automorphism.
+     * @return this<sup>p</sup>.
+     */
+    public GaloisFieldElem frobenius() {
+        return power(ring.p);
+    }
+
+
+    /**
+     * Characteristic root.
+     * @return r with r<sup>p</sup> == this.
+     */
+    public GaloisFieldElem rootCharacteristic() {
+        return power(ring.size / ring.p);
+    }
+
+
+    /**
+     * GaloisFieldElem greatest common divisor.
+     * @param S GaloisFieldElem.
+     * @return gcd(this,S).
+     */
+    public GaloisFieldElem gcd(GaloisFieldElem S) {
+        if (S.isZERO()) {
+            return this;
+        }
+        if (isZERO()) {
+            return S;
+        }
+        return ring.getONE();
+    }
+
+
+    /**
+     * GaloisFieldElem extended greatest common divisor.
+     * @param S GaloisFieldElem.
+     * @return [ gcd(this,S), a, b ] with a*this + b*S = gcd(this,S).
+     */
+    public GaloisFieldElem[] egcd(GaloisFieldElem S) {
+        GaloisFieldElem[] ret = new GaloisFieldElem[3];
+        ret[0] = null;
+        ret[1] = null;
+        ret[2] = null;
+        if (S == null || S.isZERO()) {
+            ret[0] = this;
+            return ret;
+        }
+        if (isZERO()) {
+            ret[0] = S;
+            return ret;
+        }
+        ret[0] = ring.getONE();
+        ret[1] = this.inverse();
+        ret[2] = ring.getZERO();
+        return ret;
+    }
+
+}
@@ -0,0 +1,865 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.kern.StringUtil;
+import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Galois field GF(p<sup>k</sup>) factory with RingFactory interface.
+ * Effectively immutable. The field is defined by the first primitive
+ * polynomial f of degree k over Z/p in lexicographical order, so the
+ * generator a is a root of f and generates the multiplicative group. Elements
+ * are polynomials in a of degree less than k, packed as long with base p
+ * digits. For fields with at most <code>TABLE_SIZE</code> elements the
+ * arithmetic uses exponent, logarithm and Zech logarithm tables, for larger
+ * fields packed polynomial arithmetic modulo f is used.
+ * @author Heinz Kredel
+ */
+
+public final class GaloisFieldRing implements RingFactory<GaloisFieldElem>, Iterable<GaloisFieldElem> {
+
+
+    private static final Logger logger = LogManager.getLogger(GaloisFieldRing.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Maximal field size with table arithmetic.
+     */
+    public static final int TABLE_SIZE = 1 << 20;
+
+
+    /**
+     * Characteristic.
+     */
+    public final long p;
+
+
+    /**
+     * Extension degree over Z/p.
+     */
+    public final int k;
+
+
+    /**
+     * Number of elements p<sup>k</sup>.
+     */
+    public final long size;
+
+
+    /**
+     * Name of the generator.
+     */
+    public final String var;
+
+
+    /**
+     * Coefficients f_0, ..., f_{k-1} of the monic defining polynomial.
+     */
+    final long[] modul;
+
+
+    /**
+     * Packed representation of f - x<sup>k</sup>.
+     */
+    final long mask;
+
+
+    /**
+     * Powers p<sup>i</sup>, i = 0, ..., k-1.
+     */
+    final long[] pw;
+
+
+    /**
+     * Exponent table, exp[i] = a<sup>i</sup> for 0 &le; i &lt;
+     * 2(size-1), or null.
+     */
+    final int[] exp;
+
+
+    /**
+     * Logarithm table, a<sup>log[v]</sup> = v for v != 0, or null.
+     */
+    final int[] log;
+
+
+    /**
+     * Zech logarithm table, a<sup>zech[d]</sup> = 1 + a<sup>d</sup> or -1 if 1
+     * + a<sup>d</sup> = 0, or null.
+     */
+    final int[] zech;
+
+
+    /**
+     * The constant 0.
+     */
+    final GaloisFieldElem ZERO;
+
+
+    /**
+     * The constant 1.
+     */
+    final GaloisFieldElem ONE;
+
+
+    private final static Random random = new Random();
+
+
+    /**
+     * The constructor creates a GaloisFieldRing object with generator name
+     * "a".
+     * @param p prime characteristic.
+     * @param k extension degree.
+     */
+    public GaloisFieldRing(long p, int k) {
+        this(p, k, "a");
+    }
+
+
+    /**
+     * The constructor creates a GaloisFieldRing object.
+     * @param p prime characteristic, p &le; 2<sup>31</sup>-1.
+     * @param k extension degree, p<sup>k</sup> &lt; 2<sup>63</sup>.
+     * @param var name of the generator.
+     */
+    public GaloisFieldRing(long p, int k, String var) {
+        if (p < 2L || p > Integer.MAX_VALUE || !java.math.BigInteger.valueOf(p).isProbablePrime(32)) {
+            throw new IllegalArgumentException("characteristic must be a prime < 2^31: " + p);
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("extension degree must be positive: " + k);
+        }
+        this.p = p;
+        this.k = k;
+        this.var = var;
+        pw = new long[k];
+        long s = 1L;
+        try {
+            for (int i = 0; i < k; i++) {
+                pw[i] = s;
+                s = Math.multiplyExact(s, p);
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("field size " + p + "^" + k + " too large");
+        }
+        size = s;
+        modul = primitivePolynomial();
+        mask = pack(modul);
+        if (size <= TABLE_SIZE) {
+            int n = (int) (size - 1L);
+            exp = new int[2 * n];
+            log = new int[(int) size];
+            zech = new int[n];
+            long x = generatorVal();
+            long v = 1L;
+            for (int i = 0; i < n; i++) {
+                exp[i] = (int) v;
+                exp[i + n] = (int) v;
+                log[(int) v] = i;
+                v = multiplyPoly(v, x, modul, mask);
+            }
+            for (int d = 0; d < n; d++) {
+                long w = sumPoly(1L, exp[d]);
+                zech[d] = (w == 0L ? -1 : log[(int) w]);
+            }
+        } else {
+            exp = null;
+            log = null;
+            zech = null;
+        }
+        ZERO = new GaloisFieldElem(this, 0L);
+        ONE = new GaloisFieldElem(this, 1L);
+        if (debug) {
+            logger.debug("GF(" + p + "^" + k + ") defined by " + java.util.Arrays.toString(modul));
+        }
+    }
+
+
+    /**
+     * Search the first primitive polynomial of degree k.
+     * @return coefficients f_0, ..., f_{k-1} of the monic primitive
+     *         polynomial.
+     */
+    private long[] primitivePolynomial() {
+        long n = size - 1L;
+        Set<java.math.BigInteger> P = PrimeInteger.factors(java.math.BigInteger.valueOf(n)).keySet();
+        long[] es = new long[P.size()];
+        int j = 0;
+        for (java.math.BigInteger r : P) {
+            es[j++] = n / r.longValue();
+        }
+        for (long v = 1L; v < size; v++) {
+            if (v % p == 0L) { // f_0 == 0
+                continue;
+            }
+            long[] f = unpack(v);
+            long x = (k > 1 ? p : (p - f[0]) % p);
+            if (powerPoly(x, n, f, v) != 1L) {
+                continue;
+            }
+            boolean primitive = true;
+            for (long e : es) {
+                if (powerPoly(x, e, f, v) == 1L) {
+                    primitive = false;
+                    break;
+                }
+            }
+            if (primitive) {
+                return f;
+            }
+        }
+        throw new ArithmeticException("no primitive polynomial found for GF(" + p + "^" + k + ")");
+    }
+
+
+    /**
+     * Packed value of the generator.
+     * @return a as packed value.
+     */
+    long generatorVal() {
+        return (k > 1 ? p : (p - modul[0]) % p);
+    }
+
+
+    /**
+     * Unpack to coefficients.
+     * @param v packed value.
+     * @return coefficients c_0, ..., c_{k-1} of v.
+     */
+    long[] unpack(long v) {
+        long[] c = new long[k];
+        for (int i = 0; i < k; i++) {
+            c[i] = v % p;
+            v /= p;
+        }
+        return c;
+    }
+
+
+    /**
+     * Pack coefficients.
+     * @param c coefficients c_0, ..., c_{k-1} in [0, p).
+     * @return packed value of c.
+     */
+    long pack(long[] c) {
+        long v = 0L;
+        for (int i = k - 1; i >= 0; i--) {
+            v = v * p + c[i];
+        }
+        return v;
+    }
+
+
+    /**
+     * Packed polynomial sum.
+     * @param a packed value.
+     * @param b packed value.
+     * @return a + b.
+     */
+    long sumPoly(long a, long b) {
+        if (p == 2L) {
+            return a ^ b;
+        }
+        long v = 0L;
+        for (int i = 0; i < k && (a != 0L || b != 0L); i++) {
+            long s = a % p + b % p;
+            if (s >= p) {
+                s -= p;
+            }
+            v += s * pw[i];
+            a /= p;
+            b /= p;
+        }
+        return v;
+    }
+
+
+    /**
+     * Packed polynomial negation.
+     * @param a packed value.
+     * @return -a.
+     */
+    long negatePoly(long a) {
+        if (p == 2L) {
+            return a;
+        }
+        long v = 0L;
+        for (int i = 0; i < k && a != 0L; i++) {
+            long s = a % p;
+            if (s != 0L) {
+                v += (p - s) * pw[i];
+            }
+            a /= p;
+        }
+        return v;
+    }
+
+
+    /**
+     * Packed polynomial product modulo f.
+     * @param a packed value.
+     * @param b packed value.
+     * @param f coefficients of monic polynomial of degree k.
+     * @param fm packed value of f - x<sup>k</sup>.
+     * @return a * b mod f.
+     */
+    long multiplyPoly(long a, long b, long[] f, long fm) {
+        if (p == 2L) { // shift and add
+            long top = 1L << k;
+            long r = 0L;
+            for (int i = k - 1; i >= 0; i--) {
+                r <<= 1;
+                if ((r & top) != 0L) {
+                    r ^= top ^ fm;
+                }
+                if (((b >>> i) & 1L) != 0L) {
+                    r ^= a;
+                }
+            }
+            return r;
+        }
+        long[] x = unpack(a);
+        long[] y = unpack(b);
+        long[] c = new long[2 * k - 1];
+        for (int i = 0; i < k; i++) {
+            if (x[i] == 0L) {
+                continue;
+            }
+            for (int j = 0; j < k; j++) {
+                c[i + j] = (c[i + j] + x[i] * y[j]) % p;
+            }
+        }
+        for (int i = 2 * k - 2; i >= k; i--) {
+            long t = c[i];
+            if (t == 0L) {
+                continue;
+            }
+            for (int j = 0; j < k; j++) {
+                c[i - k + j] = (c[i - k + j] + t * (p - f[j])) % p;
+            }
+        }
+        long v = 0L;
+        for (int i = k - 1; i >= 0; i--) {
+            v = v * p + c[i];
+        }
+        return v;
+    }
+
+
+    /**
+     * Packed polynomial power modulo f.
+     * @param a packed value.
+     * @param e exponent &ge; 0.
+     * @param f coefficients of monic polynomial of degree k.
+     * @param fm packed value of f - x<sup>k</sup>.
+     * @return a<sup>e</sup> mod f.
+     */
+    long powerPoly(long a, long e, long[] f, long fm) {
+        long r = 1L;
+        while (e > 0L) {
+            if ((e & 1L) != 0L) {
+                r = multiplyPoly(r, a, f, fm);
+            }
+            e >>>= 1;
+            if (e > 0L) {
+                a = multiplyPoly(a, a, f, fm);
+            }
+        }
+        return r;
+    }
+
+
+    /**
+     * Field sum of packed values.
+     * @param a packed value.
+     * @param b packed value.
+     * @return a + b.
+     */
+    public long sum(long a, long b) {
+        if (p == 2L) {
+            return a ^ b;
+        }
+        if (a == 0L) {
+            return b;
+        }
+        if (b == 0L) {
+            return a;
+        }
+        if (zech == null) {
+            return sumPoly(a, b);
+        }
+        int i = log[(int) a];
+        int d = log[(int) b] - i;
+        if (d < 0) {
+            d += zech.length;
+        }
+        int z = zech[d];
+        if (z < 0) {
+            return 0L;
+        }
+        return exp[i + z];
+    }
+
+
+    /**
+     * Field negation of a packed value.
+     * @param a packed value.
+     * @return -a.
+     */
+    public long negate(long a) {
+        if (a == 0L || p == 2L) {
+            return a;
+        }
+        if (exp == null) {
+            return negatePoly(a);
+        }
+        return exp[log[(int) a] + zech.length / 2]; // -1 = a^((q-1)/2)
+    }
+
+
+    /**
+     * Field difference of packed values.
+     * @param a packed value.
+     * @param b packed value.
+     * @return a - b.
+     */
+    public long subtract(long a, long b) {
+        return sum(a, negate(b));
+    }
+
+
+    /**
+     * Field product of packed values.
+     * @param a packed value.
+     * @param b packed value.
+     * @return a * b.
+     */
+    public long multiply(long a, long b) {
+        if (a == 0L || b == 0L) {
+            return 0L;
+        }
+        if (exp == null) {
+            return multiplyPoly(a, b, modul, mask);
+        }
+        return exp[log[(int) a] + log[(int) b]];
+    }
+
+
+    /**
+     * Field inverse of a packed value.
+     * @param a packed value.
+     * @return 1/a.
+     */
+    public long inverse(long a) {
+        if (a == 0L) {
+            throw new NotInvertibleException("zero is not invertible");
+        }
+        if (exp == null) {
+            return powerPoly(a, size - 2L, modul, mask);
+        }
+        return exp[zech.length - log[(int) a]];
+    }
+
+
+    /**
+     * Field power of a packed value.
+     * @param a packed value.
+     * @param e exponent.
+     * @return a<sup>e</sup>.
+     */
+    public long power(long a, long e) {
+        if (e == 0L) {
+            return 1L;
+        }
+        long n = size - 1L;
+        if (e < 0L) {
+            a = inverse(a);
+            e = -(e % n); // no overflow for Long.MIN_VALUE
+        }
+        if (a == 0L) {
+            return 0L;
+        }
+        e = e % n;
+        if (exp == null) {
+            return powerPoly(a, e, modul, mask);
+        }
+        return exp[(int) ((log[(int) a] * e) % n)];
+    }
+
+
+    /**
+     * Query if arithmetic uses exponent and logarithm tables.
+     * @return true if tables are used, else false.
+     */
+    public boolean hasTables() {
+        return exp != null;
+    }
+
+
+    /**
+     * Get the defining polynomial.
+     * @return coefficients f_0, ..., f_k of the defining polynomial, f_k = 1.
+     */
+    public long[] getModul() {
+        long[] f = new long[k + 1];
+        System.arraycopy(modul, 0, f, 0, k);
+        f[k] = 1L;
+        return f;
+    }
+
+
+    /**
+     * Get the generator.
+     * @return a as GaloisFieldElem.
+     */
+    public GaloisFieldElem getGenerator() {
+        return new GaloisFieldElem(this, generatorVal());
+    }
+
+
+    /**
+     * Create GaloisFieldElem from coefficients.
+     * @param c coefficients c_0, c_1, ... of a polynomial in a.
+     * @return c_0 + c_1 a + c_2 a<sup>2</sup> + ....
+     */
+    public GaloisFieldElem create(long[] c) {
+        return new GaloisFieldElem(this, c);
+    }
+
+
+    /**
+     * Copy GaloisFieldElem element c.
+     * @param c
+     * @return a copy of c.
+     */
+    public GaloisFieldElem copy(GaloisFieldElem c) {
+        return new GaloisFieldElem(this, c.val);
+    }
+
+
+    /**
+     * Get the zero element.
+     * @return 0 as GaloisFieldElem.
+     */
+    public GaloisFieldElem getZERO() {
+        return ZERO;
+    }
+
+
+    /**
+     * Get the one element.
+     * @return 1 as GaloisFieldElem.
+     */
+    public GaloisFieldElem getONE() {
+        return ONE;
+    }
+
+
+    /**
+     * Get a list of the generating elements.
+     * @return list of generators for the algebraic structure.
+     * @see edu.jas.structure.ElemFactory#generators()
+     */
+    public List<GaloisFieldElem> generators() {
+        List<GaloisFieldElem> g = new ArrayList<GaloisFieldElem>(2);
+        g.add(getONE());
+        if (k > 1) {
+            g.add(getGenerator());
+        }
+        return g;
+    }
+
+
+    /**
+     * Is this structure finite or infinite.
+     * @return true if this structure is finite, else false.
+     * @see edu.jas.structure.ElemFactory#isFinite()
+     */
+    public boolean isFinite() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is commutative.
+     * @return true.
+     */
+    public boolean isCommutative() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is associative.
+     * @return true.
+     */
+    public boolean isAssociative() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is a field.
+     * @return true.
+     */
+    public boolean isField() {
+        return true;
+    }
+
+
+    /**
+     * Characteristic of this ring.
+     * @return characteristic of this ring.
+     */
+    public java.math.BigInteger characteristic() {
+        return java.math.BigInteger.valueOf(p);
+    }
+
+
+    /**
+     * Get a GaloisFieldElem element from a BigInteger value.
+     * @param a BigInteger.
+     * @return a mod p as GaloisFieldElem.
+     */
+    public GaloisFieldElem fromInteger(java.math.BigInteger a) {
+        return new GaloisFieldElem(this, a.mod(java.math.BigInteger.valueOf(p)).longValue());
+    }
+
+
+    /**
+     * Get a GaloisFieldElem element from a long value.
+     * @param a long.
+     * @return a mod p as GaloisFieldElem.
+     */
+    public GaloisFieldElem fromInteger(long a) {
+        long v = a % p;
+        if (v < 0L) {
+            v += p;
+        }
+        return new GaloisFieldElem(this, v);
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GF(" + p + "^" + k + ")";
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.ElemFactory#toScript()
+     */
+    @Override
+    public String toScript() {
+        // Python and Ruby case
+        return "GF(" + p + "**" + k + ")";
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object b) {
+        if (!(b instanceof GaloisFieldRing)) {
+            return false;
+        }
+        GaloisFieldRing m = (GaloisFieldRing) b;
+        return (p == m.p && k == m.k);
+    }
+
+
+    /**
+     * Hash code for this GaloisFieldRing.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return (int) (37L * p + k);
+    }
+
+
+    /**
+     * GaloisFieldElem random.
+     * @param n unused, the elements are uniformly distributed.
+     * @return a random element.
+     */
+    public GaloisFieldElem random(int n) {
+        return random(n, random);
+    }
+
+
+    /**
+     * GaloisFieldElem random.
+     * @param n unused, the elements are uniformly distributed.
+     * @param rnd is a source for random bits.
+     * @return a random element.
+     */
+    public GaloisFieldElem random(int n, Random rnd) {
+        long v = (rnd.nextLong() >>> 1) % size;
+        return new GaloisFieldElem(this, v);
+    }
+
+
+    /**
+     * Parse GaloisFieldElem from String. Elements are integers or sums of
+     * terms <code>c*a^e</code>, with optional coefficient, '*' and exponent.
+     * @param s String.
+     * @return GaloisFieldElem from s.
+     */
+    public GaloisFieldElem parse(String s) {
+        StringBuffer sb = new StringBuffer();
+        for (char c : s.toCharArray()) {
+            if (!Character.isWhitespace(c) && "{}()[]".indexOf(c) < 0) {
+                sb.append(c);
+            }
+        }
+        String t = sb.toString();
+        if (t.length() == 0) {
+            throw new NumberFormatException("empty element");
+        }
+        java.math.BigInteger P = java.math.BigInteger.valueOf(p);
+        long v = 0L;
+        int i = 0;
+        while (i < t.length()) {
+            boolean neg = false;
+            while (i < t.length() && (t.charAt(i) == '+' || t.charAt(i) == '-')) {
+                neg ^= (t.charAt(i) == '-');
+                i++;
+            }
+            int j = i;
+            while (j < t.length() && Character.isDigit(t.charAt(j))) {
+                j++;
+            }
+            long c = 1L;
+            if (j > i) {
+                c = new java.math.BigInteger(t.substring(i, j)).mod(P).longValue();
+            }
+            long e = 0L;
+            if (j < t.length() && t.charAt(j) == '*') {
+                j++;
+            }
+            if (t.startsWith(var, j)) {
+                j += var.length();
+                e = 1L;
+                if (j < t.length() && t.charAt(j) == '^') {
+                    int l = ++j;
+                    while (j < t.length() && Character.isDigit(t.charAt(j))) {
+                        j++;
+                    }
+                    if (j == l) {
+                        throw new NumberFormatException("missing exponent in " + s);
+                    }
+                    e = Long.parseLong(t.substring(l, j));
+                }
+            } else if (j == i) {
+                throw new NumberFormatException("not an element of " + this + ": " + s);
+            }
+            long m = multiply(c, power(generatorVal(), e));
+            v = (neg ? subtract(v, m) : sum(v, m));
+            i = j;
+        }
+        return new GaloisFieldElem(this, v);
+    }
+
+
+    /**
+     * Parse GaloisFieldElem from Reader.
+     * @param r Reader.
+     * @return next GaloisFieldElem from r.
+     */
+    public GaloisFieldElem parse(Reader r) {
+        return parse(StringUtil.nextString(r));
+    }
+
+
+    /**
+     * Get a GaloisFieldElem iterator.
+     * @return a iterator over all elements of this field.
+     */
+    public Iterator<GaloisFieldElem> iterator() {
+        return new GaloisFieldIterator(this);
+    }
+
+}
+
+
+/**
+ * Galois field iterator.
+ * @author Heinz Kredel
+ */
+class GaloisFieldIterator implements Iterator<GaloisFieldElem> {
+
+
+    /**
+     * data structure.
+     */
+    long curr;
+
+
+    final GaloisFieldRing ring;
+
+
+    /**
+     * GaloisFieldElem iterator constructor.
+     * @param fac Galois field factory;
+     */
+    public GaloisFieldIterator(GaloisFieldRing fac) {
+        curr = 0L;
+        ring = fac;
+    }
+
+
+    /**
+     * Test for availability of a next element.
+     * @return true if the iteration has more elements, else false.
+     */
+    public synchronized boolean hasNext() {
+        return curr < ring.size;
+    }
+
+
+    /**
+     * Get next element.
+     * @return next element.
+     */
+    public synchronized GaloisFieldElem next() {
+        GaloisFieldElem i = new GaloisFieldElem(ring, curr);
+        curr++;
+        return i;
+    }
+
+
+    /**
+     * Remove an element if allowed.
+     */
+    public void remove() {
+        throw new UnsupportedOperationException("cannnot remove elements");
+    }
+}
@@ -54,6 +54,19 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
     }
 
 
+    /**
+     * The constructor creates a ModLong object from a ModLongRing and a
+     * reduced long value part.
+     * @param m ModLongRing.
+     * @param a long with 0 &le; a &lt; m.modul.
+     * @param reduced unused, distinguishes this constructor.
+     */
+    ModLong(ModLongRing m, long a, boolean reduced) {
+        ring = m;
+        val = a;
+    }
+
+
     /**
      * The constructor creates a ModLong object from a ModLongRing and a Long
      * value part.
@@ -118,7 +131,7 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
      * @return val with -modul/2 <= val < modul/2.
      */
     public long getSymmetricVal() {
-        if ((val + val) > ring.modul) {
+        if (val > ring.modul - val) {
             // val > m/2 as 2*val > m, make symmetric to 0
             return val - ring.modul;
         }
@@ -141,7 +154,7 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
      */
     public BigInteger getSymmetricInteger() {
         long v = val;
-        if ((val + val) > ring.modul) {
+        if (val > ring.modul - val) {
             // val > m/2 as 2*val > m, make symmetric to 0
             v = val - ring.modul;
         }
@@ -310,7 +323,7 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
      * @return this-S.
      */
     public ModLong subtract(ModLong S) {
-        return new ModLong(ring, val - S.val);
+        return new ModLong(ring, ring.subtract(val, S.val), true);
     }
 
 
@@ -378,7 +391,7 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
      * @return this*S.
      */
     public ModLong multiply(ModLong S) {
-        return new ModLong(ring, val * S.val);
+        return new ModLong(ring, ring.multiply(val, S.val), true);
     }
 
 
@@ -388,7 +401,7 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
      * @return this+S.
      */
     public ModLong sum(ModLong S) {
-        return new ModLong(ring, val + S.val);
+        return new ModLong(ring, ring.sum(val, S.val), true);
     }
 
 
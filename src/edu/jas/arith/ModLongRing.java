@@ -16,6 +16,11 @@ import edu.jas.kern.StringUtil;
 
 /**
  * ModLongRing factory with RingFactory interface. Effectively immutable.
+ * Moduli up to <code>MAX_DIRECT_MODUL</code> multiply residues directly
+ * with long arithmetic. Larger odd moduli up to 2<sup>63</sup>-1 use
+ * Montgomery reduction of the 128 bit products, residues are converted to
+ * and from Montgomery form within <code>multiply()</code>, so
+ * <code>ModLong.val</code> is always the canonical residue.
  * @author Heinz Kredel
  */
 
@@ -53,6 +58,32 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
                     String.valueOf(Integer.MAX_VALUE)); // not larger!
 
 
+    /**
+     * maximal modul, Montgomery or shift multiplication beyond
+     * MAX_DIRECT_MODUL.
+     */
+    public final static java.math.BigInteger MAX_LONG_MODUL = java.math.BigInteger.valueOf(Long.MAX_VALUE);
+
+
+    /**
+     * maximal modul with products of residues representable as long.
+     */
+    public final static long MAX_DIRECT_MODUL = 3037000500L; // (m-1)^2 < 2^63
+
+
+    /**
+     * Montgomery constant -modul<sup>-1</sup> mod 2<sup>64</sup>, or 0 if
+     * not used.
+     */
+    private final long minv;
+
+
+    /**
+     * Montgomery constant 2<sup>128</sup> mod modul.
+     */
+    private final long r2;
+
+
     /**
      * The constructor creates a ModLongRing object from a long integer as
      * module part.
@@ -60,6 +91,8 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
      */
     public ModLongRing(long m) {
         modul = m;
+        minv = montgomeryInverse(m);
+        r2 = (minv == 0L ? 0L : shiftMultiply(shiftMultiply(1L, -m, m), -m, m)); // 2^128 mod m
     }
 
 
@@ -70,7 +103,7 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
      * @param isField indicator if m is prime.
      */
     public ModLongRing(long m, boolean isField) {
-        modul = m;
+        this(m);
         this.isField = (isField ? 1 : 0);
     }
 
@@ -103,9 +136,9 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
      */
     public ModLongRing(java.math.BigInteger m) {
         this(m.longValue());
-        if (MAX_LONG.compareTo(m) < 0) { // m > max
-            //System.out.println("modul to large for long " + m + ",max=" + MAX_LONG);
-            throw new IllegalArgumentException("modul to large for long " + m + ", max=" + MAX_LONG);
+        if (MAX_LONG_MODUL.compareTo(m) < 0) { // m > max
+            //System.out.println("modul to large for long " + m + ",max=" + MAX_LONG_MODUL);
+            throw new IllegalArgumentException("modul to large for long " + m + ", max=" + MAX_LONG_MODUL);
         }
     }
 
@@ -118,9 +151,9 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
      */
     public ModLongRing(java.math.BigInteger m, boolean isField) {
         this(m.longValue(), isField);
-        if (MAX_LONG.compareTo(m) < 0) { // m > max
-            //System.out.println("modul to large for long " + m + ",max=" + MAX_LONG);
-            throw new IllegalArgumentException("modul to large for long " + m + ", max=" + MAX_LONG);
+        if (MAX_LONG_MODUL.compareTo(m) < 0) { // m > max
+            //System.out.println("modul to large for long " + m + ",max=" + MAX_LONG_MODUL);
+            throw new IllegalArgumentException("modul to large for long " + m + ", max=" + MAX_LONG_MODUL);
         }
     }
 
@@ -146,6 +179,136 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
     }
 
 
+    /**
+     * Montgomery inverse.
+     * @param m modul.
+     * @return -m<sup>-1</sup> mod 2<sup>64</sup> if m is odd and larger than
+     *         MAX_DIRECT_MODUL, else 0.
+     */
+    static long montgomeryInverse(long m) {
+        if (m <= MAX_DIRECT_MODUL || (m & 1L) == 0L) {
+            return 0L;
+        }
+        long x = m; // correct to 3 bits
+        for (int i = 0; i < 5; i++) {
+            x *= 2L - m * x; // Newton iteration doubles correct bits
+        }
+        return -x;
+    }
+
+
+    /**
+     * Modular product of residues.
+     * @param a residue in [0,modul).
+     * @param b residue in [0,modul).
+     * @return a*b mod modul.
+     */
+    public long multiply(long a, long b) {
+        if (modul <= MAX_DIRECT_MODUL) {
+            return (a * b) % modul;
+        }
+        if (minv == 0L) { // even modul
+            return shiftMultiply(a, b, modul);
+        }
+        // a*b*2^-64 then (a*b*2^-64)*2^128*2^-64
+        long t = redc(multiplyHighUnsigned(a, b), a * b);
+        return redc(multiplyHighUnsigned(t, r2), t * r2);
+    }
+
+
+    /**
+     * Modular sum of residues.
+     * @param a residue in [0,modul).
+     * @param b residue in [0,modul).
+     * @return a+b mod modul.
+     */
+    public long sum(long a, long b) {
+        long s = a + b; // < 2^64 unsigned
+        if (Long.compareUnsigned(s, modul) >= 0) {
+            s -= modul;
+        }
+        return s;
+    }
+
+
+    /**
+     * Modular difference of residues.
+     * @param a residue in [0,modul).
+     * @param b residue in [0,modul).
+     * @return a-b mod modul.
+     */
+    public long subtract(long a, long b) {
+        long s = a - b;
+        if (s < 0L) {
+            s += modul;
+        }
+        return s;
+    }
+
+
+    /**
+     * Montgomery reduction.
+     * @param hi high 64 bits of x &lt; modul*2^64.
+     * @param lo low 64 bits of x.
+     * @return x*2<sup>-64</sup> mod modul.
+     */
+    private long redc(long hi, long lo) {
+        long m = lo * minv; // x + m*modul = 0 mod 2^64
+        long t = hi + multiplyHighUnsigned(m, modul) + (lo != 0L ? 1L : 0L); // < 2 modul
+        if (Long.compareUnsigned(t, modul) >= 0) {
+            t -= modul;
+        }
+        return t;
+    }
+
+
+    /**
+     * High part of unsigned product.
+     * @param a unsigned long.
+     * @param b unsigned long.
+     * @return the high 64 bits of the 128 bit product a*b.
+     */
+    static long multiplyHighUnsigned(long a, long b) {
+        long a0 = a & 0xFFFFFFFFL;
+        long a1 = a >>> 32;
+        long b0 = b & 0xFFFFFFFFL;
+        long b1 = b >>> 32;
+        long p00 = a0 * b0;
+        long p01 = a0 * b1;
+        long p10 = a1 * b0;
+        long mid = (p00 >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+        return a1 * b1 + (p01 >>> 32) + (p10 >>> 32) + (mid >>> 32);
+    }
+
+
+    /**
+     * Modular product by doubling and adding.
+     * @param a unsigned long.
+     * @param b unsigned long.
+     * @param m modul &lt; 2^63.
+     * @return a*b mod m.
+     */
+    static long shiftMultiply(long a, long b, long m) {
+        a = Long.remainderUnsigned(a, m);
+        b = Long.remainderUnsigned(b, m);
+        long r = 0L;
+        while (b != 0L) {
+            if ((b & 1L) != 0L) {
+                r += a; // < 2^64 unsigned
+                if (Long.compareUnsigned(r, m) >= 0) {
+                    r -= m;
+                }
+            }
+            a += a;
+            if (Long.compareUnsigned(a, m) >= 0) {
+                a -= m;
+            }
+            b >>>= 1;
+        }
+        return r;
+    }
+
+
     /**
      * Get the module part as BigInteger.
      * @return modul.
@@ -453,7 +616,7 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
      * @return L list of congruences.
      */
     public static List<ModLong> chineseRemainder(ModLong m1, ModLong m2, List<ModLong> L1, List<ModLong> L2) {
-        long mm = m1.ring.modul * m2.ring.modul;
+        long mm = Math.multiplyExact(m1.ring.modul, m2.ring.modul);
         ModLongRing m = new ModLongRing(mm);
         ModLong m21 = m2.ring.fromInteger(m1.ring.modul);
         ModLong mi1 = m21.inverse();
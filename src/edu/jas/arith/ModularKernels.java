@@ -0,0 +1,348 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+/**
+ * Kernels for dense vectors of residues modulo word size primes. Vectors are
+ * ranges of long arrays with entries in [0,p). Sums and differences are
+ * reduced without branches, products are accumulated without reduction as
+ * long as the sums can not overflow (lazy reduction). The loops are simple
+ * counted loops over arrays without data dependent branches, so that the
+ * HotSpot compiler can translate them to SIMD instructions of the machine,
+ * and the dot product is unrolled with four independent accumulators.
+ * Products of coefficient ranges, seen as polynomials, and power series
+ * inverses are built from these kernels. They are used by the dense
+ * univariate polynomials in <code>edu.jas.ufd.DenseModUtil</code>, the
+ * subproduct trees <code>edu.jas.poly.SubproductTree</code> and the dense
+ * matrices <code>edu.jas.vector.ModLongMatrix</code>.
+ * @author Heinz Kredel
+ */
+
+public class ModularKernels {
+
+
+    /**
+     * Maximal modulus for products, (p-1)^2 must fit in a long.
+     */
+    public static final long MAX_MODUL = 3037000499L;
+
+
+    /**
+     * Minimal length of both ranges for Karatsuba multiplication.
+     */
+    public static final int KARATSUBA_LENGTH = 32;
+
+
+    /**
+     * Number of products (p-1)^2 which can be added to a value less than p
+     * without overflow.
+     * @param p modulus with 1 &lt; p &le; MAX_MODUL.
+     * @return maximal number of products before a reduction is required.
+     */
+    public static long delay(long p) {
+        if (p < 2L) {
+            throw new IllegalArgumentException("modulus must be greater than 1: " + p);
+        }
+        if (p > MAX_MODUL) {
+            throw new IllegalArgumentException("modulus too large: " + p);
+        }
+        long p1 = p - 1L;
+        if (p1 == 1L) {
+            return Long.MAX_VALUE - p;
+        }
+        return (Long.MAX_VALUE - p) / (p1 * p1);
+    }
+
+
+    /**
+     * Sum of vectors, c = a + b mod p. c may be a or b.
+     * @param a summand.
+     * @param oa offset in a.
+     * @param b summand.
+     * @param ob offset in b.
+     * @param c result.
+     * @param oc offset in c.
+     * @param n length.
+     * @param p modulus &lt; 2^62.
+     */
+    public static void sum(long[] a, int oa, long[] b, int ob, long[] c, int oc, int n, long p) {
+        for (int i = 0; i < n; i++) {
+            long s = a[oa + i] + b[ob + i] - p;
+            c[oc + i] = s + ((s >> 63) & p);
+        }
+    }
+
+
+    /**
+     * Difference of vectors, c = a - b mod p. c may be a or b.
+     * @param a minuend.
+     * @param oa offset in a.
+     * @param b subtrahend.
+     * @param ob offset in b.
+     * @param c result.
+     * @param oc offset in c.
+     * @param n length.
+     * @param p modulus &lt; 2^62.
+     */
+    public static void subtract(long[] a, int oa, long[] b, int ob, long[] c, int oc, int n, long p) {
+        for (int i = 0; i < n; i++) {
+            long s = a[oa + i] - b[ob + i];
+            c[oc + i] = s + ((s >> 63) & p);
+        }
+    }
+
+
+    /**
+     * Product with a scalar, c = f a mod p. c may be a.
+     * @param f scalar in [0,p).
+     * @param a vector.
+     * @param oa offset in a.
+     * @param c result.
+     * @param oc offset in c.
+     * @param n length.
+     * @param p modulus &le; MAX_MODUL.
+     */
+    public static void scale(long f, long[] a, int oa, long[] c, int oc, int n, long p) {
+        for (int i = 0; i < n; i++) {
+            c[oc + i] = (f * a[oa + i]) % p;
+        }
+    }
+
+
+    /**
+     * Lazy axpy, y = y + f x without reduction. The caller must reduce y
+     * before more than delay(p) products are accumulated.
+     * @param f scalar in [0,p).
+     * @param x vector.
+     * @param ox offset in x.
+     * @param y accumulator.
+     * @param oy offset in y.
+     * @param n length.
+     */
+    public static void axpy(long f, long[] x, int ox, long[] y, int oy, int n) {
+        for (int i = 0; i < n; i++) {
+            y[oy + i] += f * x[ox + i];
+        }
+    }
+
+
+    /**
+     * Reduced axpy, y = y + f x mod p.
+     * @param f scalar in [0,p).
+     * @param x vector.
+     * @param ox offset in x.
+     * @param y vector.
+     * @param oy offset in y.
+     * @param n length.
+     * @param p modulus &le; MAX_MODUL.
+     */
+    public static void axpy(long f, long[] x, int ox, long[] y, int oy, int n, long p) {
+        for (int i = 0; i < n; i++) {
+            y[oy + i] = (y[oy + i] + f * x[ox + i]) % p;
+        }
+    }
+
+
+    /**
+     * Reduce a vector of non negative accumulators, y = y mod p.
+     * @param y vector.
+     * @param oy offset in y.
+     * @param n length.
+     * @param p modulus.
+     */
+    public static void reduce(long[] y, int oy, int n, long p) {
+        for (int i = 0; i < n; i++) {
+            y[oy + i] %= p;
+        }
+    }
+
+
+    /**
+     * Dot product with delayed reduction.
+     * @param a vector.
+     * @param oa offset in a.
+     * @param b vector.
+     * @param ob offset in b.
+     * @param n length.
+     * @param p modulus &le; MAX_MODUL.
+     * @return sum_i a[oa+i] b[ob+i] mod p.
+     */
+    public static long dot(long[] a, int oa, long[] b, int ob, int n, long p) {
+        // each of the 4 accumulators takes at most d products per block
+        long d = Math.min(delay(p), 1L << 24);
+        int bl = (int) (4L * d);
+        long s0 = 0L, s1 = 0L, s2 = 0L, s3 = 0L;
+        for (int k = 0; k < n; k += bl) {
+            int e = Math.min(n, k + bl);
+            int i = k;
+            for (; i + 3 < e; i += 4) {
+                s0 += a[oa + i] * b[ob + i];
+                s1 += a[oa + i + 1] * b[ob + i + 1];
+                s2 += a[oa + i + 2] * b[ob + i + 2];
+                s3 += a[oa + i + 3] * b[ob + i + 3];
+            }
+            if (i < e) {
+                s0 += a[oa + i] * b[ob + i];
+            }
+            if (i + 1 < e) {
+                s1 += a[oa + i + 1] * b[ob + i + 1];
+            }
+            if (i + 2 < e) {
+                s2 += a[oa + i + 2] * b[ob + i + 2];
+            }
+            s0 %= p;
+            s1 %= p;
+            s2 %= p;
+            s3 %= p;
+        }
+        return (s0 + s1 + s2 + s3) % p;
+    }
+
+
+    /**
+     * Inverse modulo p.
+     * @param a residue with gcd(a,p) == 1.
+     * @param p modulus.
+     * @return b with a b == 1 mod p.
+     */
+    public static long inverse(long a, long p) {
+        long r0 = p, r1 = a % p;
+        long s0 = 0L, s1 = 1L;
+        while (r1 != 0L) {
+            long q = r0 / r1;
+            long t = r0 - q * r1;
+            r0 = r1;
+            r1 = t;
+            t = s0 - q * s1;
+            s0 = s1;
+            s1 = t;
+        }
+        if (r0 != 1L) {
+            throw new ArithmeticException("element not invertible " + a + " mod " + p);
+        }
+        return s0 < 0L ? s0 + p : s0;
+    }
+
+
+    /**
+     * Product of coefficient ranges. Computes (sum_{i&lt;la} a[oa+i] x^i)
+     * (sum_{j&lt;lb} b[ob+j] x^j) without normalization. Karatsuba
+     * multiplication for long ranges, schoolbook multiplication with dot
+     * products below KARATSUBA_LENGTH.
+     * @param a coefficients.
+     * @param oa offset in a.
+     * @param la length of the range in a.
+     * @param b coefficients.
+     * @param ob offset in b.
+     * @param lb length of the range in b.
+     * @param p modulus &le; MAX_MODUL.
+     * @return coefficients of the product, of length la + lb - 1.
+     */
+    public static long[] multiply(long[] a, int oa, int la, long[] b, int ob, int lb, long p) {
+        if (la == 0 || lb == 0) {
+            return new long[0];
+        }
+        if (la < KARATSUBA_LENGTH || lb < KARATSUBA_LENGTH) {
+            return multiplySchool(a, oa, la, b, ob, lb, p);
+        }
+        int h = (Math.max(la, lb) + 1) / 2;
+        if (la <= h || lb <= h) { // unbalanced, split the longer one
+            if (la < lb) {
+                return multiplySplit(b, ob, lb, a, oa, la, p);
+            }
+            return multiplySplit(a, oa, la, b, ob, lb, p);
+        }
+        long[] z0 = multiply(a, oa, h, b, ob, h, p);
+        long[] z2 = multiply(a, oa + h, la - h, b, ob + h, lb - h, p);
+        long[] as = java.util.Arrays.copyOfRange(a, oa, oa + h);
+        sum(as, 0, a, oa + h, as, 0, la - h, p);
+        long[] bs = java.util.Arrays.copyOfRange(b, ob, ob + h);
+        sum(bs, 0, b, ob + h, bs, 0, lb - h, p);
+        long[] z1 = multiply(as, 0, h, bs, 0, h, p);
+        long[] c = new long[la + lb - 1];
+        System.arraycopy(z0, 0, c, 0, z0.length);
+        System.arraycopy(z2, 0, c, 2 * h, z2.length);
+        // z1 = z1 - z0 - z2, z0 and z2 are not longer than z1
+        subtract(z1, 0, z0, 0, z1, 0, z0.length, p);
+        subtract(z1, 0, z2, 0, z1, 0, z2.length, p);
+        sum(c, h, z1, 0, c, h, z1.length, p);
+        return c;
+    }
+
+
+    /**
+     * Product of an unbalanced pair of coefficient ranges with la &gt;= lb.
+     */
+    private static long[] multiplySplit(long[] a, int oa, int la, long[] b, int ob, int lb, long p) {
+        long[] c = new long[la + lb - 1];
+        for (int k = 0; k < la; k += lb) {
+            int l = Math.min(lb, la - k);
+            long[] z = multiply(a, oa + k, l, b, ob, lb, p);
+            sum(c, k, z, 0, c, k, z.length, p);
+        }
+        return c;
+    }
+
+
+    /**
+     * Schoolbook product of coefficient ranges with delayed reduction. The
+     * coefficients of b are reversed, so that every coefficient of the
+     * product is a dot product of contiguous ranges.
+     */
+    private static long[] multiplySchool(long[] a, int oa, int la, long[] b, int ob, int lb, long p) {
+        long[] br = new long[lb];
+        for (int j = 0; j < lb; j++) {
+            br[j] = b[ob + lb - 1 - j];
+        }
+        long[] c = new long[la + lb - 1];
+        for (int k = 0; k < c.length; k++) {
+            int i0 = Math.max(0, k - lb + 1);
+            int i1 = Math.min(k, la - 1);
+            c[k] = dot(a, oa + i0, br, lb - 1 - k + i0, i1 - i0 + 1, p);
+        }
+        return c;
+    }
+
+
+    /**
+     * Truncated product.
+     * @return a b mod x^n.
+     */
+    private static long[] multiplyTrunc(long[] a, long[] b, int n, long p) {
+        int la = Math.min(a.length, n);
+        int lb = Math.min(b.length, n);
+        long[] c = multiply(a, 0, la, b, 0, lb, p);
+        if (c.length > n) {
+            c = java.util.Arrays.copyOf(c, n);
+        }
+        return c;
+    }
+
+
+    /**
+     * Power series inverse.
+     * @param a coefficient array with a[0] != 0.
+     * @param n precision.
+     * @param p prime modulus &le; MAX_MODUL.
+     * @return b with a b == 1 mod x^n.
+     */
+    public static long[] seriesInverse(long[] a, int n, long p) {
+        long[] b = new long[] { inverse(a[0], p) };
+        int k = 1;
+        while (k < n) {
+            k = Math.min(2 * k, n);
+            // b = b (2 - a b) mod x^k
+            long[] e = multiplyTrunc(a, b, k, p);
+            for (int i = 0; i < e.length; i++) {
+                e[i] = e[i] == 0L ? 0L : p - e[i];
+            }
+            e[0] = (e[0] + 2L) % p;
+            b = multiplyTrunc(b, e, k, p);
+        }
+        return java.util.Arrays.copyOf(b, n);
+    }
+
+}
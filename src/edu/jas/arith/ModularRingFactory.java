@@ -5,12 +5,14 @@
 package edu.jas.arith;
 
 
+import java.util.List;
+
 import edu.jas.structure.RingElem;
 import edu.jas.structure.RingFactory;
 
 
 /**
- * Modular ring factory interface. Defines chinese remainder method and get
+ * Modular ring factory interface. Defines chinese remainder methods and get
  * modul method.
  * @author Heinz Kredel
  */
@@ -35,4 +37,15 @@ public interface ModularRingFactory<C extends RingElem<C> & Modular> extends Rin
      */
     public C chineseRemainder(C c, C ci, C a);
 
+
+    /**
+     * Batch chinese remainder algorithm. Assert this.modul = cr.modul.
+     * @param cr chinese remainder tree for the moduli of the elements.
+     * @param a list of modular elements, a.get(i) modulo cr.getModul(i).
+     * @return S, with S mod cr.getModul(i) == a.get(i).
+     */
+    default public C chineseRemainder(ChineseRemainder cr, List<? extends Modular> a) {
+        return fromInteger(cr.combine(a));
+    }
+
 }
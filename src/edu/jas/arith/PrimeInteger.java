@@ -920,7 +920,8 @@ public final class PrimeInteger {
      * Integer factorization. n is a positive integer. F is a list (q(1),
      * q(2),...,q(h)) of the prime factors of n, q(1) le q(2) le ... le q(h),
      * with n equal to the product of the q(i). <br /> In JAS F is a map.
-     * See also SACPRIM.IFACT, uses Pollards rho method.
+     * See also SACPRIM.IFACT, uses Pollards rho method, the elliptic curve
+     * method and the quadratic sieve.
      * @param n integer to factor.
      * @return a map of pairs of numbers (p,e) with p**e divides n.
      */
@@ -930,8 +931,8 @@ public final class PrimeInteger {
         if (n.compareTo(b) > 0) {
             n = smallPrimeDivisors(n, F);
             if (n.compareTo(b) > 0) {
-                logger.info("run factorsPollardRho on n = " + n);
-                factorsPollardRho(n, F); 
+                logger.info("run factorsComposite on n = " + n);
+                factorsComposite(n, F);
                 return F;
             }
         }
@@ -945,6 +946,190 @@ public final class PrimeInteger {
     }
 
 
+    /**
+     * Integer factorization of integers without small prime divisors. The
+     * composite parts are split with divisor() until all parts are probable
+     * primes or less than BETA.
+     * @param n integer to factor.
+     * @param F a map of pairs of numbers (p,e) with p**e divides n and p is
+     *            probable prime, F is modified.
+     */
+    public static void factorsComposite(java.math.BigInteger n, SortedMap<java.math.BigInteger, Integer> F) {
+        java.math.BigInteger b = java.math.BigInteger.valueOf(BETA);
+        List<java.math.BigInteger> parts = new ArrayList<java.math.BigInteger>();
+        List<Integer> exps = new ArrayList<Integer>();
+        parts.add(n);
+        exps.add(1);
+        while (!parts.isEmpty()) {
+            int i = parts.size() - 1;
+            java.math.BigInteger m = parts.remove(i);
+            int e = exps.remove(i);
+            if (m.equals(java.math.BigInteger.ONE)) {
+                continue;
+            }
+            if (m.compareTo(b) <= 0) {
+                for (Map.Entry<Long, Integer> me : factors(m.longValue()).entrySet()) {
+                    addFactor(F, java.math.BigInteger.valueOf(me.getKey()), me.getValue() * e);
+                }
+                continue;
+            }
+            if (m.isProbablePrime(32)) {
+                addFactor(F, m, e);
+                continue;
+            }
+            java.math.BigInteger d = divisor(m);
+            // split m = d^k * r
+            int k = 0;
+            java.math.BigInteger[] qr = m.divideAndRemainder(d);
+            while (qr[1].signum() == 0) {
+                m = qr[0];
+                k++;
+                qr = m.divideAndRemainder(d);
+            }
+            parts.add(d);
+            exps.add(k * e);
+            parts.add(m);
+            exps.add(e);
+        }
+    }
+
+
+    /**
+     * Add a factor to a factorization.
+     * @param F a map of pairs of numbers (p,e), F is modified.
+     * @param p prime factor.
+     * @param e exponent.
+     */
+    static void addFactor(SortedMap<java.math.BigInteger, Integer> F, java.math.BigInteger p, int e) {
+        Integer c = F.get(p);
+        F.put(p, (c == null ? e : c + e));
+    }
+
+
+    /**
+     * Number of iterations of Pollards rho algorithm in divisor().
+     */
+    final static int RHO_ITERATIONS = 20000;
+
+
+    /**
+     * Search a divisor of a composite integer. Tries perfect powers, Pollards
+     * rho algorithm with a bounded number of iterations, the quadratic sieve
+     * for integers up to QuadraticSieve.MAX_BITS bits and the elliptic curve
+     * method with increasing bounds.
+     * @param n composite integer &gt; 1.
+     * @return a divisor d of n with 1 &lt; d &lt; n.
+     */
+    public static java.math.BigInteger divisor(java.math.BigInteger n) {
+        if (!n.testBit(0)) {
+            return java.math.BigInteger.valueOf(2L);
+        }
+        int bits = n.bitLength();
+        for (int e = 2; e <= bits / 13 + 1 || e <= 3; e++) {
+            java.math.BigInteger r = root(n, e);
+            if (r.pow(e).equals(n)) {
+                return r;
+            }
+        }
+        java.math.BigInteger d = rho(n, RHO_ITERATIONS);
+        if (d != null) {
+            return d;
+        }
+        int digits = (int) (bits * Math.log10(2.0)) + 1;
+        if (bits <= QuadraticSieve.MAX_BITS) {
+            if (bits > 100) { // pretest for small factors
+                for (long[] lv : EllipticCurveMethod.LEVELS) {
+                    if (lv[0] > 0.3 * digits) {
+                        break;
+                    }
+                    d = EllipticCurveMethod.divisor(n, lv[1], (int) lv[2]);
+                    if (d != null) {
+                        return d;
+                    }
+                }
+            }
+            logger.info("run quadratic sieve on n = " + n);
+            d = QuadraticSieve.divisor(n);
+            if (d != null) {
+                return d;
+            }
+        }
+        logger.info("run elliptic curve method on n = " + n);
+        long[][] L = EllipticCurveMethod.LEVELS;
+        for (int i = 0; true; i = Math.min(i + 1, L.length - 1)) {
+            d = EllipticCurveMethod.divisor(n, L[i][1], (int) L[i][2]);
+            if (d != null) {
+                return d;
+            }
+        }
+    }
+
+
+    /**
+     * Integer root by Newton iteration.
+     * @param n positive integer.
+     * @param e exponent &gt; 1.
+     * @return floor of the e-th root of n.
+     */
+    static java.math.BigInteger root(java.math.BigInteger n, int e) {
+        java.math.BigInteger E = java.math.BigInteger.valueOf(e);
+        java.math.BigInteger E1 = java.math.BigInteger.valueOf(e - 1);
+        java.math.BigInteger x = java.math.BigInteger.ONE.shiftLeft((n.bitLength() + e - 1) / e);
+        while (true) {
+            java.math.BigInteger y = E1.multiply(x).add(n.divide(x.pow(e - 1))).divide(E);
+            if (y.compareTo(x) >= 0) {
+                return x;
+            }
+            x = y;
+        }
+    }
+
+
+    /**
+     * Search a divisor with Brents variant of Pollards rho algorithm
+     * x**2 + c mod n with a bounded number of iterations.
+     * @param n odd composite integer.
+     * @param iterations maximal number of iterations.
+     * @return a divisor d of n with 1 &lt; d &lt; n, or null if no divisor
+     *         was found.
+     */
+    static java.math.BigInteger rho(java.math.BigInteger n, int iterations) {
+        final int m = 64;
+        java.math.BigInteger c = new java.math.BigInteger(n.bitLength(), random).mod(n);
+        java.math.BigInteger y = new java.math.BigInteger(n.bitLength(), random).mod(n);
+        java.math.BigInteger x = y;
+        java.math.BigInteger ys = y;
+        java.math.BigInteger q = java.math.BigInteger.ONE;
+        java.math.BigInteger g = java.math.BigInteger.ONE;
+        int it = 0;
+        for (int r = 1; g.equals(java.math.BigInteger.ONE) && it < iterations; r <<= 1) {
+            x = y;
+            for (int i = 0; i < r; i++) {
+                y = y.multiply(y).add(c).mod(n);
+            }
+            for (int k = 0; k < r && g.equals(java.math.BigInteger.ONE); k += m) {
+                ys = y;
+                for (int i = 0; i < Math.min(m, r - k); i++) {
+                    y = y.multiply(y).add(c).mod(n);
+                    q = q.multiply(x.subtract(y)).mod(n);
+                }
+                g = q.gcd(n);
+                it += Math.min(m, r - k);
+            }
+        }
+        if (g.equals(n)) { // backtrack
+            do {
+                ys = ys.multiply(ys).add(c).mod(n);
+                g = x.subtract(ys).gcd(n);
+            } while (g.equals(java.math.BigInteger.ONE));
+        }
+        if (g.equals(java.math.BigInteger.ONE) || g.equals(n)) {
+            return null;
+        }
+        return g;
+    }
+
+
     /**
      * Integer factorization using Pollards rho algorithm. n is a positive
      * integer. F is a list (q(1), q(2),...,q(h)) of the prime factors of n,
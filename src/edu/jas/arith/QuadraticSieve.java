@@ -0,0 +1,961 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.kern.ComputerThreads;
+
+
+/**
+ * Self initializing quadratic sieve for integer factorization. For a
+ * multiplier k, chosen by the Knuth-Schroeppel function, and N = k n the
+ * polynomials (a x + b)<sup>2</sup> - N = a Q(x) are sieved over [-M,M) with
+ * the primes p of the factor base, i.e. N is a quadratic residue modulo p. The
+ * coefficient a is a product of s factor base primes, for each a the
+ * 2<sup>s-1</sup> values of b are visited in Gray code order and the roots of
+ * Q(x) modulo p are updated by one addition. Relations with one large prime
+ * are combined. The families of polynomials with the same a are sieved in
+ * parallel in the <code>ComputerThreads</code> pool. The dependencies of the
+ * exponent vectors modulo 2 are computed by dense bit-packed Gaussian
+ * elimination, so the method is only used for n up to MAX_BITS bits.
+ * @author Heinz Kredel
+ * @see PrimeInteger#factors(java.math.BigInteger)
+ */
+
+public final class QuadraticSieve {
+
+
+    private static final Logger logger = LogManager.getLogger(QuadraticSieve.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Maximal bit length of integers to factor.
+     */
+    public final static int MAX_BITS = 240;
+
+
+    /**
+     * Multipliers for Knuth-Schroeppel.
+     */
+    final static int[] MULTIPLIERS = { 1, 3, 5, 7, 11, 13, 15, 17, 19, 21, 23, 29, 31, 33, 35, 37, 39, 41,
+            43, 47, 51, 53, 55, 57, 59, 61, 65, 67, 69, 71, 73 };
+
+
+    /**
+     * Parameters: bit length of k n, size of the factor base and half length
+     * M of the sieve interval.
+     */
+    final static int[][] PARAMETERS = { { 64, 100, 32768 }, { 100, 200, 32768 }, { 128, 450, 65536 },
+            { 160, 1000, 65536 }, { 183, 2000, 65536 }, { 200, 3000, 65536 }, { 212, 4500, 98304 },
+            { 233, 7000, 98304 }, { 250, 10000, 131072 } };
+
+
+    /**
+     * Primes less than SMALL_PRIME are not sieved.
+     */
+    final static int SMALL_PRIME = 30;
+
+
+    /**
+     * Large primes are less than LARGE_PRIME_FACTOR times the largest factor
+     * base prime.
+     */
+    final static int LARGE_PRIME_FACTOR = 64;
+
+
+    /**
+     * Number of relations more than the size of the factor base.
+     */
+    final static int EXTRA_RELATIONS = 32;
+
+
+    /**
+     * Integer to factor.
+     */
+    final java.math.BigInteger n;
+
+
+    /**
+     * Multiplier.
+     */
+    final int k;
+
+
+    /**
+     * k n.
+     */
+    final java.math.BigInteger N;
+
+
+    /**
+     * Factor base, prime[0] = -1 for the sign, prime[1] = 2.
+     */
+    final int[] prime;
+
+
+    /**
+     * Square roots of N modulo the factor base primes.
+     */
+    final int[] sqrtN;
+
+
+    /**
+     * Binary logarithms of the factor base primes.
+     */
+    final byte[] logp;
+
+
+    /**
+     * Size of the factor base.
+     */
+    final int fbSize;
+
+
+    /**
+     * Half length of the sieve interval.
+     */
+    final int M;
+
+
+    /**
+     * Bound for large primes.
+     */
+    final long largePrime;
+
+
+    /**
+     * Sieve threshold.
+     */
+    final int threshold;
+
+
+    /**
+     * Divisor of n found during initialization or null.
+     */
+    java.math.BigInteger found;
+
+
+    /**
+     * Random number generator for the choice of a.
+     */
+    final Random random = new Random();
+
+
+    /**
+     * Relation y<sup>2</sup> == extra<sup>2</sup> large prod_i prime[f_i]
+     * mod n.
+     */
+    static final class Relation {
+
+
+        final java.math.BigInteger y;
+
+
+        final int[] factors;
+
+
+        final java.math.BigInteger extra;
+
+
+        final long large;
+
+
+        Relation(java.math.BigInteger y, int[] factors, java.math.BigInteger extra, long large) {
+            this.y = y;
+            this.factors = factors;
+            this.extra = extra;
+            this.large = large;
+        }
+    }
+
+
+    /**
+     * Constructor. Selects the multiplier and computes the factor base.
+     * @param n odd integer, not a perfect power.
+     */
+    QuadraticSieve(java.math.BigInteger n) {
+        this.n = n;
+        k = multiplier(n);
+        N = n.multiply(java.math.BigInteger.valueOf(k));
+        int bits = N.bitLength();
+        int[] par = parameters(bits);
+        int F = par[0];
+        M = par[1];
+        prime = new int[F];
+        sqrtN = new int[F];
+        logp = new byte[F];
+        prime[0] = -1;
+        prime[1] = 2;
+        sqrtN[1] = N.testBit(0) ? 1 : 0;
+        logp[1] = 1;
+        int j = 2;
+        for (int p = 3; j < F; p += 2) {
+            if (!isSmallPrime(p)) {
+                continue;
+            }
+            long r = N.mod(java.math.BigInteger.valueOf(p)).longValue();
+            if (r == 0L) {
+                if (k % p != 0) { // p divides n
+                    found = java.math.BigInteger.valueOf(p);
+                    break;
+                }
+            } else if (powMod(r, (p - 1) / 2, p) != 1L) {
+                continue;
+            }
+            prime[j] = p;
+            sqrtN[j] = (int) sqrtMod(r, p);
+            logp[j] = (byte) Math.round(Math.log(p) / Math.log(2.0));
+            j++;
+        }
+        fbSize = j;
+        long pmax = prime[Math.max(1, fbSize - 1)];
+        largePrime = Math.min(pmax * LARGE_PRIME_FACTOR, pmax * pmax);
+        double qmax = Math.log(M) / Math.log(2.0) + (bits - 1) / 2.0;
+        threshold = (int) Math.round(qmax - Math.log(largePrime) / Math.log(2.0) - 2.0);
+        if (debug) {
+            logger.info("k = " + k + ", bits = " + bits + ", factor base = " + fbSize + ", M = " + M
+                            + ", threshold = " + threshold);
+        }
+    }
+
+
+    /**
+     * Search a divisor with the self initializing quadratic sieve.
+     * @param n odd composite integer, not a prime power, with at most
+     *            MAX_BITS bits.
+     * @return a divisor d of n with 1 &lt; d &lt; n, or null if no divisor
+     *         was found.
+     */
+    public static java.math.BigInteger divisor(java.math.BigInteger n) {
+        if (n.bitLength() > MAX_BITS) {
+            return null;
+        }
+        if (!n.testBit(0)) {
+            return java.math.BigInteger.valueOf(2L);
+        }
+        java.math.BigInteger r = Roots.sqrtInt(new BigInteger(n)).getVal();
+        if (r.multiply(r).equals(n)) {
+            return r;
+        }
+        QuadraticSieve qs = new QuadraticSieve(n);
+        if (qs.found != null) {
+            return qs.found;
+        }
+        return qs.sieve();
+    }
+
+
+    /**
+     * Knuth-Schroeppel multiplier.
+     * @param n odd integer.
+     * @return multiplier k with many small primes p such that k n is a
+     *         quadratic residue modulo p.
+     */
+    static int multiplier(java.math.BigInteger n) {
+        double best = Double.NEGATIVE_INFINITY;
+        int kb = 1;
+        double log2 = Math.log(2.0);
+        for (int k : MULTIPLIERS) {
+            java.math.BigInteger kn = n.multiply(java.math.BigInteger.valueOf(k));
+            if (k > 1) {
+                java.math.BigInteger r = Roots.sqrtInt(new BigInteger(kn)).getVal();
+                if (r.multiply(r).equals(kn)) {
+                    continue;
+                }
+            }
+            double f = -0.5 * Math.log(k);
+            int m8 = kn.intValue() & 7;
+            if (m8 == 1) {
+                f += 2.0 * log2;
+            } else if (m8 == 5) {
+                f += log2;
+            } else {
+                f += 0.5 * log2;
+            }
+            for (int p = 3; p < 1000; p += 2) {
+                if (!isSmallPrime(p)) {
+                    continue;
+                }
+                if (k % p == 0) {
+                    f += Math.log(p) / p;
+                    continue;
+                }
+                long r = kn.mod(java.math.BigInteger.valueOf(p)).longValue();
+                if (r != 0L && powMod(r, (p - 1) / 2, p) == 1L) {
+                    f += 2.0 * Math.log(p) / (p - 1);
+                }
+            }
+            if (f > best) {
+                best = f;
+                kb = k;
+            }
+        }
+        return kb;
+    }
+
+
+    /**
+     * Sieve parameters.
+     * @param bits bit length of k n.
+     * @return [ size of the factor base, M ], interpolated from PARAMETERS.
+     */
+    static int[] parameters(int bits) {
+        int[][] P = PARAMETERS;
+        if (bits <= P[0][0]) {
+            return new int[] { P[0][1], P[0][2] };
+        }
+        for (int i = 1; i < P.length; i++) {
+            if (bits <= P[i][0]) {
+                double t = (bits - P[i - 1][0]) / (double) (P[i][0] - P[i - 1][0]);
+                int F = (int) Math.round(P[i - 1][1] + t * (P[i][1] - P[i - 1][1]));
+                return new int[] { F, P[i][2] };
+            }
+        }
+        return new int[] { P[P.length - 1][1], P[P.length - 1][2] };
+    }
+
+
+    /**
+     * Collect relations and compute dependencies.
+     * @return a divisor d of n with 1 &lt; d &lt; n, or null if no divisor
+     *         was found.
+     */
+    java.math.BigInteger sieve() {
+        List<Relation> full = new ArrayList<Relation>();
+        Map<Long, Relation> partial = new HashMap<Long, Relation>();
+        Set<java.math.BigInteger> used = new HashSet<java.math.BigInteger>();
+        int[] cand = candidates();
+        int s = cand[0];
+        cand = Arrays.copyOfRange(cand, 1, cand.length);
+        int threads = 1;
+        if (ComputerThreads.N_CPUS > 1 && !ComputerThreads.NO_THREADS) {
+            threads = ComputerThreads.N_CPUS;
+        }
+        int needed = fbSize + EXTRA_RELATIONS;
+        int polys = 0;
+        for (int round = 0; round < 3; round++) {
+            while (full.size() < needed) {
+                List<Callable<List<Relation>>> cs = new ArrayList<Callable<List<Relation>>>(threads);
+                for (int t = 0; t < threads; t++) {
+                    int[] qi = nextA(cand, s, used);
+                    if (qi == null) {
+                        break;
+                    }
+                    cs.add(new PolynomialFamily(qi));
+                }
+                if (cs.isEmpty()) {
+                    logger.warn("no more polynomials, relations = " + full.size() + ", needed = " + needed);
+                    return null;
+                }
+                polys += cs.size() << (s - 1);
+                for (List<Relation> rl : run(cs)) {
+                    for (Relation r : rl) {
+                        if (r.large == 1L) {
+                            full.add(r);
+                            continue;
+                        }
+                        Relation o = partial.get(r.large);
+                        if (o == null) {
+                            partial.put(r.large, r);
+                        } else {
+                            full.add(combine(o, r));
+                        }
+                    }
+                }
+            }
+            if (debug) {
+                logger.info("polynomials = " + polys + ", relations = " + full.size() + ", partials = "
+                                + partial.size());
+            }
+            java.math.BigInteger d = dependencies(full);
+            if (d != null) {
+                return d;
+            }
+            needed += EXTRA_RELATIONS;
+        }
+        return null;
+    }
+
+
+    /**
+     * Run polynomial families sequentially or in parallel.
+     * @param cs list of polynomial families.
+     * @return list of relations for each family.
+     */
+    List<List<Relation>> run(List<Callable<List<Relation>>> cs) {
+        return ComputerThreads.invokeAll(cs, cs.size());
+    }
+
+
+    /**
+     * Combine two relations with the same large prime.
+     * @param o relation.
+     * @param r relation.
+     * @return o * r without large prime.
+     */
+    Relation combine(Relation o, Relation r) {
+        int[] f = Arrays.copyOf(o.factors, o.factors.length + r.factors.length);
+        System.arraycopy(r.factors, 0, f, o.factors.length, r.factors.length);
+        java.math.BigInteger y = o.y.multiply(r.y).mod(n);
+        java.math.BigInteger e = o.extra.multiply(r.extra).multiply(java.math.BigInteger.valueOf(r.large)).mod(n);
+        return new Relation(y, f, e, 1L);
+    }
+
+
+    /**
+     * Candidates for the factors of a.
+     * @return [ s, j_1, ..., j_r ] with s the number of factors of a and
+     *         factor base indices j_i with primes near the s-th root of
+     *         sqrt(2 N)/M.
+     */
+    int[] candidates() {
+        double logA = 0.5 * (Math.log(2.0) + N.bitLength() * Math.log(2.0)) - Math.log(M);
+        int s = Math.max(1, (int) Math.round(logA / Math.log(2000.0)));
+        double pmax = prime[fbSize - 1];
+        while (s > 1 && Math.exp(logA / s) < SMALL_PRIME) {
+            s--;
+        }
+        while (Math.exp(logA / s) > pmax / 2) {
+            s++;
+        }
+        double q = Math.exp(logA / s);
+        double lo = q / 2.0;
+        double hi = q * 2.0;
+        List<Integer> c = new ArrayList<Integer>();
+        while (true) {
+            c.clear();
+            for (int j = 2; j < fbSize; j++) {
+                int p = prime[j];
+                if (p >= lo && p <= hi && p > SMALL_PRIME && sqrtN[j] != 0) {
+                    c.add(j);
+                }
+            }
+            if (c.size() >= s + 8 || (lo <= SMALL_PRIME && hi >= pmax)) {
+                break;
+            }
+            lo /= 1.5;
+            hi *= 1.5;
+        }
+        int[] r = new int[c.size() + 1];
+        r[0] = s;
+        for (int i = 0; i < c.size(); i++) {
+            r[i + 1] = c.get(i);
+        }
+        if (debug) {
+            logger.info("s = " + s + ", q = " + Math.round(q) + ", candidates = " + c.size());
+        }
+        return r;
+    }
+
+
+    /**
+     * Choose a new coefficient a.
+     * @param cand factor base indices of candidate primes.
+     * @param s number of factors of a.
+     * @param used set of coefficients a already used.
+     * @return factor base indices of the factors of a, or null if no new a
+     *         was found.
+     */
+    int[] nextA(int[] cand, int s, Set<java.math.BigInteger> used) {
+        if (cand.length < s) {
+            return null;
+        }
+        java.math.BigInteger target = Roots.sqrtInt(new BigInteger(N.shiftLeft(1))).getVal()
+                        .divide(java.math.BigInteger.valueOf(M));
+        for (int tries = 0; tries < 1000; tries++) {
+            int[] qi = new int[s];
+            java.math.BigInteger a = java.math.BigInteger.ONE;
+            boolean ok = true;
+            for (int l = 0; l < s - 1; l++) {
+                int j = cand[random.nextInt(cand.length)];
+                for (int i = 0; i < l; i++) {
+                    if (qi[i] == j) {
+                        ok = false;
+                    }
+                }
+                qi[l] = j;
+                a = a.multiply(java.math.BigInteger.valueOf(prime[j]));
+            }
+            if (!ok) {
+                continue;
+            }
+            int j;
+            if (s == 1) {
+                j = cand[random.nextInt(cand.length)];
+            } else { // last factor closest to target / a
+                long rest = target.divide(a).min(java.math.BigInteger.valueOf(Integer.MAX_VALUE)).longValue();
+                j = Arrays.binarySearch(prime, 2, fbSize, (int) rest);
+                if (j < 0) {
+                    j = -j - 1;
+                }
+                j = Math.max(2, Math.min(fbSize - 1, j));
+                while (j < fbSize - 1 && (sqrtN[j] == 0 || prime[j] <= SMALL_PRIME || contains(qi, s - 1, j))) {
+                    j++;
+                }
+                if (sqrtN[j] == 0 || prime[j] <= SMALL_PRIME || contains(qi, s - 1, j)) {
+                    continue;
+                }
+            }
+            qi[s - 1] = j;
+            a = a.multiply(java.math.BigInteger.valueOf(prime[j]));
+            if (used.add(a)) {
+                Arrays.sort(qi);
+                return qi;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Test membership.
+     * @param a array.
+     * @param l number of elements to test.
+     * @param j element.
+     * @return true if j is one of a[0], ..., a[l-1], else false.
+     */
+    static boolean contains(int[] a, int l, int j) {
+        for (int i = 0; i < l; i++) {
+            if (a[i] == j) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Family of sieve polynomials for one a.
+     */
+    class PolynomialFamily implements Callable<List<Relation>> {
+
+
+        final int[] qi;
+
+
+        PolynomialFamily(int[] qi) {
+            this.qi = qi;
+        }
+
+
+        /**
+         * Sieve all polynomials (a x + b)<sup>2</sup> - N for this a.
+         * @return list of full and partial relations.
+         */
+        public List<Relation> call() {
+            int s = qi.length;
+            java.math.BigInteger a = java.math.BigInteger.ONE;
+            for (int l = 0; l < s; l++) {
+                a = a.multiply(java.math.BigInteger.valueOf(prime[qi[l]]));
+            }
+            // B_l with B_l^2 == N mod q_l and B_l == 0 mod q_i, i != l
+            java.math.BigInteger[] B = new java.math.BigInteger[s];
+            java.math.BigInteger b = java.math.BigInteger.ZERO;
+            for (int l = 0; l < s; l++) {
+                long q = prime[qi[l]];
+                java.math.BigInteger aq = a.divide(java.math.BigInteger.valueOf(q));
+                long g = (sqrtN[qi[l]] * modInverse(aq.mod(java.math.BigInteger.valueOf(q)).longValue(), q)) % q;
+                if (g > q / 2) {
+                    g = q - g;
+                }
+                B[l] = aq.multiply(java.math.BigInteger.valueOf(g));
+                b = b.add(B[l]);
+            }
+            int m2 = 2 * M;
+            boolean[] skip = new boolean[fbSize];
+            int[] r1 = new int[fbSize];
+            int[] r2 = new int[fbSize];
+            int[][] bainv2 = new int[s][fbSize];
+            for (int l = 0; l < s; l++) {
+                skip[qi[l]] = true;
+            }
+            for (int j = 2; j < fbSize; j++) {
+                int p = prime[j];
+                if (sqrtN[j] == 0) {
+                    skip[j] = true;
+                }
+                if (skip[j]) {
+                    continue;
+                }
+                java.math.BigInteger P = java.math.BigInteger.valueOf(p);
+                long ainv = modInverse(a.mod(P).longValue(), p);
+                long bp = b.mod(P).longValue();
+                long t = sqrtN[j];
+                long mp = M % p;
+                r1[j] = (int) ((ainv * ((t - bp + p) % p) + mp) % p);
+                r2[j] = (int) ((ainv * ((2L * p - t - bp) % p) + mp) % p);
+                for (int l = 0; l < s; l++) {
+                    bainv2[l][j] = (int) ((2L * B[l].mod(P).longValue() * ainv) % p);
+                }
+            }
+            int first = 2;
+            while (first < fbSize && prime[first] < SMALL_PRIME) {
+                first++;
+            }
+            byte[] sv = new byte[m2];
+            List<Relation> rels = new ArrayList<Relation>();
+            int np = 1 << (s - 1);
+            for (int idx = 0; idx < np; idx++) {
+                if (idx > 0) { // Gray code step, flip the sign of B[v+1]
+                    int v = Integer.numberOfTrailingZeros(idx);
+                    int l = v + 1;
+                    boolean neg = (((idx ^ (idx >>> 1)) >>> v) & 1) != 0;
+                    if (neg) {
+                        b = b.subtract(B[l].shiftLeft(1));
+                    } else {
+                        b = b.add(B[l].shiftLeft(1));
+                    }
+                    int[] bl = bainv2[l];
+                    for (int j = 2; j < fbSize; j++) {
+                        if (skip[j]) {
+                            continue;
+                        }
+                        int p = prime[j];
+                        int d = (neg ? bl[j] : p - bl[j]);
+                        int x1 = r1[j] + d;
+                        int x2 = r2[j] + d;
+                        r1[j] = (x1 >= p ? x1 - p : x1);
+                        r2[j] = (x2 >= p ? x2 - p : x2);
+                    }
+                }
+                Arrays.fill(sv, (byte) 0);
+                for (int j = first; j < fbSize; j++) {
+                    if (skip[j]) {
+                        continue;
+                    }
+                    int p = prime[j];
+                    byte lg = logp[j];
+                    for (int i = r1[j]; i < m2; i += p) {
+                        sv[i] += lg;
+                    }
+                    if (r2[j] != r1[j]) {
+                        for (int i = r2[j]; i < m2; i += p) {
+                            sv[i] += lg;
+                        }
+                    }
+                }
+                for (int i = 0; i < m2; i++) {
+                    if ((sv[i] & 0xFF) >= threshold) {
+                        Relation r = relation(a, b, i, skip, r1, r2);
+                        if (r != null) {
+                            rels.add(r);
+                        }
+                    }
+                }
+            }
+            return rels;
+        }
+
+
+        /**
+         * Trial division of a sieve candidate.
+         * @param a coefficient a.
+         * @param b coefficient b.
+         * @param i sieve position, x = i - M.
+         * @param skip factor base primes to test by division.
+         * @param r1 first root positions.
+         * @param r2 second root positions.
+         * @return full or partial relation, or null.
+         */
+        Relation relation(java.math.BigInteger a, java.math.BigInteger b, int i, boolean[] skip, int[] r1,
+                        int[] r2) {
+            java.math.BigInteger y = a.multiply(java.math.BigInteger.valueOf(i - M)).add(b);
+            java.math.BigInteger q = y.multiply(y).subtract(N).divide(a);
+            if (q.signum() == 0) {
+                return null;
+            }
+            int[] f = new int[qi.length + 8];
+            int nf = 0;
+            for (int l = 0; l < qi.length; l++) {
+                f[nf++] = qi[l];
+            }
+            if (q.signum() < 0) {
+                f[nf++] = 0;
+                q = q.negate();
+            }
+            int e = q.getLowestSetBit();
+            q = q.shiftRight(e);
+            for (int l = 0; l < e; l++) {
+                if (nf == f.length) {
+                    f = Arrays.copyOf(f, 2 * nf);
+                }
+                f[nf++] = 1;
+            }
+            java.math.BigInteger big = q;
+            long ql = 0L;
+            if (big.bitLength() < 63) {
+                ql = big.longValue();
+                big = null;
+            }
+            for (int j = 2; j < fbSize; j++) {
+                int p = prime[j];
+                boolean hit;
+                if (skip[j]) {
+                    hit = (big != null ? big.mod(java.math.BigInteger.valueOf(p)).signum() == 0 : ql % p == 0L);
+                } else {
+                    int ip = i % p;
+                    hit = (ip == r1[j] || ip == r2[j]);
+                }
+                if (!hit) {
+                    continue;
+                }
+                while (true) {
+                    if (big != null) {
+                        java.math.BigInteger[] qr = big.divideAndRemainder(java.math.BigInteger.valueOf(p));
+                        if (qr[1].signum() != 0) {
+                            break;
+                        }
+                        big = qr[0];
+                        if (big.bitLength() < 63) {
+                            ql = big.longValue();
+                            big = null;
+                        }
+                    } else {
+                        if (ql % p != 0L) {
+                            break;
+                        }
+                        ql /= p;
+                    }
+                    if (nf == f.length) {
+                        f = Arrays.copyOf(f, 2 * nf);
+                    }
+                    f[nf++] = j;
+                }
+            }
+            if (big != null || ql >= largePrime) {
+                return null;
+            }
+            return new Relation(y, Arrays.copyOf(f, nf), java.math.BigInteger.ONE, ql);
+        }
+    }
+
+
+    /**
+     * Compute dependencies of the exponent vectors modulo 2 and try the
+     * congruences of squares.
+     * @param rels list of relations.
+     * @return a divisor d of n with 1 &lt; d &lt; n, or null if no divisor
+     *         was found.
+     */
+    java.math.BigInteger dependencies(List<Relation> rels) {
+        int r = rels.size();
+        int w = (r + 63) >>> 6;
+        long[][] A = new long[fbSize][w];
+        for (int i = 0; i < r; i++) {
+            for (int f : rels.get(i).factors) {
+                A[f][i >>> 6] ^= 1L << (i & 63);
+            }
+        }
+        // reduced row echelon form, columns are relations
+        int[] piv = new int[fbSize];
+        boolean[] isPivot = new boolean[r];
+        int rank = 0;
+        for (int c = 0; c < r && rank < fbSize; c++) {
+            int cw = c >>> 6;
+            long cb = 1L << (c & 63);
+            int t = rank;
+            while (t < fbSize && (A[t][cw] & cb) == 0L) {
+                t++;
+            }
+            if (t == fbSize) {
+                continue;
+            }
+            long[] h = A[t];
+            A[t] = A[rank];
+            A[rank] = h;
+            for (int u = 0; u < fbSize; u++) {
+                if (u != rank && (A[u][cw] & cb) != 0L) {
+                    long[] au = A[u];
+                    for (int l = cw; l < w; l++) {
+                        au[l] ^= h[l];
+                    }
+                }
+            }
+            piv[rank++] = c;
+            isPivot[c] = true;
+        }
+        if (debug) {
+            logger.info("relations = " + r + ", rank = " + rank);
+        }
+        for (int c = 0; c < r; c++) {
+            if (isPivot[c]) {
+                continue;
+            }
+            // dependency: column c and the pivot columns of rows with bit c
+            List<Integer> dep = new ArrayList<Integer>();
+            dep.add(c);
+            for (int t = 0; t < rank; t++) {
+                if ((A[t][c >>> 6] & (1L << (c & 63))) != 0L) {
+                    dep.add(piv[t]);
+                }
+            }
+            java.math.BigInteger d = squares(rels, dep);
+            if (d != null) {
+                return d;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Congruence of squares from a dependency.
+     * @param rels list of relations.
+     * @param dep indices of relations with even exponent sum.
+     * @return gcd(X - Y, n) if it is a non trivial divisor, else null.
+     */
+    java.math.BigInteger squares(List<Relation> rels, List<Integer> dep) {
+        int[] cnt = new int[fbSize];
+        java.math.BigInteger X = java.math.BigInteger.ONE;
+        java.math.BigInteger Y = java.math.BigInteger.ONE;
+        for (int i : dep) {
+            Relation rl = rels.get(i);
+            X = X.multiply(rl.y).mod(n);
+            Y = Y.multiply(rl.extra).mod(n);
+            for (int f : rl.factors) {
+                cnt[f]++;
+            }
+        }
+        for (int j = 1; j < fbSize; j++) {
+            if ((cnt[j] & 1) != 0) {
+                throw new ArithmeticException("odd exponent in dependency at " + prime[j]);
+            }
+            if (cnt[j] > 0) {
+                java.math.BigInteger p = java.math.BigInteger.valueOf(prime[j]);
+                Y = Y.multiply(p.modPow(java.math.BigInteger.valueOf(cnt[j] / 2), n)).mod(n);
+            }
+        }
+        java.math.BigInteger g = X.subtract(Y).gcd(n);
+        if (g.equals(java.math.BigInteger.ONE) || g.equals(n)) {
+            return null;
+        }
+        return g;
+    }
+
+
+    /**
+     * Small primality test by trial division.
+     * @param p odd integer &gt; 1.
+     * @return true if p is prime, else false.
+     */
+    static boolean isSmallPrime(int p) {
+        for (int d = 3; d * d <= p; d += 2) {
+            if (p % d == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Modular power.
+     * @param b base.
+     * @param e non negative exponent.
+     * @param p modulus &lt; 2<sup>31</sup>.
+     * @return b<sup>e</sup> mod p.
+     */
+    static long powMod(long b, long e, long p) {
+        long r = 1L % p;
+        b %= p;
+        while (e > 0L) {
+            if ((e & 1L) != 0L) {
+                r = (r * b) % p;
+            }
+            b = (b * b) % p;
+            e >>>= 1;
+        }
+        return r;
+    }
+
+
+    /**
+     * Modular inverse.
+     * @param a integer with gcd(a,p) = 1.
+     * @param p modulus &lt; 2<sup>31</sup>.
+     * @return a<sup>-1</sup> mod p.
+     */
+    static long modInverse(long a, long p) {
+        long r0 = p;
+        long r1 = a % p;
+        long s0 = 0L;
+        long s1 = 1L;
+        while (r1 != 0L) {
+            long q = r0 / r1;
+            long t = r0 - q * r1;
+            r0 = r1;
+            r1 = t;
+            t = s0 - q * s1;
+            s0 = s1;
+            s1 = t;
+        }
+        if (r0 != 1L) {
+            throw new ArithmeticException("not invertible " + a + " mod " + p);
+        }
+        return (s0 < 0L ? s0 + p : s0);
+    }
+
+
+    /**
+     * Modular square root, Tonelli-Shanks algorithm.
+     * @param a quadratic residue modulo p.
+     * @param p odd prime &lt; 2<sup>31</sup>.
+     * @return r with r<sup>2</sup> == a mod p.
+     */
+    static long sqrtMod(long a, long p) {
+        a %= p;
+        if (a == 0L) {
+            return 0L;
+        }
+        if ((p & 3L) == 3L) {
+            return powMod(a, (p + 1) / 4, p);
+        }
+        long q = p - 1;
+        int e = Long.numberOfTrailingZeros(q);
+        q >>>= e;
+        long z = 2L;
+        while (powMod(z, (p - 1) / 2, p) != p - 1) {
+            z++;
+        }
+        long c = powMod(z, q, p);
+        long x = powMod(a, (q + 1) / 2, p);
+        long t = powMod(a, q, p);
+        int m = e;
+        while (t != 1L) {
+            int i = 0;
+            long tt = t;
+            while (tt != 1L) {
+                tt = (tt * tt) % p;
+                i++;
+            }
+            long bb = c;
+            for (int j = 0; j < m - i - 1; j++) {
+                bb = (bb * bb) % p;
+            }
+            x = (x * bb) % p;
+            c = (bb * bb) % p;
+            t = (t * c) % p;
+            m = i;
+        }
+        return x;
+    }
+
+}
@@ -5,10 +5,14 @@
 package edu.jas.kern;
 
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -141,6 +145,54 @@ public class ComputerThreads {
     }
 
 
+    /**
+     * Number of parallel tasks.
+     * @param threads requested number of parallel tasks.
+     * @return max(threads, 1).
+     */
+    public static int checkThreads(int threads) {
+        if (threads < 1) {
+            return 1;
+        }
+        return threads;
+    }
+
+
+    /**
+     * Execute tasks in the pool. If only one task or thread is required or
+     * threads are disabled, the tasks are executed in the current thread.
+     * @param cs list of tasks.
+     * @param threads number of parallel tasks.
+     * @return list of results in the order of the tasks.
+     */
+    public static <T> List<T> invokeAll(List<Callable<T>> cs, int threads) {
+        List<T> R = new ArrayList<T>(cs.size());
+        try {
+            if (cs.size() <= 1 || threads <= 1 || NO_THREADS) {
+                for (Callable<T> c : cs) {
+                    R.add(c.call());
+                }
+                return R;
+            }
+            List<Future<T>> fs = getPool().invokeAll(cs);
+            for (Future<T> f : fs) {
+                R.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted " + e);
+        } catch (ExecutionException e) {
+            logger.info("ExecutionException " + e);
+            throw new RuntimeException(e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return R;
+    }
+
+
     /**
      * Stop execution.
      */
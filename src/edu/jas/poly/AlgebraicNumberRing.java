@@ -14,6 +14,7 @@ import java.util.Random;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
 
+import edu.jas.arith.GaloisFieldRing;
 import edu.jas.kern.Scripting;
 import edu.jas.structure.RingElem;
 import edu.jas.structure.RingFactory;
@@ -508,6 +509,9 @@ public class AlgebraicNumberRing<C extends RingElem<C>> implements RingFactory<A
             } else {
                 degree *= arr.totalExtensionDegree();
             }
+        } else if (cf instanceof GaloisFieldRing) {
+            long k = ((GaloisFieldRing) (Object) cf).k;
+            degree = (degree == 0L ? k : degree * k);
         }
         return degree;
     }
@@ -0,0 +1,468 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.ModularKernels;
+
+
+/**
+ * Dense univariate polynomial utilities. Taylor shift p(x+s) and composition
+ * p(t) for coefficient arrays, with integer coefficients and with residues
+ * modulo a word size prime. Index i of an array holds the coefficient of
+ * x^i. Integer polynomials are multiplied by Kronecker substitution with the
+ * sub-quadratic multiplication of java.math.BigInteger, residues with the
+ * Karatsuba multiplication of <code>edu.jas.arith.ModularKernels</code>.
+ * Taylor shifts and compositions of high degree are computed by divide and
+ * conquer with cached powers, so the cost is dominated by a logarithmic
+ * number of balanced products. The Taylor shift modulo a prime larger than
+ * the degree is one convolution.
+ * @author Heinz Kredel
+ */
+
+public class DensePolyUtil {
+
+
+    private static final Logger logger = LogManager.getLogger(DensePolyUtil.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of coefficients from which Taylor shifts are computed by divide
+     * and conquer or convolution.
+     */
+    public static final int TAYLOR_SHIFT_DEGREE = 64;
+
+
+    /**
+     * Number of coefficients from which compositions are computed by divide
+     * and conquer.
+     */
+    public static final int COMPOSITION_DEGREE = 16;
+
+
+    /**
+     * Taylor shift.
+     * @param a integer coefficients.
+     * @param s shift.
+     * @return coefficients of a(x+s).
+     */
+    public static BigInteger[] taylorShift(BigInteger[] a, BigInteger s) {
+        if (s.signum() == 0 || a.length <= 1) {
+            return a.clone();
+        }
+        if (a.length <= TAYLOR_SHIFT_DEGREE) {
+            return taylorShiftHorner(a, 0, a.length, s);
+        }
+        List<BigInteger[]> pow = new ArrayList<BigInteger[]>();
+        return taylorShiftFast(a, 0, a.length, s, pow);
+    }
+
+
+    /**
+     * Taylor shift, Horner scheme.
+     * @param a integer coefficients.
+     * @param lo start index.
+     * @param len number of coefficients.
+     * @param s shift.
+     * @return coefficients of (sum_{i&lt;len} a[lo+i] x^i)(x+s).
+     */
+    public static BigInteger[] taylorShiftHorner(BigInteger[] a, int lo, int len, BigInteger s) {
+        BigInteger[] b = new BigInteger[len];
+        System.arraycopy(a, lo, b, 0, len);
+        int n = len - 1;
+        boolean one = s.equals(BigInteger.ONE);
+        for (int i = 0; i < n; i++) {
+            for (int j = n - 1; j >= i; j--) {
+                if (one) {
+                    b[j] = b[j].add(b[j + 1]);
+                } else {
+                    b[j] = b[j].add(s.multiply(b[j + 1]));
+                }
+            }
+        }
+        return b;
+    }
+
+
+    /**
+     * Taylor shift, divide and conquer. With p = p_0 + x^h p_1 is p(x+s) =
+     * p_0(x+s) + (x+s)^h p_1(x+s).
+     * @param a integer coefficients.
+     * @param lo start index.
+     * @param len number of coefficients.
+     * @param s shift.
+     * @param pow cache of (x+s)^(2^k) at index k.
+     * @return coefficients of (sum_{i&lt;len} a[lo+i] x^i)(x+s).
+     */
+    static BigInteger[] taylorShiftFast(BigInteger[] a, int lo, int len, BigInteger s, List<BigInteger[]> pow) {
+        if (len <= TAYLOR_SHIFT_DEGREE) {
+            return taylorShiftHorner(a, lo, len, s);
+        }
+        int h = Integer.highestOneBit(len - 1);
+        BigInteger[] r0 = taylorShiftFast(a, lo, h, s, pow);
+        BigInteger[] r1 = taylorShiftFast(a, lo + h, len - h, s, pow);
+        int k = Integer.numberOfTrailingZeros(h);
+        while (pow.size() <= k) {
+            pow.add(null);
+        }
+        BigInteger[] P = pow.get(k);
+        if (P == null) {
+            P = binomialPower(s, h);
+            pow.set(k, P);
+        }
+        BigInteger[] r = multiply(r1, P);
+        for (int i = 0; i < h; i++) {
+            r[i] = r[i].add(r0[i]);
+        }
+        return r;
+    }
+
+
+    /**
+     * Power of a linear polynomial.
+     * @param s integer.
+     * @param h exponent.
+     * @return coefficients of (x+s)^h.
+     */
+    static BigInteger[] binomialPower(BigInteger s, int h) {
+        BigInteger[] P = new BigInteger[h + 1];
+        BigInteger b = BigInteger.ONE; // binomial(h,i)
+        for (int i = 0; i <= h; i++) {
+            P[i] = b;
+            b = b.multiply(BigInteger.valueOf(h - i)).divide(BigInteger.valueOf(i + 1));
+        }
+        BigInteger t = BigInteger.ONE;
+        for (int i = h; i >= 0; i--) {
+            P[i] = P[i].multiply(t);
+            t = t.multiply(s);
+        }
+        return P;
+    }
+
+
+    /**
+     * Product of integer polynomials by Kronecker substitution.
+     * @param a non empty array of integer coefficients.
+     * @param b non empty array of integer coefficients.
+     * @return coefficients of a b.
+     */
+    public static BigInteger[] multiply(BigInteger[] a, BigInteger[] b) {
+        int ab = 0;
+        for (BigInteger c : a) {
+            ab = Math.max(ab, c.bitLength());
+        }
+        int bb = 0;
+        for (BigInteger c : b) {
+            bb = Math.max(bb, c.bitLength());
+        }
+        int m = Math.min(a.length, b.length);
+        int bits = ab + bb + (32 - Integer.numberOfLeadingZeros(m)) + 2;
+        BigInteger A = pack(a, 0, a.length, bits);
+        BigInteger B = pack(b, 0, b.length, bits);
+        BigInteger C = A.multiply(B);
+        BigInteger[] c = new BigInteger[a.length + b.length - 1];
+        unpack(C, 0, c.length, bits, c);
+        return c;
+    }
+
+
+    /**
+     * Kronecker substitution x = 2^bits.
+     */
+    static BigInteger pack(BigInteger[] a, int lo, int hi, int bits) {
+        if (hi - lo == 1) {
+            return a[lo];
+        }
+        int mid = (lo + hi) >>> 1;
+        BigInteger L = pack(a, lo, mid, bits);
+        BigInteger H = pack(a, mid, hi, bits);
+        return L.add(H.shiftLeft(bits * (mid - lo)));
+    }
+
+
+    /**
+     * Inverse Kronecker substitution with balanced digits.
+     */
+    static void unpack(BigInteger X, int lo, int hi, int bits, BigInteger[] c) {
+        if (hi - lo == 1) {
+            c[lo] = X;
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int w = bits * (mid - lo);
+        BigInteger L = X.and(BigInteger.ONE.shiftLeft(w).subtract(BigInteger.ONE));
+        if (L.testBit(w - 1)) {
+            L = L.subtract(BigInteger.ONE.shiftLeft(w));
+        }
+        BigInteger H = X.subtract(L).shiftRight(w);
+        unpack(L, lo, mid, bits, c);
+        unpack(H, mid, hi, bits, c);
+    }
+
+
+    /**
+     * Composition of integer polynomials.
+     * @param f non empty array of integer coefficients.
+     * @param t non empty array of integer coefficients.
+     * @return coefficients of f(t).
+     */
+    public static BigInteger[] compose(BigInteger[] f, BigInteger[] t) {
+        if (t.length == 1 || f.length < COMPOSITION_DEGREE) {
+            return composeHorner(f, 0, f.length, t);
+        }
+        if (t.length == 2 && t[1].equals(BigInteger.ONE)) { // x + s
+            return taylorShift(f, t[0]);
+        }
+        List<BigInteger[]> pow = new ArrayList<BigInteger[]>();
+        pow.add(t);
+        return composeFast(f, 0, f.length, pow);
+    }
+
+
+    /**
+     * Composition, Horner scheme.
+     * @param f integer coefficients.
+     * @param lo start index.
+     * @param len number of coefficients.
+     * @param t integer coefficients.
+     * @return coefficients of (sum_{i&lt;len} f[lo+i] x^i)(t).
+     */
+    static BigInteger[] composeHorner(BigInteger[] f, int lo, int len, BigInteger[] t) {
+        BigInteger[] s = new BigInteger[] { f[lo + len - 1] };
+        for (int i = len - 2; i >= 0; i--) {
+            s = multiply(s, t);
+            s[0] = s[0].add(f[lo + i]);
+        }
+        return s;
+    }
+
+
+    /**
+     * Composition, divide and conquer. With f = f_0 + x^h f_1 is f(t) =
+     * f_0(t) + t^h f_1(t).
+     * @param f integer coefficients.
+     * @param lo start index.
+     * @param len number of coefficients.
+     * @param pow cache of t^(2^k) at index k, t at index 0.
+     * @return coefficients of (sum_{i&lt;len} f[lo+i] x^i)(t).
+     */
+    static BigInteger[] composeFast(BigInteger[] f, int lo, int len, List<BigInteger[]> pow) {
+        if (len < COMPOSITION_DEGREE) {
+            return composeHorner(f, lo, len, pow.get(0));
+        }
+        int h = Integer.highestOneBit(len - 1);
+        BigInteger[] r0 = composeFast(f, lo, h, pow);
+        BigInteger[] r1 = composeFast(f, lo + h, len - h, pow);
+        int k = Integer.numberOfTrailingZeros(h);
+        while (pow.size() <= k) {
+            BigInteger[] T = pow.get(pow.size() - 1);
+            pow.add(multiply(T, T));
+        }
+        BigInteger[] r = multiply(r1, pow.get(k));
+        for (int i = 0; i < r0.length; i++) {
+            r[i] = r[i].add(r0[i]);
+        }
+        return r;
+    }
+
+
+    /**
+     * Taylor shift modulo a prime. One convolution if the degree is less than
+     * p, else divide and conquer.
+     * @param a coefficients in [0,p).
+     * @param s shift in [0,p).
+     * @param p prime modulus &le; ModularKernels.MAX_MODUL.
+     * @return coefficients of a(x+s) mod p.
+     */
+    public static long[] taylorShift(long[] a, long s, long p) {
+        if (s == 0L || a.length <= 1) {
+            return a.clone();
+        }
+        if (a.length <= TAYLOR_SHIFT_DEGREE) {
+            return taylorShiftHorner(a, 0, a.length, s, p);
+        }
+        if (a.length <= p) {
+            return taylorShiftConvolution(a, s, p);
+        }
+        if (debug) {
+            logger.debug("degree " + (a.length - 1) + " >= modulus " + p);
+        }
+        List<long[]> pow = new ArrayList<long[]>();
+        pow.add(new long[] { s, 1L });
+        return taylorShiftFast(a, 0, a.length, p, pow);
+    }
+
+
+    /**
+     * Taylor shift modulo a prime, Horner scheme.
+     * @param a coefficients in [0,p).
+     * @param lo start index.
+     * @param len number of coefficients.
+     * @param s shift in [0,p).
+     * @param p modulus.
+     * @return coefficients of (sum_{i&lt;len} a[lo+i] x^i)(x+s) mod p.
+     */
+    static long[] taylorShiftHorner(long[] a, int lo, int len, long s, long p) {
+        long[] b = java.util.Arrays.copyOfRange(a, lo, lo + len);
+        int n = len - 1;
+        for (int i = 0; i < n; i++) {
+            for (int j = n - 1; j >= i; j--) {
+                b[j] = (b[j] + s * b[j + 1]) % p;
+            }
+        }
+        return b;
+    }
+
+
+    /**
+     * Taylor shift modulo a prime by convolution. With u_i = i! a_i and v_j =
+     * s^j / j! is k! b_k = sum_{i&ge;k} u_i v_{i-k}, a coefficient of the
+     * product of the reversed u with v.
+     * @param a coefficients in [0,p), length at most p.
+     * @param s shift in [0,p).
+     * @param p prime modulus.
+     * @return coefficients of a(x+s) mod p.
+     */
+    static long[] taylorShiftConvolution(long[] a, long s, long p) {
+        int n = a.length - 1;
+        long[] fact = new long[n + 1];
+        fact[0] = 1L;
+        for (int i = 1; i <= n; i++) {
+            fact[i] = (fact[i - 1] * i) % p;
+        }
+        long[] ifact = new long[n + 1];
+        ifact[n] = ModularKernels.inverse(fact[n], p);
+        for (int i = n; i > 0; i--) {
+            ifact[i - 1] = (ifact[i] * i) % p;
+        }
+        long[] u = new long[n + 1];
+        long[] v = new long[n + 1];
+        long sj = 1L;
+        for (int i = 0; i <= n; i++) {
+            u[n - i] = (fact[i] * a[i]) % p;
+            v[i] = (sj * ifact[i]) % p;
+            sj = (sj * s) % p;
+        }
+        long[] w = ModularKernels.multiply(u, 0, n + 1, v, 0, n + 1, p);
+        long[] b = new long[n + 1];
+        for (int k = 0; k <= n; k++) {
+            b[k] = (w[n - k] * ifact[k]) % p;
+        }
+        return b;
+    }
+
+
+    /**
+     * Taylor shift modulo a prime, divide and conquer.
+     * @param a coefficients in [0,p).
+     * @param lo start index.
+     * @param len number of coefficients.
+     * @param p modulus.
+     * @param pow cache of (x+s)^(2^k) at index k.
+     * @return coefficients of (sum_{i&lt;len} a[lo+i] x^i)(x+s) mod p.
+     */
+    static long[] taylorShiftFast(long[] a, int lo, int len, long p, List<long[]> pow) {
+        if (len <= TAYLOR_SHIFT_DEGREE) {
+            return taylorShiftHorner(a, lo, len, pow.get(0)[0], p);
+        }
+        return divideAndConquer(a, lo, len, p, pow, true);
+    }
+
+
+    /**
+     * Divide and conquer step f_0(t) + t^h f_1(t) modulo a prime, for Taylor
+     * shifts with t = x+s and for compositions.
+     */
+    private static long[] divideAndConquer(long[] a, int lo, int len, long p, List<long[]> pow,
+                    boolean shift) {
+        int h = Integer.highestOneBit(len - 1);
+        long[] r0;
+        long[] r1;
+        if (shift) {
+            r0 = taylorShiftFast(a, lo, h, p, pow);
+            r1 = taylorShiftFast(a, lo + h, len - h, p, pow);
+        } else {
+            r0 = composeFast(a, lo, h, p, pow);
+            r1 = composeFast(a, lo + h, len - h, p, pow);
+        }
+        int k = Integer.numberOfTrailingZeros(h);
+        while (pow.size() <= k) {
+            long[] T = pow.get(pow.size() - 1);
+            pow.add(ModularKernels.multiply(T, 0, T.length, T, 0, T.length, p));
+        }
+        long[] T = pow.get(k);
+        long[] r = ModularKernels.multiply(r1, 0, r1.length, T, 0, T.length, p);
+        ModularKernels.sum(r, 0, r0, 0, r, 0, r0.length, p);
+        return r;
+    }
+
+
+    /**
+     * Composition modulo a prime.
+     * @param f non empty array of coefficients in [0,p).
+     * @param t non empty array of coefficients in [0,p) with non zero
+     *            leading coefficient.
+     * @param p prime modulus &le; ModularKernels.MAX_MODUL.
+     * @return coefficients of f(t) mod p.
+     */
+    public static long[] compose(long[] f, long[] t, long p) {
+        if (t.length == 1 || f.length < COMPOSITION_DEGREE) {
+            return composeHorner(f, 0, f.length, t, p);
+        }
+        if (t.length == 2 && t[1] == 1L) { // x + s
+            return taylorShift(f, t[0], p);
+        }
+        List<long[]> pow = new ArrayList<long[]>();
+        pow.add(t);
+        return composeFast(f, 0, f.length, p, pow);
+    }
+
+
+    /**
+     * Composition modulo a prime, Horner scheme.
+     * @param f coefficients in [0,p).
+     * @param lo start index.
+     * @param len number of coefficients.
+     * @param t coefficients in [0,p).
+     * @param p modulus.
+     * @return coefficients of (sum_{i&lt;len} f[lo+i] x^i)(t) mod p.
+     */
+    static long[] composeHorner(long[] f, int lo, int len, long[] t, long p) {
+        long[] s = new long[] { f[lo + len - 1] };
+        for (int i = len - 2; i >= 0; i--) {
+            s = ModularKernels.multiply(s, 0, s.length, t, 0, t.length, p);
+            s[0] = (s[0] + f[lo + i]) % p;
+        }
+        return s;
+    }
+
+
+    /**
+     * Composition modulo a prime, divide and conquer.
+     * @param f coefficients in [0,p).
+     * @param lo start index.
+     * @param len number of coefficients.
+     * @param p modulus.
+     * @param pow cache of t^(2^k) at index k, t at index 0.
+     * @return coefficients of (sum_{i&lt;len} f[lo+i] x^i)(t) mod p.
+     */
+    static long[] composeFast(long[] f, int lo, int len, long p, List<long[]> pow) {
+        if (len < COMPOSITION_DEGREE) {
+            return composeHorner(f, lo, len, pow.get(0), p);
+        }
+        return divideAndConquer(f, lo, len, p, pow, false);
+    }
+
+}
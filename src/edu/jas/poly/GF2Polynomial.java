@@ -0,0 +1,773 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * GF2Polynomial implements univariate polynomials over GF(2) bit-packed in
+ * <code>long[]</code> words. Bit i of word j is the coefficient of
+ * x<sup>64 j + i</sup>, the word array is normalized, i.e. the highest word
+ * is non zero. Addition is XOR, multiplication is carry-less with a 4 bit
+ * comb window and word level Karatsuba for large operands, squaring spreads
+ * the bits. Objects of this class are immutable.
+ * @author Heinz Kredel
+ * @see PolyUtil#toGF2Polynomial(GenPolynomial)
+ * @see PolyUtil#fromGF2Polynomial(GenPolynomialRing, GF2Polynomial)
+ */
+
+public final class GF2Polynomial implements Comparable<GF2Polynomial>, Serializable {
+
+
+    /**
+     * Minimal number of words of both operands for Karatsuba multiplication.
+     */
+    public final static int KARATSUBA_WORDS = 24;
+
+
+    /**
+     * The constant polynomial 0.
+     */
+    public final static GF2Polynomial ZERO = new GF2Polynomial(new long[0], 0);
+
+
+    /**
+     * The constant polynomial 1.
+     */
+    public final static GF2Polynomial ONE = new GF2Polynomial(new long[] { 1L }, 1);
+
+
+    /**
+     * The polynomial x.
+     */
+    public final static GF2Polynomial X = new GF2Polynomial(new long[] { 2L }, 1);
+
+
+    /**
+     * Coefficient words, normalized.
+     */
+    final long[] val;
+
+
+    /**
+     * Private constructor, array is not copied.
+     * @param a normalized words.
+     * @param n number of words to use.
+     */
+    private GF2Polynomial(long[] a, int n) {
+        val = (n == a.length ? a : Arrays.copyOf(a, n));
+    }
+
+
+    /**
+     * Constructor.
+     * @param a coefficient words, bit i of a[j] is the coefficient of
+     *            x<sup>64 j + i</sup>, a is copied.
+     */
+    public GF2Polynomial(long[] a) {
+        this(a.clone(), normalLength(a));
+    }
+
+
+    /**
+     * Create from words without copy.
+     * @param a coefficient words, a is used by the polynomial.
+     * @return polynomial with words a.
+     */
+    static GF2Polynomial create(long[] a) {
+        int n = normalLength(a);
+        if (n == 0) {
+            return ZERO;
+        }
+        return new GF2Polynomial(a, n);
+    }
+
+
+    /**
+     * Number of words up to the highest non zero word.
+     * @param a words.
+     * @return normalized length of a.
+     */
+    static int normalLength(long[] a) {
+        int n = a.length;
+        while (n > 0 && a[n - 1] == 0L) {
+            n--;
+        }
+        return n;
+    }
+
+
+    /**
+     * Univariate monomial.
+     * @param e exponent.
+     * @return x<sup>e</sup>.
+     */
+    public static GF2Polynomial univariate(int e) {
+        if (e < 0) {
+            throw new IllegalArgumentException("negative exponent " + e);
+        }
+        long[] a = new long[(e >>> 6) + 1];
+        a[e >>> 6] = 1L << (e & 63);
+        return new GF2Polynomial(a, a.length);
+    }
+
+
+    /**
+     * Random polynomial.
+     * @param d bound for the degree, the degree is less than d.
+     * @param rnd is a source for random bits.
+     * @return a random polynomial of degree &lt; d.
+     */
+    public static GF2Polynomial random(int d, Random rnd) {
+        if (d <= 0) {
+            return ZERO;
+        }
+        long[] a = new long[((d - 1) >>> 6) + 1];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = rnd.nextLong();
+        }
+        int r = d & 63;
+        if (r != 0) {
+            a[a.length - 1] &= (1L << r) - 1L;
+        }
+        return create(a);
+    }
+
+
+    /**
+     * Get the coefficient words.
+     * @return a copy of the coefficient words.
+     */
+    public long[] getWords() {
+        return val.clone();
+    }
+
+
+    /**
+     * Is zero polynomial.
+     * @return true if this is 0, else false.
+     */
+    public boolean isZERO() {
+        return val.length == 0;
+    }
+
+
+    /**
+     * Is one polynomial.
+     * @return true if this is 1, else false.
+     */
+    public boolean isONE() {
+        return val.length == 1 && val[0] == 1L;
+    }
+
+
+    /**
+     * Degree.
+     * @return degree of this, -1 for the zero polynomial.
+     */
+    public int degree() {
+        int n = val.length;
+        if (n == 0) {
+            return -1;
+        }
+        return 64 * (n - 1) + 63 - Long.numberOfLeadingZeros(val[n - 1]);
+    }
+
+
+    /**
+     * Test coefficient.
+     * @param i exponent.
+     * @return true if the coefficient of x<sup>i</sup> is 1, else false.
+     */
+    public boolean testBit(int i) {
+        int j = i >>> 6;
+        if (i < 0 || j >= val.length) {
+            return false;
+        }
+        return ((val[j] >>> (i & 63)) & 1L) != 0L;
+    }
+
+
+    /**
+     * Number of non zero coefficients.
+     * @return number of terms of this.
+     */
+    public int length() {
+        int s = 0;
+        for (long w : val) {
+            s += Long.bitCount(w);
+        }
+        return s;
+    }
+
+
+    /**
+     * Summation, also subtraction.
+     * @param S GF2Polynomial.
+     * @return this+S.
+     */
+    public GF2Polynomial sum(GF2Polynomial S) {
+        long[] a = val;
+        long[] b = S.val;
+        if (a.length < b.length) {
+            long[] t = a;
+            a = b;
+            b = t;
+        }
+        if (b.length == 0) {
+            return (a == val ? this : S);
+        }
+        long[] c = a.clone();
+        for (int i = 0; i < b.length; i++) {
+            c[i] ^= b[i];
+        }
+        return create(c);
+    }
+
+
+    /**
+     * Multiplication by x<sup>n</sup>.
+     * @param n shift.
+     * @return this * x<sup>n</sup>.
+     */
+    public GF2Polynomial shiftLeft(int n) {
+        if (n < 0) {
+            return shiftRight(-n);
+        }
+        if (n == 0 || val.length == 0) {
+            return this;
+        }
+        int w = n >>> 6;
+        int s = n & 63;
+        long[] c = new long[val.length + w + 1];
+        if (s == 0) {
+            System.arraycopy(val, 0, c, w, val.length);
+        } else {
+            for (int i = 0; i < val.length; i++) {
+                c[i + w] ^= val[i] << s;
+                c[i + w + 1] = val[i] >>> (64 - s);
+            }
+        }
+        return create(c);
+    }
+
+
+    /**
+     * Division by x<sup>n</sup>, the terms of degree less than n are
+     * discarded.
+     * @param n shift.
+     * @return this / x<sup>n</sup>.
+     */
+    public GF2Polynomial shiftRight(int n) {
+        if (n < 0) {
+            return shiftLeft(-n);
+        }
+        if (n == 0) {
+            return this;
+        }
+        int w = n >>> 6;
+        int s = n & 63;
+        if (w >= val.length) {
+            return ZERO;
+        }
+        long[] c = new long[val.length - w];
+        if (s == 0) {
+            System.arraycopy(val, w, c, 0, c.length);
+        } else {
+            for (int i = 0; i < c.length; i++) {
+                long h = (i + w + 1 < val.length ? val[i + w + 1] << (64 - s) : 0L);
+                c[i] = (val[i + w] >>> s) | h;
+            }
+        }
+        return create(c);
+    }
+
+
+    /**
+     * Multiplication.
+     * @param S GF2Polynomial.
+     * @return this*S.
+     */
+    public GF2Polynomial multiply(GF2Polynomial S) {
+        if (val.length == 0 || S.val.length == 0) {
+            return ZERO;
+        }
+        if (this.isONE()) {
+            return S;
+        }
+        if (S.isONE()) {
+            return this;
+        }
+        if (this == S) {
+            return square();
+        }
+        long[] c = new long[val.length + S.val.length];
+        mulWords(val, 0, val.length, S.val, 0, S.val.length, c, 0);
+        return create(c);
+    }
+
+
+    /**
+     * Carry-less multiplication of word ranges, c[co..] ^= a*b.
+     * @param a first factor words.
+     * @param ao offset in a.
+     * @param an number of words of a.
+     * @param b second factor words.
+     * @param bo offset in b.
+     * @param bn number of words of b.
+     * @param c result words with at least an+bn words after co.
+     * @param co offset in c.
+     */
+    static void mulWords(long[] a, int ao, int an, long[] b, int bo, int bn, long[] c, int co) {
+        if (an < KARATSUBA_WORDS || bn < KARATSUBA_WORDS) {
+            if (an < bn) { // table for the shorter operand
+                mulComb(b, bo, bn, a, ao, an, c, co);
+            } else {
+                mulComb(a, ao, an, b, bo, bn, c, co);
+            }
+            return;
+        }
+        if (an != bn) { // split the longer operand in chunks
+            if (an < bn) {
+                for (int i = 0; i < bn; i += an) {
+                    mulWords(a, ao, an, b, bo + i, Math.min(an, bn - i), c, co + i);
+                }
+            } else {
+                for (int i = 0; i < an; i += bn) {
+                    mulWords(a, ao + i, Math.min(bn, an - i), b, bo, bn, c, co + i);
+                }
+            }
+            return;
+        }
+        // Karatsuba: a = a0 + a1 y, b = b0 + b1 y, y = x^(64 h)
+        int h = an >>> 1;
+        int n1 = an - h;
+        long[] z0 = new long[2 * h];
+        long[] z2 = new long[2 * n1];
+        mulWords(a, ao, h, b, bo, h, z0, 0);
+        mulWords(a, ao + h, n1, b, bo + h, n1, z2, 0);
+        long[] as = new long[n1];
+        long[] bs = new long[n1];
+        System.arraycopy(a, ao + h, as, 0, n1);
+        System.arraycopy(b, bo + h, bs, 0, n1);
+        for (int i = 0; i < h; i++) {
+            as[i] ^= a[ao + i];
+            bs[i] ^= b[bo + i];
+        }
+        long[] z1 = new long[2 * n1];
+        mulWords(as, 0, n1, bs, 0, n1, z1, 0);
+        for (int i = 0; i < z0.length; i++) {
+            z1[i] ^= z0[i];
+            c[co + i] ^= z0[i];
+        }
+        for (int i = 0; i < z2.length; i++) {
+            z1[i] ^= z2[i];
+            c[co + 2 * h + i] ^= z2[i];
+        }
+        for (int i = 0; i < z1.length; i++) {
+            c[co + h + i] ^= z1[i];
+        }
+    }
+
+
+    /**
+     * Carry-less comb multiplication with a 4 bit window, c[co..] ^= a*b.
+     * The table contains the 16 products of b with polynomials of degree
+     * less than 4.
+     * @param a first factor words.
+     * @param ao offset in a.
+     * @param an number of words of a.
+     * @param b second factor words.
+     * @param bo offset in b.
+     * @param bn number of words of b.
+     * @param c result words with at least an+bn words after co.
+     * @param co offset in c.
+     */
+    static void mulComb(long[] a, int ao, int an, long[] b, int bo, int bn, long[] c, int co) {
+        int tn = bn + 1;
+        long[] T = new long[16 * tn];
+        System.arraycopy(b, bo, T, tn, bn);
+        for (int u = 2; u < 16; u += 2) {
+            int s = (u >>> 1) * tn;
+            int t = u * tn;
+            long carry = 0L;
+            for (int i = 0; i < tn; i++) { // T[u] = T[u/2] * x
+                long w = T[s + i];
+                T[t + i] = (w << 1) | carry;
+                carry = w >>> 63;
+            }
+            for (int i = 0; i < tn; i++) { // T[u+1] = T[u] + b
+                T[t + tn + i] = T[t + i] ^ T[tn + i];
+            }
+        }
+        int cn = an + bn + 1;
+        long[] r = new long[cn];
+        for (int k = 60; k >= 0; k -= 4) {
+            for (int i = 0; i < an; i++) {
+                int u = (int) ((a[ao + i] >>> k) & 15L);
+                if (u != 0) {
+                    int t = u * tn;
+                    for (int j = 0; j < tn; j++) {
+                        r[i + j] ^= T[t + j];
+                    }
+                }
+            }
+            if (k != 0) {
+                for (int i = cn - 1; i > 0; i--) {
+                    r[i] = (r[i] << 4) | (r[i - 1] >>> 60);
+                }
+                r[0] <<= 4;
+            }
+        }
+        for (int i = 0; i < an + bn; i++) {
+            c[co + i] ^= r[i];
+        }
+    }
+
+
+    /**
+     * Square, the bits are spread to the even positions.
+     * @return this*this.
+     */
+    public GF2Polynomial square() {
+        if (val.length == 0 || isONE()) {
+            return this;
+        }
+        long[] c = new long[2 * val.length];
+        for (int i = 0; i < val.length; i++) {
+            long w = val[i];
+            c[2 * i] = spread(w & 0xFFFFFFFFL);
+            c[2 * i + 1] = spread(w >>> 32);
+        }
+        return create(c);
+    }
+
+
+    /**
+     * Spread the lower 32 bits to the even bit positions.
+     * @param v word with v &lt; 2<sup>32</sup>.
+     * @return v with zero bits inserted.
+     */
+    static long spread(long v) {
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+
+
+    /**
+     * Compress the even bit positions to the lower 32 bits.
+     * @param v word.
+     * @return the even bits of v.
+     */
+    static long compress(long v) {
+        v &= 0x5555555555555555L;
+        v = (v | (v >>> 1)) & 0x3333333333333333L;
+        v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v >>> 16)) & 0x00000000FFFFFFFFL;
+        return v;
+    }
+
+
+    /**
+     * Characteristic root.
+     * @return r with r<sup>2</sup> == this, or null if no such r exists.
+     */
+    public GF2Polynomial rootCharacteristic() {
+        long[] c = new long[(val.length + 1) >>> 1];
+        for (int i = 0; i < val.length; i++) {
+            long w = val[i];
+            if ((w & 0xAAAAAAAAAAAAAAAAL) != 0L) {
+                return null;
+            }
+            c[i >>> 1] |= compress(w) << (32 * (i & 1));
+        }
+        return create(c);
+    }
+
+
+    /**
+     * Derivative.
+     * @return d/dx this.
+     */
+    public GF2Polynomial derivative() {
+        long[] c = new long[val.length];
+        for (int i = 0; i < val.length; i++) { // odd exponents only
+            c[i] = (val[i] & 0xAAAAAAAAAAAAAAAAL) >>> 1;
+        }
+        return create(c);
+    }
+
+
+    /**
+     * Quotient and remainder.
+     * @param S GF2Polynomial.
+     * @return [ this/S, this - (this/S)*S ].
+     */
+    public GF2Polynomial[] quotientRemainder(GF2Polynomial S) {
+        if (S.isZERO()) {
+            throw new ArithmeticException("division by zero");
+        }
+        int df = S.degree();
+        int dr = degree();
+        if (dr < df) {
+            return new GF2Polynomial[] { ZERO, this };
+        }
+        long[] r = val.clone();
+        long[] q = new long[((dr - df) >>> 6) + 1];
+        reduce(r, dr, S.val, df, new long[64][], q);
+        return new GF2Polynomial[] { create(q), create(r) };
+    }
+
+
+    /**
+     * Quotient.
+     * @param S GF2Polynomial.
+     * @return this/S.
+     */
+    public GF2Polynomial divide(GF2Polynomial S) {
+        return quotientRemainder(S)[0];
+    }
+
+
+    /**
+     * Remainder.
+     * @param S GF2Polynomial.
+     * @return this - (this/S)*S.
+     */
+    public GF2Polynomial remainder(GF2Polynomial S) {
+        if (S.isZERO()) {
+            throw new ArithmeticException("division by zero");
+        }
+        int df = S.degree();
+        int dr = degree();
+        if (dr < df) {
+            return this;
+        }
+        long[] r = val.clone();
+        reduce(r, dr, S.val, df, new long[64][], null);
+        return create(r);
+    }
+
+
+    /**
+     * In place reduction of r modulo f. The shifted copies of f are computed
+     * on demand and kept in fs for later use.
+     * @param r words of the dividend, on return the remainder.
+     * @param dr degree of r.
+     * @param f words of the divisor.
+     * @param df degree of f.
+     * @param fs cache of f shifted by 0, ..., 63 bits.
+     * @param q words of the quotient or null.
+     */
+    static void reduce(long[] r, int dr, long[] f, int df, long[][] fs, long[] q) {
+        for (int i = dr; i >= df; i--) {
+            if (((r[i >>> 6] >>> (i & 63)) & 1L) == 0L) {
+                continue;
+            }
+            int sh = i - df;
+            int wo = sh >>> 6;
+            int s = sh & 63;
+            long[] g = fs[s];
+            if (g == null) {
+                g = new long[f.length + 1];
+                if (s == 0) {
+                    System.arraycopy(f, 0, g, 0, f.length);
+                } else {
+                    for (int j = 0; j < f.length; j++) {
+                        g[j] ^= f[j] << s;
+                        g[j + 1] = f[j] >>> (64 - s);
+                    }
+                }
+                fs[s] = g;
+            }
+            int n = Math.min(g.length, r.length - wo);
+            for (int j = 0; j < n; j++) {
+                r[wo + j] ^= g[j];
+            }
+            if (q != null) {
+                q[wo] |= 1L << s;
+            }
+        }
+    }
+
+
+    /**
+     * Greatest common divisor.
+     * @param S GF2Polynomial.
+     * @return gcd(this,S).
+     */
+    public GF2Polynomial gcd(GF2Polynomial S) {
+        GF2Polynomial a = this;
+        GF2Polynomial b = S;
+        while (!b.isZERO()) {
+            GF2Polynomial r = a.remainder(b);
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+
+    /**
+     * Modular multiplication.
+     * @param S GF2Polynomial.
+     * @param F modulus.
+     * @return this*S mod F.
+     */
+    public GF2Polynomial modMultiply(GF2Polynomial S, GF2Polynomial F) {
+        return multiply(S).remainder(F);
+    }
+
+
+    /**
+     * Modular power.
+     * @param e non negative exponent.
+     * @param F modulus.
+     * @return this<sup>e</sup> mod F.
+     */
+    public GF2Polynomial modPower(java.math.BigInteger e, GF2Polynomial F) {
+        if (e.signum() < 0) {
+            throw new IllegalArgumentException("negative exponent " + e);
+        }
+        int df = F.degree();
+        if (df < 0) {
+            throw new ArithmeticException("division by zero");
+        }
+        long[][] fs = new long[64][];
+        GF2Polynomial b = this;
+        if (b.degree() >= df) {
+            b = b.remainder(F);
+        }
+        GF2Polynomial p = ONE.remainder(F);
+        for (int i = e.bitLength() - 1; i >= 0; i--) {
+            p = modReduce(p.square(), F, df, fs);
+            if (e.testBit(i)) {
+                p = modReduce(p.multiply(b), F, df, fs);
+            }
+        }
+        return p;
+    }
+
+
+    /**
+     * Modular squaring.
+     * @param F modulus.
+     * @return this<sup>2</sup> mod F.
+     */
+    public GF2Polynomial modSquare(GF2Polynomial F) {
+        return square().remainder(F);
+    }
+
+
+    /**
+     * Reduction with a cache of shifted moduli.
+     * @param a polynomial.
+     * @param F modulus.
+     * @param df degree of F.
+     * @param fs cache of F shifted by 0, ..., 63 bits.
+     * @return a mod F.
+     */
+    static GF2Polynomial modReduce(GF2Polynomial a, GF2Polynomial F, int df, long[][] fs) {
+        int da = a.degree();
+        if (da < df) {
+            return a;
+        }
+        long[] r = a.val.clone();
+        reduce(r, da, F.val, df, fs, null);
+        return create(r);
+    }
+
+
+    /**
+     * Comparison by degree and then by coefficients.
+     * @param b GF2Polynomial.
+     * @return sign(this-b).
+     */
+    @Override
+    public int compareTo(GF2Polynomial b) {
+        if (val.length != b.val.length) {
+            return (val.length < b.val.length ? -1 : 1);
+        }
+        for (int i = val.length - 1; i >= 0; i--) {
+            if (val[i] != b.val[i]) {
+                return (Long.compareUnsigned(val[i], b.val[i]) < 0 ? -1 : 1);
+            }
+        }
+        return 0;
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object B) {
+        if (!(B instanceof GF2Polynomial)) {
+            return false;
+        }
+        return Arrays.equals(val, ((GF2Polynomial) B).val);
+    }
+
+
+    /**
+     * Hash code for this polynomial.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(val);
+    }
+
+
+    /**
+     * String representation in the variable x.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return toString("x");
+    }
+
+
+    /**
+     * String representation.
+     * @param var name of the variable.
+     * @return this as string with decreasing exponents.
+     */
+    public String toString(String var) {
+        if (val.length == 0) {
+            return "0";
+        }
+        StringBuffer s = new StringBuffer();
+        for (int i = degree(); i >= 0; i--) {
+            if (!testBit(i)) {
+                continue;
+            }
+            if (s.length() > 0) {
+                s.append(" + ");
+            }
+            if (i == 0) {
+                s.append("1");
+            } else if (i == 1) {
+                s.append(var);
+            } else {
+                s.append(var).append("^").append(i);
+            }
+        }
+        return s.toString();
+    }
+
+}
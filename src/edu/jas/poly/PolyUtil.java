@@ -6,6 +6,7 @@ package edu.jas.poly;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -19,6 +20,7 @@ import edu.jas.arith.BigDecimal;
 import edu.jas.arith.BigDecimalComplex;
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.ChineseRemainder;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.Modular;
@@ -51,6 +53,20 @@ public class PolyUtil {
     private static final boolean debug = logger.isDebugEnabled();
 
 
+    /**
+     * Minimal number of points for interpolation and recursive multipoint
+     * evaluation with subproduct trees.
+     */
+    public static final int MULTIPOINT_THRESHOLD = 32;
+
+
+    /**
+     * Minimal number of points for multipoint evaluation of one univariate
+     * polynomial with subproduct trees, below Horner evaluation is faster.
+     */
+    public static final int MULTIPOINT_EVALUATION_THRESHOLD = 512;
+
+
     /**
      * Recursive representation. Represent as polynomial in i variables with
      * coefficients in n-i variables. Works for arbitrary term orders.
@@ -346,6 +362,64 @@ public class PolyUtil {
     }
 
 
+    /**
+     * Convert to bit-packed GF(2) polynomial.
+     * @param <C> coefficient type, e.g. ModInt or ModLong modulo 2.
+     * @param A univariate polynomial with coefficients modulo 2.
+     * @return A as GF2Polynomial.
+     */
+    public static <C extends RingElem<C>> GF2Polynomial toGF2Polynomial(GenPolynomial<C> A) {
+        if (A == null || A.isZERO()) {
+            return GF2Polynomial.ZERO;
+        }
+        if (A.ring.nvar != 1) {
+            throw new IllegalArgumentException("only for univariate polynomials");
+        }
+        // characteristic 2 is not sufficient, e.g. GF(2^k)
+        Object cf = A.ring.coFac;
+        if (!(cf instanceof ModularRingFactory) || !((ModularRingFactory<?>) cf).getIntegerModul().getVal()
+                        .equals(java.math.BigInteger.valueOf(2L))) {
+            throw new IllegalArgumentException("only for coefficients modulo 2: " + A.ring.coFac);
+        }
+        long[] a = new long[(int) (A.degree(0) >>> 6) + 1];
+        for (Monomial<C> m : A) {
+            int e = (int) m.e.getVal(0);
+            if (!m.c.isZERO()) {
+                a[e >>> 6] |= 1L << (e & 63);
+            }
+        }
+        return GF2Polynomial.create(a);
+    }
+
+
+    /**
+     * Convert from bit-packed GF(2) polynomial.
+     * @param <C> coefficient type, e.g. ModInt or ModLong modulo 2.
+     * @param fac univariate polynomial ring factory with coefficients of
+     *            characteristic 2.
+     * @param a GF2Polynomial.
+     * @return a as GenPolynomial.
+     */
+    public static <C extends RingElem<C>> GenPolynomial<C> fromGF2Polynomial(GenPolynomialRing<C> fac,
+                    GF2Polynomial a) {
+        if (fac.nvar != 1) {
+            throw new IllegalArgumentException("only for univariate polynomials");
+        }
+        GenPolynomial<C> A = fac.getZERO().copy();
+        C one = fac.coFac.getONE();
+        long[] v = a.val;
+        for (int j = v.length - 1; j >= 0; j--) {
+            long w = v[j];
+            while (w != 0L) {
+                int i = 63 - Long.numberOfLeadingZeros(w);
+                w ^= 1L << i;
+                A.doPutToMap(ExpVector.create(1, 0, 64L * j + i), one);
+            }
+        }
+        return A;
+    }
+
+
     /**
      * Convert to decimal coefficients.
      * @param fac result polynomial factory.
@@ -591,6 +665,115 @@ public class PolyUtil {
     }
 
 
+    /**
+     * Batch chinese remainder algorithm on coefficients.
+     * @param fac GenPolynomial&lt;C&gt; result factory with fac.coFac.modul
+     *            = cr.modul.
+     * @param cr chinese remainder tree for the moduli of the polynomials.
+     * @param A list of polynomials, A.get(i) with coefficients modulo
+     *            cr.getModul(i).
+     * @return S, with S mod cr.getModul(i) == A.get(i).
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends RingElem<C> & Modular, D extends RingElem<D> & Modular> GenPolynomial<C> chineseRemainder(
+                    GenPolynomialRing<C> fac, ChineseRemainder cr, List<GenPolynomial<D>> A) {
+        ModularRingFactory<C> cfac = (ModularRingFactory<C>) fac.coFac;
+        GenPolynomial<C> S = fac.getZERO().copy();
+        SortedMap<ExpVector, C> sv = S.val;
+        for (Map.Entry<ExpVector, java.math.BigInteger[]> me : residues(fac, cr, A).entrySet()) {
+            C c = cfac.fromInteger(cr.combine(me.getValue()));
+            if (!c.isZERO()) {
+                sv.put(me.getKey(), c);
+            }
+        }
+        return S;
+    }
+
+
+    /**
+     * Batch chinese remainder algorithm on coefficients with symmetric
+     * integer result.
+     * @param fac GenPolynomial&lt;BigInteger&gt; result factory.
+     * @param cr chinese remainder tree for the moduli of the polynomials.
+     * @param A list of polynomials, A.get(i) with coefficients modulo
+     *            cr.getModul(i).
+     * @return S, with S mod cr.getModul(i) == A.get(i) and |S| &le;
+     *         cr.modul/2.
+     */
+    public static <D extends RingElem<D> & Modular> GenPolynomial<BigInteger> integerFromChineseRemainder(
+                    GenPolynomialRing<BigInteger> fac, ChineseRemainder cr, List<GenPolynomial<D>> A) {
+        GenPolynomial<BigInteger> S = fac.getZERO().copy();
+        SortedMap<ExpVector, BigInteger> sv = S.val;
+        for (Map.Entry<ExpVector, java.math.BigInteger[]> me : residues(fac, cr, A).entrySet()) {
+            java.math.BigInteger c = cr.symmetric(cr.combine(me.getValue()));
+            if (c.signum() != 0) {
+                sv.put(me.getKey(), new BigInteger(c));
+            }
+        }
+        return S;
+    }
+
+
+    /**
+     * Batch chinese remainder algorithm on coefficients with rational
+     * reconstruction.
+     * @param fac GenPolynomial&lt;BigRational&gt; result factory.
+     * @param cr chinese remainder tree for the moduli of the polynomials.
+     * @param A list of polynomials, A.get(i) with coefficients modulo
+     *            cr.getModul(i).
+     * @return S, with S mod cr.getModul(i) == A.get(i) and numerators and
+     *         denominators bounded by sqrt(cr.modul/2), or null if some
+     *         coefficient has no rational reconstruction.
+     */
+    public static <D extends RingElem<D> & Modular> GenPolynomial<BigRational> rationalFromChineseRemainder(
+                    GenPolynomialRing<BigRational> fac, ChineseRemainder cr, List<GenPolynomial<D>> A) {
+        GenPolynomial<BigRational> S = fac.getZERO().copy();
+        SortedMap<ExpVector, BigRational> sv = S.val;
+        for (Map.Entry<ExpVector, java.math.BigInteger[]> me : residues(fac, cr, A).entrySet()) {
+            BigRational c = cr.rationalReconstruction(me.getValue());
+            if (c == null) {
+                return null;
+            }
+            if (!c.isZERO()) {
+                sv.put(me.getKey(), c);
+            }
+        }
+        return S;
+    }
+
+
+    /**
+     * Residues of the coefficients for the batch chinese remainder
+     * algorithm.
+     * @param fac GenPolynomial result factory.
+     * @param cr chinese remainder tree for the moduli of the polynomials.
+     * @param A list of polynomials, A.get(i) with coefficients modulo
+     *            cr.getModul(i).
+     * @return map of exponents to arrays of residues modulo cr.getModul(i).
+     */
+    static <D extends RingElem<D> & Modular> SortedMap<ExpVector, java.math.BigInteger[]> residues(
+                    GenPolynomialRing<?> fac, ChineseRemainder cr, List<GenPolynomial<D>> A) {
+        int k = cr.size();
+        if (A.size() != k) {
+            throw new IllegalArgumentException("wrong number of polynomials " + A.size() + " != " + k);
+        }
+        SortedMap<ExpVector, java.math.BigInteger[]> R = new TreeMap<ExpVector, java.math.BigInteger[]>(
+                        fac.tord.getDescendComparator());
+        for (int i = 0; i < k; i++) {
+            for (Map.Entry<ExpVector, D> me : A.get(i).val.entrySet()) {
+                java.math.BigInteger[] r = R.get(me.getKey());
+                if (r == null) {
+                    r = new java.math.BigInteger[k];
+                    Arrays.fill(r, java.math.BigInteger.ZERO);
+                    R.put(me.getKey(), r);
+                }
+                r[i] = me.getValue().getInteger().getVal();
+            }
+        }
+        return R;
+    }
+
+
     /**
      * GenPolynomial monic, i.e. leadingBaseCoefficient == 1. If
      * leadingBaseCoefficient is not invertible returns this unmodified.
@@ -2076,6 +2259,53 @@ public class PolyUtil {
     }
 
 
+    /**
+     * Multipoint evaluation at main variable. Uses a subproduct tree for
+     * word size prime fields and at least MULTIPOINT_EVALUATION_THRESHOLD
+     * points, else Horner evaluation at every point.
+     * @param <C> coefficient type.
+     * @param A univariate polynomial to be evaluated.
+     * @param a list of values to evaluate at.
+     * @return list( A( a_i ) ) for a_i in a.
+     */
+    public static <C extends RingElem<C> & Modular> List<C> evaluateMainMultipoint(GenPolynomial<C> A,
+                    List<C> a) {
+        if (a.size() >= MULTIPOINT_EVALUATION_THRESHOLD && SubproductTree.isApplicable(A.ring.coFac)) {
+            return new SubproductTree<C>(A.ring, a).evaluate(A);
+        }
+        List<C> L = new ArrayList<C>(a.size());
+        for (C ai : a) {
+            L.add(PolyUtil.<C> evaluateMain(A.ring.coFac, A, ai));
+        }
+        return L;
+    }
+
+
+    /**
+     * Multipoint evaluation at first variable of the coefficients. Uses a
+     * subproduct tree for word size prime fields and at least
+     * MULTIPOINT_THRESHOLD points, else evaluateFirstRec at every point.
+     * @param <C> coefficient type.
+     * @param cfac coefficient ring of A, univariate polynomials.
+     * @param dfac polynomial ring of the results.
+     * @param A recursive polynomial to be evaluated.
+     * @param a list of values to evaluate at.
+     * @return list( A( a_i ) ) for a_i in a, evaluated in the coefficients.
+     */
+    public static <C extends RingElem<C> & Modular> List<GenPolynomial<C>> evaluateFirstRecMultipoint(
+                    GenPolynomialRing<C> cfac, GenPolynomialRing<C> dfac, GenPolynomial<GenPolynomial<C>> A,
+                    List<C> a) {
+        if (a.size() >= MULTIPOINT_THRESHOLD && SubproductTree.isApplicable(cfac.coFac)) {
+            return new SubproductTree<C>(cfac, a).evaluate(dfac, A);
+        }
+        List<GenPolynomial<C>> L = new ArrayList<GenPolynomial<C>>(a.size());
+        for (C ai : a) {
+            L.add(PolyUtil.<C> evaluateFirstRec(cfac, dfac, A, ai));
+        }
+        return L;
+    }
+
+
     /**
      * Evaluate all variables.
      * @param <C> coefficient type.
@@ -2130,7 +2360,7 @@ public class PolyUtil {
 
 
     /**
-     * Substitute univariate polynomial.
+     * Substitute univariate polynomial. Uses compose for univariate t.
      * @param f univariate polynomial.
      * @param t polynomial for substitution.
      * @return polynomial f(x <- t).
@@ -2148,8 +2378,21 @@ public class PolyUtil {
             return f;
         }
         if (t.ring.nvar > 1) {
-            fac = t.ring;
+            return substituteHorner(t.ring, f, t);
         }
+        return compose(f, t);
+    }
+
+
+    /**
+     * Substitute univariate polynomial, Horner scheme.
+     * @param fac polynomial ring of the result.
+     * @param f univariate polynomial.
+     * @param t polynomial for substitution.
+     * @return polynomial f(x <- t).
+     */
+    static <C extends RingElem<C>> GenPolynomial<C> substituteHorner(GenPolynomialRing<C> fac,
+                    GenPolynomial<C> f, GenPolynomial<C> t) {
         // assert decending exponents, i.e. compatible term order
         Map<ExpVector, C> val = f.getMap();
         GenPolynomial<C> s = null;
@@ -2177,7 +2420,75 @@ public class PolyUtil {
 
 
     /**
-     * Taylor series for polynomial.
+     * Composition of univariate polynomials. For integer, rational and word
+     * size prime field coefficients and at least
+     * DensePolyUtil.COMPOSITION_DEGREE coefficients computed by divide and
+     * conquer with fast multiplication, else by the Horner scheme.
+     * @param f univariate polynomial.
+     * @param t univariate polynomial.
+     * @return f(t).
+     */
+    @SuppressWarnings("cast")
+    public static <C extends RingElem<C>> GenPolynomial<C> compose(GenPolynomial<C> f, GenPolynomial<C> t) {
+        if (f == null || t == null) {
+            return null;
+        }
+        GenPolynomialRing<C> fac = f.ring;
+        if (fac.nvar > 1 || t.ring.nvar > 1) {
+            throw new IllegalArgumentException("only for univariate polynomials");
+        }
+        if (f.isZERO() || f.isConstant()) {
+            return f;
+        }
+        if (f.degree(0) + 1 < DensePolyUtil.COMPOSITION_DEGREE || t.isZERO() || t.isConstant()) {
+            return substituteHorner(fac, f, t);
+        }
+        RingFactory<C> cfac = fac.coFac;
+        Object c = (Object) cfac;
+        if (c instanceof BigInteger) {
+            java.math.BigInteger[] r = DensePolyUtil.compose(denseIntegers(f), denseIntegers(t));
+            List<C> b = new ArrayList<C>(r.length);
+            for (java.math.BigInteger ri : r) {
+                b.add(cfac.fromInteger(ri));
+            }
+            return fromDense(fac, b);
+        }
+        if (c instanceof BigRational) {
+            // f = F/D, t = T/e: f(t) = sum F_i e^(n-i) T^i / (D e^n)
+            java.math.BigInteger D = commonDenominator(f);
+            java.math.BigInteger e = commonDenominator(t);
+            java.math.BigInteger[] F = denseNumerators(f, D);
+            int n = F.length - 1;
+            java.math.BigInteger ep = java.math.BigInteger.ONE;
+            for (int i = n; i >= 0; i--) {
+                F[i] = F[i].multiply(ep);
+                ep = ep.multiply(e);
+            }
+            java.math.BigInteger[] r = DensePolyUtil.compose(F, denseNumerators(t, e));
+            C den = cfac.fromInteger(D.multiply(ep.divide(e)));
+            List<C> b = new ArrayList<C>(r.length);
+            for (java.math.BigInteger ri : r) {
+                b.add(cfac.fromInteger(ri).divide(den));
+            }
+            return fromDense(fac, b);
+        }
+        if (SubproductTree.isApplicable(cfac)) {
+            long p = denseModul(cfac);
+            long[] r = DensePolyUtil.compose(denseResidues(f, p), denseResidues(t, p), p);
+            List<C> b = new ArrayList<C>(r.length);
+            for (long ri : r) {
+                b.add(cfac.fromInteger(ri));
+            }
+            return fromDense(fac, b);
+        }
+        return substituteHorner(fac, f, t);
+    }
+
+
+    /**
+     * Taylor series for polynomial. For integer, rational and word size prime
+     * field coefficients and large degree computed by taylorShift(), else by
+     * evaluation of the derivatives.
      * @param f univariate polynomial.
      * @param a expansion point.
      * @return Taylor series (a polynomial) of f at a.
@@ -2193,6 +2504,10 @@ public class PolyUtil {
         if (f.isZERO() || f.isConstant()) {
             return f;
         }
+        if (isDenseTaylorShift(f)) {
+            // sum_i f^(i)(a)/i! x^i = f(x+a)
+            return taylorShift(f, a);
+        }
         GenPolynomial<C> s = fac.getZERO();
         C fa = PolyUtil.<C> evaluateMain(fac.coFac, f, a);
         s = s.sum(fa);
@@ -2215,6 +2530,203 @@ public class PolyUtil {
     }
 
 
+    /**
+     * Test if the Taylor shift of a polynomial uses the dense algorithms.
+     * @param f univariate polynomial.
+     * @return true if f has integer, rational or word size prime field
+     *         coefficients and at least DensePolyUtil.TAYLOR_SHIFT_DEGREE
+     *         coefficients, else false.
+     */
+    @SuppressWarnings("cast")
+    static <C extends RingElem<C>> boolean isDenseTaylorShift(GenPolynomial<C> f) {
+        if (f.degree(0) + 1 < DensePolyUtil.TAYLOR_SHIFT_DEGREE) {
+            return false;
+        }
+        Object c = (Object) f.ring.coFac;
+        return c instanceof BigInteger || c instanceof BigRational || SubproductTree.isApplicable(f.ring.coFac);
+    }
+
+
+    /**
+     * Taylor shift. For integer, rational and word size prime field
+     * coefficients and at least DensePolyUtil.TAYLOR_SHIFT_DEGREE
+     * coefficients computed by divide and conquer or convolution with fast
+     * multiplication, else by the Horner scheme.
+     * @param f univariate polynomial.
+     * @param a shift.
+     * @return f(x+a).
+     */
+    @SuppressWarnings("cast")
+    public static <C extends RingElem<C>> GenPolynomial<C> taylorShift(GenPolynomial<C> f, C a) {
+        if (f == null) {
+            return null;
+        }
+        GenPolynomialRing<C> fac = f.ring;
+        if (fac.nvar > 1) {
+            throw new IllegalArgumentException("only for univariate polynomials");
+        }
+        if (f.isZERO() || f.isConstant() || a.isZERO()) {
+            return f;
+        }
+        RingFactory<C> cfac = fac.coFac;
+        Object c = (Object) cfac;
+        if (isDenseTaylorShift(f)) {
+            if (c instanceof BigInteger) {
+                java.math.BigInteger[] r = DensePolyUtil.taylorShift(denseIntegers(f),
+                                ((BigInteger) (Object) a).getVal());
+                List<C> b = new ArrayList<C>(r.length);
+                for (java.math.BigInteger ri : r) {
+                    b.add(cfac.fromInteger(ri));
+                }
+                return fromDense(fac, b);
+            }
+            if (c instanceof BigRational) {
+                // f = F/D, a = u/d: f(x+a) = sum G_i x^i / (D d^(n-i))
+                // with G(y) = H(y+u) and H(y) = d^n F(y/d)
+                BigRational ar = (BigRational) (Object) a;
+                java.math.BigInteger d = ar.denominator();
+                java.math.BigInteger D = commonDenominator(f);
+                java.math.BigInteger[] H = denseNumerators(f, D);
+                int n = H.length - 1;
+                java.math.BigInteger[] dp = new java.math.BigInteger[n + 1];
+                dp[0] = java.math.BigInteger.ONE;
+                for (int i = 1; i <= n; i++) {
+                    dp[i] = dp[i - 1].multiply(d);
+                }
+                for (int i = 0; i <= n; i++) {
+                    H[i] = H[i].multiply(dp[n - i]);
+                }
+                java.math.BigInteger[] r = DensePolyUtil.taylorShift(H, ar.numerator());
+                List<C> b = new ArrayList<C>(r.length);
+                for (int i = 0; i <= n; i++) {
+                    b.add(cfac.fromInteger(r[i]).divide(cfac.fromInteger(D.multiply(dp[n - i]))));
+                }
+                return fromDense(fac, b);
+            }
+            if (SubproductTree.isApplicable(cfac)) {
+                long p = denseModul(cfac);
+                long s = ((Modular) (Object) a).getInteger().getVal().longValue();
+                long[] r = DensePolyUtil.taylorShift(denseResidues(f, p), Math.floorMod(s, p), p);
+                List<C> b = new ArrayList<C>(r.length);
+                for (long ri : r) {
+                    b.add(cfac.fromInteger(ri));
+                }
+                return fromDense(fac, b);
+            }
+        }
+        // Horner scheme, coefficients of f first to keep their factory
+        List<C> b = denseCoefficients(f);
+        int n = b.size() - 1;
+        for (int i = 0; i < n; i++) {
+            for (int j = n - 1; j >= i; j--) {
+                b.set(j, b.get(j).sum(b.get(j + 1).multiply(a)));
+            }
+        }
+        return fromDense(fac, b);
+    }
+
+
+    /**
+     * Dense coefficient list of a univariate polynomial.
+     */
+    static <C extends RingElem<C>> List<C> denseCoefficients(GenPolynomial<C> f) {
+        int n = (int) f.degree(0);
+        C zero = f.ring.coFac.getZERO();
+        List<C> b = new ArrayList<C>(n + 1);
+        for (int i = 0; i <= n; i++) {
+            b.add(zero);
+        }
+        for (Map.Entry<ExpVector, C> me : f.getMap().entrySet()) {
+            b.set((int) me.getKey().getVal(0), me.getValue());
+        }
+        return b;
+    }
+
+
+    /**
+     * Univariate polynomial of a dense coefficient list.
+     */
+    static <C extends RingElem<C>> GenPolynomial<C> fromDense(GenPolynomialRing<C> fac, List<C> b) {
+        GenPolynomial<C> s = fac.getZERO().copy();
+        for (int i = b.size() - 1; i >= 0; i--) {
+            C c = b.get(i);
+            if (!c.isZERO()) {
+                s.doPutToMap(ExpVector.create(1, 0, i), c);
+            }
+        }
+        return s;
+    }
+
+
+    /**
+     * Dense integer coefficients of a univariate polynomial with BigInteger
+     * coefficients.
+     */
+    @SuppressWarnings("cast")
+    static <C extends RingElem<C>> java.math.BigInteger[] denseIntegers(GenPolynomial<C> f) {
+        java.math.BigInteger[] a = new java.math.BigInteger[(int) f.degree(0) + 1];
+        Arrays.fill(a, java.math.BigInteger.ZERO);
+        for (Map.Entry<ExpVector, C> me : f.getMap().entrySet()) {
+            a[(int) me.getKey().getVal(0)] = ((BigInteger) (Object) me.getValue()).getVal();
+        }
+        return a;
+    }
+
+
+    /**
+     * Least common denominator of a univariate polynomial with BigRational
+     * coefficients.
+     */
+    @SuppressWarnings("cast")
+    static <C extends RingElem<C>> java.math.BigInteger commonDenominator(GenPolynomial<C> f) {
+        java.math.BigInteger D = java.math.BigInteger.ONE;
+        for (C c : f.getMap().values()) {
+            java.math.BigInteger d = ((BigRational) (Object) c).denominator();
+            D = D.divide(D.gcd(d)).multiply(d);
+        }
+        return D;
+    }
+
+
+    /**
+     * Dense integer coefficients of D f for a univariate polynomial f with
+     * BigRational coefficients and a common denominator D.
+     */
+    @SuppressWarnings("cast")
+    static <C extends RingElem<C>> java.math.BigInteger[] denseNumerators(GenPolynomial<C> f,
+                    java.math.BigInteger D) {
+        java.math.BigInteger[] a = new java.math.BigInteger[(int) f.degree(0) + 1];
+        Arrays.fill(a, java.math.BigInteger.ZERO);
+        for (Map.Entry<ExpVector, C> me : f.getMap().entrySet()) {
+            BigRational c = (BigRational) (Object) me.getValue();
+            a[(int) me.getKey().getVal(0)] = c.numerator().multiply(D.divide(c.denominator()));
+        }
+        return a;
+    }
+
+
+    /**
+     * Modulus of a word size prime field.
+     */
+    static long denseModul(RingFactory<?> cfac) {
+        return ((ModularRingFactory<?>) cfac).getIntegerModul().getVal().longValue();
+    }
+
+
+    /**
+     * Dense residues of a univariate polynomial with Modular coefficients.
+     */
+    @SuppressWarnings("cast")
+    static <C extends RingElem<C>> long[] denseResidues(GenPolynomial<C> f, long p) {
+        long[] a = new long[(int) f.degree(0) + 1];
+        for (Map.Entry<ExpVector, C> me : f.getMap().entrySet()) {
+            long r = ((Modular) (Object) me.getValue()).getInteger().getVal().longValue();
+            a[(int) me.getKey().getVal(0)] = Math.floorMod(r, p);
+        }
+        return a;
+    }
+
+
     /**
      * ModInteger interpolate on first variable.
      * @param <C> coefficient type.
@@ -2296,6 +2808,71 @@ public class PolyUtil {
     }
 
 
+    /**
+     * Univariate polynomial interpolation at many points. Uses a subproduct
+     * tree for word size prime fields and at least MULTIPOINT_THRESHOLD
+     * points, else incremental Newton interpolation.
+     * @param <C> coefficient type.
+     * @param fac univariate polynomial ring.
+     * @param a list of distinct points.
+     * @param v list of values at the points.
+     * @return S, with deg(S) &lt; a.size() and S(a_i) == v_i.
+     */
+    public static <C extends RingElem<C> & Modular> GenPolynomial<C> interpolateMultipoint(
+                    GenPolynomialRing<C> fac, List<C> a, List<C> v) {
+        if (a.size() != v.size()) {
+            throw new IllegalArgumentException("points and values mismatch " + a.size() + " != " + v.size());
+        }
+        if (a.size() >= MULTIPOINT_THRESHOLD && SubproductTree.isApplicable(fac.coFac)) {
+            return new SubproductTree<C>(fac, a).interpolate(v);
+        }
+        GenPolynomial<C> S = fac.getZERO();
+        GenPolynomial<C> M = fac.getONE();
+        GenPolynomial<C> x = fac.univariate(0);
+        for (int i = 0; i < a.size(); i++) {
+            C ai = a.get(i);
+            C mi = PolyUtil.<C> evaluateMain(fac.coFac, M, ai).inverse();
+            S = PolyUtil.<C> interpolate(fac, S, M, mi, v.get(i), ai);
+            M = M.multiply(x.subtract(ai));
+        }
+        return S;
+    }
+
+
+    /**
+     * Interpolation of recursive polynomials at many points in the first
+     * variable of the coefficients. Uses a subproduct tree for word size
+     * prime fields and at least MULTIPOINT_THRESHOLD points, else
+     * incremental Newton interpolation.
+     * @param <C> coefficient type.
+     * @param fac recursive polynomial ring with univariate coefficients.
+     * @param a list of distinct points.
+     * @param B list of polynomials, the values at the points.
+     * @return S, with coefficient degrees &lt; a.size() and S(a_i) == B_i,
+     *         evaluated in the coefficients.
+     */
+    public static <C extends RingElem<C> & Modular> GenPolynomial<GenPolynomial<C>> interpolateRecursiveMultipoint(
+                    GenPolynomialRing<GenPolynomial<C>> fac, List<C> a, List<GenPolynomial<C>> B) {
+        if (a.size() != B.size()) {
+            throw new IllegalArgumentException("points and values mismatch " + a.size() + " != " + B.size());
+        }
+        GenPolynomialRing<C> cfac = (GenPolynomialRing<C>) fac.coFac;
+        if (a.size() >= MULTIPOINT_THRESHOLD && SubproductTree.isApplicable(cfac.coFac)) {
+            return new SubproductTree<C>(cfac, a).interpolate(fac, B);
+        }
+        GenPolynomial<GenPolynomial<C>> S = fac.getZERO();
+        GenPolynomial<C> M = cfac.getONE();
+        GenPolynomial<C> x = cfac.univariate(0);
+        for (int i = 0; i < a.size(); i++) {
+            C ai = a.get(i);
+            C mi = PolyUtil.<C> evaluateMain(cfac.coFac, M, ai).inverse();
+            S = PolyUtil.<C> interpolate(fac, S, M, mi, B.get(i), ai);
+            M = M.multiply(x.subtract(ai));
+        }
+        return S;
+    }
+
+
     /**
      * Recursive GenPolynomial switch varaible blocks.
      * @param <C> coefficient type.
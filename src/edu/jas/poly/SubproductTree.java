@@ -0,0 +1,521 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.Modular;
+import edu.jas.arith.ModularKernels;
+import edu.jas.arith.ModularRingFactory;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Subproduct tree of the linear polynomials x - a<sub>i</sub> for a fixed
+ * list of points a<sub>0</sub>, ..., a<sub>k-1</sub> in a prime field of word
+ * size. tree[0][i] = x - a<sub>i</sub>, tree[l][i] = tree[l-1][2i]
+ * tree[l-1][2i+1] and the root is M = prod<sub>i</sub> (x - a<sub>i</sub>).
+ * Multipoint evaluation reduces a polynomial top down in the tree with
+ * remainders computed by precomputed Newton inverses. Interpolation combines
+ * the weighted values v<sub>i</sub> / M'(a<sub>i</sub>) bottom up. Both cost
+ * O(M(k) log k) operations instead of the O(k<sup>2</sup>) of Horner
+ * evaluation at every point and incremental Newton interpolation. The
+ * polynomials of the tree are dense arrays of residues, the arithmetic is
+ * done by the kernels of ModularKernels.
+ * @param <C> coefficient type.
+ * @author Heinz Kredel
+ * @see edu.jas.arith.ChineseRemainder
+ */
+
+public class SubproductTree<C extends RingElem<C> & Modular> implements Serializable {
+
+
+    private static final Logger logger = LogManager.getLogger(SubproductTree.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Maximal degree of tree nodes, below which the points are evaluated by
+     * Horner's scheme.
+     */
+    public static final int LEAF_DEGREE = 16;
+
+
+    /**
+     * Univariate polynomial ring.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * Modulus of the coefficients.
+     */
+    public final long p;
+
+
+    /**
+     * The points as residues.
+     */
+    protected final long[] points;
+
+
+    /**
+     * Subproduct tree of monic dense polynomials.
+     */
+    protected final long[][][] tree;
+
+
+    /**
+     * Inverses of the reversed tree polynomials of degree d modulo
+     * x<sup>d-1</sup>, null for small degrees.
+     */
+    protected final long[][][] inverse;
+
+
+    /**
+     * Interpolation weights 1/M'(a<sub>i</sub>), computed on demand.
+     */
+    protected long[] weights;
+
+
+    /**
+     * Constructor.
+     * @param fac univariate polynomial ring over a prime field with modulus
+     *            &lt; 2^31.
+     * @param a list of points.
+     */
+    public SubproductTree(GenPolynomialRing<C> fac, List<C> a) {
+        if (fac.nvar != 1) {
+            throw new IllegalArgumentException("only for univariate polynomials " + fac);
+        }
+        if (!isApplicable(fac.coFac)) {
+            throw new IllegalArgumentException("no word size prime field " + fac.coFac);
+        }
+        if (a.size() == 0) {
+            throw new IllegalArgumentException("no points");
+        }
+        ring = fac;
+        p = ((ModularRingFactory<?>) fac.coFac).getIntegerModul().getVal().longValue();
+        int k = a.size();
+        points = new long[k];
+        for (int i = 0; i < k; i++) {
+            points[i] = residue(a.get(i));
+        }
+        List<long[][]> t = new ArrayList<long[][]>();
+        long[][] level = new long[k][];
+        for (int i = 0; i < k; i++) {
+            level[i] = new long[] { (points[i] == 0L ? 0L : p - points[i]), 1L };
+        }
+        t.add(level);
+        while (level.length > 1) {
+            long[][] up = new long[(level.length + 1) / 2][];
+            for (int i = 0; i < up.length; i++) {
+                if (2 * i + 1 < level.length) {
+                    long[] f = level[2 * i];
+                    long[] g = level[2 * i + 1];
+                    up[i] = ModularKernels.multiply(f, 0, f.length, g, 0, g.length, p);
+                } else {
+                    up[i] = level[2 * i];
+                }
+            }
+            t.add(up);
+            level = up;
+        }
+        tree = t.toArray(new long[t.size()][][]);
+        inverse = new long[tree.length][][];
+        for (int l = 0; l < tree.length; l++) {
+            inverse[l] = new long[tree[l].length][];
+            for (int i = 0; i < tree[l].length; i++) {
+                long[] f = tree[l][i];
+                int d = f.length - 1;
+                if (d >= ModularKernels.KARATSUBA_LENGTH) {
+                    long[] rf = new long[d + 1];
+                    for (int j = 0; j <= d; j++) {
+                        rf[j] = f[d - j];
+                    }
+                    inverse[l][i] = ModularKernels.seriesInverse(rf, d - 1, p);
+                }
+            }
+        }
+        if (debug) {
+            logger.debug("points = " + k + ", levels = " + tree.length);
+        }
+    }
+
+
+    /**
+     * Test if subproduct trees are applicable for a coefficient ring.
+     * @param cfac coefficient ring factory.
+     * @return true, if cfac is a prime field with modulus &lt; 2^31.
+     */
+    public static boolean isApplicable(RingFactory<?> cfac) {
+        if (!(cfac instanceof ModularRingFactory) || !cfac.isField()) {
+            return false;
+        }
+        return ((ModularRingFactory<?>) cfac).getIntegerModul().getVal().bitLength() < 32;
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "SubproductTree(" + size() + ", " + p + ")";
+    }
+
+
+    /**
+     * Number of points.
+     * @return k.
+     */
+    public int size() {
+        return points.length;
+    }
+
+
+    /**
+     * Point.
+     * @param i index.
+     * @return a<sub>i</sub>.
+     */
+    public C getPoint(int i) {
+        return ring.coFac.fromInteger(points[i]);
+    }
+
+
+    /**
+     * Product of the linear polynomials.
+     * @return M = prod<sub>i</sub> (x - a<sub>i</sub>).
+     */
+    public GenPolynomial<C> getModul() {
+        return toPolynomial(tree[tree.length - 1][0]);
+    }
+
+
+    /**
+     * Multipoint evaluation.
+     * @param A univariate polynomial.
+     * @return list of A(a<sub>i</sub>).
+     */
+    public List<C> evaluate(GenPolynomial<C> A) {
+        long[] v = evaluate(fromPolynomial(A));
+        RingFactory<C> cfac = ring.coFac;
+        List<C> L = new ArrayList<C>(v.length);
+        for (int i = 0; i < v.length; i++) {
+            L.add(cfac.fromInteger(v[i]));
+        }
+        return L;
+    }
+
+
+    /**
+     * Multipoint evaluation of a recursive polynomial in the main variable
+     * of the coefficients.
+     * @param dfac polynomial ring of the results.
+     * @param A recursive polynomial with univariate coefficients.
+     * @return list of A(a<sub>i</sub>), evaluated in the coefficients.
+     */
+    public List<GenPolynomial<C>> evaluate(GenPolynomialRing<C> dfac, GenPolynomial<GenPolynomial<C>> A) {
+        int k = size();
+        List<GenPolynomial<C>> L = new ArrayList<GenPolynomial<C>>(k);
+        for (int i = 0; i < k; i++) {
+            L.add(dfac.getZERO().copy());
+        }
+        if (A == null || A.isZERO()) {
+            return L;
+        }
+        RingFactory<C> cfac = ring.coFac;
+        for (Map.Entry<ExpVector, GenPolynomial<C>> m : A.getMap().entrySet()) {
+            ExpVector e = m.getKey();
+            long[] v = evaluate(fromPolynomial(m.getValue()));
+            for (int i = 0; i < k; i++) {
+                if (v[i] != 0L) {
+                    L.get(i).doPutToMap(e, cfac.fromInteger(v[i]));
+                }
+            }
+        }
+        return L;
+    }
+
+
+    /**
+     * Interpolation.
+     * @param v list of values v<sub>i</sub> at the points.
+     * @return the unique polynomial S with deg(S) &lt; k and
+     *         S(a<sub>i</sub>) == v<sub>i</sub>.
+     */
+    public GenPolynomial<C> interpolate(List<C> v) {
+        if (v.size() != size()) {
+            throw new IllegalArgumentException("wrong number of values " + v.size() + " != " + size());
+        }
+        long[] b = new long[v.size()];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = residue(v.get(i));
+        }
+        return toPolynomial(interpolate(b));
+    }
+
+
+    /**
+     * Interpolation of recursive polynomials.
+     * @param rfac recursive polynomial ring with univariate coefficients in
+     *            ring.
+     * @param B list of polynomials B<sub>i</sub>, the values at the points.
+     * @return the unique recursive polynomial S with coefficient degrees
+     *         &lt; k and S(a<sub>i</sub>) == B<sub>i</sub>, evaluated in the
+     *         coefficients.
+     */
+    public GenPolynomial<GenPolynomial<C>> interpolate(GenPolynomialRing<GenPolynomial<C>> rfac,
+                    List<GenPolynomial<C>> B) {
+        int k = size();
+        if (B.size() != k) {
+            throw new IllegalArgumentException("wrong number of values " + B.size() + " != " + k);
+        }
+        SortedSet<ExpVector> exps = new TreeSet<ExpVector>(rfac.tord.getAscendComparator());
+        for (GenPolynomial<C> b : B) {
+            exps.addAll(b.getMap().keySet());
+        }
+        GenPolynomial<GenPolynomial<C>> S = rfac.getZERO().copy();
+        for (ExpVector e : exps) {
+            long[] b = new long[k];
+            for (int i = 0; i < k; i++) {
+                C c = B.get(i).getMap().get(e);
+                b[i] = (c == null ? 0L : residue(c));
+            }
+            long[] s = interpolate(b);
+            if (s.length > 0) {
+                S.doPutToMap(e, toPolynomial(s));
+            }
+        }
+        return S;
+    }
+
+
+    /**
+     * Multipoint evaluation.
+     * @param a dense polynomial.
+     * @return array of a(a<sub>i</sub>).
+     */
+    protected long[] evaluate(long[] a) {
+        long[] v = new long[size()];
+        int l = tree.length - 1;
+        evaluate(remainder(a, l, 0), l, 0, v);
+        return v;
+    }
+
+
+    /**
+     * Remainder tree.
+     * @param r dense polynomial reduced modulo tree[l][i].
+     * @param l level.
+     * @param i index.
+     * @param v values, the entries for the points below tree[l][i] are
+     *            written.
+     */
+    void evaluate(long[] r, int l, int i, long[] v) {
+        if (r.length == 0) {
+            return;
+        }
+        if (l == 0 || tree[l][i].length - 1 <= LEAF_DEGREE) {
+            int j0 = i << l;
+            int j1 = Math.min(points.length, (i + 1) << l);
+            for (int j = j0; j < j1; j++) {
+                v[j] = horner(r, points[j]);
+            }
+            return;
+        }
+        long[][] t = tree[l - 1];
+        evaluate(remainder(r, l - 1, 2 * i), l - 1, 2 * i, v);
+        if (2 * i + 1 < t.length) {
+            evaluate(remainder(r, l - 1, 2 * i + 1), l - 1, 2 * i + 1, v);
+        }
+    }
+
+
+    /**
+     * Interpolation.
+     * @param b array of values.
+     * @return dense polynomial s with s(a<sub>i</sub>) == b[i].
+     */
+    protected long[] interpolate(long[] b) {
+        long[] w = weights();
+        long[][] c = new long[b.length][];
+        for (int i = 0; i < b.length; i++) {
+            c[i] = new long[] { (b[i] * w[i]) % p };
+        }
+        // linear combination sum c_i M/(x - a_i) bottom up
+        for (int l = 0; l < tree.length - 1; l++) {
+            long[][] ml = tree[l];
+            long[][] u = new long[(c.length + 1) / 2][];
+            for (int i = 0; i < u.length; i++) {
+                if (2 * i + 1 < c.length) {
+                    long[] f = ml[2 * i + 1];
+                    long[] g = ml[2 * i];
+                    long[] s = ModularKernels.multiply(c[2 * i], 0, c[2 * i].length, f, 0, f.length, p);
+                    long[] t = ModularKernels.multiply(c[2 * i + 1], 0, c[2 * i + 1].length, g, 0, g.length, p);
+                    ModularKernels.sum(s, 0, t, 0, s, 0, t.length, p);
+                    u[i] = s;
+                } else {
+                    u[i] = c[2 * i];
+                }
+            }
+            c = u;
+        }
+        return normalize(c[0]);
+    }
+
+
+    /**
+     * Interpolation weights.
+     * @return array of 1/M'(a<sub>i</sub>).
+     */
+    protected synchronized long[] weights() {
+        if (weights != null) {
+            return weights;
+        }
+        long[] m = tree[tree.length - 1][0];
+        long[] dm = new long[m.length - 1];
+        for (int i = 1; i < m.length; i++) {
+            dm[i - 1] = (m[i] * (i % p)) % p;
+        }
+        long[] w = evaluate(normalize(dm));
+        for (int i = 0; i < w.length; i++) {
+            if (w[i] == 0L) {
+                throw new IllegalArgumentException("points not distinct: " + points[i]);
+            }
+            w[i] = ModularKernels.inverse(w[i], p);
+        }
+        weights = w;
+        return w;
+    }
+
+
+    /**
+     * Remainder modulo a tree polynomial.
+     * @param a dense polynomial.
+     * @param l level.
+     * @param i index.
+     * @return a rem tree[l][i].
+     */
+    long[] remainder(long[] a, int l, int i) {
+        long[] f = tree[l][i];
+        int n = f.length - 1;
+        if (a.length <= n) {
+            return a;
+        }
+        long[] fi = inverse[l][i];
+        if (fi == null || a.length > 2 * n - 1) {
+            // schoolbook remainder, f is monic
+            long[] r = a.clone();
+            for (int j = r.length - 1; j >= n; j--) {
+                long q = r[j];
+                if (q != 0L) {
+                    ModularKernels.axpy(p - q, f, 0, r, j - n, n, p);
+                    r[j] = 0L;
+                }
+            }
+            return normalize(java.util.Arrays.copyOf(r, n));
+        }
+        // quotient from the reversed polynomials, k <= n-1
+        int k = a.length - n;
+        long[] ra = new long[k];
+        for (int j = 0; j < k; j++) {
+            ra[j] = a[a.length - 1 - j];
+        }
+        long[] rq = ModularKernels.multiply(ra, 0, k, fi, 0, Math.min(k, fi.length), p);
+        long[] q = new long[k];
+        for (int j = 0; j < k; j++) {
+            q[k - 1 - j] = rq[j];
+        }
+        long[] qf = ModularKernels.multiply(q, 0, k, f, 0, n, p);
+        long[] r = java.util.Arrays.copyOf(a, n);
+        ModularKernels.subtract(r, 0, qf, 0, r, 0, Math.min(n, qf.length), p);
+        return normalize(r);
+    }
+
+
+    /**
+     * Horner evaluation.
+     * @param a dense polynomial.
+     * @param x point.
+     * @return a(x).
+     */
+    long horner(long[] a, long x) {
+        long s = 0L;
+        for (int j = a.length - 1; j >= 0; j--) {
+            s = (s * x + a[j]) % p;
+        }
+        return s;
+    }
+
+
+    /**
+     * Remove leading zero coefficients.
+     */
+    static long[] normalize(long[] a) {
+        int n = a.length;
+        while (n > 0 && a[n - 1] == 0L) {
+            n--;
+        }
+        if (n == a.length) {
+            return a;
+        }
+        return java.util.Arrays.copyOf(a, n);
+    }
+
+
+    /**
+     * Residue of a coefficient.
+     */
+    long residue(C c) {
+        long r = c.getInteger().getVal().longValue() % p;
+        return (r < 0L ? r + p : r);
+    }
+
+
+    /**
+     * Dense array of a univariate polynomial.
+     */
+    long[] fromPolynomial(GenPolynomial<C> A) {
+        if (A == null || A.isZERO()) {
+            return new long[0];
+        }
+        long[] a = new long[(int) A.degree(0) + 1];
+        for (Map.Entry<ExpVector, C> m : A.getMap().entrySet()) {
+            a[(int) m.getKey().getVal(0)] = residue(m.getValue());
+        }
+        return a;
+    }
+
+
+    /**
+     * Univariate polynomial of a dense array.
+     */
+    GenPolynomial<C> toPolynomial(long[] a) {
+        GenPolynomial<C> A = ring.getZERO().copy();
+        RingFactory<C> cfac = ring.coFac;
+        for (int i = a.length - 1; i >= 0; i--) {
+            if (a[i] != 0L) {
+                A.doPutToMap(ExpVector.create(1, 0, i), cfac.fromInteger(a[i]));
+            }
+        }
+        return A;
+    }
+
+}
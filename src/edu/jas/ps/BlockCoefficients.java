@@ -0,0 +1,84 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ps;
+
+
+import java.util.List;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Abstract class for eager generation of coefficients of power series in
+ * blocks. A request for a not yet computed coefficient computes all
+ * coefficients up to at least twice the number of known coefficients at once
+ * and fills the coefficient cache.
+ * @param <C> ring element type
+ * @author Heinz Kredel
+ */
+
+public abstract class BlockCoefficients<C extends RingElem<C>> extends Coefficients<C> {
+
+
+    /**
+     * Minimal number of coefficients in a block.
+     */
+    public static final int MIN_BLOCK = 16;
+
+
+    /**
+     * Last computed block of coefficients.
+     */
+    private volatile List<C> block;
+
+
+    /**
+     * Public no arguments constructor.
+     */
+    public BlockCoefficients() {
+        super();
+    }
+
+
+    /**
+     * Generate coefficient. Computes a new block if required.
+     * @param index of requested coefficient.
+     * @return coefficient at index.
+     */
+    @Override
+    protected C generate(int index) {
+        List<C> b = block;
+        if (b != null && index < b.size()) {
+            return b.get(index);
+        }
+        synchronized (this) {
+            b = block;
+            if (b != null && index < b.size()) {
+                return b.get(index);
+            }
+            int n = Math.max(index + 1, MIN_BLOCK);
+            if (b != null) {
+                n = Math.max(n, 2 * b.size());
+            }
+            b = generateBlock(n);
+            if (cache != null) {
+                for (int i = 0; i < b.size(); i++) {
+                    putCache(i, b.get(i));
+                }
+            }
+            block = b;
+        }
+        return b.get(index);
+    }
+
+
+    /**
+     * Generate block of coefficients.
+     * @param n number of requested coefficients.
+     * @return list of the first n coefficients.
+     */
+    protected abstract List<C> generateBlock(int n);
+
+}
@@ -0,0 +1,222 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ps;
+
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Array based cache for coefficients of power series. Element i is stored at
+ * position i of a growable array. Reads are lock free, updates are
+ * synchronized and safely published to concurrent readers. Optionally only
+ * new elements with index up to a limit are cached.
+ * @param <T> element type, coefficients or homogeneous parts.
+ * @author Heinz Kredel
+ */
+
+public class CoefficientCache<T> implements Serializable {
+
+
+    /**
+     * Array of cached elements, null for not cached elements.
+     */
+    private volatile AtomicReferenceArray<T> cache;
+
+
+    /**
+     * Maximal index of cached elements, -1 for no limit.
+     */
+    private volatile int limit;
+
+
+    /**
+     * Constructor.
+     */
+    public CoefficientCache() {
+        this(16);
+    }
+
+
+    /**
+     * Constructor.
+     * @param n initial capacity.
+     */
+    public CoefficientCache(int n) {
+        cache = new AtomicReferenceArray<T>(Math.max(n, 1));
+        limit = -1;
+    }
+
+
+    /**
+     * Get cached element.
+     * @param i index.
+     * @return element at index i or null if not cached.
+     */
+    public T get(int i) {
+        AtomicReferenceArray<T> c = cache;
+        if (i < 0 || i >= c.length()) {
+            return null;
+        }
+        return c.get(i);
+    }
+
+
+    /**
+     * Put element to the cache. Elements with index greater than the limit
+     * are not cached.
+     * @param i index.
+     * @param t element.
+     */
+    public synchronized void put(int i, T t) {
+        if (i < 0) {
+            throw new IllegalArgumentException("negative index not allowed " + i);
+        }
+        if (isLimited(i)) {
+            return;
+        }
+        AtomicReferenceArray<T> c = cache;
+        if (i >= c.length()) {
+            int n = Math.max(i + 1, 2 * c.length());
+            AtomicReferenceArray<T> d = new AtomicReferenceArray<T>(n);
+            for (int j = 0; j < c.length(); j++) {
+                d.set(j, c.get(j));
+            }
+            c = d;
+            cache = c;
+        }
+        c.set(i, t);
+    }
+
+
+    /**
+     * Upper bound for the indexes of cached elements.
+     * @return n with get(i) == null for all i &ge; n.
+     */
+    public int capacity() {
+        return cache.length();
+    }
+
+
+    /**
+     * Number of cached elements.
+     * @return number of i with get(i) != null.
+     */
+    public int size() {
+        AtomicReferenceArray<T> c = cache;
+        int n = 0;
+        for (int i = 0; i < c.length(); i++) {
+            if (c.get(i) != null) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+
+    /**
+     * Maximal index of cached elements.
+     * @return maximal i with get(i) != null, or -1 if the cache is empty.
+     */
+    public int maxIndex() {
+        AtomicReferenceArray<T> c = cache;
+        for (int i = c.length() - 1; i >= 0; i--) {
+            if (c.get(i) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Get the limit.
+     * @return maximal index of cached elements, -1 for no limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+
+    /**
+     * Set the limit. Already cached elements are kept, since they may not be
+     * generated again, e.g. for power series from polynomials.
+     * @param n maximal index of cached elements, -1 for no limit.
+     */
+    public void setLimit(int n) {
+        limit = n;
+    }
+
+
+    /**
+     * Test if an index is beyond the limit.
+     * @param i index.
+     * @return true, if elements at index i are not cached.
+     */
+    public boolean isLimited(int i) {
+        int n = limit;
+        return n >= 0 && i > n;
+    }
+
+
+    /**
+     * Map of the cached elements.
+     * @return new map from index i to get(i) for all cached elements.
+     */
+    public HashMap<Integer, T> toMap() {
+        AtomicReferenceArray<T> c = cache;
+        HashMap<Integer, T> m = new HashMap<Integer, T>();
+        for (int j = 0; j < c.length(); j++) {
+            T t = c.get(j);
+            if (t != null) {
+                m.put(j, t);
+            }
+        }
+        return m;
+    }
+
+
+    /**
+     * Copy this cache.
+     * @return a new cache with the same elements and limit.
+     */
+    public synchronized CoefficientCache<T> copy() {
+        AtomicReferenceArray<T> c = cache;
+        CoefficientCache<T> d = new CoefficientCache<T>(c.length());
+        for (int j = 0; j < c.length(); j++) {
+            d.cache.set(j, c.get(j));
+        }
+        d.limit = limit;
+        return d;
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        AtomicReferenceArray<T> c = cache;
+        StringBuffer s = new StringBuffer("{");
+        boolean first = true;
+        for (int j = 0; j < c.length(); j++) {
+            T t = c.get(j);
+            if (t == null) {
+                continue;
+            }
+            if (!first) {
+                s.append(", ");
+            }
+            first = false;
+            s.append(j + "=" + t);
+        }
+        s.append("}");
+        return s.toString();
+    }
+
+}
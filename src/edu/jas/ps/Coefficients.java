@@ -7,6 +7,7 @@ package edu.jas.ps;
 
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.Map;
 
 import edu.jas.structure.RingElem;
 
@@ -22,11 +23,18 @@ public abstract class Coefficients<C extends RingElem<C>> implements Serializabl
 
 
     /**
-     * Cache for already computed coefficients.
+     * Cache for already computed coefficients. Contains the same coefficients
+     * as cache, entries put by subclasses are also used.
      */
     public final HashMap<Integer, C> coeffCache;
 
 
+    /**
+     * Array based cache for already computed coefficients, used for lookups.
+     */
+    protected final CoefficientCache<C> cache;
+
+
     /**
      * Public no arguments constructor.
      */
@@ -41,29 +49,89 @@ public abstract class Coefficients<C extends RingElem<C>> implements Serializabl
      */
     public Coefficients(HashMap<Integer, C> cache) {
         coeffCache = cache;
+        if (cache == null) {
+            this.cache = null;
+            return;
+        }
+        this.cache = new CoefficientCache<C>(cache.size());
+        for (Map.Entry<Integer, C> me : cache.entrySet()) {
+            this.cache.put(me.getKey(), me.getValue());
+        }
     }
 
 
     /**
-     * Get cached coefficient or generate coefficient.
+     * Public constructor with pre-filled cache.
+     * @param cache pre-filled coefficient cache.
+     */
+    public Coefficients(CoefficientCache<C> cache) {
+        this.cache = cache;
+        coeffCache = (cache == null ? null : cache.toMap());
+    }
+
+
+    /**
+     * Get the array based coefficient cache.
+     * @return cache.
+     */
+    public CoefficientCache<C> getCache() {
+        return cache;
+    }
+
+
+    /**
+     * Get cached coefficient or generate coefficient. Concurrent calls may
+     * generate a coefficient more than once.
      * @param index of requested coefficient.
      * @return coefficient at index.
      */
     public C get(int index) {
-        if (coeffCache == null) {
+        if (cache == null) {
             return generate(index);
         }
-        Integer i = index;
-        C c = coeffCache.get(i);
+        C c = cache.get(index);
         if (c != null) {
             return c;
         }
-        c = generate(index);
-        coeffCache.put(i, c);
+        synchronized (coeffCache) {
+            c = coeffCache.get(index);
+        }
+        if (c == null) {
+            c = generate(index);
+        }
+        putCache(index, c);
         return c;
     }
 
 
+    /**
+     * Put coefficient into the caches.
+     * @param index of coefficient.
+     * @param c coefficient at index.
+     */
+    protected void putCache(int index, C c) {
+        cache.put(index, c);
+        if (cache.get(index) != c) { // not cached due to limit
+            return;
+        }
+        synchronized (coeffCache) {
+            coeffCache.put(index, c);
+        }
+    }
+
+
+    /**
+     * Set cache limit. Coefficients with larger index are no more cached,
+     * already cached coefficients are kept.
+     * @param n maximal index of cached coefficients, -1 for no limit.
+     */
+    public void setCacheLimit(int n) {
+        if (cache != null) {
+            cache.setLimit(n);
+        }
+    }
+
+
     /**
      * Generate coefficient.
      * @param index of requested coefficient.
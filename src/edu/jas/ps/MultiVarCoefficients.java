@@ -7,8 +7,12 @@ package edu.jas.ps;
 
 import java.io.Serializable;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
@@ -33,14 +37,23 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
 
 
     /**
-     * Cache for already computed coefficients.
+     * Cache for already computed coefficients, homogeneous parts indexed by
+     * total degree. Contains the same homogeneous parts as cache, entries put
+     * by subclasses are also used.
      */
     public final HashMap<Long, GenPolynomial<C>> coeffCache;
 
 
+    /**
+     * Array based cache for already computed coefficients, homogeneous parts
+     * indexed by total degree, used for lookups.
+     */
+    protected final CoefficientCache<GenPolynomial<C>> cache;
+
+
     /**
      * Indicator if all coefficients of a homogeneous degree have been
-     * constructed.
+     * constructed. Access must be synchronized on homCheck.
      */
     public final BitSet homCheck;
 
@@ -49,7 +62,7 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
      * Cache for known zero coefficients. Required because zero coefficients are
      * not stored in the polynomials.
      */
-    public final HashSet<ExpVector> zeroCache;
+    public final Set<ExpVector> zeroCache;
 
 
     /**
@@ -57,26 +70,16 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
      * @param pf multivariate power series ring factory.
      */
     public MultiVarCoefficients(MultiVarPowerSeriesRing<C> pf) {
-        this(pf.polyRing(), new HashMap<Long, GenPolynomial<C>>(), new HashSet<ExpVector>());
+        this(pf.polyRing(), new CoefficientCache<GenPolynomial<C>>(), new HashSet<ExpVector>());
     }
 
 
-    /*
-     * Public constructor with some pre-filled caches.
-     * @param pf multivariate power series ring factory.
-     * @param hc pre-filled homogeneous check bit-set.
-    public MultiVarCoefficients(MultiVarPowerSeriesRing<C> pf, BitSet hc) {
-        this(pf.polyRing(), new HashMap<Long, GenPolynomial<C>>(), new HashSet<ExpVector>(), hc);
-    }
-     */
-
-
     /**
      * Public constructor.
      * @param pf polynomial ring factory.
      */
     public MultiVarCoefficients(GenPolynomialRing<C> pf) {
-        this(pf, new HashMap<Long, GenPolynomial<C>>(), new HashSet<ExpVector>());
+        this(pf, new CoefficientCache<GenPolynomial<C>>(), new HashSet<ExpVector>());
     }
 
 
@@ -85,7 +88,7 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
      * @param pf polynomial ring factory.
      * @param cache pre-filled coefficient cache.
      */
-    public MultiVarCoefficients(GenPolynomialRing<C> pf, HashMap<Long, GenPolynomial<C>> cache) {
+    public MultiVarCoefficients(GenPolynomialRing<C> pf, CoefficientCache<GenPolynomial<C>> cache) {
         this(pf, cache, new HashSet<ExpVector>());
     }
 
@@ -96,20 +99,43 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
      * @param cache pre-filled coefficient cache.
      * @param zeros pre-filled zero coefficient cache.
      */
-    public MultiVarCoefficients(GenPolynomialRing<C> pf, HashMap<Long, GenPolynomial<C>> cache,
-            HashSet<ExpVector> zeros) {
+    public MultiVarCoefficients(GenPolynomialRing<C> pf, CoefficientCache<GenPolynomial<C>> cache,
+            Set<ExpVector> zeros) {
         this(pf, cache, zeros, new BitSet());
     }
 
 
-    /*
+    /**
      * Public constructor with pre-filled caches.
      * @param pf polynomial ring factory.
+     * @param cache pre-filled coefficient cache.
      * @param hc pre-filled homogeneous check bit-set.
-    public MultiVarCoefficients(GenPolynomialRing<C> pf, BitSet hc) {
-        this(pf, new HashMap<Long, GenPolynomial<C>>(), new HashSet<ExpVector>(), hc);
+     */
+    public MultiVarCoefficients(GenPolynomialRing<C> pf, CoefficientCache<GenPolynomial<C>> cache, BitSet hc) {
+        this(pf, cache, new HashSet<ExpVector>(), hc);
     }
+
+
+    /**
+     * Public with pre-filled coefficient cache.
+     * @param pf polynomial ring factory.
+     * @param cache pre-filled coefficient cache.
+     */
+    public MultiVarCoefficients(GenPolynomialRing<C> pf, HashMap<Long, GenPolynomial<C>> cache) {
+        this(pf, cache, new HashSet<ExpVector>());
+    }
+
+
+    /**
+     * Public constructor with pre-filled caches.
+     * @param pf polynomial ring factory.
+     * @param cache pre-filled coefficient cache.
+     * @param zeros pre-filled zero coefficient cache.
      */
+    public MultiVarCoefficients(GenPolynomialRing<C> pf, HashMap<Long, GenPolynomial<C>> cache,
+            HashSet<ExpVector> zeros) {
+        this(pf, cache, zeros, new BitSet());
+    }
 
 
     /**
@@ -128,19 +154,183 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
      * @param pf polynomial ring factory.
      * @param cache pre-filled coefficient cache.
      * @param zeros pre-filled zero coefficient cache.
-     * @param hc pre-filled homogeneous check bit-set.
+     * @param hc pre-filled homogeneous check bit-set, will be copied.
      */
     public MultiVarCoefficients(GenPolynomialRing<C> pf, HashMap<Long, GenPolynomial<C>> cache,
             HashSet<ExpVector> zeros, BitSet hc) {
+        this(pf, toCache(cache), cache, zeros, hc);
+    }
+
+
+    /**
+     * Convert a map of homogeneous parts to a coefficient cache.
+     * @param cache map from total degree to homogeneous part.
+     * @return coefficient cache with the homogeneous parts of cache.
+     */
+    static <C extends RingElem<C>> CoefficientCache<GenPolynomial<C>> toCache(
+            HashMap<Long, GenPolynomial<C>> cache) {
+        CoefficientCache<GenPolynomial<C>> cc = new CoefficientCache<GenPolynomial<C>>(cache.size());
+        for (Map.Entry<Long, GenPolynomial<C>> me : cache.entrySet()) {
+            cc.put(me.getKey().intValue(), me.getValue());
+        }
+        return cc;
+    }
+
+
+    /**
+     * Public constructor with pre-filled caches.
+     * @param pf polynomial ring factory.
+     * @param cache pre-filled coefficient cache.
+     * @param zeros pre-filled zero coefficient cache.
+     * @param hc pre-filled homogeneous check bit-set, will be copied.
+     */
+    public MultiVarCoefficients(GenPolynomialRing<C> pf, CoefficientCache<GenPolynomial<C>> cache,
+            Set<ExpVector> zeros, BitSet hc) {
+        this(pf, cache, toMap(cache), zeros, hc);
+    }
+
+
+    /**
+     * Constructor with pre-filled caches.
+     * @param pf polynomial ring factory.
+     * @param cache pre-filled coefficient cache.
+     * @param map coefficient map with the same contents as cache.
+     * @param zeros pre-filled zero coefficient cache.
+     * @param hc pre-filled homogeneous check bit-set, will be copied.
+     */
+    MultiVarCoefficients(GenPolynomialRing<C> pf, CoefficientCache<GenPolynomial<C>> cache,
+            HashMap<Long, GenPolynomial<C>> map, Set<ExpVector> zeros, BitSet hc) {
         pfac = pf;
-        coeffCache = cache;
-        zeroCache = zeros;
-        homCheck = hc;
+        this.cache = cache;
+        coeffCache = map;
+        zeroCache = Collections.newSetFromMap(new ConcurrentHashMap<ExpVector, Boolean>());
+        zeroCache.addAll(zeros);
+        synchronized (hc) {
+            homCheck = (BitSet) hc.clone();
+        }
     }
 
 
     /**
-     * Get cached coefficient or generate coefficient.
+     * Convert a coefficient cache to a map of homogeneous parts.
+     * @param cache coefficient cache.
+     * @return map from total degree to the homogeneous parts of cache.
+     */
+    static <C extends RingElem<C>> HashMap<Long, GenPolynomial<C>> toMap(
+            CoefficientCache<GenPolynomial<C>> cache) {
+        HashMap<Long, GenPolynomial<C>> m = new HashMap<Long, GenPolynomial<C>>();
+        for (Map.Entry<Integer, GenPolynomial<C>> me : cache.toMap().entrySet()) {
+            m.put(me.getKey().longValue(), me.getValue());
+        }
+        return m;
+    }
+
+
+    /**
+     * Get the array based coefficient cache.
+     * @return cache.
+     */
+    public CoefficientCache<GenPolynomial<C>> getCache() {
+        return cache;
+    }
+
+
+    /**
+     * Get cached homogeneous part. Parts only in coeffCache, e.g. put by
+     * subclasses, are moved to cache.
+     * @param tdeg total degree.
+     * @return homogeneous part of degree tdeg or null if not cached.
+     */
+    GenPolynomial<C> cachedHomPart(int tdeg) {
+        GenPolynomial<C> p = cache.get(tdeg);
+        if (p != null) {
+            return p;
+        }
+        synchronized (coeffCache) {
+            p = coeffCache.get((long) tdeg);
+        }
+        if (p != null) {
+            cache.put(tdeg, p);
+        }
+        return p;
+    }
+
+
+    /**
+     * Put homogeneous part into the caches.
+     * @param tdeg total degree.
+     * @param p homogeneous part of degree tdeg.
+     */
+    protected void putCache(int tdeg, GenPolynomial<C> p) {
+        cache.put(tdeg, p);
+        if (cache.get(tdeg) != p) { // not cached due to limit
+            return;
+        }
+        synchronized (coeffCache) {
+            coeffCache.put((long) tdeg, p);
+        }
+    }
+
+
+    /**
+     * Copy of the coefficient cache. Incomplete homogeneous parts are
+     * modified later, so they are copied too.
+     * @return copy of cache.
+     */
+    public synchronized CoefficientCache<GenPolynomial<C>> copyCache() {
+        CoefficientCache<GenPolynomial<C>> cc = cache.copy();
+        for (int i = 0; i < cc.capacity(); i++) {
+            GenPolynomial<C> p = cc.get(i);
+            if (p != null && !checkHomPart(i)) {
+                cc.put(i, p.copy());
+            }
+        }
+        return cc;
+    }
+
+
+    /**
+     * Test if all coefficients of a homogeneous degree have been constructed.
+     * @param tdeg total degree.
+     * @return true, if the homogeneous part of degree tdeg is complete.
+     */
+    public boolean checkHomPart(long tdeg) {
+        synchronized (homCheck) {
+            return homCheck.get((int) tdeg);
+        }
+    }
+
+
+    /**
+     * Set a complete homogeneous part. Overwrites existing cache entries.
+     * @param tdeg total degree.
+     * @param p homogeneous part of degree tdeg.
+     */
+    public void putHomPart(long tdeg, GenPolynomial<C> p) {
+        putCache((int) tdeg, p);
+        if (cache.get((int) tdeg) != p) { // not cached due to limit
+            return;
+        }
+        synchronized (homCheck) {
+            homCheck.set((int) tdeg);
+        }
+    }
+
+
+    /**
+     * Set cache limit. Homogeneous parts of larger total degree are no more
+     * cached, already cached parts are kept.
+     * @param n maximal total degree of cached homogeneous parts, -1 for no
+     *            limit.
+     */
+    public void setCacheLimit(int n) {
+        cache.setLimit(n);
+    }
+
+
+    /**
+     * Get cached coefficient or generate coefficient. Complete homogeneous
+     * parts are read without locking.
      * @param index of requested coefficient.
      * @return coefficient at index.
      */
@@ -148,32 +338,39 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
         //if (index.signum() < 0) { // better assert
         //    throw new IllegalArgumentException("negative signum not allowed " + index);
         //}
-        //if (coeffCache == null) { // not possible
-        //    return generate(index);
-        //}
         long tdeg = index.totalDeg();
-        GenPolynomial<C> p = coeffCache.get(tdeg);
-        if (p == null) {
-            p = pfac.getZERO().copy();
-            coeffCache.put(tdeg, p);
-        }
-        C c = p.coefficient(index);
-        if (!c.isZERO()) {
-            return c;
-        }
-        if (homCheck.get((int) tdeg)) { // rely on p
-            return c;
-        }
-        if (zeroCache.contains(index)) {
-            return c;
+        if (checkHomPart(tdeg)) { // rely on p
+            GenPolynomial<C> p = cache.get((int) tdeg);
+            if (p != null) {
+                return p.coefficient(index);
+            }
         }
-        C g = generate(index);
-        if (g.isZERO()) {
-            zeroCache.add(index);
-        } else {
-            p.doPutToMap(index, g);
+        synchronized (this) {
+            GenPolynomial<C> p = cachedHomPart((int) tdeg);
+            if (p == null) {
+                p = pfac.getZERO().copy();
+                putCache((int) tdeg, p);
+            }
+            C c = p.coefficient(index);
+            if (!c.isZERO()) {
+                return c;
+            }
+            if (checkHomPart(tdeg)) { // rely on p
+                return c;
+            }
+            if (zeroCache.contains(index)) {
+                return c;
+            }
+            C g = generate(index);
+            if (g.isZERO()) {
+                if (!cache.isLimited((int) tdeg)) {
+                    zeroCache.add(index);
+                }
+            } else {
+                p.doPutToMap(index, g);
+            }
+            return g;
         }
-        return g;
     }
 
 
@@ -183,39 +380,43 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
      * @return polynomial part of given degree.
      */
     public GenPolynomial<C> getHomPart(long tdeg) {
-        if (coeffCache == null) {
+        if (cache == null) {
             throw new IllegalArgumentException("null cache not allowed");
         }
-        GenPolynomial<C> p = coeffCache.get(tdeg);
-        if (p == null) {
-            p = pfac.getZERO().copy();
-            coeffCache.put(tdeg, p);
-        } 
-        // trust contents?
-        if (homCheck.get((int) tdeg)) {
-            return p;
+        if (checkHomPart(tdeg)) { // trust contents
+            GenPolynomial<C> p = cache.get((int) tdeg);
+            if (p != null) {
+                return p;
+            }
         }
-        // check correct contents or generate coefficients
-        ExpVectorIterable eiter = new ExpVectorIterable(pfac.nvar, tdeg);
-        for (ExpVector e : eiter) {
-            if (zeroCache.contains(e)) {
-                if ( !zeroCache.remove(e) ) { // clean-up unused
-                    System.out.println("not removed e = " + e); // cannot happen
-                }
-                continue;
+        synchronized (this) {
+            GenPolynomial<C> p = cachedHomPart((int) tdeg);
+            if (p == null) {
+                p = pfac.getZERO().copy();
+                putCache((int) tdeg, p);
             }
-            if (!p.coefficient(e).isZERO()) {
-                continue;
+            // trust contents?
+            if (checkHomPart(tdeg)) {
+                return p;
             }
-            C g = generate(e);
-            if (!g.isZERO()) {
-                p.doPutToMap(e, g);
+            // check correct contents or generate coefficients
+            ExpVectorIterable eiter = new ExpVectorIterable(pfac.nvar, tdeg);
+            for (ExpVector e : eiter) {
+                if (zeroCache.contains(e)) {
+                    zeroCache.remove(e); // clean-up unused
+                    continue;
+                }
+                if (!p.coefficient(e).isZERO()) {
+                    continue;
+                }
+                C g = generate(e);
+                if (!g.isZERO()) {
+                    p.doPutToMap(e, g);
+                }
             }
+            putHomPart(tdeg, p);
+            return p;
         }
-        homCheck.set((int) tdeg);
-        //System.out.println("homCheck = " + homCheck);
-        //System.out.println("coeffCache = " + coeffCache.keySet());
-        return p;
     }
 
 
@@ -6,13 +6,11 @@ package edu.jas.ps;
 
 
 import java.util.BitSet;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 
 import edu.jas.poly.AlgebraicNumber;
 import edu.jas.poly.ExpVector;
@@ -64,13 +62,13 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
     /**
      * Order of power series.
      */
-    private int order = -1; // == unknown
+    private volatile int order = -1; // == unknown
 
 
     /**
      * ExpVector of order of power series.
      */
-    private ExpVector evorder = null; // == unknown
+    private volatile ExpVector evorder = null; // == unknown
 
 
     /**
@@ -118,6 +116,9 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         this.ring = ring;
         this.lazyCoeffs = lazyCoeffs;
         this.truncate = Math.min(trunc, ring.truncate);
+        if (ring.truncateCache) {
+            lazyCoeffs.setCacheLimit(ring.truncate);
+        }
     }
 
 
@@ -406,14 +407,14 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         ExpVector e = m.getKey();
         long d = e.totalDeg();
         MultiVarCoefficients<C> mc = lazyCoeffs;
-        HashMap<Long, GenPolynomial<C>> cc = new HashMap<Long, GenPolynomial<C>>(mc.coeffCache);
-        GenPolynomial<C> p = cc.get(d);
+        CoefficientCache<GenPolynomial<C>> cc = mc.copyCache();
+        GenPolynomial<C> p = cc.get((int) d);
         if (p != null && !p.isZERO()) {
             p = p.subtract(m.getValue(), e); // p contains this term after orderMonomial()
-            cc.put(d, p);
+            cc.put((int) d, p);
         }
         HashSet<ExpVector> z = new HashSet<ExpVector>(mc.zeroCache);
-        if (!mc.homCheck.get((int) d)) {
+        if (!mc.checkHomPart(d)) {
             z.add(e);
             //System.out.println("e = " + e);
         }
@@ -485,11 +486,10 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
                     return ring.coFac.getZERO();
                 }
                 long tdegd = d.totalDeg();
-                if (lazyCoeffs.homCheck.get((int) tdegd)) {
+                if (lazyCoeffs.checkHomPart(tdegd)) {
                     GenPolynomial<C> p = homogeneousPart(tdegd).multiply(c, k);
                     long tdegi = i.totalDeg();
-                    coeffCache.put(tdegi, p); // overwrite
-                    homCheck.set((int) tdegi);
+                    putHomPart(tdegi, p); // overwrite
                     C b = p.coefficient(i);
                     //System.out.println("b = " + b + ", i = " + i + ", tdegi = " + tdegi+ ", tdegd = " + tdegd);
                     //System.out.println("p = " + p + ", i = " + i);
@@ -529,17 +529,17 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         }
         long d = k.totalDeg();
         MultiVarCoefficients<C> mc = lazyCoeffs;
-        HashMap<Long, GenPolynomial<C>> cc = new HashMap<Long, GenPolynomial<C>>(mc.coeffCache);
-        GenPolynomial<C> p = cc.get(d);
+        CoefficientCache<GenPolynomial<C>> cc = mc.copyCache();
+        GenPolynomial<C> p = cc.get((int) d);
         if (p == null) {
             p = mc.pfac.getZERO();
         }
         p = p.sum(c, k);
         //System.out.println("p = " + p);
-        cc.put(d, p);
+        cc.put((int) d, p);
         HashSet<ExpVector> z = new HashSet<ExpVector>(mc.zeroCache);
         //System.out.println("z = " + z);
-        if (p.coefficient(k).isZERO() && !mc.homCheck.get((int) d)) {
+        if (p.coefficient(k).isZERO() && !mc.checkHomPart(d)) {
             z.add(k);
         }
 
@@ -569,16 +569,16 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         }
         long d = k.totalDeg();
         MultiVarCoefficients<C> mc = lazyCoeffs;
-        HashMap<Long, GenPolynomial<C>> cc = new HashMap<Long, GenPolynomial<C>>(mc.coeffCache);
-        GenPolynomial<C> p = cc.get(d);
+        CoefficientCache<GenPolynomial<C>> cc = mc.copyCache();
+        GenPolynomial<C> p = cc.get((int) d);
         if (p == null) {
             p = mc.pfac.getZERO();
         }
         p = p.subtract(c, k);
-        cc.put(d, p);
+        cc.put((int) d, p);
         HashSet<ExpVector> z = new HashSet<ExpVector>(mc.zeroCache);
         //System.out.println("z = " + z);
-        if (p.coefficient(k).isZERO() && !mc.homCheck.get((int) d)) {
+        if (p.coefficient(k).isZERO() && !mc.checkHomPart(d)) {
             z.add(k);
         }
         return new MultiVarPowerSeries<C>(ring, new MultiVarCoefficients<C>(mc.pfac, cc, z, mc.homCheck) {
@@ -599,17 +599,17 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
      */
     public MultiVarPowerSeries<C> sum(MultiVarCoefficients<C> mvc) {
         MultiVarCoefficients<C> mc = lazyCoeffs;
-        TreeMap<Long, GenPolynomial<C>> cc = new TreeMap<Long, GenPolynomial<C>>(mc.coeffCache);
-        TreeMap<Long, GenPolynomial<C>> ccv = new TreeMap<Long, GenPolynomial<C>>(mvc.coeffCache);
-        long d1 = (cc.size() > 0 ? cc.lastKey() : 0);
-        long d2 = (ccv.size() > 0 ? ccv.lastKey() : 0);
+        CoefficientCache<GenPolynomial<C>> cc = mc.copyCache();
+        CoefficientCache<GenPolynomial<C>> ccv = mvc.getCache();
+        int d1 = cc.maxIndex();
+        int d2 = ccv.maxIndex();
         HashSet<ExpVector> z = new HashSet<ExpVector>(mc.zeroCache);
         z.addAll(mvc.zeroCache);
-        long d = Math.max(d1, d2);
-        BitSet hc = new BitSet((int) d);
-        for (long i = 0; i <= d; i++) {
+        int d = Math.max(Math.max(d1, d2), 0);
+        BitSet hc = new BitSet(d);
+        for (int i = 0; i <= d; i++) {
             GenPolynomial<C> p1 = cc.get(i);
-            GenPolynomial<C> p2 = mvc.coeffCache.get(i);
+            GenPolynomial<C> p2 = ccv.get(i);
             if (p1 == null) {
                 p1 = mc.pfac.getZERO();
             }
@@ -619,8 +619,8 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
             GenPolynomial<C> p = p1.sum(p2);
             //System.out.println("p = " + p);
             cc.put(i, p);
-            if (mc.homCheck.get((int) i) && mvc.homCheck.get((int) i)) {
-                hc.set((int) i);
+            if (mc.checkHomPart(i) && mvc.checkHomPart(i)) {
+                hc.set(i);
             } else {
                 Set<ExpVector> ev = new HashSet<ExpVector>(p1.getMap().keySet());
                 ev.addAll(p2.getMap().keySet());
@@ -631,7 +631,7 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         //System.out.println("cc = " + cc);
 
         return new MultiVarPowerSeries<C>(ring,
-                        new MultiVarCoefficients<C>(mc.pfac, new HashMap<Long, GenPolynomial<C>>(cc), z, hc) {
+                        new MultiVarCoefficients<C>(mc.pfac, cc, z, hc) {
 
 
                             @Override
@@ -885,21 +885,21 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         // must compute it
         GenPolynomial<C> p = null;
         int t = 0;
-        while (lazyCoeffs.homCheck.get(t)) {
-            p = lazyCoeffs.coeffCache.get((long) t);
+        while (lazyCoeffs.checkHomPart(t)) {
+            p = lazyCoeffs.cache.get(t);
             if (p == null || p.isZERO()) { // ??
                 t++;
                 continue;
             }
+            evorder = p.trailingExpVector(); // before order for concurrent readers
             order = t;
-            evorder = p.trailingExpVector();
             //System.out.println("order = " + t);
             return order;
         }
         for (ExpVector i : new ExpVectorIterable(ring.nvar, true, truncate)) {
             if (!coefficient(i).isZERO()) {
-                order = (int) i.totalDeg(); //ord;
                 evorder = i;
+                order = (int) i.totalDeg(); //ord;
                 //System.out.println("order = " + order + ", evorder = " + evorder);
                 return order;
             }
@@ -1123,11 +1123,10 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
             @Override
             public C generate(ExpVector e) {
                 long tdeg = e.totalDeg();
-                if (lazyCoeffs.homCheck.get((int) tdeg)) {
+                if (lazyCoeffs.checkHomPart(tdeg)) {
                     // generate respective homogeneous polynomial
                     GenPolynomial<C> p = homogeneousPart(tdeg).sum(ps.homogeneousPart(tdeg));
-                    coeffCache.put(tdeg, p); // overwrite
-                    homCheck.set((int) tdeg);
+                    putHomPart(tdeg, p); // overwrite
                     C c = p.coefficient(e);
                     //System.out.println("c = " + c + ", e = " + e + ", tdeg = " + tdeg);
                     return c;
@@ -1153,11 +1152,10 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
             @Override
             public C generate(ExpVector e) {
                 long tdeg = e.totalDeg();
-                if (lazyCoeffs.homCheck.get((int) tdeg)) {
+                if (lazyCoeffs.checkHomPart(tdeg)) {
                     // generate respective homogeneous polynomial
                     GenPolynomial<C> p = homogeneousPart(tdeg).subtract(ps.homogeneousPart(tdeg));
-                    coeffCache.put(tdeg, p); // overwrite
-                    homCheck.set((int) tdeg);
+                    putHomPart(tdeg, p); // overwrite
                     C c = p.coefficient(e);
                     //System.out.println("p = " + p + ", e = " + e + ", tdeg = " + tdeg);
                     return c;
@@ -1193,8 +1191,7 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
                         p = p.sum(m);
                     }
                 }
-                coeffCache.put(tdeg, p); // overwrite
-                homCheck.set((int) tdeg);
+                putHomPart(tdeg, p); // overwrite
                 C c = p.coefficient(e);
                 return c;
             }
@@ -1228,8 +1225,7 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
                 }
                 p = p.multiply(d.negate());
                 //System.out.println("tdeg = " + tdeg + ", p = " + p);
-                coeffCache.put(tdeg, p); // overwrite
-                homCheck.set((int) tdeg);
+                putHomPart(tdeg, p); // overwrite
                 C c = p.coefficient(e);
                 return c;
             }
@@ -9,7 +9,6 @@ import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
 import java.util.function.Function;
@@ -53,6 +52,13 @@ public class MultiVarPowerSeriesRing<C extends RingElem<C>> implements RingFacto
     int truncate;
 
 
+    /**
+     * Indicator if coefficient caches of new power series are limited to the
+     * truncate index.
+     */
+    boolean truncateCache = false;
+
+
     /**
      * Zero ExpVector.
      */
@@ -350,6 +356,20 @@ public class MultiVarPowerSeriesRing<C extends RingElem<C>> implements RingFacto
     }
 
 
+    /**
+     * Set cache truncation. If set, the coefficient caches of power series
+     * created later are limited to the truncate index, coefficients beyond are
+     * generated again when needed.
+     * @param b true, to limit coefficient caches.
+     * @return old cache truncation indicator.
+     */
+    public boolean setTruncateCache(boolean b) {
+        boolean o = truncateCache;
+        truncateCache = b;
+        return o;
+    }
+
+
     /**
      * Is this structure finite or infinite.
      * @return true if this structure is finite, else false.
@@ -561,12 +581,12 @@ public class MultiVarPowerSeriesRing<C extends RingElem<C>> implements RingFacto
             return ONE;
         }
         GenPolynomialRing<C> pfac = polyRing();
-        HashMap<Long, GenPolynomial<C>> cache = new HashMap<Long, GenPolynomial<C>>();
+        CoefficientCache<GenPolynomial<C>> cache = new CoefficientCache<GenPolynomial<C>>();
         int mt = 0;
         for (Monomial<C> m : a) {
             ExpVector e = m.exponent();
-            long t = e.totalDeg();
-            mt = Math.max(mt, (int) t);
+            int t = (int) e.totalDeg();
+            mt = Math.max(mt, t);
             GenPolynomial<C> p = cache.get(t);
             if (p == null) {
                 p = pfac.getZERO().copy();
@@ -581,9 +601,9 @@ public class MultiVarPowerSeriesRing<C extends RingElem<C>> implements RingFacto
         BitSet check = new BitSet();
         for (int i = 0; i <= truncate(); i++) {
             check.set(i);
-            if (cache.get((long) i) == null) {
+            if (cache.get(i) == null) {
                 GenPolynomial<C> p = pfac.getZERO().copy();
-                cache.put((long) i, p);
+                cache.put(i, p);
                 //System.out.println("p zero for deg i = " + i);
             }
         }
@@ -0,0 +1,219 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ps;
+
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Pair list management with sugar strategy. The sugar of a pair is the total
+ * degree of the lcm of the order terms plus the maximal ecart of the power
+ * series. Pairs are selected by minimal sugar and then by the term order of
+ * the lcm. Pairs with total degree of the lcm greater than the truncation
+ * index of the ring have S-power-series which are zero up to the truncation
+ * and are not entered into the pair list.
+ * @author Heinz Kredel
+ */
+
+public class OrderedSugarPairlist<C extends RingElem<C>> extends OrderedPairlist<C> {
+
+
+    protected final TreeMap<Long, TreeMap<ExpVector, LinkedList<Pair<C>>>> sugarlist;
+
+
+    protected final ArrayList<Long> ecarts;
+
+
+    protected int truncCount;
+
+
+    private static final Logger logger = LogManager.getLogger(OrderedSugarPairlist.class);
+
+
+    /**
+     * Constructor for OrderedSugarPairlist.
+     * @param r power series factory.
+     */
+    public OrderedSugarPairlist(MultiVarPowerSeriesRing<C> r) {
+        this(0, r);
+    }
+
+
+    /**
+     * Constructor for OrderedSugarPairlist.
+     * @param m number of module variables.
+     * @param r power series factory.
+     */
+    public OrderedSugarPairlist(int m, MultiVarPowerSeriesRing<C> r) {
+        super(m, r);
+        sugarlist = new TreeMap<Long, TreeMap<ExpVector, LinkedList<Pair<C>>>>();
+        ecarts = new ArrayList<Long>();
+        truncCount = 0;
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("OrderedSugarPairlist(");
+        s.append("#put=" + putCount);
+        s.append(", #rem=" + remCount);
+        s.append(", #trunc=" + truncCount);
+        if (sugarlist.size() != 0) {
+            s.append(", size=" + sugarlist.size());
+        }
+        s.append(")");
+        return s.toString();
+    }
+
+
+    /**
+     * Put one power Series to the pairlist and reduction matrix.
+     * @param p power series.
+     * @return the index of the added power series.
+     */
+    @Override
+    public synchronized int put(MultiVarPowerSeries<C> p) {
+        putCount++;
+        if (oneInGB) {
+            return P.size() - 1;
+        }
+        ExpVector e = p.orderExpVector();
+        long ep = p.ecart();
+        int l = P.size();
+        BitSet redi = new BitSet();
+        for (int j = 0; j < l; j++) {
+            MultiVarPowerSeries<C> pj = P.get(j);
+            ExpVector f = pj.orderExpVector();
+            if (moduleVars > 0) {
+                if (!reduction.moduleCriterion(moduleVars, e, f)) {
+                    continue; // skip pair
+                }
+            }
+            ExpVector g = e.lcm(f);
+            long d = g.totalDeg();
+            if (d > ring.truncate()) { // S-power-series is zero up to truncate
+                truncCount++;
+                continue;
+            }
+            Long s = d + Math.max(ep, ecarts.get(j));
+            Pair<C> pair = new Pair<C>(pj, p, j, l);
+            TreeMap<ExpVector, LinkedList<Pair<C>>> sl = sugarlist.get(s);
+            if (sl == null) {
+                sl = new TreeMap<ExpVector, LinkedList<Pair<C>>>(ring.polyRing().tord.getAscendComparator());
+                sugarlist.put(s, sl);
+            }
+            LinkedList<Pair<C>> xl = sl.get(g);
+            if (xl == null) {
+                xl = new LinkedList<Pair<C>>();
+                sl.put(g, xl);
+            }
+            xl.addFirst(pair);
+            redi.set(j);
+        }
+        P.add(p);
+        ecarts.add(ep);
+        red.add(redi);
+        return P.size() - 1;
+    }
+
+
+    /**
+     * Remove the next required pair from the pairlist and reduction matrix.
+     * Apply the criterions 3 and 4 to see if the S-power-series is required.
+     * @return the next pair if one exists, otherwise null.
+     */
+    @Override
+    public synchronized Pair<C> removeNext() {
+        if (oneInGB) {
+            return null;
+        }
+        Pair<C> pair = null;
+        boolean c = false;
+        while (!c && sugarlist.size() > 0) {
+            Map.Entry<Long, TreeMap<ExpVector, LinkedList<Pair<C>>>> se = sugarlist.firstEntry();
+            Iterator<Map.Entry<ExpVector, LinkedList<Pair<C>>>> ip = se.getValue().entrySet().iterator();
+            while (!c && ip.hasNext()) {
+                Map.Entry<ExpVector, LinkedList<Pair<C>>> me = ip.next();
+                ExpVector g = me.getKey();
+                LinkedList<Pair<C>> xl = me.getValue();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("sugar = " + se.getKey() + ", g  = " + g);
+                }
+                while (!c && xl.size() > 0) {
+                    pair = xl.removeFirst();
+                    c = true;
+                    if (useCriterion4) {
+                        c = reduction.criterion4(pair.pi, pair.pj, g);
+                    }
+                    if (c && useCriterion3) {
+                        c = criterion3(pair.i, pair.j, g);
+                    }
+                    red.get(pair.j).clear(pair.i);
+                }
+                if (xl.size() == 0) {
+                    ip.remove();
+                }
+            }
+            if (se.getValue().size() == 0) {
+                sugarlist.remove(se.getKey());
+            }
+        }
+        if (!c) {
+            pair = null;
+        } else {
+            remCount++; // count only real pairs
+        }
+        return pair;
+    }
+
+
+    /**
+     * Test if there is possibly a pair in the list.
+     * @return true if a next pair could exist, otherwise false.
+     */
+    @Override
+    public synchronized boolean hasNext() {
+        return sugarlist.size() > 0;
+    }
+
+
+    /**
+     * Put the ONE-power-series to the pairlist.
+     * @return the index of the last power-series.
+     */
+    @Override
+    public synchronized int putOne() {
+        sugarlist.clear();
+        ecarts.clear();
+        int i = super.putOne();
+        ecarts.add(0L);
+        return i;
+    }
+
+
+    /**
+     * Get the number of pairs not entered due to the truncation index.
+     * @return the number of truncated pairs.
+     */
+    public synchronized int truncCount() {
+        return truncCount;
+    }
+
+}
@@ -5,15 +5,20 @@
 package edu.jas.ps;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
 import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
 import edu.jas.structure.UnaryFunctor;
 import edu.jas.util.ListUtil;
 
 
 /**
- * Power series utilities. For example monic power series.
+ * Power series utilities. For example monic power series and fast arithmetic
+ * for truncated coefficient lists.
  * @author Heinz Kredel
  */
 
@@ -61,4 +66,418 @@ public class PSUtil {
                         });
     }
 
+
+    /**
+     * Degree bound for schoolbook multiplication in Karatsuba multiplication.
+     */
+    public static final int KARATSUBA_THRESHOLD = 32;
+
+
+    /**
+     * Truncated coefficient list.
+     * @param <C> coefficient type.
+     * @param fac coefficient ring factory.
+     * @param a list of coefficients.
+     * @param n number of coefficients.
+     * @return list of the first n coefficients of a, padded with zeros.
+     */
+    public static <C extends RingElem<C>> List<C> truncate(RingFactory<C> fac, List<C> a, int n) {
+        List<C> c = new ArrayList<C>(n);
+        for (int i = 0; i < n; i++) {
+            c.add(i < a.size() ? a.get(i) : fac.getZERO());
+        }
+        return c;
+    }
+
+
+    /**
+     * Truncated product of coefficient lists with Karatsuba multiplication.
+     * Integer and rational coefficients are multiplied by Kronecker
+     * substitution.
+     * @param <C> coefficient type.
+     * @param fac coefficient ring factory.
+     * @param a list of coefficients.
+     * @param b list of coefficients.
+     * @param n number of coefficients.
+     * @return first n coefficients of a * b.
+     */
+    public static <C extends RingElem<C>> List<C> multiplyTruncated(RingFactory<C> fac, List<C> a, List<C> b,
+                    int n) {
+        List<C> as = a.subList(0, Math.min(n, a.size()));
+        List<C> bs = b.subList(0, Math.min(n, b.size()));
+        if (as.isEmpty() || bs.isEmpty()) {
+            return truncate(fac, as, n);
+        }
+        if (fac instanceof BigRational && as.size() + bs.size() > KARATSUBA_THRESHOLD) {
+            @SuppressWarnings("unchecked")
+            List<C> c = (List<C>) multiplyRational((List<BigRational>) as, (List<BigRational>) bs, n);
+            return c;
+        }
+        if (fac instanceof BigInteger && as.size() + bs.size() > KARATSUBA_THRESHOLD) {
+            java.math.BigInteger[] ai = new java.math.BigInteger[as.size()];
+            for (int i = 0; i < ai.length; i++) {
+                ai[i] = ((BigInteger) as.get(i)).getVal();
+            }
+            java.math.BigInteger[] bi = new java.math.BigInteger[bs.size()];
+            for (int i = 0; i < bi.length; i++) {
+                bi[i] = ((BigInteger) bs.get(i)).getVal();
+            }
+            java.math.BigInteger[] ci = multiplyKronecker(ai, bi, n);
+            List<C> c = new ArrayList<C>(n);
+            for (int i = 0; i < n; i++) {
+                @SuppressWarnings("unchecked")
+                C v = (C) new BigInteger(ci[i]);
+                c.add(v);
+            }
+            return c;
+        }
+        return truncate(fac, multiplyKaratsuba(fac, as, bs), n);
+    }
+
+
+    /**
+     * Truncated product of rational coefficient lists. The lists are scaled
+     * to integer coefficients by the least common multiple of the
+     * denominators and multiplied by Kronecker substitution.
+     * @param a non empty list of coefficients.
+     * @param b non empty list of coefficients.
+     * @param n number of coefficients.
+     * @return first n coefficients of a * b.
+     */
+    static List<BigRational> multiplyRational(List<BigRational> a, List<BigRational> b, int n) {
+        java.math.BigInteger da = java.math.BigInteger.ONE;
+        for (BigRational r : a) {
+            da = lcm(da, r.den);
+        }
+        java.math.BigInteger db = java.math.BigInteger.ONE;
+        for (BigRational r : b) {
+            db = lcm(db, r.den);
+        }
+        java.math.BigInteger[] ai = new java.math.BigInteger[a.size()];
+        for (int i = 0; i < ai.length; i++) {
+            BigRational r = a.get(i);
+            ai[i] = r.num.multiply(da.divide(r.den));
+        }
+        java.math.BigInteger[] bi = new java.math.BigInteger[b.size()];
+        for (int i = 0; i < bi.length; i++) {
+            BigRational r = b.get(i);
+            bi[i] = r.num.multiply(db.divide(r.den));
+        }
+        java.math.BigInteger[] ci = multiplyKronecker(ai, bi, n);
+        java.math.BigInteger d = da.multiply(db);
+        List<BigRational> c = new ArrayList<BigRational>(n);
+        for (int i = 0; i < n; i++) {
+            c.add(BigRational.reduction(ci[i], d));
+        }
+        return c;
+    }
+
+
+    /**
+     * Least common multiple.
+     * @param a positive integer.
+     * @param b positive integer.
+     * @return lcm(a,b).
+     */
+    static java.math.BigInteger lcm(java.math.BigInteger a, java.math.BigInteger b) {
+        if (b.equals(java.math.BigInteger.ONE) || a.equals(b)) {
+            return a;
+        }
+        return a.divide(a.gcd(b)).multiply(b);
+    }
+
+
+    /**
+     * Truncated product of integer coefficient lists by Kronecker
+     * substitution. The coefficients are packed into one integer with slots
+     * of sufficient bit size, the integers are multiplied with the
+     * sub-quadratic multiplication of java.math.BigInteger and the product is
+     * unpacked to signed coefficients.
+     * @param a non empty array of coefficients.
+     * @param b non empty array of coefficients.
+     * @param n number of coefficients.
+     * @return first n coefficients of a * b.
+     */
+    static java.math.BigInteger[] multiplyKronecker(java.math.BigInteger[] a, java.math.BigInteger[] b, int n) {
+        int ma = 0;
+        for (java.math.BigInteger v : a) {
+            ma = Math.max(ma, v.bitLength());
+        }
+        int mb = 0;
+        for (java.math.BigInteger v : b) {
+            mb = Math.max(mb, v.bitLength());
+        }
+        int m = Math.min(a.length, b.length);
+        int k = ma + mb + (32 - Integer.numberOfLeadingZeros(m)) + 1;
+        java.math.BigInteger c = pack(a, 0, Math.min(a.length, n), k)
+                        .multiply(pack(b, 0, Math.min(b.length, n), k));
+        java.math.BigInteger[] r = new java.math.BigInteger[n];
+        unpack(signedRemainder(c, k * n), r, 0, n, k);
+        return r;
+    }
+
+
+    /**
+     * Pack coefficients into one integer.
+     * @param a array of coefficients.
+     * @param lo start index.
+     * @param hi end index, exclusive.
+     * @param k bit size of the slots.
+     * @return sum(a_i 2^(k (i-lo)), i = lo, ..., hi-1).
+     */
+    static java.math.BigInteger pack(java.math.BigInteger[] a, int lo, int hi, int k) {
+        if (hi - lo == 1) {
+            return a[lo];
+        }
+        int mid = (lo + hi) >>> 1;
+        return pack(a, lo, mid, k).add(pack(a, mid, hi, k).shiftLeft(k * (mid - lo)));
+    }
+
+
+    /**
+     * Unpack an integer to signed coefficients.
+     * @param c integer with |c_i| &lt; 2^(k-1).
+     * @param r array for the coefficients, modified.
+     * @param lo start index.
+     * @param hi end index, exclusive.
+     * @param k bit size of the slots.
+     */
+    static void unpack(java.math.BigInteger c, java.math.BigInteger[] r, int lo, int hi, int k) {
+        if (hi - lo == 1) {
+            r[lo] = c;
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int bits = k * (mid - lo);
+        java.math.BigInteger l = signedRemainder(c, bits);
+        unpack(l, r, lo, mid, k);
+        unpack(c.subtract(l).shiftRight(bits), r, mid, hi, k);
+    }
+
+
+    /**
+     * Symmetric remainder modulo a power of two.
+     * @param c integer.
+     * @param bits exponent.
+     * @return r with r == c mod 2^bits and -2^(bits-1) &le; r &lt; 2^(bits-1).
+     */
+    static java.math.BigInteger signedRemainder(java.math.BigInteger c, int bits) {
+        if (c.bitLength() < bits) {
+            return c;
+        }
+        java.math.BigInteger p = java.math.BigInteger.ONE.shiftLeft(bits);
+        java.math.BigInteger r = c.and(p.subtract(java.math.BigInteger.ONE));
+        if (r.testBit(bits - 1)) {
+            r = r.subtract(p);
+        }
+        return r;
+    }
+
+
+    /**
+     * Product of coefficient lists with Karatsuba multiplication.
+     * @param <C> coefficient type.
+     * @param fac coefficient ring factory.
+     * @param a non empty list of coefficients.
+     * @param b non empty list of coefficients.
+     * @return coefficients of a * b, with a.size() + b.size() - 1 elements.
+     */
+    public static <C extends RingElem<C>> List<C> multiplyKaratsuba(RingFactory<C> fac, List<C> a, List<C> b) {
+        int na = a.size();
+        int nb = b.size();
+        List<C> c = truncate(fac, new ArrayList<C>(0), na + nb - 1);
+        if (Math.min(na, nb) <= KARATSUBA_THRESHOLD) {
+            for (int i = 0; i < na; i++) {
+                C ai = a.get(i);
+                if (ai.isZERO()) {
+                    continue;
+                }
+                for (int j = 0; j < nb; j++) {
+                    c.set(i + j, c.get(i + j).sum(ai.multiply(b.get(j))));
+                }
+            }
+            return c;
+        }
+        int m = (Math.max(na, nb) + 1) / 2;
+        if (na <= m || nb <= m) { // unbalanced, split the longer factor
+            if (na < nb) {
+                List<C> t = a;
+                a = b;
+                b = t;
+                na = a.size();
+            }
+            List<C> z0 = multiplyKaratsuba(fac, a.subList(0, m), b);
+            List<C> z1 = multiplyKaratsuba(fac, a.subList(m, na), b);
+            addTo(c, z0, 0);
+            addTo(c, z1, m);
+            return c;
+        }
+        List<C> a0 = a.subList(0, m);
+        List<C> a1 = a.subList(m, na);
+        List<C> b0 = b.subList(0, m);
+        List<C> b1 = b.subList(m, nb);
+        List<C> z0 = multiplyKaratsuba(fac, a0, b0);
+        List<C> z2 = multiplyKaratsuba(fac, a1, b1);
+        List<C> as = truncate(fac, a0, m);
+        addTo(as, a1, 0);
+        List<C> bs = truncate(fac, b0, m);
+        addTo(bs, b1, 0);
+        List<C> z1 = multiplyKaratsuba(fac, as, bs);
+        for (int i = 0; i < z1.size(); i++) {
+            C v = z1.get(i);
+            if (i < z0.size()) {
+                v = v.subtract(z0.get(i));
+            }
+            if (i < z2.size()) {
+                v = v.subtract(z2.get(i));
+            }
+            z1.set(i, v);
+        }
+        addTo(c, z0, 0);
+        addTo(c, z1, m);
+        addTo(c, z2, 2 * m);
+        return c;
+    }
+
+
+    /**
+     * Add shifted coefficient list in place.
+     * @param c list of coefficients, modified.
+     * @param a list of coefficients.
+     * @param k shift.
+     */
+    static <C extends RingElem<C>> void addTo(List<C> c, List<C> a, int k) {
+        int n = Math.min(a.size(), c.size() - k);
+        for (int i = 0; i < n; i++) {
+            c.set(i + k, c.get(i + k).sum(a.get(i)));
+        }
+    }
+
+
+    /**
+     * Truncated inverse of a coefficient list by Newton iteration.
+     * @param <C> coefficient type.
+     * @param fac coefficient ring factory.
+     * @param a list of coefficients with invertible a_0.
+     * @param n number of coefficients.
+     * @return first n coefficients of 1 / a.
+     */
+    public static <C extends RingElem<C>> List<C> inverseTruncated(RingFactory<C> fac, List<C> a, int n) {
+        if (a.isEmpty() || !a.get(0).isUnit()) {
+            throw new ArithmeticException("constant coefficient not invertible");
+        }
+        List<C> b = new ArrayList<C>(n);
+        b.add(a.get(0).inverse());
+        int k = 1;
+        while (k < n) {
+            int k2 = Math.min(2 * k, n);
+            // a b = 1 + x^k h, b' = b - x^k b h
+            List<C> ab = multiplyTruncated(fac, a, b, k2);
+            List<C> bh = multiplyTruncated(fac, b, ab.subList(k, k2), k2 - k);
+            for (C c : bh) {
+                b.add(c.negate());
+            }
+            k = k2;
+        }
+        return b;
+    }
+
+
+    /**
+     * Truncated square root of a coefficient list by Newton iteration.
+     * @param <C> coefficient type.
+     * @param fac coefficient ring factory.
+     * @param a list of coefficients with a_0 == 1.
+     * @param n number of coefficients.
+     * @return first n coefficients of sqrt(a) with constant coefficient 1.
+     */
+    public static <C extends RingElem<C>> List<C> sqrtTruncated(RingFactory<C> fac, List<C> a, int n) {
+        if (a.isEmpty() || !a.get(0).isONE()) {
+            throw new IllegalArgumentException("constant coefficient must be one");
+        }
+        C half = fac.fromInteger(2).inverse();
+        List<C> s = new ArrayList<C>(n);
+        s.add(fac.getONE());
+        int k = 1;
+        while (k < n) {
+            int k2 = Math.min(2 * k, n);
+            // a - s^2 = x^k h, s' = s + x^k h / (2 s)
+            List<C> ss = multiplyTruncated(fac, s, s, k2);
+            List<C> h = new ArrayList<C>(k2 - k);
+            for (int i = k; i < k2; i++) {
+                C v = (i < a.size() ? a.get(i) : fac.getZERO());
+                h.add(v.subtract(ss.get(i)));
+            }
+            List<C> si = inverseTruncated(fac, s, k2 - k);
+            List<C> d = multiplyTruncated(fac, h, si, k2 - k);
+            for (C c : d) {
+                s.add(c.multiply(half));
+            }
+            k = k2;
+        }
+        return s;
+    }
+
+
+    /**
+     * Truncated logarithm of a coefficient list.
+     * @param <C> coefficient type.
+     * @param fac coefficient ring factory, a field of characteristic zero.
+     * @param a list of coefficients with a_0 == 1.
+     * @param n number of coefficients.
+     * @return first n coefficients of log(a) = integrate(a' / a).
+     */
+    public static <C extends RingElem<C>> List<C> logTruncated(RingFactory<C> fac, List<C> a, int n) {
+        if (a.isEmpty() || !a.get(0).isONE()) {
+            throw new IllegalArgumentException("constant coefficient must be one");
+        }
+        List<C> l = new ArrayList<C>(n);
+        l.add(fac.getZERO());
+        if (n <= 1) {
+            return l;
+        }
+        List<C> da = new ArrayList<C>(n - 1);
+        for (int i = 1; i < n; i++) {
+            C v = (i < a.size() ? a.get(i) : fac.getZERO());
+            da.add(v.multiply(fac.fromInteger(i)));
+        }
+        List<C> q = multiplyTruncated(fac, da, inverseTruncated(fac, a, n - 1), n - 1);
+        for (int i = 1; i < n; i++) {
+            l.add(q.get(i - 1).divide(fac.fromInteger(i)));
+        }
+        return l;
+    }
+
+
+    /**
+     * Truncated exponential of a coefficient list by Newton iteration.
+     * @param <C> coefficient type.
+     * @param fac coefficient ring factory, a field of characteristic zero.
+     * @param a list of coefficients with a_0 == 0.
+     * @param n number of coefficients.
+     * @return first n coefficients of exp(a).
+     */
+    public static <C extends RingElem<C>> List<C> expTruncated(RingFactory<C> fac, List<C> a, int n) {
+        if (!a.isEmpty() && !a.get(0).isZERO()) {
+            throw new IllegalArgumentException("constant coefficient must be zero");
+        }
+        List<C> e = new ArrayList<C>(n);
+        e.add(fac.getONE());
+        int k = 1;
+        while (k < n) {
+            int k2 = Math.min(2 * k, n);
+            // a - log(e) = x^k h, e' = e + e x^k h
+            List<C> l = logTruncated(fac, e, k2);
+            List<C> h = new ArrayList<C>(k2 - k);
+            for (int i = k; i < k2; i++) {
+                C v = (i < a.size() ? a.get(i) : fac.getZERO());
+                h.add(v.subtract(l.get(i)));
+            }
+            List<C> d = multiplyTruncated(fac, e, h, k2 - k);
+            e.addAll(d);
+            k = k2;
+        }
+        return e;
+    }
+
 }
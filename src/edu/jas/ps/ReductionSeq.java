@@ -281,13 +281,13 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             }
             R = R.reductum();
             ExpVector e = m.getKey();
-            long t = e.totalDeg();
-            GenPolynomial<C> p = Rc.coeffCache.get(t);
+            int t = (int) e.totalDeg();
+            GenPolynomial<C> p = Rc.cachedHomPart(t);
             if (p == null) {
                 p = pfac.getZERO();
             }
             p = p.sum(m.getValue(), e);
-            Rc.coeffCache.put(t, p);
+            Rc.putCache(t, p);
             // zeros need never update
 
             R = normalform(P, R);
@@ -0,0 +1,207 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ps;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.ExpVector;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Standard Base parallel algorithm. Implements a shared memory parallel
+ * version of Standard bases. In each round up to <code>threads</code> pairs
+ * with minimal sugar are removed from an <code>OrderedSugarPairlist</code> and
+ * the S-power-series are reduced by Mora normal forms concurrently in the
+ * <code>ComputerThreads</code> pool. The lazily generated coefficients of the
+ * input power series and of the normal forms are computed up to the truncation
+ * index within the parallel tasks. The new power series are added in the
+ * order of the pairs, so the result does not depend on the thread scheduling.
+ * <b>Note: </b> Currently the term order is fixed to the order defined by the
+ * iterator over exponent vectors <code>ExpVectorIterator</code>.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+public class StandardBaseParallel<C extends RingElem<C>> extends StandardBaseSeq<C> {
+
+
+    private static final Logger logger = LogManager.getLogger(StandardBaseParallel.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of parallel tasks.
+     */
+    protected final int threads;
+
+
+    /**
+     * Constructor.
+     */
+    public StandardBaseParallel() {
+        this(ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of parallel tasks.
+     */
+    public StandardBaseParallel(int threads) {
+        this(threads, new ReductionSeq<C>());
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of parallel tasks.
+     * @param red Reduction engine
+     */
+    public StandardBaseParallel(int threads, ReductionSeq<C> red) {
+        super(red);
+        this.threads = ComputerThreads.checkThreads(threads);
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + threads + ")";
+    }
+
+
+    /**
+     * Standard base using sugar pairlist class and parallel normal forms.
+     * @param modv module variable number.
+     * @param F power series list.
+     * @return STD(F) a Standard base of F.
+     */
+    @Override
+    public List<MultiVarPowerSeries<C>> STD(int modv, List<MultiVarPowerSeries<C>> F) {
+        List<MultiVarPowerSeries<C>> G = normalizeZerosOnes(F);
+        G = PSUtil.<C> monic(G);
+        if (G.size() <= 1) {
+            return G;
+        }
+        MultiVarPowerSeriesRing<C> ring = G.get(0).ring;
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        prefetch(G);
+        OrderedSugarPairlist<C> pairlist = new OrderedSugarPairlist<C>(modv, ring);
+        pairlist.put(G);
+        logger.info("start " + pairlist);
+
+        while (pairlist.hasNext()) {
+            final List<Pair<C>> pairs = new ArrayList<Pair<C>>(threads);
+            while (pairs.size() < threads && pairlist.hasNext()) {
+                Pair<C> pair = pairlist.removeNext();
+                if (pair != null) {
+                    pairs.add(pair);
+                }
+            }
+            if (pairs.isEmpty()) {
+                continue;
+            }
+            final List<MultiVarPowerSeries<C>> Gs = new ArrayList<MultiVarPowerSeries<C>>(G);
+            List<Callable<MultiVarPowerSeries<C>>> cs = new ArrayList<Callable<MultiVarPowerSeries<C>>>(
+                            pairs.size());
+            for (final Pair<C> pair : pairs) {
+                cs.add(new Callable<MultiVarPowerSeries<C>>() {
+
+
+                    public MultiVarPowerSeries<C> call() {
+                        return normalform(Gs, pair);
+                    }
+                });
+            }
+            List<MultiVarPowerSeries<C>> Hs = ComputerThreads.invokeAll(cs, threads);
+            for (int k = 0; k < Hs.size(); k++) {
+                MultiVarPowerSeries<C> H = Hs.get(k);
+                if (H.isZERO()) {
+                    pairs.get(k).setZero();
+                    continue;
+                }
+                if (logger.isInfoEnabled()) {
+                    ExpVector eh = H.orderExpVector();
+                    logger.info("ht(H) = " + eh.toString(H.ring.vars) + ", " + eh);
+                }
+                if (H.isUnit()) {
+                    G.clear();
+                    G.add(H);
+                    return G;
+                }
+                if (debug) {
+                    logger.debug("H = " + H);
+                }
+                G.add(H);
+                pairlist.put(H);
+            }
+        }
+        logger.debug("#parallel list = " + G.size());
+        G = minimalSTD(G);
+        logger.info("end   " + pairlist);
+        return G;
+    }
+
+
+    /**
+     * Normal form of the S-power-series of a pair. The order and the ecart of
+     * the normal form are computed, which generates its coefficients up to
+     * the truncation index.
+     * @param G power series list.
+     * @param pair pair of power series.
+     * @return top-nf(spol(pair)) with respect to G.
+     */
+    protected MultiVarPowerSeries<C> normalform(List<MultiVarPowerSeries<C>> G, Pair<C> pair) {
+        MultiVarPowerSeries<C> S = red.SPolynomial(pair.pi, pair.pj);
+        if (S.isZERO()) {
+            return S;
+        }
+        if (debug) {
+            ExpVector es = S.orderExpVector();
+            logger.debug("ht(S) = " + es.toString(S.ring.vars) + ", " + es);
+        }
+        MultiVarPowerSeries<C> H = red.normalform(G, S);
+        if (!H.isZERO()) {
+            H.ecart();
+        }
+        return H;
+    }
+
+
+    /**
+     * Generate the coefficients of power series up to the truncation index in
+     * parallel.
+     * @param G power series list.
+     */
+    protected void prefetch(List<MultiVarPowerSeries<C>> G) {
+        List<Callable<Long>> cs = new ArrayList<Callable<Long>>(G.size());
+        for (final MultiVarPowerSeries<C> p : G) {
+            cs.add(new Callable<Long>() {
+
+
+                public Long call() {
+                    return p.ecart();
+                }
+            });
+        }
+        ComputerThreads.invokeAll(cs, threads);
+    }
+
+}
@@ -5,6 +5,9 @@
 package edu.jas.ps;
 
 
+import java.util.ArrayList;
+import java.util.List;
+
 import edu.jas.poly.AlgebraicNumber;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
@@ -86,6 +89,9 @@ public class UnivPowerSeries<C extends RingElem<C>> implements RingElem<UnivPowe
         this.ring = ring;
         this.lazyCoeffs = lazyCoeffs;
         this.truncate = ring.truncate;
+        if (ring.truncateCache) {
+            lazyCoeffs.setCacheLimit(ring.truncate);
+        }
     }
 
 
@@ -700,6 +706,115 @@ public class UnivPowerSeries<C extends RingElem<C>> implements RingElem<UnivPowe
     }
 
 
+    /**
+     * List of coefficients.
+     * @param n number of coefficients.
+     * @return list of the first n coefficients.
+     */
+    public List<C> coefficientList(int n) {
+        List<C> cs = new ArrayList<C>(n);
+        for (int i = 0; i < n; i++) {
+            cs.add(coefficient(i));
+        }
+        return cs;
+    }
+
+
+    /**
+     * Multiply by another power series, eager block version with Karatsuba
+     * multiplication or Kronecker substitution.
+     * @param ps other power series.
+     * @return this * ps.
+     */
+    public UnivPowerSeries<C> multiplyEager(final UnivPowerSeries<C> ps) {
+        return new UnivPowerSeries<C>(ring, new BlockCoefficients<C>() {
+
+
+            @Override
+            public List<C> generateBlock(int n) {
+                return PSUtil.<C> multiplyTruncated(ring.coFac, coefficientList(n), ps.coefficientList(n), n);
+            }
+        });
+    }
+
+
+    /**
+     * Inverse power series, eager block version with Newton iteration.
+     * @return ps with this * ps = 1.
+     */
+    public UnivPowerSeries<C> inverseEager() {
+        return new UnivPowerSeries<C>(ring, new BlockCoefficients<C>() {
+
+
+            @Override
+            public List<C> generateBlock(int n) {
+                return PSUtil.<C> inverseTruncated(ring.coFac, coefficientList(n), n);
+            }
+        });
+    }
+
+
+    /**
+     * Divide by another power series, eager block version.
+     * @param ps power series.
+     * @return this / ps.
+     */
+    public UnivPowerSeries<C> divideEager(UnivPowerSeries<C> ps) {
+        if (ps.isUnit()) {
+            return multiplyEager(ps.inverseEager());
+        }
+        return divide(ps);
+    }
+
+
+    /**
+     * Square root, eager block version with Newton iteration.
+     * @return ps with ps * ps = this, for coefficient(0) == 1.
+     */
+    public UnivPowerSeries<C> sqrt() {
+        return new UnivPowerSeries<C>(ring, new BlockCoefficients<C>() {
+
+
+            @Override
+            public List<C> generateBlock(int n) {
+                return PSUtil.<C> sqrtTruncated(ring.coFac, coefficientList(n), n);
+            }
+        });
+    }
+
+
+    /**
+     * Exponential function, eager block version with Newton iteration.
+     * @return exp(this), for coefficient(0) == 0.
+     */
+    public UnivPowerSeries<C> exp() {
+        return new UnivPowerSeries<C>(ring, new BlockCoefficients<C>() {
+
+
+            @Override
+            public List<C> generateBlock(int n) {
+                return PSUtil.<C> expTruncated(ring.coFac, coefficientList(n), n);
+            }
+        });
+    }
+
+
+    /**
+     * Logarithm function, eager block version.
+     * @return log(this), for coefficient(0) == 1.
+     */
+    public UnivPowerSeries<C> log() {
+        return new UnivPowerSeries<C>(ring, new BlockCoefficients<C>() {
+
+
+            @Override
+            public List<C> generateBlock(int n) {
+                return PSUtil.<C> logTruncated(ring.coFac, coefficientList(n), n);
+            }
+        });
+    }
+
+
     /**
      * Divide by another power series.
      * @return this / ps.
@@ -47,6 +47,13 @@ public class UnivPowerSeriesRing<C extends RingElem<C>> implements RingFactory<U
     int truncate;
 
 
+    /**
+     * Indicator if coefficient caches of new power series are limited to the
+     * truncate index.
+     */
+    boolean truncateCache = false;
+
+
     /**
      * Default variable name.
      */
@@ -286,6 +293,20 @@ public class UnivPowerSeriesRing<C extends RingElem<C>> implements RingFactory<U
     }
 
 
+    /**
+     * Set cache truncation. If set, the coefficient caches of power series
+     * created later are limited to the truncate index, coefficients beyond are
+     * generated again when needed.
+     * @param b true, to limit coefficient caches.
+     * @return old cache truncation indicator.
+     */
+    public boolean setTruncateCache(boolean b) {
+        boolean o = truncateCache;
+        truncateCache = b;
+        return o;
+    }
+
+
     /**
      * Is this structure finite or infinite.
      * @return true if this structure is finite, else false.
@@ -0,0 +1,251 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.root;
+
+
+import java.io.Serializable;
+import java.math.MathContext;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.BigBall;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.Rational;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Certified evaluation of univariate polynomials with ball arithmetic. The
+ * polynomial is evaluated with BigBall Horner scheme with increasing
+ * precision until the resulting ball does not contain zero. Only if the
+ * precision would exceed the size of the exact value, the polynomial is
+ * evaluated exactly with rational arithmetic. So the sign of f(x) is always
+ * correct, but mostly computed in cheap approximate arithmetic. For
+ * coefficient rings, where getRational() is only an approximation, like real
+ * algebraic numbers, f(x) is always evaluated exactly.
+ * @param <C> coefficient type.
+ * @author Heinz Kredel
+ */
+
+public class BallEvaluator<C extends RingElem<C> & Rational> implements Serializable {
+
+
+    private static final Logger logger = LogManager.getLogger(BallEvaluator.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Initial precision in decimal digits.
+     */
+    public final static int START_PRECISION = 20;
+
+
+    /**
+     * The polynomial.
+     */
+    public final GenPolynomial<C> f;
+
+
+    /**
+     * True, if getRational() of the coefficients and points is exact.
+     */
+    public final boolean rational;
+
+
+    /**
+     * Dense rational coefficients, coeff[i] is the coefficient of x^i.
+     */
+    protected final BigRational[] coeff;
+
+
+    /**
+     * Maximal bit length of the numerators and denominators of the
+     * coefficients.
+     */
+    protected final long coeffBits;
+
+
+    /**
+     * Ball coefficients for precisions START_PRECISION * 2^i.
+     */
+    protected transient BigBall[][] balls = new BigBall[8][];
+
+
+    /**
+     * Number of exact evaluations.
+     */
+    protected int exact = 0;
+
+
+    /**
+     * Constructor.
+     * @param f univariate polynomial.
+     */
+    public BallEvaluator(GenPolynomial<C> f) {
+        if (f.ring.nvar != 1) {
+            throw new IllegalArgumentException("only for univariate polynomials " + f.ring);
+        }
+        this.f = f;
+        rational = (f.ring.coFac instanceof BigRational || f.ring.coFac instanceof edu.jas.arith.BigInteger);
+        int d = (f.isZERO() || !rational ? 0 : (int) f.degree(0));
+        coeff = new BigRational[d + 1];
+        long b = 0L;
+        for (Monomial<C> m : f) {
+            if (!rational) {
+                break;
+            }
+            BigRational c = m.c.getRational();
+            coeff[(int) m.e.getVal(0)] = c;
+            b = Math.max(b, Math.max(c.numerator().bitLength(), c.denominator().bitLength()));
+        }
+        for (int i = 0; i <= d; i++) {
+            if (coeff[i] == null) {
+                coeff[i] = BigRational.ZERO;
+            }
+        }
+        coeffBits = b;
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "BallEvaluator(" + f + ")";
+    }
+
+
+    /**
+     * Ball coefficients.
+     * @param level precision level, precision is START_PRECISION * 2^level.
+     * @return coefficients as balls.
+     */
+    protected synchronized BigBall[] coefficients(int level) {
+        if (balls == null) {
+            balls = new BigBall[level + 1][];
+        } else if (level >= balls.length) {
+            BigBall[][] b = new BigBall[level + 1][];
+            System.arraycopy(balls, 0, b, 0, balls.length);
+            balls = b;
+        }
+        BigBall[] c = balls[level];
+        if (c == null) {
+            MathContext mc = new MathContext(START_PRECISION << level);
+            c = new BigBall[coeff.length];
+            for (int i = 0; i < coeff.length; i++) {
+                c[i] = new BigBall(coeff[i], mc);
+            }
+            balls[level] = c;
+        }
+        return c;
+    }
+
+
+    /**
+     * Evaluate with ball arithmetic.
+     * @param level precision level, precision is START_PRECISION * 2^level.
+     * @param x rational point.
+     * @return ball containing f(x).
+     */
+    public BigBall evaluate(int level, BigRational x) {
+        BigBall[] c = coefficients(level);
+        BigBall xb = c[0].fromRational(x);
+        BigBall v = c[c.length - 1];
+        for (int i = c.length - 2; i >= 0; i--) {
+            v = v.multiply(xb).sum(c[i]);
+        }
+        return v;
+    }
+
+
+    /**
+     * Certified evaluation.
+     * @param x point.
+     * @return a ball containing f(x), which does not contain zero, or is the
+     *         exact zero if f(x) = 0.
+     */
+    public BigBall evaluateCertified(C x) {
+        return evaluateCertified(x, 0);
+    }
+
+
+    /**
+     * Certified evaluation with relative accuracy.
+     * @param x point.
+     * @param digits requested number of correct decimal digits.
+     * @return a ball containing f(x), which does not contain zero and has
+     *         radius &le; 10^(-digits) |mid|, or is the exact zero if f(x) =
+     *         0. If the coefficients are not rational, the ball contains the
+     *         rational approximation of f(x) and has the sign of f(x).
+     */
+    public BigBall evaluateCertified(C x, int digits) {
+        MathContext mc = new MathContext(Math.max(START_PRECISION, digits + START_PRECISION / 2));
+        if (!rational) {
+            exact++;
+            C e = PolyUtil.<C> evaluateMain(f.ring.coFac, f, x);
+            int s = e.signum();
+            if (s == 0) {
+                return new BigBall(java.math.BigDecimal.ZERO, mc);
+            }
+            BigBall v = new BigBall(e.getRational(), mc);
+            if (v.signum() != s) { // approximation too coarse
+                v = new BigBall(java.math.BigDecimal.valueOf(s).scaleByPowerOfTen(-mc.getPrecision()), mc);
+            }
+            return v;
+        }
+        BigRational r = x.getRational();
+        // digits of the exact value, the precision is not increased beyond
+        long xb = Math.max(r.numerator().bitLength(), r.denominator().bitLength());
+        long bits = (coeff.length - 1) * xb + coeffBits + 64;
+        long max = Math.max(2 * (long) (bits * Math.log10(2.0)), digits + START_PRECISION);
+        int level = 0;
+        while ((START_PRECISION << level) < digits + START_PRECISION / 2) {
+            level++;
+        }
+        for (; (START_PRECISION << level) <= max; level++) {
+            BigBall v = evaluate(level, r);
+            if (!v.containsZero() && v.rad.scaleByPowerOfTen(digits).compareTo(v.mid.abs()) <= 0) {
+                return v;
+            }
+        }
+        exact++;
+        if (debug) {
+            logger.debug("exact evaluation at " + x + ", count = " + exact);
+        }
+        C e = PolyUtil.<C> evaluateMain(f.ring.coFac, f, x);
+        if (e.isZERO()) {
+            return new BigBall(java.math.BigDecimal.ZERO, mc);
+        }
+        return new BigBall(e.getRational(), mc);
+    }
+
+
+    /**
+     * Certified sign.
+     * @param x point.
+     * @return sign(f(x)).
+     */
+    public int sign(C x) {
+        return evaluateCertified(x).signum();
+    }
+
+
+    /**
+     * Number of exact evaluations.
+     * @return number of evaluations where the ball contained zero.
+     */
+    public int exactEvaluations() {
+        return exact;
+    }
+
+}
@@ -0,0 +1,622 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.root;
+
+
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.Rational;
+import edu.jas.poly.Complex;
+import edu.jas.poly.ComplexRing;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.Monomial;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Complex root isolation, numeric first with certification. The roots are
+ * approximated by the Aberth-Ehrlich iteration in double precision. The
+ * approximations are certified in exact rational arithmetic with the
+ * Gerschgorin type inclusion discs of Braess and Hadeler: the discs |z - z_i|
+ * &lt;= n |W_i|, with the Weierstrass corrections W_i = p(z_i) / (lc(p)
+ * prod_{j != i} (z_i - z_j)), contain all roots, and each connected component
+ * of m discs contains exactly m roots. Clusters of overlapping discs are
+ * isolated with the exact winding number method of the super class.
+ * @param <C> coefficient type.
+ * @author Heinz Kredel
+ */
+public class ComplexRootsAberth<C extends RingElem<C> & Rational> extends ComplexRootsSturm<C> {
+
+
+    private static final Logger logger = LogManager.getLogger(ComplexRootsAberth.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Maximal number of Aberth iterations.
+     */
+    public static final int MAX_ITERATIONS = 500;
+
+
+    /**
+     * Maximal number of decimal digits for the Aberth iteration.
+     */
+    public static final int MAX_DIGITS = 1024;
+
+
+    /**
+     * Constructor.
+     * @param cf coefficient factory.
+     */
+    public ComplexRootsAberth(RingFactory<Complex<C>> cf) {
+        super(cf);
+    }
+
+
+    /**
+     * List of complex roots of complex polynomial a on rectangle.
+     * @param rect rectangle.
+     * @param a univariate squarefree complex polynomial.
+     * @return list of complex roots.
+     */
+    @Override
+    public List<Rectangle<C>> complexRoots(Rectangle<C> rect, GenPolynomial<Complex<C>> a)
+                    throws InvalidBoundaryException {
+        if (a.isConstant() || a.isZERO() || a.degree(0) <= 1L) {
+            return super.complexRoots(rect, a);
+        }
+        List<Rectangle<C>> roots = numericRoots(rect, a);
+        if (roots == null) {
+            logger.info("numeric isolation failed, using exact method");
+            return super.complexRoots(rect, a);
+        }
+        return roots;
+    }
+
+
+    /**
+     * Numeric complex root isolation.
+     * @param rect rectangle with no roots of a on the boundary.
+     * @param a univariate squarefree complex polynomial of degree &gt;= 2.
+     * @return list of isolating rectangles for the roots of a in rect, or
+     *         null if the numeric approximations could not be certified.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Rectangle<C>> numericRoots(Rectangle<C> rect, GenPolynomial<Complex<C>> a)
+                    throws InvalidBoundaryException {
+        int n = (int) a.degree(0);
+        BigRational[] re = new BigRational[n + 1];
+        BigRational[] im = new BigRational[n + 1];
+        for (int i = 0; i <= n; i++) {
+            re[i] = BigRational.ZERO;
+            im[i] = BigRational.ZERO;
+        }
+        for (Monomial<Complex<C>> m : a) {
+            int i = (int) m.e.getVal(0);
+            re[i] = m.c.getRe().getRational();
+            im[i] = m.c.getIm().getRational();
+        }
+        double[][] zd = aberth(re, im);
+        if (zd == null) {
+            return null;
+        }
+        java.math.BigDecimal[][] z = new java.math.BigDecimal[2][n];
+        for (int i = 0; i < n; i++) {
+            z[0][i] = new java.math.BigDecimal(zd[0][i]);
+            z[1][i] = new java.math.BigDecimal(zd[1][i]);
+        }
+        int digits = 16;
+        List<Cluster> cl = certify(re, im, z, 53);
+        while (cl == null || cl.size() < n) {
+            if (digits >= MAX_DIGITS) {
+                break;
+            }
+            // clusters may be resolved with higher precision
+            digits = 2 * digits;
+            logger.info("Aberth iteration with " + digits + " digits");
+            z = aberth(re, im, z, new MathContext(digits));
+            cl = certify(re, im, z, (digits * 10) / 3);
+        }
+        if (cl == null) {
+            return null;
+        }
+        if (debug) {
+            logger.debug("clusters = " + cl);
+        }
+        ComplexRing<C> cr = (ComplexRing<C>) a.ring.coFac;
+        RingFactory<C> cf = cr.ring;
+        BigRational rsw = rect.getSW().getRe().getRational();
+        BigRational isw = rect.getSW().getIm().getRational();
+        BigRational rne = rect.getNE().getRe().getRational();
+        BigRational ine = rect.getNE().getIm().getRational();
+        List<Rectangle<C>> roots = new ArrayList<Rectangle<C>>(n);
+        for (Cluster c : cl) {
+            // intersect with rect
+            BigRational r0 = max(c.rsw, rsw);
+            BigRational i0 = max(c.isw, isw);
+            BigRational r1 = min(c.rne, rne);
+            BigRational i1 = min(c.ine, ine);
+            if (r0.compareTo(r1) >= 0 || i0.compareTo(i1) >= 0) {
+                continue; // no roots on the boundary of rect
+            }
+            Complex<C> sw = new Complex<C>(cr, fromRational(cf, r0), fromRational(cf, i0));
+            Complex<C> ne = new Complex<C>(cr, fromRational(cf, r1), fromRational(cf, i1));
+            Rectangle<C> b = new Rectangle<C>(sw, ne);
+            boolean inside = r0.equals(c.rsw) && i0.equals(c.isw) && r1.equals(c.rne) && i1.equals(c.ine);
+            if (c.size == 1) {
+                if (inside || complexRootCount(b, a) == 1L) {
+                    roots.add(b);
+                }
+                continue;
+            }
+            logger.info("cluster of " + c.size + " roots, using exact method");
+            List<Rectangle<C>> rs = super.complexRoots(b, a);
+            if (inside && rs.size() != c.size) {
+                logger.info("wrong number of roots in cluster " + rs.size() + " != " + c.size);
+                return null;
+            }
+            roots.addAll(rs);
+        }
+        return roots;
+    }
+
+
+    /**
+     * Certify root approximations. Squares with half side 2 n |W_i| around
+     * the approximations z_i contain the inclusion discs, overlapping squares
+     * are joined to clusters.
+     * @param re real parts of the coefficients.
+     * @param im imaginary parts of the coefficients.
+     * @param z [re(z), im(z)] approximations of all roots.
+     * @param bits number of bits of the approximations to use.
+     * @return list of clusters with disjoint bounding boxes, each containing
+     *         exactly as many roots as approximations, or null if the
+     *         approximations could not be used.
+     */
+    static List<Cluster> certify(BigRational[] re, BigRational[] im, java.math.BigDecimal[][] z, int bits) {
+        int n = re.length - 1;
+        // exact dyadic approximations z_i = X_i / 2^E, X_i Gaussian integers
+        double zmax = 0.0;
+        for (int i = 0; i < n; i++) {
+            zmax = Math.max(zmax, Math.max(Math.abs(z[0][i].doubleValue()), Math.abs(z[1][i].doubleValue())));
+        }
+        if (Double.isInfinite(zmax) || Double.isNaN(zmax)) {
+            return null;
+        }
+        int E = bits + 4 - Math.getExponent(Math.max(zmax, Double.MIN_NORMAL));
+        if (E < 0) { // huge roots
+            return null;
+        }
+        java.math.BigDecimal scale = new java.math.BigDecimal(BigInteger.ONE.shiftLeft(E));
+        BigInteger[] xr = new BigInteger[n];
+        BigInteger[] xi = new BigInteger[n];
+        for (int i = 0; i < n; i++) {
+            xr[i] = z[0][i].multiply(scale).setScale(0, RoundingMode.HALF_EVEN).toBigInteger();
+            xi[i] = z[1][i].multiply(scale).setScale(0, RoundingMode.HALF_EVEN).toBigInteger();
+        }
+        // integer coefficients A_k = L p_k
+        BigInteger L = BigInteger.ONE;
+        for (int k = 0; k <= n; k++) {
+            L = lcm(L, re[k].denominator());
+            L = lcm(L, im[k].denominator());
+        }
+        BigInteger[] ar = new BigInteger[n + 1];
+        BigInteger[] ai = new BigInteger[n + 1];
+        for (int k = 0; k <= n; k++) {
+            ar[k] = re[k].numerator().multiply(L.divide(re[k].denominator()));
+            ai[k] = im[k].numerator().multiply(L.divide(im[k].denominator()));
+        }
+        // Weierstrass corrections W_i = p(z_i) / (lc(p) prod_{j != i} (z_i - z_j))
+        //                             = H_i / (2^E A_n D_i),
+        // H_i = 2^(E n) L p(z_i), D_i = prod_{j != i} (X_i - X_j)
+        BigRational bn = new BigRational(n);
+        List<Cluster> cl = new ArrayList<Cluster>(n);
+        for (int i = 0; i < n; i++) {
+            BigInteger dr = ar[n], di = ai[n];
+            for (int j = 0; j < n; j++) {
+                if (j != i) {
+                    BigInteger er = xr[i].subtract(xr[j]);
+                    BigInteger ei = xi[i].subtract(xi[j]);
+                    BigInteger t = dr.multiply(er).subtract(di.multiply(ei));
+                    di = dr.multiply(ei).add(di.multiply(er));
+                    dr = t;
+                }
+            }
+            if (dr.signum() == 0 && di.signum() == 0) {
+                logger.info("coinciding approximations");
+                return null;
+            }
+            BigInteger hr = ar[n], hi = ai[n];
+            for (int k = n - 1; k >= 0; k--) {
+                BigInteger t = hr.multiply(xr[i]).subtract(hi.multiply(xi[i])).add(ar[k].shiftLeft(E * (n - k)));
+                hi = hr.multiply(xi[i]).add(hi.multiply(xr[i])).add(ai[k].shiftLeft(E * (n - k)));
+                hr = t;
+            }
+            // W_i = H_i conj(G) / (2^E |G|^2), G = A_n D_i
+            BigInteger nr = hr.multiply(dr).add(hi.multiply(di));
+            BigInteger ni = hi.multiply(dr).subtract(hr.multiply(di));
+            BigInteger g = dr.multiply(dr).add(di.multiply(di)).shiftLeft(E);
+            // n |W_i| <= n (|re W_i| + |im W_i|), half side of square is 2 n |W_i|
+            BigRational r = BigRational.reduction(nr.abs().add(ni.abs()).shiftLeft(1), g).multiply(bn);
+            BigRational s = powerOfTwoBound(r);
+            BigRational zr = BigRational.reduction(xr[i], BigInteger.ONE.shiftLeft(E));
+            BigRational zi = BigRational.reduction(xi[i], BigInteger.ONE.shiftLeft(E));
+            cl.add(new Cluster(zr.subtract(s), zi.subtract(s), zr.sum(s), zi.sum(s)));
+        }
+        // join overlapping squares to clusters
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < cl.size() && !merged; i++) {
+                for (int j = i + 1; j < cl.size(); j++) {
+                    if (cl.get(i).overlaps(cl.get(j))) {
+                        cl.get(i).join(cl.remove(j));
+                        merged = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return cl;
+    }
+
+
+    /**
+     * Aberth-Ehrlich iteration with multiple precision.
+     * @param re real parts of the coefficients.
+     * @param im imaginary parts of the coefficients.
+     * @param z0 [re(z), im(z)] initial approximations of all roots.
+     * @param mc math context for the precision.
+     * @return [re(z), im(z)] approximations of all roots.
+     */
+    public static java.math.BigDecimal[][] aberth(BigRational[] re, BigRational[] im,
+                    java.math.BigDecimal[][] z0, MathContext mc) {
+        int n = re.length - 1;
+        java.math.BigDecimal[] pr = new java.math.BigDecimal[n + 1];
+        java.math.BigDecimal[] pi = new java.math.BigDecimal[n + 1];
+        for (int i = 0; i <= n; i++) {
+            pr[i] = new java.math.BigDecimal(re[i].numerator()).divide(new java.math.BigDecimal(re[i].denominator()), mc);
+            pi[i] = new java.math.BigDecimal(im[i].numerator()).divide(new java.math.BigDecimal(im[i].denominator()), mc);
+        }
+        java.math.BigDecimal[] zr = z0[0].clone();
+        java.math.BigDecimal[] zi = z0[1].clone();
+        // convergence is quadratic, the next step doubles the number of correct digits
+        java.math.BigDecimal eps = java.math.BigDecimal.ONE.movePointLeft(mc.getPrecision() / 2);
+        boolean[] done = new boolean[n];
+        int converged = 0;
+        int it = 0;
+        while (converged < n && it++ < MAX_ITERATIONS) {
+            for (int k = 0; k < n; k++) {
+                if (done[k]) {
+                    continue;
+                }
+                // p(z) and p'(z) by Horner
+                java.math.BigDecimal vr = pr[n], vi = pi[n];
+                java.math.BigDecimal dr = java.math.BigDecimal.ZERO, di = java.math.BigDecimal.ZERO;
+                for (int j = n - 1; j >= 0; j--) {
+                    java.math.BigDecimal t = dr.multiply(zr[k], mc).subtract(di.multiply(zi[k], mc), mc).add(vr, mc);
+                    di = dr.multiply(zi[k], mc).add(di.multiply(zr[k], mc), mc).add(vi, mc);
+                    dr = t;
+                    t = vr.multiply(zr[k], mc).subtract(vi.multiply(zi[k], mc), mc).add(pr[j], mc);
+                    vi = vr.multiply(zi[k], mc).add(vi.multiply(zr[k], mc), mc).add(pi[j], mc);
+                    vr = t;
+                }
+                if (vr.signum() == 0 && vi.signum() == 0) {
+                    done[k] = true;
+                    converged++;
+                    continue;
+                }
+                // l = p'/p - sum 1/(z_k - z_j)
+                java.math.BigDecimal q = vr.multiply(vr, mc).add(vi.multiply(vi, mc), mc);
+                java.math.BigDecimal lr = dr.multiply(vr, mc).add(di.multiply(vi, mc), mc).divide(q, mc);
+                java.math.BigDecimal li = di.multiply(vr, mc).subtract(dr.multiply(vi, mc), mc).divide(q, mc);
+                for (int j = 0; j < n; j++) {
+                    if (j == k) {
+                        continue;
+                    }
+                    java.math.BigDecimal er = zr[k].subtract(zr[j], mc);
+                    java.math.BigDecimal ei = zi[k].subtract(zi[j], mc);
+                    java.math.BigDecimal e = er.multiply(er, mc).add(ei.multiply(ei, mc), mc);
+                    if (e.signum() == 0) {
+                        continue;
+                    }
+                    lr = lr.subtract(er.divide(e, mc), mc);
+                    li = li.add(ei.divide(e, mc), mc);
+                }
+                q = lr.multiply(lr, mc).add(li.multiply(li, mc), mc);
+                if (q.signum() == 0) {
+                    continue;
+                }
+                // correction 1/l
+                java.math.BigDecimal cr = lr.divide(q, mc);
+                java.math.BigDecimal ci = li.negate().divide(q, mc);
+                zr[k] = zr[k].subtract(cr, mc);
+                zi[k] = zi[k].subtract(ci, mc);
+                java.math.BigDecimal c = cr.abs().add(ci.abs());
+                java.math.BigDecimal m = zr[k].abs().add(zi[k].abs()).multiply(eps, mc);
+                if (c.compareTo(m) <= 0) {
+                    done[k] = true;
+                    converged++;
+                }
+            }
+        }
+        if (converged < n) {
+            logger.info("Aberth iteration not converged after " + it + " iterations");
+        }
+        return new java.math.BigDecimal[][] { zr, zi };
+    }
+
+
+    /**
+     * Aberth-Ehrlich iteration.
+     * @param re real parts of the coefficients.
+     * @param im imaginary parts of the coefficients.
+     * @return [re(z), im(z)] approximations of all roots, or null if the
+     *         iteration did not converge.
+     */
+    public static double[][] aberth(BigRational[] re, BigRational[] im) {
+        int n = re.length - 1;
+        double[] pr = new double[n + 1];
+        double[] pi = new double[n + 1];
+        for (int i = 0; i <= n; i++) {
+            pr[i] = re[i].doubleValue();
+            pi[i] = im[i].doubleValue();
+            if (Double.isNaN(pr[i]) || Double.isInfinite(pr[i]) || Double.isNaN(pi[i])
+                            || Double.isInfinite(pi[i])) {
+                return null;
+            }
+        }
+        double an = Math.hypot(pr[n], pi[n]);
+        if (an == 0.0) {
+            return null;
+        }
+        // Fujiwara root bound
+        double bound = 0.0;
+        for (int k = 1; k <= n; k++) {
+            double b = Math.pow(Math.hypot(pr[n - k], pi[n - k]) / an, 1.0 / k);
+            if (k == n) {
+                b = Math.pow(Math.hypot(pr[0], pi[0]) / (2.0 * an), 1.0 / n);
+            }
+            bound = Math.max(bound, b);
+        }
+        bound = 2.0 * bound;
+        if (bound == 0.0 || Double.isInfinite(bound)) {
+            return null;
+        }
+        double[] zr = new double[n];
+        double[] zi = new double[n];
+        for (int k = 0; k < n; k++) {
+            double t = 2.0 * Math.PI * k / n + 0.4;
+            zr[k] = bound * Math.cos(t);
+            zi[k] = bound * Math.sin(t);
+        }
+        boolean[] done = new boolean[n];
+        int converged = 0;
+        int it = 0;
+        while (converged < n && it++ < MAX_ITERATIONS) {
+            for (int k = 0; k < n; k++) {
+                if (done[k]) {
+                    continue;
+                }
+                // logarithmic derivative p'(z)/p(z), reversed polynomial for |z| > 1
+                double[] R = logDerivative(pr, pi, zr[k], zi[k]);
+                if (R == null) {
+                    done[k] = true; // exact root
+                    converged++;
+                    continue;
+                }
+                // sum 1/(z_k - z_j)
+                double sr = 0.0, si = 0.0;
+                for (int j = 0; j < n; j++) {
+                    if (j == k) {
+                        continue;
+                    }
+                    double er = zr[k] - zr[j];
+                    double ei = zi[k] - zi[j];
+                    double e = er * er + ei * ei;
+                    if (e == 0.0) {
+                        continue;
+                    }
+                    sr += er / e;
+                    si -= ei / e;
+                }
+                // Aberth correction 1 / (p'/p - sum 1/(z_k - z_j))
+                double ur = R[0] - sr;
+                double ui = R[1] - si;
+                if (ur == 0.0 && ui == 0.0) {
+                    continue; // no correction possible
+                }
+                // 1/u without overflow
+                double cr, ci;
+                if (Math.abs(ur) >= Math.abs(ui)) {
+                    double t = ui / ur;
+                    double d = ur + ui * t;
+                    cr = 1.0 / d;
+                    ci = -t / d;
+                } else {
+                    double t = ur / ui;
+                    double d = ui + ur * t;
+                    cr = t / d;
+                    ci = -1.0 / d;
+                }
+                zr[k] -= cr;
+                zi[k] -= ci;
+                if (Double.isNaN(zr[k]) || Double.isNaN(zi[k])) {
+                    return null;
+                }
+                if (R[2] != 0.0 || Math.hypot(cr, ci) <= 1.0e-15 * Math.hypot(zr[k], zi[k])) {
+                    done[k] = true;
+                    converged++;
+                }
+            }
+        }
+        if (converged < n) {
+            logger.info("Aberth iteration not converged after " + it + " iterations");
+        }
+        return new double[][] { zr, zi };
+    }
+
+
+    /**
+     * Logarithmic derivative. For |z| &gt; 1 the reversed polynomial r(y) =
+     * y^n p(1/y) is evaluated at y = 1/z to avoid overflow, then p'(z)/p(z) =
+     * y (n - y r'(y)/r(y)).
+     * @param pr real parts of the coefficients.
+     * @param pi imaginary parts of the coefficients.
+     * @param zr real part of z.
+     * @param zi imaginary part of z.
+     * @return [re, im, s] with re + i im = p'(z)/p(z), s = 1 if |p(z)| is in
+     *         the range of rounding errors, else s = 0, or null if p(z) == 0.
+     */
+    static double[] logDerivative(double[] pr, double[] pi, double zr, double zi) {
+        int n = pr.length - 1;
+        boolean rev = zr * zr + zi * zi > 1.0;
+        double xr = zr, xi = zi;
+        if (rev) {
+            double q = zr * zr + zi * zi;
+            xr = zr / q;
+            xi = -zi / q;
+        }
+        int k = rev ? 0 : n;
+        double vr = pr[k], vi = pi[k];
+        double dr = 0.0, di = 0.0;
+        double ax = Math.hypot(xr, xi);
+        double ab = Math.hypot(vr, vi);
+        for (int j = n - 1; j >= 0; j--) {
+            k = rev ? n - j : j;
+            double t = dr * xr - di * xi + vr;
+            di = dr * xi + di * xr + vi;
+            dr = t;
+            t = vr * xr - vi * xi + pr[k];
+            vi = vr * xi + vi * xr + pi[k];
+            vr = t;
+            ab = ab * ax + Math.hypot(pr[k], pi[k]);
+        }
+        double q = vr * vr + vi * vi;
+        if (q == 0.0) {
+            return null;
+        }
+        // |p(z)| in the range of the rounding errors
+        double small = Math.sqrt(q) <= 4.0 * n * Math.ulp(1.0) * ab ? 1.0 : 0.0;
+        // d/v
+        double lr = (dr * vr + di * vi) / q;
+        double li = (di * vr - dr * vi) / q;
+        if (!rev) {
+            return new double[] { lr, li, small };
+        }
+        // y (n - y l)
+        double tr = n - (xr * lr - xi * li);
+        double ti = -(xr * li + xi * lr);
+        return new double[] { xr * tr - xi * ti, xr * ti + xi * tr, small };
+    }
+
+
+    /**
+     * Power of two upper bound.
+     * @param r non-negative rational number.
+     * @return 2^k &gt;= r, 2^-64 if r == 0.
+     */
+    static BigRational powerOfTwoBound(BigRational r) {
+        if (r.isZERO()) {
+            return BigRational.reduction(BigInteger.ONE, BigInteger.ONE.shiftLeft(64));
+        }
+        int k = r.numerator().bitLength() - r.denominator().bitLength() + 1;
+        if (k >= 0) {
+            return new BigRational(BigInteger.ONE.shiftLeft(k));
+        }
+        return BigRational.reduction(BigInteger.ONE, BigInteger.ONE.shiftLeft(-k));
+    }
+
+
+    /**
+     * Convert a rational number to a coefficient.
+     * @param cfac coefficient ring factory.
+     * @param r rational number.
+     * @return r as element of cfac.
+     */
+    protected C fromRational(RingFactory<C> cfac, BigRational r) {
+        C n = cfac.fromInteger(r.numerator());
+        if (r.denominator().equals(BigInteger.ONE)) {
+            return n;
+        }
+        return n.divide(cfac.fromInteger(r.denominator()));
+    }
+
+
+    static BigInteger lcm(BigInteger a, BigInteger b) {
+        return a.divide(a.gcd(b)).multiply(b);
+    }
+
+
+    static BigRational min(BigRational a, BigRational b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+
+    static BigRational max(BigRational a, BigRational b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+
+    /**
+     * Cluster of root approximations with bounding box.
+     */
+    static class Cluster {
+
+
+        BigRational rsw, isw, rne, ine;
+
+
+        int size;
+
+
+        Cluster(BigRational rsw, BigRational isw, BigRational rne, BigRational ine) {
+            this.rsw = rsw;
+            this.isw = isw;
+            this.rne = rne;
+            this.ine = ine;
+            size = 1;
+        }
+
+
+        /**
+         * Test if the closed bounding boxes intersect.
+         */
+        boolean overlaps(Cluster c) {
+            return rsw.compareTo(c.rne) <= 0 && c.rsw.compareTo(rne) <= 0 && isw.compareTo(c.ine) <= 0
+                            && c.isw.compareTo(ine) <= 0;
+        }
+
+
+        /**
+         * Join cluster to this.
+         */
+        void join(Cluster c) {
+            rsw = min(rsw, c.rsw);
+            isw = min(isw, c.isw);
+            rne = max(rne, c.rne);
+            ine = max(ine, c.ine);
+            size += c.size;
+        }
+
+
+        @Override
+        public String toString() {
+            return "[" + rsw + ", " + isw + "; " + rne + ", " + ine + "](" + size + ")";
+        }
+    }
+
+}
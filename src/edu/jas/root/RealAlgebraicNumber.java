@@ -303,9 +303,7 @@ public class RealAlgebraicNumber<C extends GcdRingElem<C> & Rational>
      * @return real signum(this).
      */
     public int signum() {
-        Interval<C> v = ring.engine.invariantSignInterval(ring.root, ring.algebraic.modul, number.val);
-        ring.setRoot(v);
-        return ring.engine.realIntervalSign(v, ring.algebraic.modul, number.val);
+        return ring.realSign(number.val);
     }
 
 
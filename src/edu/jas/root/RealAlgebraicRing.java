@@ -7,7 +7,9 @@ package edu.jas.root;
 
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import edu.jas.arith.BigRational;
@@ -63,6 +65,26 @@ public class RealAlgebraicRing<C extends GcdRingElem<C> & Rational>
     public final RealRootsSturm<C> engine;
 
 
+    /**
+     * Maximal number of cached signs of real algebraic numbers.
+     */
+    public static final int SIGN_CACHE_SIZE = 1024;
+
+
+    /**
+     * Number of root interval refinements before Sturm sequences are used for
+     * the sign of a real algebraic number.
+     */
+    public static final int SIGN_REFINEMENTS = 3;
+
+
+    /**
+     * Cache of signs of real algebraic numbers, least recently used entries
+     * are removed.
+     */
+    protected final Map<GenPolynomial<C>, Integer> signs;
+
+
     /**
      * The constructor creates a RealAlgebraicNumber factory object from a
      * GenPolynomial objects module.
@@ -73,6 +95,17 @@ public class RealAlgebraicRing<C extends GcdRingElem<C> & Rational>
         algebraic = new AlgebraicNumberRing<C>(m);
         this.root = root;
         engine = new RealRootsSturm<C>();
+        signs = new LinkedHashMap<GenPolynomial<C>, Integer>(16, 0.75f, true) {
+
+
+            private static final long serialVersionUID = 1L;
+
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GenPolynomial<C>, Integer> e) {
+                return size() > SIGN_CACHE_SIZE;
+            }
+        };
         if (m.ring.characteristic().signum() > 0) {
             throw new RuntimeException("characteristic not zero");
         }
@@ -171,6 +204,40 @@ public class RealAlgebraicRing<C extends GcdRingElem<C> & Rational>
     }
 
 
+    /**
+     * Real sign of an element of this ring. The isolating interval of the
+     * root is refined for all elements, signs are cached. <b>Note: </b>
+     * Modifies root eventually.
+     * @param g univariate polynomial representing a real algebraic number.
+     * @return real signum(g(root)).
+     */
+    public synchronized int realSign(GenPolynomial<C> g) {
+        if (g == null || g.isZERO()) {
+            return 0;
+        }
+        if (g.isConstant()) {
+            return g.signum();
+        }
+        Integer s = signs.get(g);
+        if (s != null) {
+            return s;
+        }
+        int t = engine.intervalSign(root, g);
+        for (int i = 0; t == 0 && i < SIGN_REFINEMENTS; i++) {
+            // monotone refinement, shared by all elements
+            BigRational e = root.rationalLength().multiply(new BigRational(1L, 1L << 16));
+            root = engine.refineInterval(root, algebraic.modul, e);
+            t = engine.intervalSign(root, g);
+        }
+        if (t == 0) {
+            root = engine.invariantSignInterval(root, algebraic.modul, g);
+            t = engine.realIntervalSign(root, algebraic.modul, g);
+        }
+        signs.put(g, t);
+        return t;
+    }
+
+
     /**
      * Is this structure finite or infinite.
      * @return true if this structure is finite, else false.
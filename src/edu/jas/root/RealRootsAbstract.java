@@ -5,18 +5,22 @@
 package edu.jas.root;
 
 
+import java.math.MathContext;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
 
+import edu.jas.arith.BigBall;
 import edu.jas.arith.BigDecimal;
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
 import edu.jas.arith.Rational;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
 import edu.jas.poly.PolyUtil;
 import edu.jas.structure.RingElem;
 import edu.jas.structure.RingFactory;
@@ -209,7 +213,8 @@ public abstract class RealRootsAbstract<C extends RingElem<C> & Rational> implem
 
 
     /**
-     * Sign changes on interval bounds.
+     * Sign changes on interval bounds. The signs are certified by ball
+     * arithmetic.
      * @param iv root isolating interval with f(left) * f(right) != 0.
      * @param f univariate polynomial.
      * @return true if f(left) * f(right) &lt; 0, else false
@@ -218,10 +223,8 @@ public abstract class RealRootsAbstract<C extends RingElem<C> & Rational> implem
         if (f == null) {
             return false;
         }
-        RingFactory<C> cfac = f.ring.coFac;
-        C l = PolyUtil.<C> evaluateMain(cfac, f, iv.left);
-        C r = PolyUtil.<C> evaluateMain(cfac, f, iv.right);
-        return l.signum() * r.signum() < 0;
+        BallEvaluator<C> ev = new BallEvaluator<C>(f);
+        return ev.sign(iv.left) * ev.sign(iv.right) < 0;
     }
 
 
@@ -252,13 +255,26 @@ public abstract class RealRootsAbstract<C extends RingElem<C> & Rational> implem
 
 
     /**
-     * Refine interval.
+     * Refine interval. Uses quadratic interval refinement with bisection as
+     * fall back.
      * @param iv root isolating interval with f(left) * f(right) &lt; 0.
      * @param f univariate polynomial, non-zero.
      * @param eps requested interval length.
      * @return a new interval v such that |v| &lt; eps.
      */
     public Interval<C> refineInterval(Interval<C> iv, GenPolynomial<C> f, BigRational eps) {
+        return refineIntervalQIR(iv, f, eps);
+    }
+
+
+    /**
+     * Refine interval by bisection.
+     * @param iv root isolating interval with f(left) * f(right) &lt; 0.
+     * @param f univariate polynomial, non-zero.
+     * @param eps requested interval length.
+     * @return a new interval v such that |v| &lt; eps.
+     */
+    public Interval<C> refineIntervalBisection(Interval<C> iv, GenPolynomial<C> f, BigRational eps) {
         if (f == null || f.isZERO() || f.isConstant() || eps == null) {
             return iv;
         }
@@ -267,27 +283,151 @@ public abstract class RealRootsAbstract<C extends RingElem<C> & Rational> implem
         }
         RingFactory<C> cfac = f.ring.coFac;
         C two = cfac.fromInteger(2);
+        BallEvaluator<C> ev = new BallEvaluator<C>(f);
         Interval<C> v = iv;
+        int sl = ev.sign(v.left);
         while (v.rationalLength().compareTo(eps) >= 0) {
             C c = v.left.sum(v.right);
             c = c.divide(two);
             //System.out.println("c = " + c);
             //c = RootUtil.<C>bisectionPoint(v,f);
-            if (PolyUtil.<C> evaluateMain(cfac, f, c).isZERO()) {
+            int sc = ev.sign(c);
+            if (sc == 0) {
                 v = new Interval<C>(c, c);
                 break;
             }
-            Interval<C> iv1 = new Interval<C>(v.left, c);
-            if (signChange(iv1, f)) {
-                v = iv1;
+            if (sl * sc < 0) {
+                v = new Interval<C>(v.left, c);
             } else {
                 v = new Interval<C>(c, v.right);
+                sl = sc;
             }
         }
         return v;
     }
 
 
+    /**
+     * Refine interval by quadratic interval refinement. The interval is
+     * divided into N sub-intervals and the sub-interval containing the secant
+     * root is tried. On success N is squared, on failure N is reduced to its
+     * square root and a bisection step is made. See J. Abbott, <i>Quadratic
+     * Interval Refinement for Real Roots</i>, 2006. All steps are certified
+     * by sign changes of f, which are computed with ball arithmetic and only
+     * exactly if the ball contains zero.
+     * @param iv root isolating interval with f(left) * f(right) &lt; 0.
+     * @param f univariate polynomial, non-zero.
+     * @param eps requested interval length.
+     * @return a new interval v such that |v| &lt; eps.
+     */
+    public Interval<C> refineIntervalQIR(Interval<C> iv, GenPolynomial<C> f, BigRational eps) {
+        if (f == null || f.isZERO() || f.isConstant() || eps == null) {
+            return iv;
+        }
+        if (iv.rationalLength().compareTo(eps) < 0) {
+            return iv;
+        }
+        RingFactory<C> cfac = f.ring.coFac;
+        C two = cfac.fromInteger(2);
+        C a = iv.left;
+        C b = iv.right;
+        BallEvaluator<C> ev = new BallEvaluator<C>(f);
+        BigBall fa = ev.evaluateCertified(a);
+        BigBall fb = ev.evaluateCertified(b);
+        if (fa.isZERO()) {
+            return new Interval<C>(a);
+        }
+        if (fb.isZERO()) {
+            return new Interval<C>(b);
+        }
+        int sa = fa.signum();
+        if (sa == fb.signum()) {
+            //logger.info("no sign change in " + iv + ", using bisection");
+            return refineIntervalBisection(iv, f, eps);
+        }
+        int k = 2; // N = 2^k sub-intervals
+        int qir = 0;
+        int bis = 0;
+        while (b.subtract(a).getRational().compareTo(eps) >= 0) {
+            qir++;
+            java.math.BigInteger N = java.math.BigInteger.ONE.shiftLeft(k);
+            C w = b.subtract(a).divide(cfac.fromInteger(N));
+            // secant root s = a + (b-a) fa/(fa-fb), grid index j = round(N*(s-a)/(b-a))
+            // with balls of relative accuracy 1/N^2
+            int digits = (int) (2 * k * Math.log10(2.0)) + 1;
+            MathContext mc = new MathContext(digits + 5);
+            java.math.BigDecimal t = fa.mid.divide(fa.mid.subtract(fb.mid), mc);
+            t = t.multiply(new java.math.BigDecimal(N)).add(new java.math.BigDecimal("0.5"));
+            java.math.BigInteger j = t.setScale(0, RoundingMode.FLOOR).toBigInteger();
+            if (j.signum() < 0) {
+                j = java.math.BigInteger.ZERO;
+            } else if (j.compareTo(N) > 0) {
+                j = N;
+            }
+            C m = a.sum(w.multiply(cfac.fromInteger(j)));
+            BigBall fm = ev.evaluateCertified(m, digits);
+            if (fm.isZERO()) {
+                return new Interval<C>(m);
+            }
+            if (fm.signum() == sa) { // root in (m, b), j < N
+                C m2 = m.sum(w);
+                BigBall fm2 = ev.evaluateCertified(m2, digits);
+                if (fm2.isZERO()) {
+                    return new Interval<C>(m2);
+                }
+                a = m;
+                fa = fm;
+                if (fm2.signum() != sa) { // root in (m, m+w)
+                    b = m2;
+                    fb = fm2;
+                    k = 2 * k;
+                    continue;
+                }
+                a = m2;
+                fa = fm2;
+            } else { // root in (a, m), j > 0
+                C m2 = m.subtract(w);
+                BigBall fm2 = ev.evaluateCertified(m2, digits);
+                if (fm2.isZERO()) {
+                    return new Interval<C>(m2);
+                }
+                b = m;
+                fb = fm;
+                if (fm2.signum() == sa) { // root in (m-w, m)
+                    a = m2;
+                    fa = fm2;
+                    k = 2 * k;
+                    continue;
+                }
+                b = m2;
+                fb = fm2;
+            }
+            // secant step failed, bisection step
+            k = Math.max(2, k / 2);
+            if (b.subtract(a).getRational().compareTo(eps) < 0) {
+                break;
+            }
+            bis++;
+            C c = a.sum(b).divide(two);
+            BigBall fc = ev.evaluateCertified(c, digits);
+            if (fc.isZERO()) {
+                return new Interval<C>(c);
+            }
+            if (fc.signum() == sa) {
+                a = c;
+                fa = fc;
+            } else {
+                b = c;
+                fb = fc;
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("QIR steps = " + qir + ", bisection steps = " + bis + ", N = 2^" + k);
+        }
+        return new Interval<C>(a, b);
+    }
+
+
     /**
      * Refine intervals.
      * @param V list of isolating intervals with f(left) * f(right) &lt; 0.
@@ -345,6 +485,63 @@ public abstract class RealRootsAbstract<C extends RingElem<C> & Rational> implem
     }
 
 
+    /**
+     * Interval sign. Evaluates g on iv with interval arithmetic.
+     * @param iv interval.
+     * @param g univariate polynomial.
+     * @return sign(g(iv)) if g(w) != 0 for all w in iv is verified, else 0.
+     */
+    public int intervalSign(Interval<C> iv, GenPolynomial<C> g) {
+        if (g == null || g.isZERO()) {
+            return 0;
+        }
+        if (g.isConstant()) {
+            return g.signum();
+        }
+        C zero = g.ring.coFac.getZERO();
+        int n = (int) g.degree(0);
+        List<C> cs = new ArrayList<C>(n + 1);
+        for (int i = 0; i <= n; i++) {
+            cs.add(zero);
+        }
+        for (Monomial<C> m : g) {
+            cs.set((int) m.e.getVal(0), m.c);
+        }
+        // Horner scheme with intervals [lo, hi]
+        C lo = cs.get(n);
+        C hi = lo;
+        for (int i = n - 1; i >= 0; i--) {
+            C a = lo.multiply(iv.left);
+            C b = lo.multiply(iv.right);
+            C c = hi.multiply(iv.left);
+            C d = hi.multiply(iv.right);
+            C l = a;
+            C h = a;
+            List<C> ps = new ArrayList<C>(3);
+            ps.add(b);
+            ps.add(c);
+            ps.add(d);
+            for (C e : ps) {
+                if (e.compareTo(l) < 0) {
+                    l = e;
+                }
+                if (e.compareTo(h) > 0) {
+                    h = e;
+                }
+            }
+            lo = l.sum(cs.get(i));
+            hi = h.sum(cs.get(i));
+        }
+        if (lo.signum() > 0) {
+            return 1;
+        }
+        if (hi.signum() < 0) {
+            return -1;
+        }
+        return 0;
+    }
+
+
     /**
      * Real algebraic number sign.
      * @param iv root isolating interval for f, with f(left) * f(right) &lt; 0.
@@ -395,20 +592,13 @@ public abstract class RealRootsAbstract<C extends RingElem<C> & Rational> implem
         C B = magnitudeBound(iv, gp);
         //System.out.println("B = " + B);
 
-        RingFactory<C> cfac = f.ring.coFac;
-        C two = cfac.fromInteger(2);
-
-        while (B.multiply(v.length()).getRational().compareTo(eps) >= 0) {
-            C c = v.left.sum(v.right);
-            c = c.divide(two);
-            Interval<C> im = new Interval<C>(c, v.right);
-            if (signChange(im, f)) {
-                v = im;
-            } else {
-                v = new Interval<C>(v.left, c);
-            }
-            //System.out.println("v = " + v.toDecimal());
+        BigRational b = B.getRational().abs();
+        if (b.isZERO()) {
+            return v;
         }
+        // B * |v| < eps
+        v = refineInterval(v, f, eps.divide(b));
+        //System.out.println("v = " + v.toDecimal());
         return v;
     }
 
@@ -560,25 +750,64 @@ public abstract class RealRootsAbstract<C extends RingElem<C> & Rational> implem
         List<Interval<C>> iv = realRoots(f);
         List<BigDecimal> roots = new ArrayList<BigDecimal>(iv.size());
         for (Interval<C> i : iv) {
-            BigDecimal r = null; //approximateRoot(i, f, eps); roots.add(r);
-            while (r == null) {
-                try {
-                    r = approximateRoot(i, f, eps);
-                    roots.add(r);
-                } catch (NoConvergenceException e) {
-                    // fall back to exact algorithm
-                    //System.out.println("" + e);
-                    BigRational len = i.rationalLength();
-                    len = len.divide(len.factory().fromInteger(1000));
-                    i = refineInterval(i, f, len);
-                    logger.info("fall back rootRefinement = " + i);
-                }
-            }
+            BigDecimal r = approximateRootRefined(i, f, eps);
+            roots.add(r);
         }
         return roots;
     }
 
 
+    /**
+     * Approximate real root, certified by quadratic interval refinement.
+     * @param iv root isolating interval with f(left) * f(right) &lt; 0.
+     * @param f univariate polynomial, non-zero.
+     * @param eps requested interval length.
+     * @return a decimal approximation d such that |d-v| &lt; eps, for f(v) =
+     *         0, v real in iv.
+     */
+    public BigDecimal approximateRootRefined(Interval<C> iv, GenPolynomial<C> f, BigRational eps) {
+        if (iv.left.equals(iv.right) || signChange(iv, f)) {
+            Interval<C> v = refineIntervalQIR(iv, f, eps);
+            // not v.toDecimal(), its default precision may be less than eps
+            BigRational m = v.left.getRational().sum(v.right.getRational()).multiply(BigRational.HALF);
+            return new BigDecimal(m, new MathContext(decimalPrecision(m, eps)));
+        }
+        // multiple root, no sign change
+        Interval<C> i = iv;
+        BigDecimal r = null;
+        while (r == null) {
+            try {
+                r = approximateRoot(i, f, eps);
+            } catch (NoConvergenceException e) {
+                // fall back to exact algorithm
+                BigRational len = i.rationalLength();
+                len = len.divide(len.factory().fromInteger(1000));
+                i = refineInterval(i, f, len);
+                logger.info("fall back rootRefinement = " + i);
+            }
+        }
+        return r;
+    }
+
+
+    /**
+     * Decimal precision for an approximation of x with error less than eps.
+     * @param x rational number.
+     * @param eps requested error bound.
+     * @return number of significant decimal digits, at least the digits of
+     *         MathContext.DECIMAL64.
+     */
+    static int decimalPrecision(BigRational x, BigRational eps) {
+        // log2(|x|/eps) up to +-2
+        long b = eps.denominator().bitLength() - eps.numerator().bitLength();
+        if (!x.isZERO()) {
+            b += x.numerator().abs().bitLength() - x.denominator().bitLength();
+        }
+        int d = (int) Math.ceil((b + 2) * Math.log10(2.0)) + 2;
+        return Math.max(d, MathContext.DECIMAL64.getPrecision());
+    }
+
+
     /**
      * Test if x is an approximate real root.
      * @param x approximate real root.
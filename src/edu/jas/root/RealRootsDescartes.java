@@ -0,0 +1,537 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.root;
+
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.Rational;
+import edu.jas.poly.DensePolyUtil;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+import edu.jas.ufd.SquarefreeAbstract;
+import edu.jas.ufd.SquarefreeFactory;
+
+
+/**
+ * Real root isolation using Descartes' rule of signs. Vincent-Collins-Akritas
+ * bisection on dyadic intervals: the polynomial is transformed to the unit
+ * interval (0,1), the number of sign variations of the coefficients of
+ * (x+1)^n p(1/(x+1)) bounds the number of roots in (0,1) and the interval
+ * is bisected by the substitutions x -&gt; x/2 and x -&gt; x+1 until the bound
+ * is 0 or 1. Rational roots which fall on a bisection point, e.g. 0 or
+ * dyadic numbers, are returned as point intervals [r,r], whereas
+ * RealRootsSturm returns point intervals only for polynomials of degree 1.
+ * All computations are with integer coefficients, the interval
+ * end points are dyadic numbers and common powers of two are removed after
+ * each bisection step. Taylor shifts of high degree are computed by divide
+ * and conquer with Kronecker substitution multiplication in DensePolyUtil.
+ * Coefficient rings other than BigRational are delegated to Sturm sequences.
+ * @param <C> coefficient type.
+ * @author Heinz Kredel
+ */
+public class RealRootsDescartes<C extends RingElem<C> & Rational> extends RealRootsAbstract<C> {
+
+
+    private static final Logger logger = LogManager.getLogger(RealRootsDescartes.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Degree from which Taylor shifts are computed by divide and conquer.
+     */
+    public static final int TAYLOR_FAST_DEGREE = DensePolyUtil.TAYLOR_SHIFT_DEGREE;
+
+
+    /**
+     * Engine for coefficients without exact rational arithmetic.
+     */
+    protected final RealRootsSturm<C> sturm;
+
+
+    /**
+     * Constructor.
+     */
+    public RealRootsDescartes() {
+        sturm = new RealRootsSturm<C>();
+    }
+
+
+    /**
+     * Test for rational coefficients.
+     * @param f univariate polynomial.
+     * @return true, if f has BigRational coefficients, else false.
+     */
+    @SuppressWarnings("cast")
+    protected boolean isRational(GenPolynomial<C> f) {
+        return ((Object) f.ring.coFac) instanceof BigRational;
+    }
+
+
+    /**
+     * Isolating intervals for the real roots.
+     * @param f univariate polynomial.
+     * @return a list of isolating intervals for the real roots of f.
+     */
+    @Override
+    public List<Interval<C>> realRoots(GenPolynomial<C> f) {
+        List<Interval<C>> R = new ArrayList<Interval<C>>();
+        if (f == null || f.isConstant()) {
+            return R;
+        }
+        if (!isRational(f)) {
+            return sturm.realRoots(f);
+        }
+        if (f.degree(0) == 1L) {
+            C z = f.monic().trailingBaseCoefficient().negate();
+            R.add(new Interval<C>(z));
+            return R;
+        }
+        RingFactory<C> cfac = f.ring.coFac;
+        BigInteger[] a = integerCoefficients(squarefreePart(f));
+        boolean zero = false;
+        if (a[0].signum() == 0) { // squarefree, so only one root 0
+            a = divideByX(a);
+            zero = true;
+        }
+        // negative roots from p(-x)
+        BigInteger[] an = negateVariable(a);
+        int en = rootBoundExponent(an);
+        List<Dyadic> neg = new ArrayList<Dyadic>();
+        isolateUnit(scale(an, en), BigInteger.ZERO, 0, zero, false, neg);
+        for (int i = neg.size() - 1; i >= 0; i--) {
+            Dyadic d = neg.get(i);
+            BigRational l = d.right(en).negate();
+            BigRational r = d.left(en).negate();
+            R.add(new Interval<C>(fromRational(cfac, l), fromRational(cfac, r)));
+        }
+        if (zero) {
+            R.add(new Interval<C>(cfac.getZERO()));
+        }
+        // positive roots
+        int ep = rootBoundExponent(a);
+        List<Dyadic> pos = new ArrayList<Dyadic>();
+        isolateUnit(scale(a, ep), BigInteger.ZERO, 0, zero, false, pos);
+        for (Dyadic d : pos) {
+            R.add(new Interval<C>(fromRational(cfac, d.left(ep)), fromRational(cfac, d.right(ep))));
+        }
+        if (debug) {
+            logger.info("realRoots: " + R);
+        }
+        return R;
+    }
+
+
+    /**
+     * Number of real roots in interval.
+     * @param iv interval with f(left) * f(right) != 0.
+     * @param f univariate polynomial.
+     * @return number of real roots of f in I.
+     */
+    @Override
+    public long realRootCount(Interval<C> iv, GenPolynomial<C> f) {
+        if (f == null || f.isConstant()) {
+            return 0L;
+        }
+        if (!isRational(f)) {
+            return sturm.realRootCount(iv, f);
+        }
+        BigRational l = iv.left.getRational();
+        BigRational r = iv.right.getRational();
+        int s = l.compareTo(r);
+        if (s == 0) {
+            return 0L;
+        }
+        if (s > 0) {
+            BigRational t = l;
+            l = r;
+            r = t;
+        }
+        BigInteger[] a = integerCoefficients(squarefreePart(f));
+        BigInteger[] q = unitTransform(a, l, r);
+        while (q.length > 1 && q[0].signum() == 0) { // root at left end point
+            q = divideByX(q);
+        }
+        List<Dyadic> R = new ArrayList<Dyadic>();
+        isolateUnit(q, BigInteger.ZERO, 0, false, false, R);
+        return R.size();
+    }
+
+
+    /**
+     * Invariant interval for algebraic number sign.
+     * @param iv root isolating interval for f, with f(left) * f(right) &lt; 0.
+     * @param f univariate polynomial, non-zero.
+     * @param g univariate polynomial, gcd(f,g) == 1.
+     * @return v with v a new interval contained in iv such that g(w) != 0 for w
+     *         in v.
+     */
+    @Override
+    public Interval<C> invariantSignInterval(Interval<C> iv, GenPolynomial<C> f, GenPolynomial<C> g) {
+        Interval<C> v = iv;
+        if (g == null || g.isZERO()) {
+            return v;
+        }
+        if (g.isConstant()) {
+            return v;
+        }
+        if (f == null || f.isZERO()) {
+            throw new IllegalArgumentException("f == 0");
+        }
+        if (!isRational(f)) {
+            return sturm.invariantSignInterval(iv, f, g);
+        }
+        RingFactory<C> cfac = f.ring.coFac;
+        C two = cfac.fromInteger(2);
+        while (true) {
+            long n = realRootCount(v, g);
+            logger.debug("n = " + n);
+            if (n == 0) {
+                return v;
+            }
+            C c = v.left.sum(v.right);
+            c = c.divide(two);
+            Interval<C> im = new Interval<C>(c, v.right);
+            if (signChange(im, f)) {
+                v = im;
+            } else {
+                v = new Interval<C>(v.left, c);
+            }
+        }
+    }
+
+
+    /**
+     * Squarefree part of a polynomial with rational coefficients.
+     * @param f univariate polynomial with BigRational coefficients.
+     * @return squarefree part of f.
+     */
+    @SuppressWarnings("unchecked")
+    protected GenPolynomial<BigRational> squarefreePart(GenPolynomial<C> f) {
+        GenPolynomial<BigRational> fr = (GenPolynomial<BigRational>) (Object) f;
+        SquarefreeAbstract<BigRational> sqf = SquarefreeFactory.getImplementation(BigRational.ONE);
+        return sqf.squarefreePart(fr);
+    }
+
+
+    /**
+     * Convert a rational number to a coefficient.
+     * @param cfac coefficient ring factory.
+     * @param r rational number.
+     * @return r as element of cfac.
+     */
+    protected C fromRational(RingFactory<C> cfac, BigRational r) {
+        C n = cfac.fromInteger(r.numerator());
+        if (r.denominator().equals(BigInteger.ONE)) {
+            return n;
+        }
+        return n.divide(cfac.fromInteger(r.denominator()));
+    }
+
+
+    /**
+     * Dense integer coefficients.
+     * @param f univariate polynomial with BigRational coefficients.
+     * @return array a of primitive integer coefficients with a[i] the
+     *         coefficient of x^i of f.
+     */
+    public static BigInteger[] integerCoefficients(GenPolynomial<BigRational> f) {
+        GenPolynomialRing<edu.jas.arith.BigInteger> ifac = new GenPolynomialRing<edu.jas.arith.BigInteger>(
+                        new edu.jas.arith.BigInteger(), f.ring);
+        GenPolynomial<edu.jas.arith.BigInteger> fi = PolyUtil.integerFromRationalCoefficients(ifac, f);
+        int n = (int) fi.degree(0);
+        BigInteger[] a = new BigInteger[n + 1];
+        for (int i = 0; i <= n; i++) {
+            a[i] = BigInteger.ZERO;
+        }
+        for (Monomial<edu.jas.arith.BigInteger> m : fi) {
+            a[(int) m.e.getVal(0)] = m.c.getVal();
+        }
+        return a;
+    }
+
+
+    /**
+     * Dyadic sub-interval (c/2^k, (c+1)/2^k) of the unit interval, or the
+     * point c/2^k.
+     */
+    static class Dyadic {
+
+
+        final BigInteger c;
+
+
+        final int k;
+
+
+        final boolean point;
+
+
+        Dyadic(BigInteger c, int k, boolean point) {
+            this.c = c;
+            this.k = k;
+            this.point = point;
+        }
+
+
+        /**
+         * Left end point scaled by 2^e.
+         */
+        BigRational left(int e) {
+            return value(c, e);
+        }
+
+
+        /**
+         * Right end point scaled by 2^e.
+         */
+        BigRational right(int e) {
+            if (point) {
+                return value(c, e);
+            }
+            return value(c.add(BigInteger.ONE), e);
+        }
+
+
+        BigRational value(BigInteger a, int e) {
+            int s = e - k;
+            if (s >= 0) {
+                return BigRational.reduction(a.shiftLeft(s), BigInteger.ONE);
+            }
+            return BigRational.reduction(a, BigInteger.ONE.shiftLeft(-s));
+        }
+
+
+        @Override
+        public String toString() {
+            return (point ? "[" : "(") + c + "/2^" + k + (point ? "]" : ")");
+        }
+    }
+
+
+    /**
+     * Isolate the roots of a squarefree polynomial in the unit interval.
+     * @param q integer coefficients of a squarefree polynomial.
+     * @param c numerator of the dyadic interval.
+     * @param k exponent of the denominator of the dyadic interval.
+     * @param lroot true, if the left end point is a root of the original
+     *            polynomial.
+     * @param rroot true, if the right end point is a root of the original
+     *            polynomial.
+     * @param out list of isolating sub-intervals of (c/2^k, (c+1)/2^k) in
+     *            increasing order, appended.
+     */
+    static void isolateUnit(BigInteger[] q, BigInteger c, int k, boolean lroot, boolean rroot,
+                    List<Dyadic> out) {
+        long v = descartesBound(q);
+        if (v == 0L) {
+            return;
+        }
+        if (v == 1L && !lroot && !rroot) {
+            out.add(new Dyadic(c, k, false));
+            return;
+        }
+        BigInteger[] ql = halve(q);
+        BigInteger[] qr = taylorShift(ql, BigInteger.ONE);
+        boolean mroot = qr[0].signum() == 0;
+        if (mroot) {
+            qr = divideByX(qr);
+        }
+        BigInteger c2 = c.shiftLeft(1);
+        isolateUnit(ql, c2, k + 1, lroot, mroot, out);
+        if (mroot) {
+            out.add(new Dyadic(c2.add(BigInteger.ONE), k + 1, true));
+        }
+        isolateUnit(qr, c2.add(BigInteger.ONE), k + 1, mroot, rroot, out);
+    }
+
+
+    /**
+     * Descartes bound for the unit interval.
+     * @param q integer coefficients with q[0] != 0.
+     * @return number of sign variations of (x+1)^n q(1/(x+1)).
+     */
+    public static long descartesBound(BigInteger[] q) {
+        int n = q.length - 1;
+        if (n <= 0) {
+            return 0L;
+        }
+        BigInteger[] r = new BigInteger[n + 1];
+        for (int i = 0; i <= n; i++) {
+            r[i] = q[n - i];
+        }
+        r = taylorShift(r, BigInteger.ONE);
+        return signVariations(r);
+    }
+
+
+    /**
+     * Number of sign variations.
+     * @param a integer coefficients.
+     * @return number of sign changes of the non-zero coefficients.
+     */
+    public static long signVariations(BigInteger[] a) {
+        long v = 0L;
+        int s = 0;
+        for (int i = 0; i < a.length; i++) {
+            int t = a[i].signum();
+            if (t == 0) {
+                continue;
+            }
+            if (s != 0 && s != t) {
+                v++;
+            }
+            s = t;
+        }
+        return v;
+    }
+
+
+    /**
+     * Root bound exponent.
+     * @param a integer coefficients.
+     * @return e such that |z| &lt; 2^e for all complex roots z of a.
+     */
+    public static int rootBoundExponent(BigInteger[] a) {
+        int n = a.length - 1;
+        int an = a[n].abs().bitLength();
+        int e = 0;
+        for (int i = 1; i <= n; i++) {
+            BigInteger b = a[n - i];
+            if (b.signum() == 0) {
+                continue;
+            }
+            int s = b.abs().bitLength() - an + 1; // |b/a_n| < 2^s
+            if (s <= 0) {
+                continue;
+            }
+            int t = (s + i - 1) / i;
+            if (t > e) {
+                e = t;
+            }
+        }
+        return e + 1; // Fujiwara bound
+    }
+
+
+    /**
+     * Scale variable.
+     * @param a integer coefficients.
+     * @param e exponent.
+     * @return coefficients of a(2^e x).
+     */
+    public static BigInteger[] scale(BigInteger[] a, int e) {
+        BigInteger[] b = new BigInteger[a.length];
+        for (int i = 0; i < a.length; i++) {
+            b[i] = a[i].shiftLeft(e * i);
+        }
+        return b;
+    }
+
+
+    /**
+     * Halve variable and remove common powers of two.
+     * @param q integer coefficients of degree n.
+     * @return coefficients of 2^n q(x/2) / 2^s for maximal s.
+     */
+    public static BigInteger[] halve(BigInteger[] q) {
+        int n = q.length - 1;
+        BigInteger[] b = new BigInteger[n + 1];
+        int s = Integer.MAX_VALUE;
+        for (int i = 0; i <= n; i++) {
+            b[i] = q[i].shiftLeft(n - i);
+            if (b[i].signum() != 0) {
+                s = Math.min(s, b[i].getLowestSetBit());
+            }
+        }
+        if (s > 0 && s < Integer.MAX_VALUE) {
+            for (int i = 0; i <= n; i++) {
+                b[i] = b[i].shiftRight(s);
+            }
+        }
+        return b;
+    }
+
+
+    /**
+     * Negate variable.
+     * @param a integer coefficients.
+     * @return coefficients of a(-x).
+     */
+    public static BigInteger[] negateVariable(BigInteger[] a) {
+        BigInteger[] b = new BigInteger[a.length];
+        for (int i = 0; i < a.length; i++) {
+            b[i] = (i % 2 == 0) ? a[i] : a[i].negate();
+        }
+        return b;
+    }
+
+
+    /**
+     * Divide by the variable.
+     * @param a integer coefficients with a[0] == 0.
+     * @return coefficients of a/x.
+     */
+    static BigInteger[] divideByX(BigInteger[] a) {
+        BigInteger[] b = new BigInteger[a.length - 1];
+        System.arraycopy(a, 1, b, 0, b.length);
+        return b;
+    }
+
+
+    /**
+     * Transform an interval to the unit interval.
+     * @param a integer coefficients.
+     * @param l left end point.
+     * @param r right end point, l &lt; r.
+     * @return integer coefficients of a multiple of a(l + (r-l) x).
+     */
+    public static BigInteger[] unitTransform(BigInteger[] a, BigRational l, BigRational r) {
+        int n = a.length - 1;
+        BigInteger ld = l.denominator();
+        BigInteger rd = r.denominator();
+        BigInteger D = ld.divide(ld.gcd(rd)).multiply(rd); // lcm
+        BigInteger A = l.numerator().multiply(D.divide(ld));
+        BigInteger W = r.numerator().multiply(D.divide(rd)).subtract(A);
+        // D^n a(x/D)
+        BigInteger[] h = new BigInteger[n + 1];
+        BigInteger d = BigInteger.ONE;
+        for (int i = n; i >= 0; i--) {
+            h[i] = a[i].multiply(d);
+            d = d.multiply(D);
+        }
+        h = taylorShift(h, A);
+        BigInteger w = BigInteger.ONE;
+        for (int i = 0; i <= n; i++) {
+            h[i] = h[i].multiply(w);
+            w = w.multiply(W);
+        }
+        return h;
+    }
+
+
+    /**
+     * Taylor shift.
+     * @param a integer coefficients.
+     * @param s shift.
+     * @return coefficients of a(x+s).
+     */
+    public static BigInteger[] taylorShift(BigInteger[] a, BigInteger s) {
+        return DensePolyUtil.taylorShift(a, s);
+    }
+
+}
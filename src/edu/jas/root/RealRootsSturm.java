@@ -161,12 +161,13 @@ public class RealRootsSturm<C extends RingElem<C> & Rational> extends RealRootsA
         // recursion on both sub-intervals
         Interval<C> iv1 = new Interval<C>(iv.left, c);
         Interval<C> iv2 = new Interval<C>(c, iv.right);
-        List<Interval<C>> R1 = realRoots(iv1, S);
+        List<List<Interval<C>>> RR = realRoots(iv1, iv2, S, v);
+        List<Interval<C>> R1 = RR.get(0);
         //System.out.println("R1 = " + R1);
         if (debug) {
             logger.info("R1 = " + R1);
         }
-        List<Interval<C>> R2 = realRoots(iv2, S);
+        List<Interval<C>> R2 = RR.get(1);
         //System.out.println("R2 = " + R2);
         if (debug) {
             logger.info("R2 = " + R2);
@@ -236,6 +237,24 @@ public class RealRootsSturm<C extends RingElem<C> & Rational> extends RealRootsA
     }
 
 
+    /**
+     * Isolating intervals for the real roots in two adjacent intervals.
+     * @param iv1 left interval with f(left) * f(right) != 0.
+     * @param iv2 right interval with f(left) * f(right) != 0.
+     * @param S sturm sequence for f and I.
+     * @param v number of real roots of f in the union of iv1 and iv2.
+     * @return [R1, R2] with R_i the list of isolating intervals for the real
+     *         roots of f in iv_i.
+     */
+    protected List<List<Interval<C>>> realRoots(Interval<C> iv1, Interval<C> iv2,
+                    List<GenPolynomial<C>> S, long v) {
+        List<List<Interval<C>>> RR = new ArrayList<List<Interval<C>>>(2);
+        RR.add(realRoots(iv1, S));
+        RR.add(realRoots(iv2, S));
+        return RR;
+    }
+
+
     /**
      * Number of real roots in interval.
      * @param iv interval with f(left) * f(right) != 0.
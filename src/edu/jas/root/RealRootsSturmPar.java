@@ -0,0 +1,189 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.root;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.BigDecimal;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.Rational;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Real root isolation using Sturm sequences, parallel version. The bisection
+ * tree of the isolation is split across the threads of the
+ * <code>ComputerThreads</code> pool as long as a sub-interval contains at
+ * least <code>PARALLEL_ROOTS</code> roots. The refinement of isolating
+ * intervals and the approximation of roots is done concurrently for all
+ * intervals. The results are the same as in the sequential version.
+ * @param <C> coefficient type.
+ * @author Heinz Kredel
+ */
+public class RealRootsSturmPar<C extends RingElem<C> & Rational> extends RealRootsSturm<C> {
+
+
+    private static final Logger logger = LogManager.getLogger(RealRootsSturmPar.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Minimal number of roots in an interval for parallel bisection.
+     */
+    public static final long PARALLEL_ROOTS = 4L;
+
+
+    /**
+     * Number of parallel tasks.
+     */
+    protected final int threads;
+
+
+    /**
+     * Constructor.
+     */
+    public RealRootsSturmPar() {
+        this(ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of parallel tasks.
+     */
+    public RealRootsSturmPar(int threads) {
+        this.threads = ComputerThreads.checkThreads(threads);
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return getClass().getName() + "(" + threads + ")";
+    }
+
+
+    /**
+     * Test if parallel computation is useful.
+     * @param n number of independent tasks.
+     * @return true, if the tasks should be computed in parallel.
+     */
+    protected boolean isParallel(long n) {
+        return threads > 1 && !ComputerThreads.NO_THREADS && n > 1L;
+    }
+
+
+    /**
+     * Isolating intervals for the real roots in two adjacent intervals,
+     * computed in parallel.
+     * @param iv1 left interval with f(left) * f(right) != 0.
+     * @param iv2 right interval with f(left) * f(right) != 0.
+     * @param S sturm sequence for f and I.
+     * @param v number of real roots of f in the union of iv1 and iv2.
+     * @return [R1, R2] with R_i the list of isolating intervals for the real
+     *         roots of f in iv_i.
+     */
+    @Override
+    protected List<List<Interval<C>>> realRoots(final Interval<C> iv1, final Interval<C> iv2,
+                    final List<GenPolynomial<C>> S, long v) {
+        if (v < PARALLEL_ROOTS || !isParallel(v)) {
+            return super.realRoots(iv1, iv2, S, v);
+        }
+        if (debug) {
+            logger.debug("parallel bisection, v = " + v + ", iv1 = " + iv1 + ", iv2 = " + iv2);
+        }
+        List<Callable<List<Interval<C>>>> cs = new ArrayList<Callable<List<Interval<C>>>>(2);
+        cs.add(new Callable<List<Interval<C>>>() {
+
+
+            public List<Interval<C>> call() {
+                return realRoots(iv1, S);
+            }
+        });
+        cs.add(new Callable<List<Interval<C>>>() {
+
+
+            public List<Interval<C>> call() {
+                return realRoots(iv2, S);
+            }
+        });
+        return ComputerThreads.invokeAll(cs, threads);
+    }
+
+
+    /**
+     * Refine intervals in parallel.
+     * @param V list of isolating intervals with f(left) * f(right) &lt; 0.
+     * @param f univariate polynomial, non-zero.
+     * @param eps requested intervals length.
+     * @return a list of new intervals v such that |v| &lt; eps.
+     */
+    @Override
+    public List<Interval<C>> refineIntervals(List<Interval<C>> V, final GenPolynomial<C> f,
+                    final BigRational eps) {
+        if (f == null || f.isZERO() || f.isConstant() || eps == null) {
+            return V;
+        }
+        if (!isParallel(V.size())) {
+            return super.refineIntervals(V, f, eps);
+        }
+        List<Callable<Interval<C>>> cs = new ArrayList<Callable<Interval<C>>>(V.size());
+        for (final Interval<C> v : V) {
+            cs.add(new Callable<Interval<C>>() {
+
+
+                public Interval<C> call() {
+                    return refineInterval(v, f, eps);
+                }
+            });
+        }
+        return ComputerThreads.invokeAll(cs, threads);
+    }
+
+
+    /**
+     * Approximate real roots in parallel.
+     * @param f univariate polynomial, non-zero.
+     * @param eps requested interval length.
+     * @return a list of decimal approximations d such that |d-v| &lt; eps for
+     *         all real v with f(v) = 0.
+     */
+    @Override
+    public List<BigDecimal> approximateRoots(final GenPolynomial<C> f, final BigRational eps) {
+        List<Interval<C>> V = realRoots(f);
+        if (!isParallel(V.size())) {
+            List<BigDecimal> roots = new ArrayList<BigDecimal>(V.size());
+            for (Interval<C> v : V) {
+                roots.add(approximateRootRefined(v, f, eps));
+            }
+            return roots;
+        }
+        List<Callable<BigDecimal>> cs = new ArrayList<Callable<BigDecimal>>(V.size());
+        for (final Interval<C> v : V) {
+            cs.add(new Callable<BigDecimal>() {
+
+
+                public BigDecimal call() {
+                    return approximateRootRefined(v, f, eps);
+                }
+            });
+        }
+        return ComputerThreads.invokeAll(cs, threads);
+    }
+
+}
@@ -9,16 +9,19 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import edu.jas.arith.BigDecimal;
 import edu.jas.arith.BigRational;
 import edu.jas.arith.Rational;
+import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.Complex;
 import edu.jas.poly.ComplexRing;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.PolyUtil;
 import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingFactory;
 import edu.jas.ufd.FactorAbstract;
 import edu.jas.ufd.FactorFactory;
 import edu.jas.ufd.SquarefreeAbstract;
@@ -33,6 +36,93 @@ import edu.jas.ufd.SquarefreeFactory;
 public class RootFactory {
 
 
+    /**
+     * Real root isolation algorithms. Descartes returns point intervals for
+     * rational roots on dyadic bisection points, Sturm only for polynomials
+     * of degree 1.
+     */
+    public static enum RealRootAlgorithm {
+        Sturm, SturmParallel, Descartes
+    };
+
+
+    /**
+     * Real root isolation algorithm used by this factory, default Sturm.
+     */
+    public static RealRootAlgorithm realRootAlgorithm = RealRootAlgorithm.Sturm;
+
+
+    /**
+     * Real root isolation engine for the selected algorithm.
+     * @return real root engine.
+     */
+    public static <C extends GcdRingElem<C> & Rational> RealRootsAbstract<C> getRealRootsImplementation() {
+        return getRealRootsImplementation(realRootAlgorithm);
+    }
+
+
+    /**
+     * Real root isolation engine.
+     * @param alg real root isolation algorithm.
+     * @return real root engine for alg.
+     */
+    public static <C extends GcdRingElem<C> & Rational> RealRootsAbstract<C> getRealRootsImplementation(
+                    RealRootAlgorithm alg) {
+        switch (alg) {
+        case SturmParallel:
+            return new RealRootsSturmPar<C>();
+        case Descartes:
+            return new RealRootsDescartes<C>();
+        case Sturm:
+        default:
+            return new RealRootsSturm<C>();
+        }
+    }
+
+
+    /**
+     * Complex root isolation algorithms.
+     */
+    public static enum ComplexRootAlgorithm {
+        Sturm, Aberth
+    };
+
+
+    /**
+     * Complex root isolation algorithm used by this factory, default Sturm.
+     */
+    public static ComplexRootAlgorithm complexRootAlgorithm = ComplexRootAlgorithm.Sturm;
+
+
+    /**
+     * Complex root isolation engine for the selected algorithm.
+     * @param cf complex coefficient factory.
+     * @return complex root engine.
+     */
+    public static <C extends GcdRingElem<C> & Rational> ComplexRootsAbstract<C> getComplexRootsImplementation(
+                    RingFactory<Complex<C>> cf) {
+        return getComplexRootsImplementation(cf, complexRootAlgorithm);
+    }
+
+
+    /**
+     * Complex root isolation engine.
+     * @param cf complex coefficient factory.
+     * @param alg complex root isolation algorithm.
+     * @return complex root engine for alg.
+     */
+    public static <C extends GcdRingElem<C> & Rational> ComplexRootsAbstract<C> getComplexRootsImplementation(
+                    RingFactory<Complex<C>> cf, ComplexRootAlgorithm alg) {
+        switch (alg) {
+        case Aberth:
+            return new ComplexRootsAberth<C>(cf);
+        case Sturm:
+        default:
+            return new ComplexRootsSturm<C>(cf);
+        }
+    }
+
+
     /**
      * Is real algebraic number a root of a polynomial.
      * @param f univariate polynomial.
@@ -58,7 +148,7 @@ public class RootFactory {
      */
     public static <C extends GcdRingElem<C> & Rational> List<RealAlgebraicNumber<C>> realAlgebraicNumbers(
                     GenPolynomial<C> f) {
-        RealRoots<C> rr = new RealRootsSturm<C>();
+        RealRoots<C> rr = RootFactory.<C> getRealRootsImplementation();
         SquarefreeAbstract<C> engine = SquarefreeFactory.<C> getImplementation(f.ring.coFac);
         Map<GenPolynomial<C>, Long> SF = engine.squarefreeFactors(f);
         //Set<GenPolynomial<C>> S = SF.keySet();
@@ -87,7 +177,7 @@ public class RootFactory {
      */
     public static <C extends GcdRingElem<C> & Rational> List<RealAlgebraicNumber<C>> realAlgebraicNumbers(
                     GenPolynomial<C> f, BigRational eps) {
-        RealRoots<C> rr = new RealRootsSturm<C>();
+        RealRoots<C> rr = RootFactory.<C> getRealRootsImplementation();
         SquarefreeAbstract<C> engine = SquarefreeFactory.<C> getImplementation(f.ring.coFac);
         Map<GenPolynomial<C>, Long> SF = engine.squarefreeFactors(f);
         //Set<GenPolynomial<C>> S = SF.keySet();
@@ -116,7 +206,7 @@ public class RootFactory {
      */
     public static <C extends GcdRingElem<C> & Rational> List<RealAlgebraicNumber<C>> realAlgebraicNumbersField(
                     GenPolynomial<C> f) {
-        RealRoots<C> rr = new RealRootsSturm<C>();
+        RealRoots<C> rr = RootFactory.<C> getRealRootsImplementation();
         FactorAbstract<C> engine = FactorFactory.<C> getImplementation(f.ring.coFac);
         Map<GenPolynomial<C>, Long> SF = engine.baseFactors(f);
         //Set<GenPolynomial<C>> S = SF.keySet();
@@ -145,7 +235,7 @@ public class RootFactory {
      */
     public static <C extends GcdRingElem<C> & Rational> List<RealAlgebraicNumber<C>> realAlgebraicNumbersField(
                     GenPolynomial<C> f, BigRational eps) {
-        RealRoots<C> rr = new RealRootsSturm<C>();
+        RealRoots<C> rr = RootFactory.<C> getRealRootsImplementation();
         FactorAbstract<C> engine = FactorFactory.<C> getImplementation(f.ring.coFac);
         Map<GenPolynomial<C>, Long> SF = engine.baseFactors(f);
         //Set<GenPolynomial<C>> S = SF.keySet();
@@ -174,7 +264,7 @@ public class RootFactory {
      */
     public static <C extends GcdRingElem<C> & Rational> List<RealAlgebraicNumber<C>> realAlgebraicNumbersIrred(
                     GenPolynomial<C> f) {
-        RealRoots<C> rr = new RealRootsSturm<C>();
+        RealRoots<C> rr = RootFactory.<C> getRealRootsImplementation();
         List<RealAlgebraicNumber<C>> list = new ArrayList<RealAlgebraicNumber<C>>();
         List<Interval<C>> iv = rr.realRoots(f);
         for (Interval<C> I : iv) {
@@ -194,7 +284,7 @@ public class RootFactory {
      */
     public static <C extends GcdRingElem<C> & Rational> List<RealAlgebraicNumber<C>> realAlgebraicNumbersIrred(
                     GenPolynomial<C> f, BigRational eps) {
-        RealRoots<C> rr = new RealRootsSturm<C>();
+        RealRoots<C> rr = RootFactory.<C> getRealRootsImplementation();
         List<RealAlgebraicNumber<C>> list = new ArrayList<RealAlgebraicNumber<C>>();
         List<Interval<C>> iv = rr.realRoots(f, eps);
         for (Interval<C> I : iv) {
@@ -356,7 +446,7 @@ public class RootFactory {
      */
     public static <C extends GcdRingElem<C> & Rational> List<ComplexAlgebraicNumber<C>> complexAlgebraicNumbersComplex(
                     GenPolynomial<Complex<C>> f) {
-        ComplexRoots<C> cr = new ComplexRootsSturm<C>(f.ring.coFac);
+        ComplexRoots<C> cr = RootFactory.<C> getComplexRootsImplementation(f.ring.coFac);
         SquarefreeAbstract<Complex<C>> engine = SquarefreeFactory
                         .<Complex<C>> getImplementation(f.ring.coFac);
         Map<GenPolynomial<Complex<C>>, Long> SF = engine.squarefreeFactors(f);
@@ -386,7 +476,7 @@ public class RootFactory {
      */
     public static <C extends GcdRingElem<C> & Rational> List<ComplexAlgebraicNumber<C>> complexAlgebraicNumbersComplex(
                     GenPolynomial<Complex<C>> f, BigRational eps) {
-        ComplexRoots<C> cr = new ComplexRootsSturm<C>(f.ring.coFac);
+        ComplexRoots<C> cr = RootFactory.<C> getComplexRootsImplementation(f.ring.coFac);
         SquarefreeAbstract<Complex<C>> engine = SquarefreeFactory
                         .<Complex<C>> getImplementation(f.ring.coFac);
         Map<GenPolynomial<Complex<C>>, Long> SF = engine.squarefreeFactors(f);
@@ -568,6 +658,11 @@ public class RootFactory {
      */
     public static <C extends GcdRingElem<C> & Rational> void rootRefine(AlgebraicRoots<C> a,
                     BigRational eps) {
+        if (ComputerThreads.N_CPUS > 1 && !ComputerThreads.NO_THREADS
+                        && a.real.size() + a.complex.size() > 1) {
+            rootRefinePar(a, eps);
+            return;
+        }
         for (RealAlgebraicNumber<C> r : a.real) {
             r.ring.refineRoot(eps);
         }
@@ -578,6 +673,40 @@ public class RootFactory {
     }
 
 
+    /**
+     * Root refinement of real and complex algebraic numbers, parallel
+     * version. The isolating intervals and rectangles are refined
+     * concurrently.
+     * @param a container of real and complex algebraic numbers.
+     * @param eps desired precision for root intervals and rectangles.
+     */
+    public static <C extends GcdRingElem<C> & Rational> void rootRefinePar(AlgebraicRoots<C> a,
+                    final BigRational eps) {
+        List<Callable<Boolean>> cs = new ArrayList<Callable<Boolean>>(a.real.size() + a.complex.size());
+        for (final RealAlgebraicNumber<C> r : a.real) {
+            cs.add(new Callable<Boolean>() {
+
+
+                public Boolean call() {
+                    r.ring.refineRoot(eps);
+                    return true;
+                }
+            });
+        }
+        for (final ComplexAlgebraicNumber<C> c : a.complex) {
+            cs.add(new Callable<Boolean>() {
+
+
+                public Boolean call() {
+                    c.ring.refineRoot(eps);
+                    return true;
+                }
+            });
+        }
+        ComputerThreads.invokeAll(cs, cs.size());
+    }
+
+
     /**
      * Roots as real and complex decimal numbers.
      * @param f univariate polynomial.
@@ -586,11 +715,11 @@ public class RootFactory {
      */
     public static <C extends GcdRingElem<C> & Rational> DecimalRoots<C> decimalRoots(GenPolynomial<C> f,
                     BigRational eps) {
-        RealRootsAbstract<C> rengine = new RealRootsSturm<C>();
+        RealRootsAbstract<C> rengine = RootFactory.<C> getRealRootsImplementation();
         List<BigDecimal> rl = rengine.approximateRoots(f, eps);
 
         GenPolynomial<Complex<C>> fc = PolyUtilRoot.<C> complexFromAny(f);
-        ComplexRootsAbstract<C> cengine = new ComplexRootsSturm<C>(fc.ring.coFac);
+        ComplexRootsAbstract<C> cengine = RootFactory.<C> getComplexRootsImplementation(fc.ring.coFac);
         List<Complex<BigDecimal>> cl = cengine.approximateRoots(fc, eps);
 
         cl = filterOutRealRoots(f, cl, rl, eps);
@@ -608,17 +737,13 @@ public class RootFactory {
     public static <C extends GcdRingElem<C> & Rational> DecimalRoots<C> decimalRoots(AlgebraicRoots<C> ar,
                     BigRational eps) {
         //no: rootRefine(ar, eps);
-        RealRootsAbstract<C> rengine = new RealRootsSturm<C>();
+        RealRootsAbstract<C> rengine = RootFactory.<C> getRealRootsImplementation();
         List<BigDecimal> rl = new ArrayList<BigDecimal>(ar.real.size());
         for (RealAlgebraicNumber<C> r : ar.real) {
-            try {
-                BigDecimal d = rengine.approximateRoot(r.ring.root, ar.p, eps);
-                rl.add(d);
-            } catch (NoConvergenceException e) {
-                System.out.println("should not happen: " + e);
-            }
+            BigDecimal d = rengine.approximateRootRefined(r.ring.root, r.ring.algebraic.modul, eps);
+            rl.add(d);
         }
-        ComplexRootsAbstract<C> cengine = new ComplexRootsSturm<C>(ar.cp.ring.coFac);
+        ComplexRootsAbstract<C> cengine = RootFactory.<C> getComplexRootsImplementation(ar.cp.ring.coFac);
         List<Complex<BigDecimal>> cl = new ArrayList<Complex<BigDecimal>>(ar.complex.size());
         for (ComplexAlgebraicNumber<C> c : ar.complex) {
             try {
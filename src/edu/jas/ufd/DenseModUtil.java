@@ -0,0 +1,847 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.Modular;
+import edu.jas.arith.ModularKernels;
+import edu.jas.arith.ModularRingFactory;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Dense univariate polynomials modulo word size primes. Polynomials are
+ * represented as arrays a of long with a[i] the coefficient of x^i, 0 &lt;=
+ * a[i] &lt; p, and without leading zero coefficients, so a.length - 1 is the
+ * degree and the zero polynomial is the array of length 0. Products use
+ * Karatsuba multiplication, remainders use a precomputed Newton inverse of
+ * the modulus. Modular composition is done by the baby-step giant-step
+ * method of Brent and Kung with the main work in a matrix product, and the
+ * distinct degree factorization is the baby-step giant-step algorithm of
+ * Kaltofen and Shoup. The equal degree factorization of Cantor and
+ * Zassenhaus computes the norm and trace maps by modular compositions.
+ * @author Heinz Kredel
+ */
+
+public class DenseModUtil {
+
+
+    private static final Logger logger = LogManager.getLogger(DenseModUtil.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Moduli must be less than this bound, so that a residue plus a product
+     * of residues does not overflow.
+     */
+    public static final long MAX_MODUL = 1L << 31;
+
+
+    /**
+     * Degree from which Karatsuba multiplication is used.
+     */
+    public static final int KARATSUBA_DEGREE = ModularKernels.KARATSUBA_LENGTH;
+
+
+    /**
+     * Degree of the modulus from which matrix products and interval
+     * polynomials are computed in parallel.
+     */
+    public static final int PARALLEL_DEGREE = 256;
+
+
+    /**
+     * Bound for the number of delayed reductions.
+     */
+    static final int MAX_DELAY = 1 << 24;
+
+
+    private static final Random random = new Random();
+
+
+    /**
+     * Test if dense arithmetic is applicable for a coefficient ring.
+     * @param cfac coefficient ring factory.
+     * @return true, if cfac is a modular ring with modulus less than
+     *         MAX_MODUL, else false.
+     */
+    public static boolean isApplicable(RingFactory<?> cfac) {
+        if (!(cfac instanceof ModularRingFactory)) {
+            return false;
+        }
+        java.math.BigInteger m = ((ModularRingFactory<?>) cfac).getIntegerModul().getVal();
+        return m.bitLength() < 32;
+    }
+
+
+    /**
+     * Convert a univariate polynomial to a dense array.
+     * @param A univariate GenPolynomial with modular coefficients.
+     * @return coefficient array of A.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> long[] fromPolynomial(GenPolynomial<MOD> A) {
+        if (A == null || A.isZERO()) {
+            return new long[0];
+        }
+        long[] a = new long[(int) A.degree(0) + 1];
+        for (Monomial<MOD> m : A) {
+            a[(int) m.e.getVal(0)] = m.c.getInteger().getVal().longValue();
+        }
+        return a;
+    }
+
+
+    /**
+     * Convert a dense array to a univariate polynomial.
+     * @param fac univariate polynomial ring factory.
+     * @param a coefficient array.
+     * @return sum_i a[i] x^i as GenPolynomial.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> GenPolynomial<MOD> toPolynomial(
+                    GenPolynomialRing<MOD> fac, long[] a) {
+        GenPolynomial<MOD> A = fac.getZERO().copy();
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != 0L) {
+                A.doPutToMap(ExpVector.create(1, 0, i), fac.coFac.fromInteger(a[i]));
+            }
+        }
+        return A;
+    }
+
+
+    /**
+     * Remove leading zero coefficients.
+     * @param a coefficient array.
+     * @return a without leading zeros.
+     */
+    public static long[] normalize(long[] a) {
+        int n = a.length;
+        while (n > 0 && a[n - 1] == 0L) {
+            n--;
+        }
+        if (n == a.length) {
+            return a;
+        }
+        return Arrays.copyOf(a, n);
+    }
+
+
+    /**
+     * Inverse modulo p.
+     * @param a residue with gcd(a,p) == 1.
+     * @param p modulus.
+     * @return b with a b == 1 mod p.
+     */
+    public static long inverse(long a, long p) {
+        return ModularKernels.inverse(a, p);
+    }
+
+
+    /**
+     * Sum of polynomials.
+     */
+    public static long[] sum(long[] a, long[] b, long p) {
+        if (a.length < b.length) {
+            long[] t = a;
+            a = b;
+            b = t;
+        }
+        long[] c = Arrays.copyOf(a, a.length);
+        ModularKernels.sum(c, 0, b, 0, c, 0, b.length, p);
+        return normalize(c);
+    }
+
+
+    /**
+     * Difference of polynomials.
+     */
+    public static long[] subtract(long[] a, long[] b, long p) {
+        long[] c = Arrays.copyOf(a, Math.max(a.length, b.length));
+        ModularKernels.subtract(c, 0, b, 0, c, 0, b.length, p);
+        return normalize(c);
+    }
+
+
+    /**
+     * Multiply by a scalar.
+     */
+    public static long[] multiply(long[] a, long s, long p) {
+        if (s == 0L) {
+            return new long[0];
+        }
+        long[] c = new long[a.length];
+        ModularKernels.scale(s, a, 0, c, 0, a.length, p);
+        return c;
+    }
+
+
+    /**
+     * Monic polynomial.
+     */
+    public static long[] monic(long[] a, long p) {
+        if (a.length == 0 || a[a.length - 1] == 1L) {
+            return a;
+        }
+        return multiply(a, inverse(a[a.length - 1], p), p);
+    }
+
+
+    /**
+     * Product of polynomials.
+     */
+    public static long[] multiply(long[] a, long[] b, long p) {
+        if (a.length == 0 || b.length == 0) {
+            return new long[0];
+        }
+        return normalize(multiply(a, 0, a.length, b, 0, b.length, p));
+    }
+
+
+    /**
+     * Product of coefficient ranges. Computes (sum_{i&lt;la} a[oa+i] x^i)
+     * (sum_{j&lt;lb} b[ob+j] x^j) without normalization.
+     */
+    static long[] multiply(long[] a, int oa, int la, long[] b, int ob, int lb, long p) {
+        return ModularKernels.multiply(a, oa, la, b, ob, lb, p);
+    }
+
+
+    /**
+     * Number of products of residues which can be summed to a residue
+     * without overflow.
+     * @param p modulus.
+     * @return maximal number of products before a reduction is required.
+     */
+    public static int delay(long p) {
+        long q = (p - 1L) * (p - 1L);
+        if (q <= 1L) {
+            return MAX_DELAY;
+        }
+        return (int) Math.min(MAX_DELAY, (Long.MAX_VALUE - p) / q);
+    }
+
+
+    /**
+     * Truncated product.
+     * @return a b mod x^n.
+     */
+    static long[] multiplyTrunc(long[] a, long[] b, int n, long p) {
+        int la = Math.min(a.length, n);
+        int lb = Math.min(b.length, n);
+        long[] c = multiply(a, 0, la, b, 0, lb, p);
+        if (c.length > n) {
+            c = Arrays.copyOf(c, n);
+        }
+        return c;
+    }
+
+
+    /**
+     * Power series inverse.
+     * @param a coefficient array with a[0] != 0.
+     * @param n precision.
+     * @return b with a b == 1 mod x^n.
+     */
+    public static long[] seriesInverse(long[] a, int n, long p) {
+        return ModularKernels.seriesInverse(a, n, p);
+    }
+
+
+    /**
+     * Schoolbook remainder.
+     * @param a coefficient array.
+     * @param f non zero coefficient array.
+     * @return a rem f.
+     */
+    public static long[] remainder(long[] a, long[] f, long p) {
+        int n = f.length - 1;
+        if (a.length <= n) {
+            return normalize(a);
+        }
+        long li = inverse(f[n], p);
+        long[] r = Arrays.copyOf(a, a.length);
+        for (int i = r.length - 1; i >= n; i--) {
+            long q = (r[i] * li) % p;
+            if (q == 0L) {
+                continue;
+            }
+            ModularKernels.axpy(p - q, f, 0, r, i - n, n, p);
+            r[i] = 0L;
+        }
+        return normalize(Arrays.copyOf(r, n));
+    }
+
+
+    /**
+     * Schoolbook exact quotient.
+     * @param a coefficient array.
+     * @param f non zero coefficient array.
+     * @return a / f.
+     */
+    public static long[] divide(long[] a, long[] f, long p) {
+        int n = f.length - 1;
+        if (a.length <= n) {
+            return new long[0];
+        }
+        long li = inverse(f[n], p);
+        long[] r = Arrays.copyOf(a, a.length);
+        long[] q = new long[a.length - n];
+        for (int i = r.length - 1; i >= n; i--) {
+            long c = (r[i] * li) % p;
+            q[i - n] = c;
+            if (c == 0L) {
+                continue;
+            }
+            ModularKernels.axpy(p - c, f, 0, r, i - n, n, p);
+        }
+        return normalize(q);
+    }
+
+
+    /**
+     * Greatest common divisor.
+     * @return monic gcd(a,b).
+     */
+    public static long[] gcd(long[] a, long[] b, long p) {
+        a = normalize(a);
+        b = normalize(b);
+        while (b.length > 0) {
+            long[] r = remainder(a, b, p);
+            a = b;
+            b = r;
+        }
+        return monic(a, p);
+    }
+
+
+    /**
+     * Polynomial modulus with precomputed inverse for fast remainders.
+     */
+    public static class Modulus {
+
+
+        /**
+         * The modulus of the coefficients.
+         */
+        public final long p;
+
+
+        /**
+         * The monic polynomial modulus.
+         */
+        public final long[] f;
+
+
+        /**
+         * The degree of f.
+         */
+        public final int n;
+
+
+        /**
+         * Inverse of the reversed f modulo x^(n-1).
+         */
+        final long[] finv;
+
+
+        /**
+         * Constructor.
+         * @param f monic polynomial of positive degree.
+         * @param p prime modulus.
+         */
+        public Modulus(long[] f, long p) {
+            this.p = p;
+            this.f = normalize(f);
+            n = this.f.length - 1;
+            if (n < 1 || this.f[n] != 1L) {
+                throw new IllegalArgumentException("modulus must be monic of positive degree");
+            }
+            if (n > 1) {
+                long[] rf = new long[n + 1];
+                for (int i = 0; i <= n; i++) {
+                    rf[i] = this.f[n - i];
+                }
+                finv = seriesInverse(rf, n - 1, p);
+            } else {
+                finv = new long[0];
+            }
+        }
+
+
+        /**
+         * Remainder.
+         * @param a coefficient array of degree at most 2n-2.
+         * @return a rem f.
+         */
+        public long[] remainder(long[] a) {
+            if (a.length <= n) {
+                return normalize(a);
+            }
+            if (a.length > 2 * n - 1 || n < KARATSUBA_DEGREE) {
+                return DenseModUtil.remainder(a, f, p);
+            }
+            int k = a.length - n; // length of quotient, k <= n-1
+            long[] ra = new long[k];
+            for (int i = 0; i < k; i++) {
+                ra[i] = a[a.length - 1 - i];
+            }
+            long[] rq = multiplyTrunc(ra, finv, k, p);
+            long[] q = new long[k];
+            for (int i = 0; i < rq.length; i++) {
+                q[k - 1 - i] = rq[i];
+            }
+            long[] qf = DenseModUtil.multiply(q, 0, k, f, 0, n + 1, p);
+            long[] r = new long[n];
+            for (int i = 0; i < n; i++) {
+                long s = a[i] - (i < qf.length ? qf[i] : 0L);
+                r[i] = s < 0L ? s + p : s;
+            }
+            return normalize(r);
+        }
+
+
+        /**
+         * Modular product.
+         * @return a b rem f.
+         */
+        public long[] multiply(long[] a, long[] b) {
+            return remainder(DenseModUtil.multiply(a, b, p));
+        }
+
+
+        /**
+         * Modular power.
+         * @return a^e rem f.
+         */
+        public long[] power(long[] a, java.math.BigInteger e) {
+            long[] b = remainder(a);
+            long[] c = new long[] { 1L };
+            for (int i = e.bitLength() - 1; i >= 0; i--) {
+                c = multiply(c, c);
+                if (e.testBit(i)) {
+                    c = multiply(c, b);
+                }
+            }
+            return c;
+        }
+    }
+
+
+    /**
+     * Precomputed powers of a polynomial h modulo f for Brent-Kung modular
+     * composition g(h) rem f.
+     */
+    public static class Composition {
+
+
+        /**
+         * The polynomial modulus.
+         */
+        public final Modulus mod;
+
+
+        /**
+         * Number of baby steps.
+         */
+        final int m;
+
+
+        /**
+         * Baby steps h^i rem f, 0 &lt;= i &lt; m, as rows of length n.
+         */
+        final long[][] baby;
+
+
+        /**
+         * Giant step h^m rem f.
+         */
+        final long[] giant;
+
+
+        /**
+         * Compute matrix products in parallel.
+         */
+        final boolean parallel;
+
+
+        /**
+         * Constructor.
+         * @param h polynomial of degree &lt; n.
+         * @param mod polynomial modulus of degree n.
+         */
+        public Composition(long[] h, Modulus mod) {
+            this(h, mod, 1);
+        }
+
+
+        /**
+         * Constructor. The number of baby steps is chosen to minimize the
+         * number of modular products for the given number of compositions.
+         * @param h polynomial of degree &lt; n.
+         * @param mod polynomial modulus of degree n.
+         * @param uses expected number of compositions with h.
+         */
+        public Composition(long[] h, Modulus mod, int uses) {
+            this(h, mod, uses, mod.n >= PARALLEL_DEGREE && !ComputerThreads.NO_THREADS);
+        }
+
+
+        /**
+         * Constructor.
+         * @param h polynomial of degree &lt; n.
+         * @param mod polynomial modulus of degree n.
+         * @param uses expected number of compositions with h.
+         * @param parallel true, if the matrix products should be computed in
+         *            parallel.
+         */
+        public Composition(long[] h, Modulus mod, int uses, boolean parallel) {
+            this.mod = mod;
+            this.parallel = parallel;
+            int mu = (int) Math.ceil(Math.sqrt((double) mod.n * Math.max(1, uses)));
+            m = Math.max(1, Math.min(mu, mod.n));
+            baby = new long[m][];
+            long[] hr = mod.remainder(h);
+            long[] b = new long[] { 1L };
+            for (int i = 0; i < m; i++) {
+                baby[i] = Arrays.copyOf(b, mod.n);
+                b = mod.multiply(b, hr);
+            }
+            giant = b;
+        }
+
+
+        /**
+         * Modular composition.
+         * @param g polynomial.
+         * @return g(h) rem f.
+         */
+        public long[] compose(long[] g) {
+            if (g.length > mod.n) {
+                g = mod.remainder(g);
+            }
+            if (g.length == 0) {
+                return g;
+            }
+            int k = (g.length + m - 1) / m;
+            long[][] G = new long[k][m];
+            for (int i = 0; i < g.length; i++) {
+                G[i / m][i % m] = g[i];
+            }
+            long[][] R = matrixProduct(G, baby, mod.p, parallel);
+            long[] r = normalize(R[k - 1]);
+            for (int j = k - 2; j >= 0; j--) {
+                r = sum(mod.multiply(r, giant), normalize(R[j]), mod.p);
+            }
+            return r;
+        }
+    }
+
+
+    /**
+     * Matrix product with delayed reduction.
+     * @param A k x m matrix.
+     * @param B m x n matrix.
+     * @param p modulus.
+     * @param parallel true, if the rows should be computed in parallel.
+     * @return A B mod p.
+     */
+    public static long[][] matrixProduct(final long[][] A, final long[][] B, final long p, boolean parallel) {
+        final int k = A.length;
+        final long[][] C = new long[k][];
+        if (!parallel || k < 2 || ComputerThreads.NO_THREADS) {
+            for (int j = 0; j < k; j++) {
+                C[j] = matrixRow(A[j], B, p);
+            }
+            return C;
+        }
+        int t = Math.min(k, ComputerThreads.N_CPUS);
+        List<Callable<Boolean>> cs = new ArrayList<Callable<Boolean>>(t);
+        for (int s = 0; s < t; s++) {
+            final int lo = (s * k) / t;
+            final int hi = ((s + 1) * k) / t;
+            cs.add(new Callable<Boolean>() {
+
+
+                public Boolean call() {
+                    for (int j = lo; j < hi; j++) {
+                        C[j] = matrixRow(A[j], B, p);
+                    }
+                    return true;
+                }
+            });
+        }
+        ComputerThreads.invokeAll(cs, t);
+        return C;
+    }
+
+
+    /**
+     * Row times matrix with delayed reduction.
+     */
+    static long[] matrixRow(long[] a, long[][] B, long p) {
+        final int D = delay(p);
+        int n = B[0].length;
+        long[] c = new long[n];
+        int cnt = 0;
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i];
+            if (ai == 0L) {
+                continue;
+            }
+            if (cnt == D) {
+                ModularKernels.reduce(c, 0, n, p);
+                cnt = 0;
+            }
+            ModularKernels.axpy(ai, B[i], 0, c, 0, n);
+            cnt++;
+        }
+        ModularKernels.reduce(c, 0, n, p);
+        return c;
+    }
+
+
+    /**
+     * Baby-step giant-step distinct degree factorization.
+     * @param f squarefree and monic polynomial of positive degree.
+     * @param p prime modulus.
+     * @return [e_1 -&gt; f_1, ..., e_k -&gt; f_k] with f = prod_{i=1,...,k}
+     *         f_i and f_i has only irreducible factors of degree e_i.
+     */
+    public static SortedMap<Long, long[]> distinctDegreeFactors(long[] f, long p) {
+        SortedMap<Long, long[]> facs = new TreeMap<Long, long[]>();
+        final Modulus mod = new Modulus(f, p);
+        final int n = mod.n;
+        if (n == 1) {
+            facs.put(1L, mod.f);
+            return facs;
+        }
+        final int l = Math.max(1, (int) Math.ceil(Math.sqrt(n / 2.0)));
+        final int mg = (n + 2 * l - 1) / (2 * l);
+        long[] x = new long[] { 0L, 1L };
+        long[] xp = mod.power(x, java.math.BigInteger.valueOf(p));
+        // baby steps h_i = x^(p^i), 0 <= i <= l
+        final long[][] h = new long[l + 1][];
+        h[0] = x;
+        h[1] = xp;
+        if (l > 1) {
+            Composition cp = new Composition(xp, mod, l - 1);
+            for (int i = 2; i <= l; i++) {
+                h[i] = cp.compose(h[i - 1]);
+            }
+        }
+        // giant steps H_j = x^(p^(l j)), 1 <= j <= mg
+        final long[][] H = new long[mg + 1][];
+        H[1] = h[l];
+        if (mg > 1) {
+            Composition cl = new Composition(h[l], mod, mg - 1);
+            for (int j = 2; j <= mg; j++) {
+                H[j] = cl.compose(H[j - 1]);
+            }
+        }
+        if (debug) {
+            logger.info("n = " + n + ", baby steps = " + l + ", giant steps = " + mg);
+        }
+        // interval polynomials I_j = prod_{i<l} (H_j - h_i) rem f
+        final long[][] I = new long[mg + 1][];
+        if (n >= PARALLEL_DEGREE && mg > 1 && !ComputerThreads.NO_THREADS) {
+            List<Callable<Boolean>> cs = new ArrayList<Callable<Boolean>>(mg);
+            for (int j = 1; j <= mg; j++) {
+                final int jj = j;
+                cs.add(new Callable<Boolean>() {
+
+
+                    public Boolean call() {
+                        I[jj] = intervalPolynomial(H[jj], h, l, mod);
+                        return true;
+                    }
+                });
+            }
+            ComputerThreads.invokeAll(cs, mg);
+        } else {
+            for (int j = 1; j <= mg; j++) {
+                I[j] = intervalPolynomial(H[j], h, l, mod);
+            }
+        }
+        // gcds with the intervals and refinement
+        long[] fs = mod.f;
+        for (int j = 1; j <= mg; j++) {
+            if (fs.length - 1 < 2 * (l * (j - 1) + 1)) {
+                break; // remaining factor is irreducible or one
+            }
+            long[] g = gcd(fs, remainder(I[j], fs, p), p);
+            if (g.length <= 1) {
+                continue;
+            }
+            fs = divide(fs, g, p);
+            for (int i = l - 1; i >= 0 && g.length > 1; i--) {
+                long[] d = subtract(H[j], h[i], p);
+                long[] gi = gcd(g, remainder(d, g, p), p);
+                if (gi.length > 1) {
+                    putFactor(facs, (long) (l * j - i), gi, p);
+                    g = divide(g, gi, p);
+                }
+            }
+            if (g.length > 1) { // should not happen
+                logger.warn("interval refinement incomplete: " + Arrays.toString(g));
+                putFactor(facs, (long) (g.length - 1), g, p);
+            }
+        }
+        if (fs.length > 1) {
+            putFactor(facs, (long) (fs.length - 1), fs, p);
+        }
+        return facs;
+    }
+
+
+    /**
+     * Interval polynomial prod_{i&lt;l} (H - h_i) rem f.
+     */
+    static long[] intervalPolynomial(long[] H, long[][] h, int l, Modulus mod) {
+        long[] r = new long[] { 1L };
+        for (int i = 0; i < l; i++) {
+            r = mod.multiply(r, subtract(H, h[i], mod.p));
+        }
+        return r;
+    }
+
+
+    /**
+     * Put a distinct degree factor to a map.
+     */
+    static void putFactor(SortedMap<Long, long[]> facs, Long e, long[] g, long p) {
+        long[] a = facs.get(e);
+        if (a != null) {
+            g = multiply(a, g, p);
+        }
+        facs.put(e, g);
+    }
+
+
+    /**
+     * Equal degree factorization.
+     * @param f squarefree and monic polynomial with only irreducible factors
+     *            of degree d.
+     * @param d degree of the irreducible factors.
+     * @param p prime modulus.
+     * @return [f_1,...,f_k] with f = prod_{i=1,...,k} f_i.
+     */
+    public static List<long[]> equalDegreeFactors(long[] f, long d, long p) {
+        List<long[]> facs = new ArrayList<long[]>();
+        f = normalize(f);
+        if (f.length - 1 <= d) {
+            facs.add(f);
+            return facs;
+        }
+        Modulus mod = new Modulus(f, p);
+        long[] xp = mod.power(new long[] { 0L, 1L }, java.math.BigInteger.valueOf(p));
+        equalDegreeFactors(mod, xp, d, facs);
+        return facs;
+    }
+
+
+    /**
+     * Equal degree factorization, recursion.
+     * @param mod polynomial modulus f.
+     * @param xp x^p rem f.
+     * @param d degree of the irreducible factors.
+     * @param facs list to which the factors are added.
+     */
+    static void equalDegreeFactors(Modulus mod, long[] xp, long d, List<long[]> facs) {
+        final long p = mod.p;
+        final int n = mod.n;
+        if (n <= d) {
+            facs.add(mod.f);
+            return;
+        }
+        java.math.BigInteger e = java.math.BigInteger.valueOf((p - 1L) / 2L);
+        long[] g;
+        do {
+            long[] a = new long[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = (random.nextLong() & Long.MAX_VALUE) % p;
+            }
+            a = normalize(a);
+            if (a.length <= 1) {
+                continue;
+            }
+            long[] b = frobeniusMap(a, xp, d, mod, p != 2L);
+            if (p == 2L) {
+                g = gcd(mod.f, b, p);
+            } else {
+                b = mod.power(b, e);
+                g = gcd(mod.f, subtract(b, new long[] { 1L }, p), p);
+            }
+            if (g.length > 1 && g.length <= n) {
+                break;
+            }
+        } while (true);
+        long[] q = divide(mod.f, g, p);
+        Modulus mg = new Modulus(g, p);
+        equalDegreeFactors(mg, mg.remainder(xp), d, facs);
+        Modulus mq = new Modulus(q, p);
+        equalDegreeFactors(mq, mq.remainder(xp), d, facs);
+    }
+
+
+    /**
+     * Norm or trace map with respect to the Frobenius. With sigma(u) = u(x^p)
+     * rem f computes prod_{i&lt;d} sigma^i(a) or sum_{i&lt;d} sigma^i(a) by
+     * repeated doubling using O(log(d)) modular compositions.
+     * @param a polynomial.
+     * @param xp x^p rem f.
+     * @param d number of Frobenius images.
+     * @param mod polynomial modulus f.
+     * @param norm true for the norm, false for the trace.
+     * @return norm or trace of a.
+     */
+    public static long[] frobeniusMap(long[] a, long[] xp, long d, Modulus mod, boolean norm) {
+        a = mod.remainder(a);
+        long[] A = a; // A_k = prod_{i<k} sigma^i(a)
+        long[] X = xp; // X_k = x^(p^k)
+        Composition cx = null;
+        int bits = 64 - Long.numberOfLeadingZeros(d);
+        for (int i = bits - 2; i >= 0; i--) {
+            // doubling: A_2k = A_k sigma^k(A_k), X_2k = X_k(X_k)
+            Composition ck = new Composition(X, mod, 2);
+            long[] S = ck.compose(A);
+            A = norm ? mod.multiply(A, S) : sum(A, S, mod.p);
+            if (i > 0) {
+                X = ck.compose(X);
+            }
+            if (((d >>> i) & 1L) != 0L) {
+                // increment: A_k+1 = a sigma(A_k), X_k+1 = X_k(x^p)
+                if (cx == null) {
+                    cx = new Composition(xp, mod, bits);
+                }
+                S = cx.compose(A);
+                A = norm ? mod.multiply(a, S) : sum(a, S, mod.p);
+                if (i > 0) {
+                    X = cx.compose(X);
+                }
+            }
+        }
+        return A;
+    }
+
+}
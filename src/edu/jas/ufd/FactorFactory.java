@@ -10,6 +10,8 @@ import org.apache.logging.log4j.Logger;
 
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.GaloisFieldElem;
+import edu.jas.arith.GaloisFieldRing;
 import edu.jas.arith.ModInt;
 import edu.jas.arith.ModIntRing;
 import edu.jas.arith.ModInteger;
@@ -102,6 +104,17 @@ public class FactorFactory {
     }
 
 
+    /**
+     * Determine suitable implementation of factorization algorithm, case
+     * GaloisFieldElem.
+     * @param fac GaloisFieldRing.
+     * @return factorization algorithm implementation.
+     */
+    public static FactorAbstract<GaloisFieldElem> getImplementation(GaloisFieldRing fac) {
+        return new FactorGaloisField(fac);
+    }
+
+
     /**
      * Determine suitable implementation of factorization algorithm, case
      * BigInteger.
@@ -116,6 +129,20 @@ public class FactorFactory {
     }
 
 
+    /**
+     * Determine suitable parallel implementation of factorization algorithm,
+     * case BigInteger.
+     * @param fac BigInteger.
+     * @return parallel factorization algorithm implementation.
+     */
+    public static FactorAbstract<BigInteger> getParallelImplementation(BigInteger fac) {
+        if (fac == null) {
+            throw new IllegalArgumentException("fac == null not supported");
+        }
+        return new FactorIntegerPar<ModLong>(fac);
+    }
+
+
     /**
      * Determine suitable implementation of factorization algorithms, case
      * BigRational.
@@ -208,6 +235,8 @@ public class FactorFactory {
             ufd = new FactorModular(fac);
         } else if (ofac instanceof ModIntRing) {
             ufd = new FactorModular(fac);
+        } else if (ofac instanceof GaloisFieldRing) {
+            ufd = new FactorGaloisField((GaloisFieldRing) ofac);
         } else if (ofac instanceof ComplexRing) {
             cfac = (ComplexRing<C>) ofac;
             ufd = new FactorComplex(cfac);
@@ -0,0 +1,215 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.GaloisFieldElem;
+import edu.jas.arith.GaloisFieldRing;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.Power;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Galois field GF(p<sup>k</sup>) coefficients factorization algorithms. This
+ * class implements the distinct degree and equal degree factorization of
+ * Cantor and Zassenhaus with respect to the field size q = p<sup>k</sup>, in
+ * characteristic 2 the equal degree splitting uses the trace map.
+ * @author Heinz Kredel
+ */
+
+public class FactorGaloisField extends FactorAbsolute<GaloisFieldElem> {
+
+
+    private static final Logger logger = LogManager.getLogger(FactorGaloisField.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * No argument constructor, do not use.
+     */
+    @SuppressWarnings("unused")
+    private FactorGaloisField() {
+        this(new GaloisFieldRing(2L, 2)); // hack, 2^2 unimportant
+    }
+
+
+    /**
+     * Constructor.
+     * @param cfac coefficient ring factory.
+     */
+    public FactorGaloisField(RingFactory<GaloisFieldElem> cfac) {
+        super(cfac);
+    }
+
+
+    /**
+     * GenPolynomial base distinct degree factorization.
+     * @param P squarefree and monic GenPolynomial.
+     * @return [e_1 -&gt; p_1, ..., e_k -&gt; p_k] with P = prod_{i=1,...,k} p_i
+     *         and p_i has only irreducible factors of degree e_i.
+     */
+    public SortedMap<Long, GenPolynomial<GaloisFieldElem>> baseDistinctDegreeFactors(
+                    GenPolynomial<GaloisFieldElem> P) {
+        if (P == null) {
+            throw new IllegalArgumentException(this.getClass().getName() + " P != null");
+        }
+        SortedMap<Long, GenPolynomial<GaloisFieldElem>> facs = new TreeMap<Long, GenPolynomial<GaloisFieldElem>>();
+        if (P.isZERO()) {
+            return facs;
+        }
+        GenPolynomialRing<GaloisFieldElem> pfac = P.ring;
+        if (pfac.nvar > 1) {
+            throw new IllegalArgumentException(
+                            this.getClass().getName() + " only for univariate polynomials");
+        }
+        java.math.BigInteger q = java.math.BigInteger.valueOf(((GaloisFieldRing) pfac.coFac).size);
+        GenPolynomial<GaloisFieldElem> x = pfac.univariate(0);
+        GenPolynomial<GaloisFieldElem> h = x;
+        GenPolynomial<GaloisFieldElem> f = P;
+        GenPolynomial<GaloisFieldElem> g;
+        Power<GenPolynomial<GaloisFieldElem>> pow = new Power<GenPolynomial<GaloisFieldElem>>(pfac);
+        long d = 0;
+        while (d + 1 <= f.degree(0) / 2) {
+            d++;
+            h = pow.modPower(h, q, f);
+            g = engine.gcd(h.subtract(x), f);
+            if (!g.isONE()) {
+                facs.put(d, g);
+                f = f.divide(g);
+                h = h.remainder(f);
+            }
+        }
+        if (!f.isONE()) {
+            d = f.degree(0);
+            facs.put(d, f);
+        }
+        return facs;
+    }
+
+
+    /**
+     * GenPolynomial base equal degree factorization.
+     * @param P squarefree and monic GenPolynomial.
+     * @param deg such that P has only irreducible factors of degree deg.
+     * @return [p_1,...,p_k] with P = prod_{i=1,...,r} p_i.
+     */
+    public List<GenPolynomial<GaloisFieldElem>> baseEqualDegreeFactors(GenPolynomial<GaloisFieldElem> P,
+                    long deg) {
+        if (P == null) {
+            throw new IllegalArgumentException(this.getClass().getName() + " P != null");
+        }
+        List<GenPolynomial<GaloisFieldElem>> facs = new ArrayList<GenPolynomial<GaloisFieldElem>>();
+        if (P.isZERO()) {
+            return facs;
+        }
+        GenPolynomialRing<GaloisFieldElem> pfac = P.ring;
+        if (pfac.nvar > 1) {
+            throw new IllegalArgumentException(
+                            this.getClass().getName() + " only for univariate polynomials");
+        }
+        if (P.degree(0) == deg) {
+            facs.add(P);
+            return facs;
+        }
+        GaloisFieldRing gf = (GaloisFieldRing) pfac.coFac;
+        boolean p2 = (gf.p == 2L);
+        GenPolynomial<GaloisFieldElem> one = pfac.getONE();
+        GenPolynomial<GaloisFieldElem> r;
+        GenPolynomial<GaloisFieldElem> h;
+        GenPolynomial<GaloisFieldElem> f = P;
+        Power<GenPolynomial<GaloisFieldElem>> pow = new Power<GenPolynomial<GaloisFieldElem>>(pfac);
+        GenPolynomial<GaloisFieldElem> g = null;
+        int degi = (int) f.degree(0);
+        // (q^deg - 1)/2 respectively trace length k*deg
+        java.math.BigInteger d = java.math.BigInteger.valueOf(gf.size).pow((int) deg).shiftRight(1);
+        long td = gf.k * deg;
+        do {
+            do {
+                r = pfac.random(degi, degi, degi, 1.0f);
+                if (r.degree(0) >= degi) {
+                    r = r.remainder(f);
+                }
+            } while (r.isConstant());
+            if (p2) {
+                h = r;
+                for (long i = 1; i < td; i++) {
+                    r = r.multiply(r).remainder(f);
+                    h = h.sum(r);
+                }
+            } else {
+                h = pow.modPower(r, d, f).subtract(one);
+            }
+            g = engine.gcd(h, f);
+        } while (g.degree(0) == 0 || g.degree(0) == f.degree(0));
+        f = f.divide(g);
+        facs.addAll(baseEqualDegreeFactors(f, deg));
+        facs.addAll(baseEqualDegreeFactors(g, deg));
+        return facs;
+    }
+
+
+    /**
+     * GenPolynomial base factorization of a squarefree polynomial.
+     * @param P squarefree and monic! GenPolynomial.
+     * @return [p_1,...,p_k] with P = prod_{i=1,...,r} p_i.
+     */
+    @Override
+    public List<GenPolynomial<GaloisFieldElem>> baseFactorsSquarefree(GenPolynomial<GaloisFieldElem> P) {
+        if (P == null) {
+            throw new IllegalArgumentException(this.getClass().getName() + " P == null");
+        }
+        List<GenPolynomial<GaloisFieldElem>> factors = new ArrayList<GenPolynomial<GaloisFieldElem>>();
+        if (P.isZERO()) {
+            return factors;
+        }
+        if (P.isONE()) {
+            factors.add(P);
+            return factors;
+        }
+        GenPolynomialRing<GaloisFieldElem> pfac = P.ring;
+        if (pfac.nvar > 1) {
+            throw new IllegalArgumentException(
+                            this.getClass().getName() + " only for univariate polynomials");
+        }
+        if (!P.leadingBaseCoefficient().isONE()) {
+            throw new IllegalArgumentException("ldcf(P) != 1: " + P);
+        }
+        SortedMap<Long, GenPolynomial<GaloisFieldElem>> dfacs = baseDistinctDegreeFactors(P);
+        if (debug) {
+            logger.info("dfacs    = " + dfacs);
+        }
+        for (Map.Entry<Long, GenPolynomial<GaloisFieldElem>> me : dfacs.entrySet()) {
+            Long e = me.getKey();
+            GenPolynomial<GaloisFieldElem> f = me.getValue();
+            List<GenPolynomial<GaloisFieldElem>> efacs = baseEqualDegreeFactors(f, e);
+            if (debug) {
+                logger.info("efacs " + e + "   = " + efacs);
+            }
+            factors.addAll(efacs);
+        }
+        factors = PolyUtil.<GaloisFieldElem> monic(factors);
+        SortedSet<GenPolynomial<GaloisFieldElem>> ss = new TreeSet<GenPolynomial<GaloisFieldElem>>(factors);
+        factors.clear();
+        factors.addAll(ss);
+        return factors;
+    }
+
+}
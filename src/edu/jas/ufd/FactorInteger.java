@@ -10,11 +10,13 @@ import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.SortedMap;
+import java.util.function.Function;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
 
 import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
 import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Modular;
@@ -32,6 +34,8 @@ import edu.jas.structure.Power;
 import edu.jas.structure.RingElem;
 import edu.jas.structure.RingFactory;
 import edu.jas.util.KsubSet;
+import edu.jas.util.MapEntry;
+import edu.jas.vector.LatticeReduction;
 
 
 /**
@@ -49,6 +53,13 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
     private static final boolean debug = logger.isDebugEnabled();
 
 
+    /**
+     * Minimal number of modular factors for lattice based factor
+     * recombination.
+     */
+    public static final int LATTICE_FACTORS = 8;
+
+
     /**
      * Factorization engine for modular base coefficients.
      */
@@ -199,8 +210,12 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         if (degi > 100) {
             TT += 2;
         }
-        List<GenPolynomial<MOD>>[] modfac = new List[TT];
-        List<GenPolynomial<BigInteger>>[] intfac = new List[TT];
+        List<List<GenPolynomial<MOD>>> modfac = new ArrayList<List<GenPolynomial<MOD>>>(TT);
+        List<List<GenPolynomial<BigInteger>>> intfac = new ArrayList<List<GenPolynomial<BigInteger>>>(TT);
+        for (int k = 0; k < TT; k++) {
+            modfac.add(null);
+            intfac.add(null);
+        }
         BigInteger[] plist = new BigInteger[TT];
         List<GenPolynomial<MOD>> mlist = null;
         List<GenPolynomial<BigInteger>> ilist = null;
@@ -215,6 +230,8 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         pit.next(); // skip p = 2
         pit.next(); // skip p = 3
         MOD nf = null;
+        List<GenPolynomial<MOD>> mpoly = new ArrayList<GenPolynomial<MOD>>(TT);
+        List<MOD> mldcf = new ArrayList<MOD>(TT);
         for (int k = 0; k < TT; k++) {
             if (k == TT - 1) { // -2
                 primes = new PrimeList(PrimeList.Range.medium);
@@ -260,47 +277,51 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
                     break;
                 }
             }
-            // now am is squarefree mod p, make monic and factor mod p
+            // now am is squarefree mod p, make monic
             if (!nf.isONE()) {
                 //System.out.println("nf = " + nf);
                 am = am.divide(nf); // make monic
             }
-            mlist = mfactor.baseFactorsSquarefree(am);
-            if (logger.isInfoEnabled()) {
-                logger.info("modlist  = " + mlist);
-            }
-            if (mlist.size() <= 1) {
+            mpoly.add(am);
+            mldcf.add(nf);
+            plist[k] = cofac.getIntegerModul(); // p
+        }
+        // factor mod p
+        List<List<GenPolynomial<MOD>>> mfacs = modularFactorsSquarefree(mpoly);
+        for (int k = 0; k < TT; k++) {
+            mlist = mfacs.get(k);
+            if (mlist == null || mlist.size() <= 1) {
                 factors.add(P);
                 return factors;
             }
+            nf = mldcf.get(k);
             if (!nf.isONE()) {
-                GenPolynomial<MOD> mp = mfac.getONE(); //mlist.get(0);
+                GenPolynomial<MOD> mp = mpoly.get(k).ring.getONE(); //mlist.get(0);
                 //System.out.println("mp = " + mp);
                 mp = mp.multiply(nf);
                 //System.out.println("mp = " + mp);
                 mlist.add(0, mp); // set(0,mp);
             }
-            modfac[k] = mlist;
-            plist[k] = cofac.getIntegerModul(); // p
+            modfac.set(k, mlist);
         }
 
         // search shortest factor list
         int min = Integer.MAX_VALUE;
         BitSet AD = null;
         for (int k = 0; k < TT; k++) {
-            List<ExpVector> ev = PolyUtil.<MOD> leadingExpVector(modfac[k]);
+            List<ExpVector> ev = PolyUtil.<MOD> leadingExpVector(modfac.get(k));
             BitSet D = factorDegrees(ev, degi);
             if (AD == null) {
                 AD = D;
             } else {
                 AD.and(D);
             }
-            int s = modfac[k].size();
+            int s = modfac.get(k).size();
             logger.info("mod(" + plist[k] + ") #s = " + s + ", D = " + D /*+ ", lt = " + ev*/);
             //System.out.println("mod s = " + s);
             if (s < min) {
                 min = s;
-                mlist = modfac[k];
+                mlist = modfac.get(k);
             }
         }
         logger.info("min = " + min + ", AD = " + AD);
@@ -319,7 +340,7 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         if (allLists) {
             // try each factor list
             for (int k = 0; k < TT; k++) {
-                mlist = modfac[k];
+                mlist = modfac.get(k);
                 if (debug) {
                     logger.info("lifting from " + mlist);
                 }
@@ -331,13 +352,20 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
                 } else {
                     factors = searchFactorsNonMonic(P, M, mlist, AD);
                 }
-                intfac[k] = factors;
+                intfac.set(k, factors);
             }
         } else {
             // try only shortest factor list
             if (debug) {
                 logger.info("lifting shortest from " + mlist);
             }
+            if (mlist.size() > LATTICE_FACTORS) {
+                List<GenPolynomial<BigInteger>> lfactors = searchFactorsLattice(P, mlist);
+                if (lfactors != null) {
+                    return normalizeFactorization(lfactors);
+                }
+                logger.warn("lattice recombination failed, reverting to factor combination");
+            }
             if (P.leadingBaseCoefficient().isONE()) {
                 long t = System.currentTimeMillis();
                 try {
@@ -345,14 +373,14 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
                     factors = searchFactorsMonic(P, M, mlist, AD); // does now work in all cases
                     t = System.currentTimeMillis() - t;
                     //System.out.println("monic time = " + t);
-                    intfac[0] = factors;
+                    intfac.set(0, factors);
                     if (debug) {
                         t = System.currentTimeMillis();
                         List<GenPolynomial<BigInteger>> fnm = searchFactorsNonMonic(P, M, mlist, AD);
                         t = System.currentTimeMillis() - t;
                         System.out.println("non monic time = " + t);
                         if (!factors.equals(fnm)) {
-                            System.out.println("monic factors     = " + intfac[0]); //factors);
+                            System.out.println("monic factors     = " + intfac.get(0)); //factors);
                             System.out.println("non monic factors = " + fnm);
                         }
                     }
@@ -374,11 +402,11 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         // search longest factor list
         int max = 0;
         for (int k = 0; k < TT; k++) {
-            int s = intfac[k].size();
+            int s = intfac.get(k).size();
             logger.info("int s = " + s);
             if (s > max) {
                 max = s;
-                ilist = intfac[k];
+                ilist = intfac.get(k);
             }
         }
         factors = normalizeFactorization(ilist);
@@ -408,6 +436,63 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
     }
 
 
+    /**
+     * Modular factorizations of squarefree polynomials.
+     * @param A list of monic squarefree univariate polynomials modulo
+     *            different primes.
+     * @return [F_0, ..., F_{k-1}] with F_i the list of irreducible factors of
+     *         A_i. The computation stops after the first irreducible A_i, the
+     *         remaining F_j are then null.
+     */
+    protected List<List<GenPolynomial<MOD>>> modularFactorsSquarefree(List<GenPolynomial<MOD>> A) {
+        List<List<GenPolynomial<MOD>>> mfacs = new ArrayList<List<GenPolynomial<MOD>>>(A.size());
+        for (int k = 0; k < A.size(); k++) {
+            List<GenPolynomial<MOD>> mlist = mfactor.baseFactorsSquarefree(A.get(k));
+            if (logger.isInfoEnabled()) {
+                logger.info("modlist  = " + mlist);
+            }
+            mfacs.add(mlist);
+            if (mlist.size() <= 1) {
+                break;
+            }
+        }
+        while (mfacs.size() < A.size()) {
+            mfacs.add(null);
+        }
+        return mfacs;
+    }
+
+
+    /**
+     * Search a successful factor trial. The subsets of size j of the modular
+     * factors are tested in the order given by <code>KsubSet</code>, subsets
+     * with impossible degree are skipped.
+     * @param L list of modular factors.
+     * @param j size of subsets.
+     * @param D bit set of possible factor degrees.
+     * @param trial test function, returns null for unsuccessful trials.
+     * @return (flist,t) for the first subset flist of L with t = trial(flist)
+     *         != null, or null if no trial is successful.
+     */
+    protected <T> MapEntry<List<GenPolynomial<MOD>>, T> searchTrial(List<GenPolynomial<MOD>> L, int j,
+                    BitSet D, Function<List<GenPolynomial<MOD>>, T> trial) {
+        KsubSet<GenPolynomial<MOD>> ps = new KsubSet<GenPolynomial<MOD>>(L, j);
+        for (List<GenPolynomial<MOD>> flist : ps) {
+            if (!D.get((int) FactorInteger.<MOD> degreeSum(flist))) {
+                if (debug) {
+                    logger.info("skipped by degree set " + D + ", deg = " + degreeSum(flist));
+                }
+                continue;
+            }
+            T t = trial.apply(flist);
+            if (t != null) {
+                return new MapEntry<List<GenPolynomial<MOD>>, T>(flist, t);
+            }
+        }
+        return null;
+    }
+
+
     /**
      * Sum of all degrees.
      * @param L univariate polynomial list.
@@ -495,48 +580,39 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         //System.out.println("ldcf = " + ldcf); 
         for (int j = 1; j <= dl; j++) {
             //System.out.println("j = " + j + ", dl = " + dl + ", lift = " + lift); 
-            KsubSet<GenPolynomial<MOD>> ps = new KsubSet<GenPolynomial<MOD>>(lift, j);
-            for (List<GenPolynomial<MOD>> flist : ps) {
-                //System.out.println("degreeSum = " + degreeSum(flist));
-                if (!D.get((int) FactorInteger.<MOD> degreeSum(flist))) {
-                    logger.info("skipped by degree set " + D + ", deg = " + degreeSum(flist));
-                    continue;
-                }
-                GenPolynomial<MOD> mtrial = Power.<GenPolynomial<MOD>> multiply(mpfac, flist);
-                //GenPolynomial<MOD> mtrial = mpfac.getONE();
-                //for (int kk = 0; kk < flist.size(); kk++) {
-                //    GenPolynomial<MOD> fk = flist.get(kk);
-                //    mtrial = mtrial.multiply(fk);
-                //}
-                //System.out.println("+flist = " + flist + ", mtrial = " + mtrial);
-                if (mtrial.degree(0) > deg) { // this test is sometimes wrong
-                    logger.info("degree " + mtrial.degree(0) + " > deg " + deg);
-                    //continue;
-                }
-                //System.out.println("+flist    = " + flist);
-                GenPolynomial<BigInteger> trial = PolyUtil.integerFromModularCoefficients(pfac, mtrial);
-                //System.out.println("+trial = " + trial);
-                //trial = engine.basePrimitivePart( trial.multiply(ldcf) );
-                trial = engine.basePrimitivePart(trial);
-                //System.out.println("pp(trial)= " + trial);
-                if (PolyUtil.<BigInteger> baseSparsePseudoRemainder(u, trial).isZERO()) {
-                    logger.info("successful trial = " + trial);
-                    //System.out.println("trial    = " + trial);
-                    //System.out.println("flist    = " + flist);
-                    //trial = engine.basePrimitivePart(trial);
-                    //System.out.println("pp(trial)= " + trial);
-                    factors.add(trial);
-                    u = PolyUtil.<BigInteger> basePseudoDivide(u, trial); //u.divide( trial );
-                    //System.out.println("u        = " + u);
-                    //if (lift.removeAll(flist)) {
-                    lift = removeOnce(lift, flist);
-                    logger.info("new lift= " + lift);
-                    dl = (lift.size() + 1) / 2;
-                    //System.out.println("dl = " + dl); 
-                    j = 0; // since j++
-                    break;
-                    //} logger.error("error removing flist from lift = " + lift);
-                }
+            final GenPolynomial<BigInteger> uu = u;
+            MapEntry<List<GenPolynomial<MOD>>, GenPolynomial<BigInteger>> ft = searchTrial(lift, j, D,
+                            new Function<List<GenPolynomial<MOD>>, GenPolynomial<BigInteger>>() {
+
+
+                                public GenPolynomial<BigInteger> apply(List<GenPolynomial<MOD>> flist) {
+                                    GenPolynomial<MOD> mtrial = Power.<GenPolynomial<MOD>> multiply(mpfac,
+                                                    flist);
+                                    //System.out.println("+flist = " + flist + ", mtrial = " + mtrial);
+                                    GenPolynomial<BigInteger> trial = PolyUtil
+                                                    .integerFromModularCoefficients(pfac, mtrial);
+                                    //System.out.println("+trial = " + trial);
+                                    trial = engine.basePrimitivePart(trial);
+                                    //System.out.println("pp(trial)= " + trial);
+                                    if (PolyUtil.<BigInteger> baseSparsePseudoRemainder(uu, trial).isZERO()) {
+                                        return trial;
+                                    }
+                                    return null;
+                                }
+                            });
+            if (ft != null) {
+                GenPolynomial<BigInteger> trial = ft.getValue();
+                logger.info("successful trial = " + trial);
+                //System.out.println("trial    = " + trial);
+                //System.out.println("flist    = " + flist);
+                factors.add(trial);
+                u = PolyUtil.<BigInteger> basePseudoDivide(u, trial); //u.divide( trial );
+                //System.out.println("u        = " + u);
+                lift = removeOnce(lift, ft.getKey());
+                logger.info("new lift= " + lift);
+                dl = (lift.size() + 1) / 2;
+                //System.out.println("dl = " + dl); 
+                j = 0; // since j++
             }
         }
         if (!u.isONE() && !u.equals(P)) {
@@ -603,85 +679,374 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         GenPolynomial<MOD> um = Pm;
         //BigInteger ldcf = u.leadingBaseCoefficient();
         //System.out.println("ldcf = " + ldcf); 
-        HenselApprox<MOD> ilist = null;
         for (int j = 1; j <= dl; j++) {
-            //System.out.println("j = " + j + ", dl = " + dl + ", ilist = " + ilist); 
-            KsubSet<GenPolynomial<MOD>> ps = new KsubSet<GenPolynomial<MOD>>(mlist, j);
-            for (List<GenPolynomial<MOD>> flist : ps) {
-                //System.out.println("degreeSum = " + degreeSum(flist));
-                if (!D.get((int) FactorInteger.<MOD> degreeSum(flist))) {
-                    logger.info("skipped by degree set " + D + ", deg = " + degreeSum(flist));
-                    continue;
+            //System.out.println("j = " + j + ", dl = " + dl + ", mlist = " + mlist); 
+            final GenPolynomial<BigInteger> uu = u;
+            final GenPolynomial<MOD> uum = um;
+            final MOD mnf = nf;
+            MapEntry<List<GenPolynomial<MOD>>, HenselApprox<MOD>> ft = searchTrial(mlist, j, D,
+                            new Function<List<GenPolynomial<MOD>>, HenselApprox<MOD>>() {
+
+
+                                public HenselApprox<MOD> apply(List<GenPolynomial<MOD>> flist) {
+                                    GenPolynomial<MOD> trial = mfac.getONE().multiply(mnf);
+                                    for (int kk = 0; kk < flist.size(); kk++) {
+                                        GenPolynomial<MOD> fk = flist.get(kk);
+                                        trial = trial.multiply(fk);
+                                    }
+                                    GenPolynomial<MOD> cofactor = uum.divide(trial);
+                                    //System.out.println("trial    = " + trial);
+                                    //System.out.println("cofactor = " + cofactor);
+
+                                    // lift via Hensel
+                                    HenselApprox<MOD> ilist;
+                                    try {
+                                        // ilist = HenselUtil.liftHenselQuadraticFac(uu, M, trial, cofactor);
+                                        ilist = HenselUtil.<MOD> liftHenselQuadratic(uu, M, trial, cofactor);
+                                        //ilist = HenselUtil.<MOD> liftHensel(uu, M, trial, cofactor);
+                                    } catch (NoLiftingException e) {
+                                        // no liftable factors
+                                        if ( /*debug*/logger.isDebugEnabled()) {
+                                            logger.info("no liftable factors " + e);
+                                            //e.printStackTrace();
+                                        }
+                                        return null;
+                                    }
+                                    GenPolynomial<BigInteger> itrial = ilist.A;
+                                    GenPolynomial<BigInteger> icofactor = ilist.B;
+                                    if (logger.isDebugEnabled()) {
+                                        logger.info("       modlist = " + trial + ", cofactor " + cofactor);
+                                        logger.info("lifted intlist = " + itrial + ", cofactor " + icofactor);
+                                    }
+                                    itrial = engine.basePrimitivePart(itrial);
+                                    //System.out.println("pp(trial)= " + itrial);
+                                    if (PolyUtil.<BigInteger> baseSparsePseudoRemainder(uu, itrial).isZERO()) {
+                                        return new HenselApprox<MOD>(itrial, icofactor, trial, cofactor);
+                                    }
+                                    return null;
+                                }
+                            });
+            if (ft != null) {
+                HenselApprox<MOD> ilist = ft.getValue();
+                logger.info("successful trial = " + ilist.A);
+                //System.out.println("trial    = " + ilist.A);
+                //System.out.println("cofactor = " + ilist.B);
+                factors.add(ilist.A);
+                u = ilist.B;
+                PP = u; // fixed finally on 2009-05-03
+                um = ilist.Bm;
+                //System.out.println("u        = " + u);
+                //System.out.println("um       = " + um);
+                mlist = removeOnce(mlist, ft.getKey());
+                logger.info("new mlist= " + mlist);
+                dl = (mlist.size() + 1) / 2;
+                j = 0; // since j++
+            }
+        }
+        if (!u.isONE() && !u.equals(P)) {
+            logger.info("rest u = " + u);
+            factors.add(u);
+        }
+        if (factors.size() == 0) {
+            logger.info("irred u = " + PP);
+            factors.add(PP);
+        }
+        return normalizeFactorization(factors);
+    }
+
+
+    /**
+     * Factor search with lattice reduction, van Hoeij's knapsack factor
+     * recombination. The polynomial C is transformed to the monic polynomial
+     * Q(x) = lc(C)^{n-1} C(x/lc(C)) and the modular factors are lifted to a
+     * sufficient precision p^k. For each lifted factor g_i the power sums of
+     * its roots are computed. The true factors of Q correspond to 0-1 vectors
+     * e with small sum_i e_i Tr_j(g_i) mod p^k, which are found by LLL
+     * reduction of a lattice built from the truncated power sums. Power sums
+     * are added in small batches until the reduced lattice describes a
+     * partition of the modular factors.
+     * @param C squarefree and primitive univariate GenPolynomial.
+     * @param F = [f_0,...,f_{n-1}] List&lt;GenPolynomial&gt; of modular factors
+     *            of C, optionally with the leading coefficient as first
+     *            constant polynomial.
+     * @return [g_0,...,g_{k-1}] with C = prod_{0,...,k-1} g_i, or null if the
+     *         recombination did not succeed.
+     */
+    @SuppressWarnings("unchecked")
+    List<GenPolynomial<BigInteger>> searchFactorsLattice(GenPolynomial<BigInteger> C,
+                    List<GenPolynomial<MOD>> F) {
+        if (C == null || C.isZERO() || F == null || F.size() == 0) {
+            throw new IllegalArgumentException("C must be nonzero and F must be nonempty");
+        }
+        GenPolynomialRing<BigInteger> pfac = C.ring;
+        if (pfac.nvar != 1) { // assert ?
+            throw new IllegalArgumentException("polynomial ring not univariate");
+        }
+        List<GenPolynomial<MOD>> mlist = new ArrayList<GenPolynomial<MOD>>(F.size());
+        for (GenPolynomial<MOD> f : F) {
+            if (!f.isConstant()) {
+                mlist.add(f.monic());
+            }
+        }
+        int r = mlist.size();
+        if (r <= 1) {
+            List<GenPolynomial<BigInteger>> factors = new ArrayList<GenPolynomial<BigInteger>>(1);
+            factors.add(C);
+            return factors;
+        }
+        int n = (int) C.degree(0);
+        GenPolynomialRing<MOD> mfac = mlist.get(0).ring;
+        ModularRingFactory<MOD> mcfac = (ModularRingFactory<MOD>) mfac.coFac;
+        BigInteger ldcf = C.leadingBaseCoefficient();
+        MOD lm = mcfac.fromInteger(ldcf.getVal());
+
+        // monic transformation Q(x) = ldcf^(n-1) C(x/ldcf) and its factors mod p
+        GenPolynomial<BigInteger> Q = pfac.getZERO();
+        for (int i = 0; i <= n; i++) {
+            BigInteger a = C.coefficient(pfac.univariate(0, i).leadingExpVector());
+            if (a.isZERO()) {
+                continue;
+            }
+            if (i == n) {
+                a = pfac.coFac.getONE();
+            } else {
+                a = a.multiply(ldcf.power(n - 1 - i));
+            }
+            Q = Q.sum(a, pfac.univariate(0, i).leadingExpVector());
+        }
+        List<GenPolynomial<MOD>> qlist = new ArrayList<GenPolynomial<MOD>>(r);
+        for (GenPolynomial<MOD> f : mlist) {
+            int d = (int) f.degree(0);
+            GenPolynomial<MOD> g = mfac.getZERO();
+            for (int i = 0; i <= d; i++) {
+                ExpVector e = mfac.univariate(0, i).leadingExpVector();
+                MOD a = f.coefficient(e);
+                if (!a.isZERO()) {
+                    g = g.sum(a.multiply(lm.power(d - i)), e);
                 }
-                GenPolynomial<MOD> trial = mfac.getONE().multiply(nf);
-                for (int kk = 0; kk < flist.size(); kk++) {
-                    GenPolynomial<MOD> fk = flist.get(kk);
-                    trial = trial.multiply(fk);
+            }
+            qlist.add(g);
+        }
+
+        // root bound 2^rb and bounds 2^b_j for power sums of factors
+        int rb = 0;
+        for (int i = 1; i <= n; i++) {
+            BigInteger a = Q.coefficient(pfac.univariate(0, n - i).leadingExpVector());
+            int bl = a.getVal().bitLength();
+            rb = Math.max(rb, (bl + i - 1) / i);
+        }
+        rb += 1;
+        int smax = Math.min(n, r);
+        int t = Math.min(smax, 4);
+        int[] bj = new int[smax + 1];
+        int bn = java.math.BigInteger.valueOf(n).bitLength();
+        for (int j = 1; j <= smax; j++) {
+            bj[j] = bn + j * rb + 1;
+        }
+        int rl = java.math.BigInteger.valueOf(r).bitLength();
+        int extra = r + t + 2 * rl + 16;
+        // coefficient bound for factors of Q
+        java.math.BigInteger M = Q.maxNorm().getVal().shiftLeft(n + bn + 1);
+        java.math.BigInteger bound = M.max(java.math.BigInteger.ONE.shiftLeft(bj[smax] + extra));
+        java.math.BigInteger p = mcfac.getIntegerModul().getVal();
+        long k = 1;
+        java.math.BigInteger pk = p;
+        while (pk.compareTo(bound) <= 0) {
+            k++;
+            pk = pk.multiply(p);
+        }
+        logger.info("lattice recombination: r = " + r + ", smax = " + smax + ", p^k = " + p + "^" + k);
+        List<GenPolynomial<MOD>> lift;
+        try {
+            lift = HenselUtil.<MOD> liftHenselMonic(Q, qlist, k);
+        } catch (NoLiftingException e) {
+            logger.info("no lifting " + e);
+            return null;
+        }
+        GenPolynomialRing<MOD> lfac = lift.get(0).ring;
+
+        // truncated power sums of the lifted factors
+        java.math.BigInteger[][] ct = new java.math.BigInteger[r][smax + 1];
+        for (int i = 0; i < r; i++) {
+            List<MOD> ps = HenselUtil.<MOD> powerSums(lift.get(i), smax);
+            for (int j = 1; j <= smax; j++) {
+                ct[i][j] = ps.get(j - 1).getSymmetricInteger().getVal().shiftRight(bj[j]);
+            }
+        }
+
+        // lattice reduction with batches of power sums
+        LatticeReduction lll = new LatticeReduction(new BigRational(99, 100));
+        java.math.BigInteger[][] B = new java.math.BigInteger[r][r];
+        for (int i = 0; i < r; i++) {
+            for (int j = 0; j < r; j++) {
+                B[i][j] = (i == j ? java.math.BigInteger.ONE : java.math.BigInteger.ZERO);
+            }
+        }
+        for (int j0 = 1; j0 <= smax; j0 += t) {
+            int tt = Math.min(t, smax - j0 + 1);
+            int d = B.length;
+            java.math.BigInteger[][] L = new java.math.BigInteger[d + tt][r + tt];
+            for (int l = 0; l < d; l++) {
+                for (int i = 0; i < r; i++) {
+                    L[l][i] = B[l][i];
                 }
-                if (trial.degree(0) > deg) { // this test is sometimes wrong
-                    logger.info("degree > deg " + deg + ", degree = " + trial.degree(0));
-                    //continue;
+                for (int j = 0; j < tt; j++) {
+                    java.math.BigInteger v = java.math.BigInteger.ZERO;
+                    for (int i = 0; i < r; i++) {
+                        if (B[l][i].signum() != 0) {
+                            v = v.add(B[l][i].multiply(ct[i][j0 + j]));
+                        }
+                    }
+                    L[l][r + j] = v;
                 }
-                GenPolynomial<MOD> cofactor = um.divide(trial);
-                //System.out.println("trial    = " + trial);
-                //System.out.println("cofactor = " + cofactor);
-
-                // lift via Hensel
-                try {
-                    // ilist = HenselUtil.liftHenselQuadraticFac(PP, M, trial, cofactor);
-                    ilist = HenselUtil.<MOD> liftHenselQuadratic(PP, M, trial, cofactor);
-                    //ilist = HenselUtil.<MOD> liftHensel(PP, M, trial, cofactor);
-                } catch (NoLiftingException e) {
-                    // no liftable factors
-                    if ( /*debug*/logger.isDebugEnabled()) {
-                        logger.info("no liftable factors " + e);
-                        //e.printStackTrace();
+            }
+            for (int j = 0; j < tt; j++) {
+                for (int i = 0; i < r + tt; i++) {
+                    L[d + j][i] = java.math.BigInteger.ZERO;
+                }
+                L[d + j][r + j] = pk.shiftRight(bj[j0 + j]);
+            }
+            java.math.BigInteger[] dg;
+            try {
+                dg = lll.reduce(L);
+            } catch (IllegalArgumentException e) {
+                logger.info("lattice reduction failed " + e);
+                return null;
+            }
+            // remove vectors with long Gram-Schmidt vectors
+            long w = 2L * r + 2L;
+            java.math.BigInteger b2 = java.math.BigInteger.valueOf(r + tt * w * w);
+            int m = L.length;
+            while (m > 0 && dg[m].compareTo(b2.multiply(dg[m - 1])) > 0) {
+                m--;
+            }
+            if (m == 0) {
+                logger.info("lattice recombination failed, m = 0");
+                return null;
+            }
+            B = new java.math.BigInteger[m][r];
+            for (int l = 0; l < m; l++) {
+                for (int i = 0; i < r; i++) {
+                    B[l][i] = L[l][i];
+                }
+            }
+            logger.info("lattice dimension = " + m + ", after power sums <= " + (j0 + tt - 1));
+            if (m == 1) {
+                List<GenPolynomial<BigInteger>> factors = new ArrayList<GenPolynomial<BigInteger>>(1);
+                factors.add(C);
+                return factors;
+            }
+            int[] part = latticePartition(B, r);
+            if (part == null) {
+                continue;
+            }
+            // construct and test factors
+            List<GenPolynomial<BigInteger>> factors = new ArrayList<GenPolynomial<BigInteger>>(m);
+            GenPolynomial<BigInteger> u = Q;
+            for (int l = 0; l < m; l++) {
+                GenPolynomial<MOD> g = lfac.getONE();
+                for (int i = 0; i < r; i++) {
+                    if (part[i] == l) {
+                        g = g.multiply(lift.get(i));
                     }
-                    continue;
                 }
-                GenPolynomial<BigInteger> itrial = ilist.A;
-                GenPolynomial<BigInteger> icofactor = ilist.B;
-                if (logger.isDebugEnabled()) {
-                    logger.info("       modlist = " + trial + ", cofactor " + cofactor);
-                    logger.info("lifted intlist = " + itrial + ", cofactor " + icofactor);
+                GenPolynomial<BigInteger> G = PolyUtil.integerFromModularCoefficients(pfac, g);
+                if (!PolyUtil.<BigInteger> baseSparsePseudoRemainder(u, G).isZERO()) {
+                    factors = null;
+                    break;
                 }
-                //System.out.println("lifted intlist = " + itrial + ", cofactor " + icofactor); 
-
-                itrial = engine.basePrimitivePart(itrial);
-                //System.out.println("pp(trial)= " + itrial);
-                if (PolyUtil.<BigInteger> baseSparsePseudoRemainder(u, itrial).isZERO()) {
-                    logger.info("successful trial = " + itrial);
-                    //System.out.println("trial    = " + itrial);
-                    //System.out.println("cofactor = " + icofactor);
-                    //System.out.println("flist    = " + flist);
-                    //itrial = engine.basePrimitivePart(itrial);
-                    //System.out.println("pp(itrial)= " + itrial);
-                    factors.add(itrial);
-                    //u = PolyUtil.<BigInteger> basePseudoDivide(u, itrial); //u.divide( trial );
-                    u = icofactor;
-                    PP = u; // fixed finally on 2009-05-03
-                    um = cofactor;
-                    //System.out.println("u        = " + u);
-                    //System.out.println("um       = " + um);
-                    //if (mlist.removeAll(flist)) {
-                    mlist = removeOnce(mlist, flist);
-                    logger.info("new mlist= " + mlist);
-                    dl = (mlist.size() + 1) / 2;
-                    j = 0; // since j++
+                u = PolyUtil.<BigInteger> basePseudoDivide(u, G);
+                // back transformation G(ldcf x)
+                GenPolynomial<BigInteger> H = pfac.getZERO();
+                long dh = G.degree(0);
+                for (int i = 0; i <= dh; i++) {
+                    ExpVector e = pfac.univariate(0, i).leadingExpVector();
+                    BigInteger a = G.coefficient(e);
+                    if (!a.isZERO()) {
+                        H = H.sum(a.multiply(ldcf.power(i)), e);
+                    }
+                }
+                factors.add(engine.basePrimitivePart(H));
+            }
+            if (factors != null && u.isConstant()) {
+                logger.info("lattice recombination: #factors = " + factors.size());
+                return normalizeFactorization(factors);
+            }
+            logger.info("lattice partition not yet correct " + java.util.Arrays.toString(part));
+        }
+        logger.info("lattice recombination failed, power sums exhausted");
+        return null;
+    }
+
+
+    /**
+     * Partition of modular factors from a reduced lattice basis.
+     * @param B lattice basis, a m x r integer matrix.
+     * @param r number of modular factors.
+     * @return part, with part[i] = l if the i-th modular factor belongs to the
+     *         l-th factor, or null if the reduced echelon form of B is not a
+     *         0-1 matrix with exactly one 1 in each column.
+     */
+    static int[] latticePartition(java.math.BigInteger[][] B, int r) {
+        int m = B.length;
+        BigRational[][] E = new BigRational[m][r];
+        for (int l = 0; l < m; l++) {
+            for (int i = 0; i < r; i++) {
+                E[l][i] = new BigRational(B[l][i]);
+            }
+        }
+        // reduced row echelon form
+        int row = 0;
+        for (int col = 0; col < r && row < m; col++) {
+            int piv = -1;
+            for (int l = row; l < m; l++) {
+                if (!E[l][col].isZERO()) {
+                    piv = l;
                     break;
-                    //} logger.error("error removing flist from ilist = " + mlist);
                 }
             }
+            if (piv < 0) {
+                continue;
+            }
+            BigRational[] tr = E[piv];
+            E[piv] = E[row];
+            E[row] = tr;
+            BigRational pv = E[row][col].inverse();
+            for (int i = 0; i < r; i++) {
+                E[row][i] = E[row][i].multiply(pv);
+            }
+            for (int l = 0; l < m; l++) {
+                if (l == row || E[l][col].isZERO()) {
+                    continue;
+                }
+                BigRational f = E[l][col];
+                for (int i = 0; i < r; i++) {
+                    E[l][i] = E[l][i].subtract(f.multiply(E[row][i]));
+                }
+            }
+            row++;
         }
-        if (!u.isONE() && !u.equals(P)) {
-            logger.info("rest u = " + u);
-            factors.add(u);
+        if (row != m) {
+            return null;
         }
-        if (factors.size() == 0) {
-            logger.info("irred u = " + PP);
-            factors.add(PP);
+        int[] part = new int[r];
+        for (int i = 0; i < r; i++) {
+            part[i] = -1;
+            for (int l = 0; l < m; l++) {
+                BigRational e = E[l][i];
+                if (e.isZERO()) {
+                    continue;
+                }
+                if (!e.isONE() || part[i] >= 0) {
+                    return null;
+                }
+                part[i] = l;
+            }
+            if (part[i] < 0) {
+                return null;
+            }
         }
-        return normalizeFactorization(factors);
+        return part;
     }
 
 
@@ -1314,7 +1679,7 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         // Hensel lifting of factors
         List<GenPolynomial<MOD>> mlift;
         try {
-            mlift = HenselMultUtil.<MOD> liftHensel(pd, pq, muqfactors, V, k, lf);
+            mlift = liftHenselMultivariate(pd, pq, muqfactors, V, k, lf);
             logger.info("mlift = " + mlift);
         } catch (NoLiftingException nle) {
             //System.out.println("exception : " + nle);
@@ -1401,6 +1766,25 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
     }
 
 
+    /**
+     * Multivariate Hensel lifting of the factors of a univariate image. Uses
+     * the sparse EEZ lifting, falls back to the dense Taylor series lifting
+     * if the sparse lifting fails.
+     * @param C GenPolynomial with integer coefficients
+     * @param Cp GenPolynomial C mod p^k
+     * @param F list of modular univariate factors, mod (I_v, p^k )
+     * @param V list of integral substitution values
+     * @param k desired approximation exponent p^k.
+     * @param G list of leading coefficients of the factors of C.
+     * @return [g'_1,..., g'_n] with prod_i g'_i = Cp mod p^k.
+     */
+    protected List<GenPolynomial<MOD>> liftHenselMultivariate(GenPolynomial<BigInteger> C,
+                    GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F, List<BigInteger> V, long k,
+                    List<GenPolynomial<BigInteger>> G) throws NoLiftingException {
+        return HenselSparseUtil.<MOD> liftHenselDenseFallback(C, Cp, F, V, k, G, false);
+    }
+
+
     /**
      * Test if b has a prime factor different to the elements of A.
      * @param A list of integer with at least one different prime factor.
@@ -0,0 +1,247 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.Modular;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingFactory;
+import edu.jas.util.KsubSet;
+import edu.jas.util.MapEntry;
+
+
+/**
+ * Integer coefficients factorization algorithms, parallel version. The
+ * factorizations modulo the candidate primes are computed concurrently and
+ * the search for factor combinations is split across the threads of the
+ * <code>ComputerThreads</code> pool. The subsets of modular factors are
+ * enumerated once and handed out to the tasks in order, a successful trial
+ * cancels the search of all subsets following it, so the result is the same
+ * as in the sequential version.
+ * @param <MOD>
+ * @author Heinz Kredel
+ */
+public class FactorIntegerPar<MOD extends GcdRingElem<MOD> & Modular> extends FactorInteger<MOD> {
+
+
+    private static final Logger logger = LogManager.getLogger(FactorIntegerPar.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of parallel tasks.
+     */
+    protected final int threads;
+
+
+    /**
+     * No argument constructor.
+     */
+    public FactorIntegerPar() {
+        this(BigInteger.ONE);
+    }
+
+
+    /**
+     * Constructor.
+     * @param cfac coefficient ring factory.
+     */
+    public FactorIntegerPar(RingFactory<BigInteger> cfac) {
+        this(cfac, ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param cfac coefficient ring factory.
+     * @param threads number of parallel tasks.
+     */
+    public FactorIntegerPar(RingFactory<BigInteger> cfac, int threads) {
+        super(cfac);
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.threads = threads;
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return getClass().getName() + "(" + threads + ")";
+    }
+
+
+    /**
+     * Modular factorizations of squarefree polynomials, computed in parallel.
+     * @param A list of monic squarefree univariate polynomials modulo
+     *            different primes.
+     * @return [F_0, ..., F_{k-1}] with F_i the list of irreducible factors of
+     *         A_i.
+     */
+    @Override
+    protected List<List<GenPolynomial<MOD>>> modularFactorsSquarefree(List<GenPolynomial<MOD>> A) {
+        if (threads <= 1 || ComputerThreads.NO_THREADS) {
+            return super.modularFactorsSquarefree(A);
+        }
+        List<Callable<List<GenPolynomial<MOD>>>> cs = new ArrayList<Callable<List<GenPolynomial<MOD>>>>(
+                        A.size());
+        for (final GenPolynomial<MOD> a : A) {
+            cs.add(new Callable<List<GenPolynomial<MOD>>>() {
+
+
+                public List<GenPolynomial<MOD>> call() {
+                    return mfactor.baseFactorsSquarefree(a);
+                }
+            });
+        }
+        List<List<GenPolynomial<MOD>>> mfacs = ComputerThreads.invokeAll(cs, threads);
+        if (logger.isInfoEnabled()) {
+            for (List<GenPolynomial<MOD>> m : mfacs) {
+                logger.info("modlist  = " + m);
+            }
+        }
+        return mfacs;
+    }
+
+
+    /**
+     * Search a successful factor trial in parallel. The subsets of size j of
+     * the modular factors are taken by the tasks from one shared iterator.
+     * The first successful subset in the order given by <code>KsubSet</code>
+     * is returned, tasks stop as soon as a successful subset with a smaller
+     * index is known.
+     * @param L list of modular factors.
+     * @param j size of subsets.
+     * @param D bit set of possible factor degrees.
+     * @param trial test function, returns null for unsuccessful trials.
+     * @return (flist,t) for the first subset flist of L with t = trial(flist)
+     *         != null, or null if no trial is successful.
+     */
+    @Override
+    protected <T> MapEntry<List<GenPolynomial<MOD>>, T> searchTrial(final List<GenPolynomial<MOD>> L,
+                    final int j, final BitSet D, final Function<List<GenPolynomial<MOD>>, T> trial) {
+        if (threads <= 1 || ComputerThreads.NO_THREADS || j <= 1 && L.size() <= threads) {
+            return super.searchTrial(L, j, D, trial);
+        }
+        final AtomicLong found = new AtomicLong(Long.MAX_VALUE);
+        // one enumeration of the subsets, shared by all tasks
+        final Iterator<List<GenPolynomial<MOD>>> ps = new KsubSet<GenPolynomial<MOD>>(L, j).iterator();
+        final long[] next = new long[] { 0L };
+        List<Callable<TrialResult<T>>> cs = new ArrayList<Callable<TrialResult<T>>>(threads);
+        for (int t = 0; t < threads; t++) {
+            cs.add(new Callable<TrialResult<T>>() {
+
+
+                public TrialResult<T> call() {
+                    while (true) {
+                        List<GenPolynomial<MOD>> flist;
+                        long idx;
+                        synchronized (ps) {
+                            if (!ps.hasNext()) {
+                                return null;
+                            }
+                            flist = ps.next();
+                            idx = next[0]++;
+                        }
+                        // subsets are handed out in increasing index order
+                        if (idx >= found.get()) { // a previous subset was successful
+                            return null;
+                        }
+                        if (!D.get((int) FactorInteger.<MOD> degreeSum(flist))) {
+                            continue;
+                        }
+                        T r = trial.apply(flist);
+                        if (r != null) {
+                            long f = found.get();
+                            while (idx < f && !found.compareAndSet(f, idx)) {
+                                f = found.get();
+                            }
+                            return new TrialResult<T>(idx, flist, r);
+                        }
+                    }
+                }
+            });
+        }
+        TrialResult<T> best = null;
+        for (TrialResult<T> r : ComputerThreads.invokeAll(cs, threads)) {
+            if (r != null && (best == null || r.index < best.index)) {
+                best = r;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        if (debug) {
+            logger.debug("successful subset index = " + best.index + ", j = " + j);
+        }
+        return new MapEntry<List<GenPolynomial<MOD>>, T>(best.flist, best.value);
+    }
+
+
+    /**
+     * Multivariate Hensel lifting of the factors of a univariate image. The
+     * diophantine equations for the factors are solved in parallel.
+     * @param C GenPolynomial with integer coefficients
+     * @param Cp GenPolynomial C mod p^k
+     * @param F list of modular univariate factors, mod (I_v, p^k )
+     * @param V list of integral substitution values
+     * @param k desired approximation exponent p^k.
+     * @param G list of leading coefficients of the factors of C.
+     * @return [g'_1,..., g'_n] with prod_i g'_i = Cp mod p^k.
+     */
+    @Override
+    protected List<GenPolynomial<MOD>> liftHenselMultivariate(GenPolynomial<BigInteger> C,
+                    GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F, List<BigInteger> V, long k,
+                    List<GenPolynomial<BigInteger>> G) throws NoLiftingException {
+        if (threads <= 1) {
+            return super.liftHenselMultivariate(C, Cp, F, V, k, G);
+        }
+        return HenselSparseUtil.<MOD> liftHenselDenseFallback(C, Cp, F, V, k, G, true);
+    }
+
+
+    /**
+     * Container for a successful trial.
+     */
+    class TrialResult<T> {
+
+
+        final long index;
+
+
+        final List<GenPolynomial<MOD>> flist;
+
+
+        final T value;
+
+
+        TrialResult(long index, List<GenPolynomial<MOD>> flist, T value) {
+            this.index = index;
+            this.flist = flist;
+            this.value = value;
+        }
+    }
+
+}
@@ -8,6 +8,7 @@ package edu.jas.ufd;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -20,6 +21,7 @@ import edu.jas.arith.BigInteger;
 import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
+import edu.jas.poly.GF2Polynomial;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.PolyUtil;
@@ -43,6 +45,19 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
     private static final boolean debug = logger.isDebugEnabled();
 
 
+    /**
+     * Degree from which the dense baby-step giant-step algorithms are used
+     * for word size moduli.
+     */
+    public static final int DENSE_DEGREE = 12;
+
+
+    /**
+     * Random number generator for equal degree factorization over GF(2).
+     */
+    private static final Random random = new Random();
+
+
     /**
      * No argument constructor, do not use.
      */
@@ -82,6 +97,13 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         }
         ModularRingFactory<MOD> mr = (ModularRingFactory<MOD>) pfac.coFac;
         java.math.BigInteger m = mr.getIntegerModul().getVal();
+        if (m.equals(java.math.BigInteger.valueOf(2L)) && P.leadingBaseCoefficient().isONE()) {
+            return baseDistinctDegreeFactorsGF2(P);
+        }
+        if (P.degree(0) >= DENSE_DEGREE && DenseModUtil.isApplicable(mr)
+                        && P.leadingBaseCoefficient().isONE()) {
+            return baseDistinctDegreeFactorsDense(P);
+        }
         //if (m.longValue() == 2L) {
         //    logger.warn(this.getClass().getName() + " case p = 2 not implemented");
         //}
@@ -133,6 +155,13 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         }
         ModularRingFactory<MOD> mr = (ModularRingFactory<MOD>) pfac.coFac;
         java.math.BigInteger m = mr.getIntegerModul().getVal();
+        if (m.equals(java.math.BigInteger.valueOf(2L)) && P.leadingBaseCoefficient().isONE()) {
+            return baseEqualDegreeFactorsGF2(P, deg);
+        }
+        if (P.degree(0) >= DENSE_DEGREE && DenseModUtil.isApplicable(mr)
+                        && P.leadingBaseCoefficient().isONE()) {
+            return baseEqualDegreeFactorsDense(P, deg);
+        }
         //System.out.println("m = " + m);
         boolean p2 = false;
         if (m.equals(java.math.BigInteger.valueOf(2L))) {
@@ -183,6 +212,134 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
     }
 
 
+    /**
+     * GenPolynomial base distinct degree factorization with dense arithmetic.
+     * Baby-step giant-step algorithm of Kaltofen and Shoup with the Frobenius
+     * powers computed by Brent-Kung modular composition.
+     * @param P squarefree and monic GenPolynomial with coefficients modulo a
+     *            word size prime.
+     * @return [e_1 -&gt; p_1, ..., e_k -&gt; p_k] with P = prod_{i=1,...,k} p_i
+     *         and p_i has only irreducible factors of degree e_i.
+     */
+    public SortedMap<Long, GenPolynomial<MOD>> baseDistinctDegreeFactorsDense(GenPolynomial<MOD> P) {
+        GenPolynomialRing<MOD> pfac = P.ring;
+        long p = ((ModularRingFactory<MOD>) pfac.coFac).getIntegerModul().getVal().longValue();
+        long[] f = DenseModUtil.<MOD> fromPolynomial(P);
+        SortedMap<Long, long[]> dfacs = DenseModUtil.distinctDegreeFactors(f, p);
+        SortedMap<Long, GenPolynomial<MOD>> facs = new TreeMap<Long, GenPolynomial<MOD>>();
+        for (Map.Entry<Long, long[]> me : dfacs.entrySet()) {
+            facs.put(me.getKey(), DenseModUtil.<MOD> toPolynomial(pfac, me.getValue()));
+        }
+        return facs;
+    }
+
+
+    /**
+     * GenPolynomial base equal degree factorization with dense arithmetic.
+     * The norm respectively trace maps of Cantor and Zassenhaus are computed
+     * by modular composition.
+     * @param P squarefree and monic GenPolynomial with coefficients modulo a
+     *            word size prime.
+     * @param deg such that P has only irreducible factors of degree deg.
+     * @return [p_1,...,p_k] with P = prod_{i=1,...,r} p_i.
+     */
+    public List<GenPolynomial<MOD>> baseEqualDegreeFactorsDense(GenPolynomial<MOD> P, long deg) {
+        GenPolynomialRing<MOD> pfac = P.ring;
+        long p = ((ModularRingFactory<MOD>) pfac.coFac).getIntegerModul().getVal().longValue();
+        long[] f = DenseModUtil.<MOD> fromPolynomial(P);
+        List<long[]> efacs = DenseModUtil.equalDegreeFactors(f, deg, p);
+        List<GenPolynomial<MOD>> facs = new ArrayList<GenPolynomial<MOD>>(efacs.size());
+        for (long[] e : efacs) {
+            facs.add(DenseModUtil.<MOD> toPolynomial(pfac, e));
+        }
+        return facs;
+    }
+
+
+    /**
+     * GenPolynomial base distinct degree factorization over GF(2) with
+     * bit-packed arithmetic.
+     * @param P squarefree and monic GenPolynomial with coefficients modulo 2.
+     * @return [e_1 -&gt; p_1, ..., e_k -&gt; p_k] with P = prod_{i=1,...,k} p_i
+     *         and p_i has only irreducible factors of degree e_i.
+     */
+    public SortedMap<Long, GenPolynomial<MOD>> baseDistinctDegreeFactorsGF2(GenPolynomial<MOD> P) {
+        GenPolynomialRing<MOD> pfac = P.ring;
+        SortedMap<Long, GenPolynomial<MOD>> facs = new TreeMap<Long, GenPolynomial<MOD>>();
+        GF2Polynomial f = PolyUtil.<MOD> toGF2Polynomial(P);
+        GF2Polynomial x = GF2Polynomial.X;
+        GF2Polynomial h = x;
+        GF2Polynomial g;
+        long d = 0;
+        while (d + 1 <= f.degree() / 2) {
+            d++;
+            h = h.modSquare(f); // x^(2^d) mod f
+            g = h.sum(x).gcd(f);
+            if (!g.isONE()) {
+                facs.put(d, PolyUtil.<MOD> fromGF2Polynomial(pfac, g));
+                f = f.divide(g);
+                h = h.remainder(f);
+            }
+        }
+        if (!f.isONE()) {
+            d = f.degree();
+            facs.put(d, PolyUtil.<MOD> fromGF2Polynomial(pfac, f));
+        }
+        return facs;
+    }
+
+
+    /**
+     * GenPolynomial base equal degree factorization over GF(2) with
+     * bit-packed arithmetic. The splitting uses the trace map r + r^2 + ... +
+     * r^(2^(deg-1)).
+     * @param P squarefree and monic GenPolynomial with coefficients modulo 2.
+     * @param deg such that P has only irreducible factors of degree deg.
+     * @return [p_1,...,p_k] with P = prod_{i=1,...,r} p_i.
+     */
+    public List<GenPolynomial<MOD>> baseEqualDegreeFactorsGF2(GenPolynomial<MOD> P, long deg) {
+        GenPolynomialRing<MOD> pfac = P.ring;
+        List<GF2Polynomial> efacs = new ArrayList<GF2Polynomial>();
+        equalDegreeFactorsGF2(PolyUtil.<MOD> toGF2Polynomial(P), (int) deg, efacs);
+        List<GenPolynomial<MOD>> facs = new ArrayList<GenPolynomial<MOD>>(efacs.size());
+        for (GF2Polynomial e : efacs) {
+            facs.add(PolyUtil.<MOD> fromGF2Polynomial(pfac, e));
+        }
+        return facs;
+    }
+
+
+    /**
+     * Equal degree factorization over GF(2).
+     * @param f squarefree polynomial with only irreducible factors of degree
+     *            deg.
+     * @param deg degree of the factors.
+     * @param facs list to add the factors of f.
+     */
+    static void equalDegreeFactorsGF2(GF2Polynomial f, int deg, List<GF2Polynomial> facs) {
+        int n = f.degree();
+        if (n <= deg) {
+            facs.add(f);
+            return;
+        }
+        GF2Polynomial g;
+        do {
+            GF2Polynomial r;
+            do {
+                r = GF2Polynomial.random(n, random);
+            } while (r.degree() < 1);
+            GF2Polynomial h = r;
+            for (int i = 1; i < deg; i++) {
+                r = r.modSquare(f);
+                h = h.sum(r);
+            }
+            g = h.gcd(f);
+        } while (g.degree() <= 0 || g.degree() == n);
+        equalDegreeFactorsGF2(f.divide(g), deg, facs);
+        equalDegreeFactorsGF2(g, deg, facs);
+    }
+
+
     /**
      * GenPolynomial base factorization of a squarefree polynomial.
      * @param P squarefree and monic! GenPolynomial.
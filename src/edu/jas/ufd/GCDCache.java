@@ -0,0 +1,469 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.GcdRingElem;
+
+
+/**
+ * Greatest common divisor cache. Decorates a gcd implementation and
+ * remembers the results of <code>gcd()</code> and the corresponding
+ * cofactors for recently used pairs of polynomials. The cache is bounded
+ * by the number of entries and by the total weight, i.e. the sum of the
+ * number of terms, of the cached polynomials. Least recently used entries
+ * are evicted first. The cache can be shared between threads.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+public class GCDCache<C extends GcdRingElem<C>> extends GreatestCommonDivisorAbstract<C> {
+
+
+    private static final Logger logger = LogManager.getLogger(GCDCache.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Default maximal number of cache entries.
+     */
+    public static final int DEFAULT_SIZE = 1000;
+
+
+    /**
+     * Default maximal weight of the cache.
+     */
+    public static final long DEFAULT_WEIGHT = 1000000L;
+
+
+    /**
+     * GCD and resultant engine.
+     */
+    public final GreatestCommonDivisorAbstract<C> e1;
+
+
+    /**
+     * Maximal number of cache entries.
+     */
+    public final int maxSize;
+
+
+    /**
+     * Maximal weight of all cache entries.
+     */
+    public final long maxWeight;
+
+
+    /**
+     * Cache of gcds in least recently used order.
+     */
+    protected transient LinkedHashMap<PolyPair<C>, GenPolynomial<C>[]> cache;
+
+
+    /**
+     * Current weight of cache entries.
+     */
+    protected long weight;
+
+
+    /**
+     * Statistics.
+     */
+    protected long hits, misses, evictions;
+
+
+    /**
+     * Cache constructor.
+     * @param e1 gcd engine.
+     */
+    public GCDCache(GreatestCommonDivisorAbstract<C> e1) {
+        this(e1, DEFAULT_SIZE, DEFAULT_WEIGHT);
+    }
+
+
+    /**
+     * Cache constructor.
+     * @param e1 gcd engine.
+     * @param maxSize maximal number of cache entries.
+     */
+    public GCDCache(GreatestCommonDivisorAbstract<C> e1, int maxSize) {
+        this(e1, maxSize, DEFAULT_WEIGHT);
+    }
+
+
+    /**
+     * Cache constructor.
+     * @param e1 gcd engine.
+     * @param maxSize maximal number of cache entries.
+     * @param maxWeight maximal sum of the number of terms of cached
+     *            polynomials.
+     */
+    public GCDCache(GreatestCommonDivisorAbstract<C> e1, int maxSize, long maxWeight) {
+        if (e1 == null) {
+            throw new IllegalArgumentException("gcd engine may not be null");
+        }
+        if (maxSize <= 0 || maxWeight <= 0L) {
+            throw new IllegalArgumentException("cache bounds must be positive");
+        }
+        this.e1 = e1;
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        cache = new LinkedHashMap<PolyPair<C>, GenPolynomial<C>[]>(16, 0.75f, true);
+        weight = 0L;
+        hits = misses = evictions = 0L;
+    }
+
+
+    /**
+     * Deserialization, the cache entries are not serialized.
+     */
+    private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        cache = new LinkedHashMap<PolyPair<C>, GenPolynomial<C>[]>(16, 0.75f, true);
+        weight = 0L;
+    }
+
+
+    /**
+     * Get the String representation with gcd engine and statistics.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GCDCache[ " + e1.getClass().getName() + ", size = " + size() + ", hits = " + getHits()
+                        + ", misses = " + getMisses() + ", evictions = " + getEvictions() + " ]";
+    }
+
+
+    /**
+     * Number of cache hits.
+     * @return number of gcd requests answered from the cache.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+
+    /**
+     * Number of cache misses.
+     * @return number of gcd requests delegated to the engine.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+
+    /**
+     * Number of evicted entries.
+     * @return number of entries removed to respect the cache bounds.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+
+    /**
+     * Number of cache entries.
+     * @return number of cached gcds.
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+
+    /**
+     * Weight of the cache.
+     * @return sum of the number of terms of cached polynomials.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+
+    /**
+     * Remove all entries and reset the statistics.
+     */
+    public synchronized void clear() {
+        cache.clear();
+        weight = 0L;
+        hits = misses = evictions = 0L;
+    }
+
+
+    /**
+     * Univariate GenPolynomial greatest common divisor.
+     * @param P univariate GenPolynomial.
+     * @param S univariate GenPolynomial.
+     * @return gcd(P,S).
+     */
+    @Override
+    public GenPolynomial<C> baseGcd(GenPolynomial<C> P, GenPolynomial<C> S) {
+        return e1.baseGcd(P, S);
+    }
+
+
+    /**
+     * Univariate GenPolynomial recursive greatest common divisor.
+     * @param P univariate recursive GenPolynomial.
+     * @param S univariate recursive GenPolynomial.
+     * @return gcd(P,S).
+     */
+    @Override
+    public GenPolynomial<GenPolynomial<C>> recursiveUnivariateGcd(GenPolynomial<GenPolynomial<C>> P,
+                    GenPolynomial<GenPolynomial<C>> S) {
+        return e1.recursiveUnivariateGcd(P, S);
+    }
+
+
+    /**
+     * GenPolynomial greatest common divisor.
+     * @param P GenPolynomial.
+     * @param S GenPolynomial.
+     * @return gcd(P,S).
+     */
+    @Override
+    public GenPolynomial<C> gcd(GenPolynomial<C> P, GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return P;
+        }
+        if (P == null || P.isZERO()) {
+            return S;
+        }
+        return gcdCofactors(P, S)[0];
+    }
+
+
+    /**
+     * GenPolynomial greatest common divisor and cofactors.
+     * @param P non zero GenPolynomial.
+     * @param S non zero GenPolynomial.
+     * @return [ gcd(P,S), P/gcd(P,S), S/gcd(P,S) ].
+     */
+    public GenPolynomial<C>[] gcdCofactors(GenPolynomial<C> P, GenPolynomial<C> S) {
+        PolyPair<C> key = new PolyPair<C>(P, S);
+        GenPolynomial<C>[] val;
+        synchronized (this) {
+            val = cache.get(key);
+            if (val != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (val != null) {
+            if (key.swapped(P)) {
+                return swap(val);
+            }
+            return newArray(val[0], val[1], val[2]); // callers may modify the array
+        }
+        // compute outside of the lock, concurrent misses may compute twice
+        GenPolynomial<C> g = e1.gcd(key.a, key.b);
+        GenPolynomial<C> ca = PolyUtil.<C> basePseudoDivide(key.a, g);
+        GenPolynomial<C> cb = PolyUtil.<C> basePseudoDivide(key.b, g);
+        val = newArray(g, ca, cb);
+        put(key, val);
+        if (key.swapped(P)) {
+            return swap(val);
+        }
+        return newArray(g, ca, cb);
+    }
+
+
+    /**
+     * GenPolynomial least common multiple.
+     * @param P GenPolynomial.
+     * @param S GenPolynomial.
+     * @return lcm(P,S).
+     */
+    @Override
+    public GenPolynomial<C> lcm(GenPolynomial<C> P, GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return S;
+        }
+        if (P == null || P.isZERO()) {
+            return P;
+        }
+        GenPolynomial<C>[] gc = gcdCofactors(P, S);
+        return gc[1].multiply(S);
+    }
+
+
+    /**
+     * Univariate GenPolynomial resultant.
+     * @param P univariate GenPolynomial.
+     * @param S univariate GenPolynomial.
+     * @return res(P,S).
+     */
+    @Override
+    public GenPolynomial<C> baseResultant(GenPolynomial<C> P, GenPolynomial<C> S) {
+        return e1.baseResultant(P, S);
+    }
+
+
+    /**
+     * Univariate GenPolynomial recursive resultant.
+     * @param P univariate recursive GenPolynomial.
+     * @param S univariate recursive GenPolynomial.
+     * @return res(P,S).
+     */
+    @Override
+    public GenPolynomial<GenPolynomial<C>> recursiveUnivariateResultant(GenPolynomial<GenPolynomial<C>> P,
+                    GenPolynomial<GenPolynomial<C>> S) {
+        return e1.recursiveUnivariateResultant(P, S);
+    }
+
+
+    /**
+     * GenPolynomial resultant.
+     * @param P GenPolynomial.
+     * @param S GenPolynomial.
+     * @return res(P,S).
+     */
+    @Override
+    public GenPolynomial<C> resultant(GenPolynomial<C> P, GenPolynomial<C> S) {
+        return e1.resultant(P, S);
+    }
+
+
+    /**
+     * Insert a new cache entry and evict least recently used entries.
+     * @param key polynomial pair.
+     * @param val gcd and cofactors.
+     */
+    protected synchronized void put(PolyPair<C> key, GenPolynomial<C>[] val) {
+        long w = weight(key, val);
+        if (w > maxWeight) {
+            return;
+        }
+        GenPolynomial<C>[] old = cache.put(key, val);
+        if (old != null) {
+            weight -= weight(key, old);
+        }
+        weight += w;
+        Iterator<Map.Entry<PolyPair<C>, GenPolynomial<C>[]>> it = cache.entrySet().iterator();
+        while ((cache.size() > maxSize || weight > maxWeight) && it.hasNext()) {
+            Map.Entry<PolyPair<C>, GenPolynomial<C>[]> me = it.next();
+            weight -= weight(me.getKey(), me.getValue());
+            it.remove();
+            evictions++;
+        }
+        if (debug) {
+            logger.debug("cache size = " + cache.size() + ", weight = " + weight);
+        }
+    }
+
+
+    /**
+     * Weight of a cache entry.
+     * @return number of terms of all polynomials in the entry.
+     */
+    static <C extends GcdRingElem<C>> long weight(PolyPair<C> key, GenPolynomial<C>[] val) {
+        long w = key.a.length() + key.b.length();
+        for (GenPolynomial<C> p : val) {
+            w += p.length();
+        }
+        return w;
+    }
+
+
+    /**
+     * Swap cofactors.
+     * @return [ g, cb, ca ] for val = [ g, ca, cb ].
+     */
+    GenPolynomial<C>[] swap(GenPolynomial<C>[] val) {
+        return newArray(val[0], val[2], val[1]);
+    }
+
+
+    /**
+     * Cache entry.
+     * @return [ g, ca, cb ].
+     */
+    @SuppressWarnings("unchecked")
+    GenPolynomial<C>[] newArray(GenPolynomial<C> g, GenPolynomial<C> ca, GenPolynomial<C> cb) {
+        GenPolynomial<C>[] val = (GenPolynomial<C>[]) new GenPolynomial<?>[3];
+        val[0] = g;
+        val[1] = ca;
+        val[2] = cb;
+        return val;
+    }
+
+
+    /**
+     * Unordered pair of polynomials used as cache key. The polynomials are
+     * stored in a canonical order, so that (P,S) and (S,P) are equal keys.
+     */
+    static final class PolyPair<C extends GcdRingElem<C>> {
+
+
+        final GenPolynomial<C> a;
+
+
+        final GenPolynomial<C> b;
+
+
+        final int hash;
+
+
+        PolyPair(GenPolynomial<C> P, GenPolynomial<C> S) {
+            int hp = P.hashCode();
+            int hs = S.hashCode();
+            if (hp < hs || (hp == hs && P.compareTo(S) <= 0)) {
+                a = P;
+                b = S;
+            } else {
+                a = S;
+                b = P;
+            }
+            hash = 31 * a.hashCode() + b.hashCode();
+        }
+
+
+        /**
+         * Test if the first argument was exchanged in the canonical order.
+         * @param P first argument of the gcd.
+         * @return true, if P is not the first polynomial of this pair.
+         */
+        boolean swapped(GenPolynomial<C> P) {
+            return a != P;
+        }
+
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PolyPair)) {
+                return false;
+            }
+            PolyPair<C> p = (PolyPair<C>) o;
+            if (hash != p.hash) {
+                return false;
+            }
+            return a.equals(p.a) && b.equals(p.b);
+        }
+    }
+
+}
@@ -328,4 +328,43 @@ public class GCDFactory {
         return ufd;
     }
 
+
+    /**
+     * Decorate a gcd implementation with a bounded cache of gcd and cofactor
+     * results.
+     * @param ufd gcd algorithm implementation.
+     * @return cached gcd algorithm implementation.
+     * @see edu.jas.ufd.GCDCache
+     */
+    public static <C extends GcdRingElem<C>> GCDCache<C> getCache(GreatestCommonDivisorAbstract<C> ufd) {
+        return new GCDCache<C>(ufd);
+    }
+
+
+    /**
+     * Decorate a gcd implementation with a bounded cache of gcd and cofactor
+     * results.
+     * @param ufd gcd algorithm implementation.
+     * @param size maximal number of cache entries.
+     * @param weight maximal sum of the number of terms of cached polynomials.
+     * @return cached gcd algorithm implementation.
+     * @see edu.jas.ufd.GCDCache
+     */
+    public static <C extends GcdRingElem<C>> GCDCache<C> getCache(GreatestCommonDivisorAbstract<C> ufd,
+                    int size, long weight) {
+        return new GCDCache<C>(ufd, size, weight);
+    }
+
+
+    /**
+     * Determine suitable proxy for gcd algorithms and decorate it with a
+     * bounded cache of gcd and cofactor results.
+     * @param fac RingFactory&lt;C&gt;.
+     * @return cached gcd algorithm implementation.
+     */
+    public static <C extends GcdRingElem<C>> GCDCache<C> getCachedProxy(RingFactory<C> fac) {
+        GreatestCommonDivisorAbstract<C> ufd = GCDFactory.<C> getProxy(fac);
+        return new GCDCache<C>(ufd);
+    }
+
 }
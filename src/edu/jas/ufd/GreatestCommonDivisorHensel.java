@@ -658,7 +658,8 @@ public class GreatestCommonDivisorHensel<MOD extends GcdRingElem<MOD> & Modular>
             List<GenPolynomial<MOD>> lift;
             try {
                 //lift = HenselMultUtil.<MOD> liftHenselFull(ui, F, V, k, G);
-                lift = HenselMultUtil.<MOD> liftHensel(ui, uq, F, V, k, G);
+                //lift = HenselMultUtil.<MOD> liftHensel(ui, uq, F, V, k, G);
+                lift = HenselSparseUtil.<MOD> liftHenselDenseFallback(ui, uq, F, V, k, G, false);
                 logger.info("lift = " + lift);
             } catch (NoLiftingException nle) {
                 logger.info("NoLiftingException");
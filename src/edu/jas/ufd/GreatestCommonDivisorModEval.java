@@ -5,6 +5,9 @@
 package edu.jas.ufd;
 
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
 
@@ -20,7 +23,9 @@ import edu.jas.structure.RingFactory;
 
 /**
  * Greatest common divisor algorithms with modular evaluation algorithm for
- * recursion.
+ * recursion. The polynomials are evaluated at blocks of points and the
+ * images are interpolated at once, both with subproduct trees for many
+ * points.
  * @author Heinz Kredel
  */
 
@@ -179,9 +184,14 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
         long i = 0;
         long en = cofac.getIntegerModul().longValue() - 1; // just a stopper
         MOD end = cofac.fromInteger(en);
-        MOD mi;
-        GenPolynomial<MOD> M = null;
-        GenPolynomial<MOD> mn;
+        List<MOD> points = new ArrayList<MOD>(); // interpolation points
+        List<GenPolynomial<MOD>> images = new ArrayList<GenPolynomial<MOD>>();
+        List<MOD> block = new ArrayList<MOD>(); // evaluation points
+        List<MOD> nfb = null;
+        List<GenPolynomial<MOD>> qb = null;
+        List<GenPolynomial<MOD>> rb = null;
+        int bi = 0;
+        int bs = 1; // block size
         GenPolynomial<MOD> qm;
         GenPolynomial<MOD> rm;
         GenPolynomial<MOD> cm;
@@ -198,17 +208,25 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
                 return mufd.gcd(P, S);
                 //throw new ArithmeticException("prime list exhausted");
             }
-            // map normalization factor
-            MOD nf = PolyUtil.<MOD> evaluateMain(cofac, cc, d);
+            if (bi >= block.size()) {
+                // map normalization factor and polynomials at the next block of points
+                block = evaluationPoints(d, bs, end);
+                nfb = PolyUtil.<MOD> evaluateMainMultipoint(cc, block);
+                qb = PolyUtil.<MOD> evaluateFirstRecMultipoint(ufac, mfac, qr, block);
+                rb = PolyUtil.<MOD> evaluateFirstRecMultipoint(ufac, mfac, rr, block);
+                bi = 0;
+                bs = (int) Math.min(2L * bs, G + 2);
+            }
+            MOD nf = nfb.get(bi);
+            qm = qb.get(bi);
+            rm = rb.get(bi);
+            bi++;
             if (nf.isZERO()) {
                 continue;
             }
-            // map polynomials
-            qm = PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, qr, d);
             if (qm.isZERO() || !qm.degreeVector().equals(qdegv)) {
                 continue;
             }
-            rm = PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, rr, d);
             if (rm.isZERO() || !rm.degreeVector().equals(rdegv)) {
                 continue;
             }
@@ -233,43 +251,36 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
             ExpVector mdegv = cm.degreeVector();
             if (wdegv.equals(mdegv)) { // TL = 0
                 // evaluation point ok, next round
-                if (M != null) {
-                    if (M.degree(0) > G) {
-                        logger.info("deg(M) > G: " + M.degree(0) + " > " + G);
-                        // continue; // why should this be required?
-                    }
+                if (points.size() > G) {
+                    logger.info("deg(M) > G: " + points.size() + " > " + G);
+                    // continue; // why should this be required?
                 }
             } else { // TL = 3
                 boolean ok = false;
                 if (wdegv.multipleOf(mdegv)) { // TL = 2
-                    M = null; // init chinese remainder
+                    points.clear(); // init interpolation
+                    images.clear();
                     ok = true; // evaluation point ok
                 }
                 if (mdegv.multipleOf(wdegv)) { // TL = 1
                     continue; // skip this evaluation point
                 }
                 if (!ok) {
-                    M = null; // discard chinese remainder and previous work
+                    points.clear(); // discard interpolation and previous work
+                    images.clear();
                     continue; // evaluation point not ok
                 }
             }
             // prepare interpolation algorithm
             cm = cm.multiply(nf);
-            if (M == null) {
+            if (points.isEmpty()) {
                 // initialize interpolation
-                M = ufac.getONE();
-                cp = rfac.getZERO();
                 wdegv = wdegv.gcd(mdegv); //EVGCD(wdegv,mdegv);
             }
-            // interpolate
-            mi = PolyUtil.<MOD> evaluateMain(cofac, M, d);
-            mi = mi.inverse(); // mod p
-            cp = PolyUtil.interpolate(rfac, cp, M, mi, cm, d);
-            mn = ufac.getONE().multiply(d);
-            mn = ufac.univariate(0).subtract(mn);
-            M = M.multiply(mn);
-            // test for completion
-            if (M.degree(0) > G) {
+            points.add(d);
+            images.add(cm);
+            // test for completion, deg(M) = number of points
+            if (points.size() > G) {
                 break;
             }
             //long cmn = PolyUtil.<MOD>coeffMaxDegree(cp);
@@ -278,6 +289,8 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
             // break;
             //}
         }
+        // interpolate
+        cp = PolyUtil.<MOD> interpolateRecursiveMultipoint(rfac, points, images);
         // remove normalization
         cp = recursivePrimitivePart(cp).abs();
         cp = cp.multiply(c);
@@ -389,9 +402,13 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
         long i = 0;
         long en = cofac.getIntegerModul().longValue() - 1; // just a stopper
         MOD end = cofac.fromInteger(en);
-        MOD mi;
-        GenPolynomial<MOD> M = null;
-        GenPolynomial<MOD> mn;
+        List<MOD> points = new ArrayList<MOD>(); // interpolation points
+        List<GenPolynomial<MOD>> images = new ArrayList<GenPolynomial<MOD>>();
+        List<MOD> block = new ArrayList<MOD>(); // evaluation points
+        List<GenPolynomial<MOD>> qb = null;
+        List<GenPolynomial<MOD>> rb = null;
+        int bi = 0;
+        int bs = 1; // block size
         GenPolynomial<MOD> qm;
         GenPolynomial<MOD> rm;
         GenPolynomial<MOD> cm;
@@ -411,8 +428,17 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
                 return mufd.resultant(P, S);
                 //throw new ArithmeticException("prime list exhausted");
             }
-            // map polynomials
-            qm = PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, qr, d);
+            if (bi >= block.size()) {
+                // map polynomials at the next block of points
+                block = evaluationPoints(d, bs, end);
+                qb = PolyUtil.<MOD> evaluateFirstRecMultipoint(ufac, mfac, qr, block);
+                rb = PolyUtil.<MOD> evaluateFirstRecMultipoint(ufac, mfac, rr, block);
+                bi = 0;
+                bs = (int) Math.min(2L * bs, G + 2);
+            }
+            qm = qb.get(bi);
+            rm = rb.get(bi);
+            bi++;
             //logger.info("qr(" + d + ") = " + qm + ", qr = " + qr);
             if (qm.isZERO() || !qm.degreeVector().equals(qdegv)) {
                 if (debug) {
@@ -420,7 +446,6 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
                 }
                 continue;
             }
-            rm = PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, rr, d);
             //logger.info("rr(" + d + ") = " + rm + ", rr = " + rr);
             if (rm.isZERO() || !rm.degreeVector().equals(rdegv)) {
                 if (debug) {
@@ -432,22 +457,11 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
             cm = resultant(rm, qm);
             //System.out.println("cm = " + cm);
 
-            // prepare interpolation algorithm
-            if (M == null) {
-                // initialize interpolation
-                M = ufac.getONE();
-                cp = rfac.getZERO();
-            }
-            // interpolate
-            mi = PolyUtil.<MOD> evaluateMain(cofac, M, d);
-            mi = mi.inverse(); // mod p
-            cp = PolyUtil.interpolate(rfac, cp, M, mi, cm, d);
-            //logger.info("cp = " + cp);
-            mn = ufac.getONE().multiply(d);
-            mn = ufac.univariate(0).subtract(mn);
-            M = M.multiply(mn);
-            // test for completion
-            if (M.degree(0) > G) {
+            // collect interpolation points
+            points.add(d);
+            images.add(cm);
+            // test for completion, deg(M) = number of points
+            if (points.size() > G) {
                 if (debug) {
                     logger.info("last lucky evaluation point " + d);
                 }
@@ -455,9 +469,29 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
             }
             //logger.info("M  = " + M);
         }
+        // interpolate
+        cp = PolyUtil.<MOD> interpolateRecursiveMultipoint(rfac, points, images);
         // distribute
         q = PolyUtil.<MOD> distribute(fac, cp);
         return q;
     }
 
+
+    /**
+     * Block of consecutive evaluation points.
+     * @param d first point.
+     * @param n number of points.
+     * @param end last possible point.
+     * @return list of d, d+1, ..., with at most n points &lt;= end.
+     */
+    List<MOD> evaluationPoints(MOD d, int n, MOD end) {
+        List<MOD> block = new ArrayList<MOD>(n);
+        MOD inc = ((RingFactory<MOD>) d.factory()).getONE();
+        for (int k = 0; k < n && d.compareTo(end) <= 0; k++) {
+            block.add(d);
+            d = d.sum(inc);
+        }
+        return block;
+    }
+
 }
@@ -0,0 +1,543 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.Modular;
+import edu.jas.arith.ModularRingFactory;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.GcdRingElem;
+
+
+/**
+ * Hensel multivariate sparse lifting utilities. Implements the lifting of the
+ * extended Zassenhaus method (EEZ) of P. Wang, see K.O. Geddes, S.R. Czapor,
+ * G. Labahn, Algorithms for Computer Algebra, algorithms 6.2 and 6.4. The
+ * leading coefficients of the factors are imposed from the predicted
+ * leading coefficient factors. In contrast to <code>HenselMultUtil</code>
+ * the Taylor coefficients of the error are computed directly from the
+ * sparse terms, the extended Euclidean relation of the univariate factors is
+ * computed only once per lifting step and the diophantine equations for the
+ * factors can be solved in parallel.
+ * @author Heinz Kredel
+ */
+
+public class HenselSparseUtil {
+
+
+    private static final Logger logger = LogManager.getLogger(HenselSparseUtil.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Minimal number of terms of a right hand side for parallel solution of
+     * the diophantine equations.
+     */
+    public static final int PARALLEL_TERMS = 32;
+
+
+    /**
+     * Modular diophantine equation solution and lifting algorithm. Let p =
+     * A_i.ring.coFac.modul() and assume gcd(a,b) == 1 mod p, for a, b in A.
+     * @param A list of modular GenPolynomials, mod p^k
+     * @param C modular GenPolynomial, mod p^k
+     * @param V list of substitution values, mod p^k
+     * @param d desired approximation exponent (x_i-v_i)^d.
+     * @param k desired approximation exponent p^k.
+     * @return [s_1,..., s_n] with sum_i s_i A_i' = C mod p^k, with Ai' =
+     *         prod_{j!=i} A_j.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftDiophant(
+                    List<GenPolynomial<MOD>> A, GenPolynomial<MOD> C, List<MOD> V, long d, long k)
+                    throws NoLiftingException {
+        return liftDiophant(A, C, V, d, k, false);
+    }
+
+
+    /**
+     * Modular diophantine equation solution and lifting algorithm. Let p =
+     * A_i.ring.coFac.modul() and assume gcd(a,b) == 1 mod p, for a, b in A.
+     * @param A list of modular GenPolynomials, mod p^k
+     * @param C modular GenPolynomial, mod p^k
+     * @param V list of substitution values, mod p^k
+     * @param d desired approximation exponent (x_i-v_i)^d.
+     * @param k desired approximation exponent p^k.
+     * @param parallel true, if the equations for the factors are to be solved
+     *            in parallel.
+     * @return [s_1,..., s_n] with sum_i s_i A_i' = C mod p^k, with Ai' =
+     *         prod_{j!=i} A_j.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftDiophant(
+                    List<GenPolynomial<MOD>> A, GenPolynomial<MOD> C, List<MOD> V, long d, long k,
+                    boolean parallel) throws NoLiftingException {
+        if (!C.ring.equals(A.get(0).ring)) {
+            throw new IllegalArgumentException("A.ring != C.ring: " + A.get(0).ring + " != " + C.ring);
+        }
+        DiophantSolver<MOD> ds = new DiophantSolver<MOD>(A, V, k, parallel);
+        return ds.solve(C, d);
+    }
+
+
+    /**
+     * Modular Hensel lifting algorithm. Let p = A_i.ring.coFac.modul() and
+     * assume ggt(a,b) == 1 mod p, for a, b in A.
+     * @param C GenPolynomial with integer coefficients
+     * @param Cp GenPolynomial C mod p^k
+     * @param F list of modular GenPolynomials, mod (I_v, p^k )
+     * @param V list of integral substitution values
+     * @param k desired approximation exponent p^k.
+     * @param G list of leading coefficients of the factors of C.
+     * @return [g'_1,..., g'_n] with prod_i g'_i = Cp mod p^k.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftHensel(
+                    GenPolynomial<BigInteger> C, GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F,
+                    List<BigInteger> V, long k, List<GenPolynomial<BigInteger>> G) throws NoLiftingException {
+        return liftHensel(C, Cp, F, V, k, G, false);
+    }
+
+
+    /**
+     * Modular Hensel lifting algorithm with fall back. Uses the sparse EEZ
+     * lifting, falls back to the dense Taylor series lifting of
+     * HenselMultUtil if the sparse lifting fails.
+     * @param C GenPolynomial with integer coefficients
+     * @param Cp GenPolynomial C mod p^k
+     * @param F list of modular GenPolynomials, mod (I_v, p^k )
+     * @param V list of integral substitution values
+     * @param k desired approximation exponent p^k.
+     * @param G list of leading coefficients of the factors of C.
+     * @param parallel true, if the diophantine equations for the factors are
+     *            to be solved in parallel.
+     * @return [g'_1,..., g'_n] with prod_i g'_i = Cp mod p^k.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftHenselDenseFallback(
+                    GenPolynomial<BigInteger> C, GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F,
+                    List<BigInteger> V, long k, List<GenPolynomial<BigInteger>> G, boolean parallel)
+                    throws NoLiftingException {
+        try {
+            return liftHensel(C, Cp, F, V, k, G, parallel);
+        } catch (NoLiftingException e) {
+            logger.info("sparse lifting failed: " + e);
+        }
+        return HenselMultUtil.<MOD> liftHensel(C, Cp, F, V, k, G);
+    }
+
+
+    /**
+     * Modular Hensel lifting algorithm. Let p = A_i.ring.coFac.modul() and
+     * assume ggt(a,b) == 1 mod p, for a, b in A.
+     * @param C GenPolynomial with integer coefficients
+     * @param Cp GenPolynomial C mod p^k
+     * @param F list of modular GenPolynomials, mod (I_v, p^k )
+     * @param V list of integral substitution values
+     * @param k desired approximation exponent p^k.
+     * @param G list of leading coefficients of the factors of C.
+     * @param parallel true, if the diophantine equations for the factors are
+     *            to be solved in parallel.
+     * @return [g'_1,..., g'_n] with prod_i g'_i = Cp mod p^k.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftHensel(
+                    GenPolynomial<BigInteger> C, GenPolynomial<MOD> Cp, List<GenPolynomial<MOD>> F,
+                    List<BigInteger> V, long k, List<GenPolynomial<BigInteger>> G, boolean parallel)
+                    throws NoLiftingException {
+        GenPolynomialRing<MOD> pkfac = Cp.ring;
+        long d = C.degree();
+        if (!pkfac.coFac.equals(F.get(0).ring.coFac)) {
+            throw new IllegalArgumentException("F.ring != pkfac: " + F.get(0).ring + " != " + pkfac);
+        }
+        // G mod p^k, in all variables
+        GenPolynomialRing<MOD> pkfac1 = new GenPolynomialRing<MOD>(pkfac.coFac, G.get(0).ring);
+        List<GenPolynomial<MOD>> Lp = new ArrayList<GenPolynomial<MOD>>(G.size());
+        for (GenPolynomial<BigInteger> cd1 : G) {
+            GenPolynomial<MOD> cdq = PolyUtil.<MOD> fromIntegerCoefficients(pkfac1, cd1);
+            cdq = cdq.extendLower(pkfac, 0, 0L); // reintroduce lower variable
+            Lp.add(cdq);
+        }
+        if (debug) {
+            logger.debug("G modulo p^k: " + Lp);
+        }
+
+        // prepare stack of polynomial rings, polynomials and evaluated leading coefficients
+        List<GenPolynomialRing<MOD>> Pfac = new ArrayList<GenPolynomialRing<MOD>>();
+        List<GenPolynomial<MOD>> Ap = new ArrayList<GenPolynomial<MOD>>();
+        List<List<GenPolynomial<MOD>>> Gp = new ArrayList<List<GenPolynomial<MOD>>>();
+        List<MOD> Vb = new ArrayList<MOD>();
+        Pfac.add(pkfac);
+        Ap.add(Cp);
+        Gp.add(Lp);
+        GenPolynomialRing<MOD> pf = pkfac;
+        GenPolynomial<MOD> ap = Cp;
+        List<GenPolynomial<MOD>> Lpp = Lp;
+        for (int j = pkfac.nvar; j > 2; j--) {
+            pf = pf.contract(1);
+            Pfac.add(0, pf);
+            MOD vp = pkfac.coFac.fromInteger(V.get(pkfac.nvar - j).getVal());
+            Vb.add(vp);
+            ap = PolyUtil.<MOD> evaluateMain(pf, ap, vp);
+            Ap.add(0, ap);
+            List<GenPolynomial<MOD>> Lps = new ArrayList<GenPolynomial<MOD>>(Lpp.size());
+            for (GenPolynomial<MOD> qp : Lpp) {
+                Lps.add(PolyUtil.<MOD> evaluateMain(pf, qp, vp));
+            }
+            Lpp = Lps;
+            Gp.add(0, Lpp);
+        }
+        Vb.add(pkfac.coFac.fromInteger(V.get(pkfac.nvar - 2).getVal()));
+
+        // lift one variable after the other
+        List<GenPolynomial<MOD>> U = F;
+        List<MOD> Vh = new ArrayList<MOD>();
+        while (Pfac.size() > 0) {
+            pkfac = Pfac.remove(0);
+            Cp = Ap.remove(0);
+            Lpp = Gp.remove(0);
+            MOD v = Vb.remove(Vb.size() - 1);
+            logger.info("sparse lift: pkfac = " + pkfac.toScript() + " v = " + v);
+
+            List<GenPolynomial<MOD>> U1 = U;
+            U = new ArrayList<GenPolynomial<MOD>>(U1.size());
+            for (int j = 0; j < U1.size(); j++) {
+                GenPolynomial<MOD> bi = U1.get(j).extend(pkfac, 0, 0L);
+                GenPolynomial<MOD> li = Lpp.get(j);
+                if (!li.isONE()) {
+                    bi = replaceLeadingCoefficient(bi, li);
+                }
+                U.add(bi);
+            }
+            if (debug) {
+                logger.debug("U with leading coefficient replaced = " + U);
+            }
+            // the diophantine equations in this step all use the factors U1
+            DiophantSolver<MOD> ds = new DiophantSolver<MOD>(U1, Vh, k, parallel);
+
+            GenPolynomialRing<GenPolynomial<MOD>> pkrfac = pkfac.recursive(1);
+            GenPolynomial<MOD> xv = pkfac.univariate(0, 1);
+            xv = xv.subtract(pkfac.fromInteger(v.getSymmetricInteger().getVal()));
+            GenPolynomial<MOD> mon = pkfac.getONE();
+            long deg = Cp.degree(pkfac.nvar - 1);
+
+            GenPolynomial<MOD> E = Cp.subtract(product(pkfac, U));
+            for (int e = 1; e <= deg && !E.isZERO(); e++) {
+                mon = mon.multiply(xv);
+                GenPolynomial<GenPolynomial<MOD>> Er = PolyUtil.<MOD> recursive(pkrfac, E);
+                GenPolynomial<MOD> cm = taylorCoefficient(Er, e, v);
+                if (cm.isZERO()) {
+                    continue;
+                }
+                List<GenPolynomial<MOD>> Ud = ds.solve(cm, d);
+                for (int i = 0; i < U.size(); i++) {
+                    GenPolynomial<MOD> dm = Ud.get(i).extend(pkfac, 0, 0L).multiply(mon);
+                    U.set(i, U.get(i).sum(dm));
+                }
+                E = Cp.subtract(product(pkfac, U));
+                if (debug) {
+                    logger.debug("E(" + e + "," + deg + "," + pkfac.nvar + ") = " + E);
+                }
+            }
+            Vh.add(v);
+        }
+        logger.info("multivariate sparse lift: U = " + U + ", of " + F);
+        return U;
+    }
+
+
+    /**
+     * Taylor coefficient. Computes the coefficient of (x-v)^e of a recursive
+     * polynomial in x directly from its terms, i.e. sum_{j &ge; e}
+     * binomial(j,e) v^{j-e} a_j for A = sum_j a_j x^j. No division is
+     * required, so p^k need not be larger than e.
+     * @param A recursive polynomial with univariate main variable.
+     * @param e exponent of the Taylor coefficient.
+     * @param v expansion point.
+     * @return e-th Taylor coefficient of A at v.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> GenPolynomial<MOD> taylorCoefficient(
+                    GenPolynomial<GenPolynomial<MOD>> A, long e, MOD v) {
+        GenPolynomialRing<MOD> cfac = (GenPolynomialRing<MOD>) A.ring.coFac;
+        GenPolynomial<MOD> c = cfac.getZERO();
+        if (A.isZERO()) {
+            return c;
+        }
+        java.math.BigInteger vi = v.getSymmetricInteger().getVal();
+        java.math.BigInteger q = ((ModularRingFactory<MOD>) cfac.coFac).getIntegerModul().getVal();
+        for (Monomial<GenPolynomial<MOD>> m : A) {
+            long j = m.e.getVal(0);
+            if (j < e) {
+                continue;
+            }
+            java.math.BigInteger f = binomial(j, e).multiply(vi.pow((int) (j - e))).mod(q);
+            if (f.signum() == 0) {
+                continue;
+            }
+            c = c.sum(m.c.multiply(cfac.coFac.fromInteger(f)));
+        }
+        return c;
+    }
+
+
+    /**
+     * Binomial coefficient.
+     * @param n number of elements.
+     * @param k number of chosen elements.
+     * @return binomial(n,k).
+     */
+    static java.math.BigInteger binomial(long n, long k) {
+        if (k > n - k) {
+            k = n - k;
+        }
+        java.math.BigInteger b = java.math.BigInteger.ONE;
+        for (long i = 1; i <= k; i++) {
+            b = b.multiply(java.math.BigInteger.valueOf(n - k + i)).divide(java.math.BigInteger.valueOf(i));
+        }
+        return b;
+    }
+
+
+    /**
+     * Replace the leading coefficient with respect to the main variable.
+     * @param b polynomial in the lifted variables.
+     * @param l polynomial constant in the main variable.
+     * @return b with leading coefficient in the main variable replaced by l.
+     */
+    static <MOD extends GcdRingElem<MOD> & Modular> GenPolynomial<MOD> replaceLeadingCoefficient(
+                    GenPolynomial<MOD> b, GenPolynomial<MOD> l) {
+        GenPolynomialRing<MOD> pkfac = b.ring;
+        GenPolynomialRing<GenPolynomial<MOD>> pkrfac = pkfac.recursive(pkfac.nvar - 1);
+        GenPolynomial<GenPolynomial<MOD>> bs = PolyUtil.<MOD> switchVariables(
+                        PolyUtil.<MOD> recursive(pkrfac, b));
+        GenPolynomial<GenPolynomial<MOD>> ls = PolyUtil.<MOD> switchVariables(
+                        PolyUtil.<MOD> recursive(pkrfac, l));
+        if (!ls.isConstant() && !ls.isZERO()) {
+            throw new RuntimeException("ls not constant " + ls + ", l = " + l);
+        }
+        bs.doPutToMap(bs.leadingExpVector(), ls.leadingBaseCoefficient());
+        return PolyUtil.<MOD> distribute(pkfac, PolyUtil.<MOD> switchVariables(bs));
+    }
+
+
+    /**
+     * Product of polynomials.
+     * @param fac polynomial ring.
+     * @param A list of polynomials.
+     * @return prod_i A_i.
+     */
+    static <MOD extends GcdRingElem<MOD> & Modular> GenPolynomial<MOD> product(GenPolynomialRing<MOD> fac,
+                    List<GenPolynomial<MOD>> A) {
+        GenPolynomial<MOD> p = fac.getONE();
+        for (GenPolynomial<MOD> a : A) {
+            p = p.multiply(a);
+        }
+        return p;
+    }
+
+
+    /**
+     * Solver for the multivariate diophantine equations sum_i s_i A_i' = C
+     * for fixed A = [A_1, ..., A_n] and varying C. The evaluated factors,
+     * their co-products and the univariate extended Euclidean relation are
+     * computed once in the constructor.
+     */
+    static class DiophantSolver<MOD extends GcdRingElem<MOD> & Modular> {
+
+
+        /**
+         * Polynomial ring of this level.
+         */
+        final GenPolynomialRing<MOD> pkfac;
+
+
+        /**
+         * Factors A.
+         */
+        final List<GenPolynomial<MOD>> A;
+
+
+        /**
+         * Co-products B_i = prod_{j!=i} A_j, only for multivariate levels.
+         */
+        final List<GenPolynomial<MOD>> B;
+
+
+        /**
+         * Lifted extended Euclidean relation sum_i t_i B_i = 1, only for the
+         * univariate level.
+         */
+        final List<GenPolynomial<MOD>> T;
+
+
+        /**
+         * Substitution value of the main variable.
+         */
+        final MOD v;
+
+
+        /**
+         * Solver for the evaluated factors.
+         */
+        final DiophantSolver<MOD> sub;
+
+
+        /**
+         * Parallel solution flag.
+         */
+        final boolean parallel;
+
+
+        /**
+         * Constructor.
+         * @param A list of modular GenPolynomials, mod p^k
+         * @param V list of substitution values, mod p^k
+         * @param k desired approximation exponent p^k.
+         * @param parallel true, for parallel solution.
+         */
+        DiophantSolver(List<GenPolynomial<MOD>> A, List<MOD> V, long k, boolean parallel)
+                        throws NoLiftingException {
+            this.A = A;
+            this.parallel = parallel && A.size() > 1 && !ComputerThreads.NO_THREADS;
+            pkfac = A.get(0).ring;
+            if (pkfac.nvar == 1) {
+                List<GenPolynomial<MOD>> lee = HenselUtil.<MOD> liftExtendedEuclidean(A, k);
+                GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(),
+                                pkfac);
+                T = new ArrayList<GenPolynomial<MOD>>(lee.size());
+                for (GenPolynomial<MOD> t : lee) {
+                    T.add(PolyUtil.<MOD> fromIntegerCoefficients(pkfac,
+                                    PolyUtil.integerFromModularCoefficients(ifac, t)));
+                }
+                B = null;
+                v = null;
+                sub = null;
+                return;
+            }
+            T = null;
+            GenPolynomial<MOD> As = product(pkfac, A);
+            B = new ArrayList<GenPolynomial<MOD>>(A.size());
+            for (GenPolynomial<MOD> a : A) {
+                B.add(PolyUtil.<MOD> basePseudoDivide(As, a));
+            }
+            List<MOD> Vp = new ArrayList<MOD>(V);
+            MOD vv = Vp.remove(Vp.size() - 1);
+            ModularRingFactory<MOD> cf = (ModularRingFactory<MOD>) pkfac.coFac;
+            v = cf.fromInteger(vv.getSymmetricInteger().getVal());
+            GenPolynomialRing<MOD> ckfac = pkfac.contract(1);
+            List<GenPolynomial<MOD>> Ap = new ArrayList<GenPolynomial<MOD>>(A.size());
+            for (GenPolynomial<MOD> a : A) {
+                Ap.add(PolyUtil.<MOD> evaluateMain(ckfac, a, v));
+            }
+            sub = new DiophantSolver<MOD>(Ap, Vp, k, parallel);
+        }
+
+
+        /**
+         * Solve diophantine equation.
+         * @param C modular GenPolynomial, mod p^k
+         * @param d desired approximation exponent (x_i-v_i)^d.
+         * @return [s_1,..., s_n] with sum_i s_i A_i' = C mod p^k.
+         */
+        List<GenPolynomial<MOD>> solve(final GenPolynomial<MOD> C, long d) {
+            if (pkfac.nvar == 1) {
+                List<Callable<GenPolynomial<MOD>>> cs = new ArrayList<Callable<GenPolynomial<MOD>>>(
+                                A.size());
+                for (int i = 0; i < A.size(); i++) {
+                    final GenPolynomial<MOD> t = T.get(i);
+                    final GenPolynomial<MOD> a = A.get(i);
+                    cs.add(new Callable<GenPolynomial<MOD>>() {
+
+
+                        public GenPolynomial<MOD> call() {
+                            return C.multiply(t).remainder(a);
+                        }
+                    });
+                }
+                return compute(cs, C.length());
+            }
+            GenPolynomialRing<GenPolynomial<MOD>> qrfac = pkfac.recursive(1);
+            GenPolynomialRing<MOD> ckfac = (GenPolynomialRing<MOD>) qrfac.coFac;
+            GenPolynomial<MOD> Cp = PolyUtil.<MOD> evaluateMain(ckfac, C, v);
+            List<GenPolynomial<MOD>> sup = new ArrayList<GenPolynomial<MOD>>(A.size());
+            for (GenPolynomial<MOD> s : sub.solve(Cp, d)) {
+                sup.add(s.extend(pkfac, 0, 0L));
+            }
+            GenPolynomial<MOD> E = C.subtract(combination(sup));
+            GenPolynomial<MOD> xv = pkfac.univariate(0, 1);
+            xv = xv.subtract(pkfac.fromInteger(v.getSymmetricInteger().getVal()));
+            GenPolynomial<MOD> mon = pkfac.getONE();
+            for (int e = 1; e <= d && !E.isZERO(); e++) {
+                if (E.degree(pkfac.nvar - 1) < e) { // all further Taylor coefficients are zero
+                    break;
+                }
+                mon = mon.multiply(xv);
+                GenPolynomial<MOD> cm = taylorCoefficient(PolyUtil.<MOD> recursive(qrfac, E), e, v);
+                if (cm.isZERO()) {
+                    continue;
+                }
+                List<GenPolynomial<MOD>> S = sub.solve(cm, d);
+                List<GenPolynomial<MOD>> Sm = new ArrayList<GenPolynomial<MOD>>(S.size());
+                for (int i = 0; i < S.size(); i++) {
+                    GenPolynomial<MOD> dm = S.get(i).extend(pkfac, 0, 0L).multiply(mon);
+                    Sm.add(dm);
+                    sup.set(i, sup.get(i).sum(dm));
+                }
+                E = E.subtract(combination(Sm));
+            }
+            return sup;
+        }
+
+
+        /**
+         * Linear combination with the co-products.
+         * @param S list of polynomials.
+         * @return sum_i S_i B_i.
+         */
+        GenPolynomial<MOD> combination(List<GenPolynomial<MOD>> S) {
+            List<Callable<GenPolynomial<MOD>>> cs = new ArrayList<Callable<GenPolynomial<MOD>>>(S.size());
+            long len = 0L;
+            for (int i = 0; i < S.size(); i++) {
+                final GenPolynomial<MOD> s = S.get(i);
+                final GenPolynomial<MOD> b = B.get(i);
+                len += s.length();
+                cs.add(new Callable<GenPolynomial<MOD>>() {
+
+
+                    public GenPolynomial<MOD> call() {
+                        return b.multiply(s);
+                    }
+                });
+            }
+            GenPolynomial<MOD> c = pkfac.getZERO();
+            for (GenPolynomial<MOD> p : compute(cs, len)) {
+                c = c.sum(p);
+            }
+            return c;
+        }
+
+
+        /**
+         * Compute tasks, in parallel if the size is large enough.
+         * @param cs list of tasks.
+         * @param len number of terms of the input.
+         * @return list of results.
+         */
+        List<GenPolynomial<MOD>> compute(List<Callable<GenPolynomial<MOD>>> cs, long len) {
+            int threads = (parallel && len >= PARALLEL_TERMS) ? cs.size() : 1;
+            return ComputerThreads.invokeAll(cs, threads);
+        }
+    }
+
+}
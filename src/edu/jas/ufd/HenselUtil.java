@@ -23,6 +23,7 @@ import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.Monomial;
 import edu.jas.poly.PolyUtil;
 import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingElem;
 import edu.jas.structure.RingFactory;
 
 
@@ -1868,4 +1869,49 @@ public class HenselUtil {
         return lift;
     }
 
+
+    /**
+     * Power sums of the roots of a monic univariate polynomial. With Newton's
+     * identities the traces Tr_j(A) = sum_i a_i^j of the roots a_i of A are
+     * computed from the coefficients of A. Used for the lattice construction
+     * in van Hoeij's factor recombination.
+     * @param A monic univariate polynomial, e.g. a Hensel lift mod p^k.
+     * @param s number of power sums.
+     * @return [Tr_1(A), ..., Tr_s(A)].
+     */
+    public static <C extends RingElem<C>> List<C> powerSums(GenPolynomial<C> A, int s) {
+        if (A == null || A.isZERO()) {
+            throw new IllegalArgumentException("A must be nonzero");
+        }
+        if (A.ring.nvar != 1) {
+            throw new IllegalArgumentException("polynomial ring not univariate");
+        }
+        if (!A.leadingBaseCoefficient().isONE()) {
+            throw new IllegalArgumentException("polynomial not monic: " + A);
+        }
+        RingFactory<C> cfac = A.ring.coFac;
+        int d = (int) A.degree(0);
+        // c_i = coefficient of x^(d-i)
+        List<C> c = new ArrayList<C>(d + 1);
+        for (int i = 0; i <= d; i++) {
+            c.add(cfac.getZERO());
+        }
+        for (Monomial<C> m : A) {
+            c.set(d - (int) m.exponent().getVal(0), m.coefficient());
+        }
+        List<C> ps = new ArrayList<C>(s);
+        for (int j = 1; j <= s; j++) {
+            C p = cfac.getZERO();
+            if (j <= d) {
+                p = c.get(j).multiply(cfac.fromInteger(j));
+            }
+            int l = Math.min(j - 1, d);
+            for (int i = 1; i <= l; i++) {
+                p = p.sum(c.get(i).multiply(ps.get(j - i - 1)));
+            }
+            ps.add(p.negate());
+        }
+        return ps;
+    }
+
 }
@@ -82,6 +82,24 @@ public class QuotientRing<C extends GcdRingElem<C>> implements RingFactory<Quoti
     }
 
 
+    /**
+     * The constructor creates a QuotientRing object from a GenPolynomialRing
+     * and a gcd engine, e.g. a <code>GCDCache</code>.
+     * @param r polynomial ring.
+     * @param e gcd engine.
+     * @see edu.jas.ufd.GCDFactory#getCachedProxy
+     */
+    public QuotientRing(GenPolynomialRing<C> r, GreatestCommonDivisor<C> e) {
+        if (e == null) {
+            throw new IllegalArgumentException("gcd engine may not be null");
+        }
+        ring = r;
+        ufdGCD = true;
+        engine = e;
+        logger.debug("quotient ring constructed");
+    }
+
+
     /**
      * Factory for base elements.
      */
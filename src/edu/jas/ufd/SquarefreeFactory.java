@@ -10,6 +10,8 @@ import org.apache.logging.log4j.Logger;
 
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.GaloisFieldElem;
+import edu.jas.arith.GaloisFieldRing;
 import edu.jas.arith.ModInt;
 import edu.jas.arith.ModIntRing;
 import edu.jas.arith.ModInteger;
@@ -103,6 +105,17 @@ public class SquarefreeFactory {
     }
 
 
+    /**
+     * Determine suitable implementation of squarefree factorization algorithm,
+     * case GaloisFieldElem.
+     * @param fac GaloisFieldRing.
+     * @return squarefree factorization algorithm implementation.
+     */
+    public static SquarefreeAbstract<GaloisFieldElem> getImplementation(GaloisFieldRing fac) {
+        return new SquarefreeFiniteFieldCharP<GaloisFieldElem>(fac);
+    }
+
+
     /**
      * Determine suitable implementation of squarefree factorization algorithm,
      * case BigInteger.
@@ -13,6 +13,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
 
 import edu.jas.arith.BigInteger;
+import edu.jas.arith.GaloisFieldElem;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -86,6 +87,14 @@ public class SquarefreeFiniteFieldCharP<C extends GcdRingElem<C>> extends Square
             return c;
         }
         C r = c;
+        Object oc = c;
+        if (oc instanceof GaloisFieldElem) {
+            // case GF(p^k): r = c**(p**(k-1)), r**p == c
+            oc = ((GaloisFieldElem) oc).rootCharacteristic();
+            @SuppressWarnings("unchecked")
+            C rc = (C) oc;
+            return rc;
+        }
         if (aCoFac == null && qCoFac == null) {
             // case ModInteger: c**p == c
             return r;
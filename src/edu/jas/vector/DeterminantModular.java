@@ -0,0 +1,226 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.ChineseRemainder;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.PrimeList;
+import edu.jas.kern.ComputerThreads;
+
+
+/**
+ * Multi-modular determinant of integer matrices. The determinant is computed
+ * modulo sufficiently many primes with <code>ModLongMatrix</code> and
+ * reconstructed by Chinese remaindering with a subproduct tree. The number of
+ * primes is determined by the Hadamard bound. The modular determinants are
+ * independent and are computed in parallel in the <code>ComputerThreads</code>
+ * pool.
+ * @author Heinz Kredel
+ */
+
+public class DeterminantModular implements Serializable {
+
+
+    private static final Logger logger = LogManager.getLogger(DeterminantModular.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of parallel tasks.
+     */
+    protected final int threads;
+
+
+    /**
+     * Constructor.
+     */
+    public DeterminantModular() {
+        this(ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of parallel tasks.
+     */
+    public DeterminantModular(int threads) {
+        this.threads = ComputerThreads.checkThreads(threads);
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + threads + ")";
+    }
+
+
+    /**
+     * Determinant of an integer matrix.
+     * @param a square integer matrix.
+     * @return det(a).
+     */
+    public edu.jas.arith.BigInteger determinant(GenMatrix<edu.jas.arith.BigInteger> a) {
+        int n = a.ring.rows;
+        if (n != a.ring.cols) {
+            throw new IllegalArgumentException("matrix not square " + a.ring);
+        }
+        final BigInteger[][] b = new BigInteger[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                b[i][j] = a.get(i, j).getVal();
+            }
+        }
+        long hb = hadamardBound(b);
+        if (hb < 0L) { // zero row
+            return edu.jas.arith.BigInteger.ZERO;
+        }
+        // primes with product M > 2 |det|
+        List<Long> primes = new ArrayList<Long>();
+        BigInteger M = BigInteger.ONE;
+        for (BigInteger p : primes()) {
+            if (M.bitLength() > hb + 1) {
+                break;
+            }
+            primes.add(p.longValue());
+            M = M.multiply(p);
+        }
+        if (debug) {
+            logger.debug("Hadamard bound 2^" + hb + ", #primes = " + primes.size());
+        }
+        List<Callable<Long>> cs = new ArrayList<Callable<Long>>(primes.size());
+        for (final Long p : primes) {
+            cs.add(new Callable<Long>() {
+
+
+                public Long call() {
+                    return determinant(b, p);
+                }
+            });
+        }
+        List<Long> ds = ComputerThreads.invokeAll(cs, threads);
+        // Chinese remaindering with a subproduct tree
+        List<BigInteger> ms = new ArrayList<BigInteger>(primes.size());
+        long[] rs = new long[primes.size()];
+        for (int k = 0; k < primes.size(); k++) {
+            ms.add(BigInteger.valueOf(primes.get(k)));
+            rs[k] = ds.get(k);
+        }
+        ChineseRemainder cr = new ChineseRemainder(ms);
+        BigInteger d = cr.symmetric(cr.combine(rs));
+        return new edu.jas.arith.BigInteger(d);
+    }
+
+
+    /**
+     * Determinant modulo a prime.
+     * @param b square integer matrix.
+     * @param p prime modulus.
+     * @return det(b) mod p.
+     */
+    protected long determinant(BigInteger[][] b, long p) {
+        int n = b.length;
+        BigInteger P = BigInteger.valueOf(p);
+        long[] v = new long[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                v[i * n + j] = b[i][j].mod(P).longValue();
+            }
+        }
+        ModLongMatrix A = new ModLongMatrix(new ModLongRing(p, true), n, n, v);
+        return A.determinant().val;
+    }
+
+
+    /**
+     * Bit length of the Hadamard bound.
+     * @param b square integer matrix.
+     * @return e with |det(b)| &le; 2^e, or -1 if b has a zero row.
+     */
+    protected static long hadamardBound(BigInteger[][] b) {
+        long e = 0L;
+        for (BigInteger[] row : b) {
+            BigInteger s = BigInteger.ZERO;
+            for (BigInteger c : row) {
+                s = s.add(c.multiply(c));
+            }
+            if (s.signum() == 0) {
+                return -1L;
+            }
+            e += (s.bitLength() + 1) / 2; // sqrt(s) <= 2^ceil(bitLength/2)
+        }
+        return e;
+    }
+
+
+    /**
+     * Primes for the modular determinants. The primes of the medium
+     * <code>PrimeList</code> which are valid <code>ModLongRing</code> moduli,
+     * followed by the primes above 2^30.
+     * @return iterable over increasing primes less than 2^31.
+     */
+    protected static Iterable<BigInteger> primes() {
+        final List<BigInteger> P = new ArrayList<BigInteger>();
+        for (BigInteger p : new PrimeList(PrimeList.Range.medium)) {
+            if (p.bitLength() > 30) {
+                break;
+            }
+            P.add(p);
+        }
+        final BigInteger start = BigInteger.ONE.shiftLeft(30);
+        return new Iterable<BigInteger>() {
+
+
+            public java.util.Iterator<BigInteger> iterator() {
+                return new java.util.Iterator<BigInteger>() {
+
+
+                    int index = 0;
+
+
+                    BigInteger last = start;
+
+
+                    public boolean hasNext() {
+                        return true;
+                    }
+
+
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove not implemented");
+                    }
+
+
+                    public BigInteger next() {
+                        if (index < P.size()) {
+                            return P.get(index++);
+                        }
+                        last = last.nextProbablePrime();
+                        if (last.compareTo(ModLongRing.MAX_LONG) >= 0) {
+                            throw new ArithmeticException("no more primes for ModLongRing");
+                        }
+                        return last;
+                    }
+                };
+            }
+        };
+    }
+
+}
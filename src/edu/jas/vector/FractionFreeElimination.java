@@ -0,0 +1,392 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Fraction free Gaussian elimination over integral domains. Implements the
+ * one-step algorithm of E. Bareiss: in step k every entry is replaced by
+ * <code>(p_k a_ij - a_ik a_kj) / p_{k-1}</code> where the division by the
+ * previous pivot <code>p_{k-1}</code> is exact. All intermediate entries are
+ * minors of the input matrix, so their size stays bounded. Pivots are the
+ * first non zero entries of the columns, no size heuristics are used. The
+ * algorithms work for coefficients like <code>BigInteger</code> or
+ * polynomial rings, only exact division is required, see
+ * <code>exactDivide()</code>.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+public class FractionFreeElimination<C extends RingElem<C>> implements Serializable {
+
+
+    private static final Logger logger = LogManager.getLogger(FractionFreeElimination.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Constructor.
+     */
+    public FractionFreeElimination() {
+    }
+
+
+    /**
+     * Determinant of a matrix.
+     * @param a square matrix.
+     * @return det(a).
+     */
+    public C determinant(GenMatrix<C> a) {
+        int n = a.ring.rows;
+        if (n != a.ring.cols) {
+            throw new IllegalArgumentException("matrix not square " + a.ring);
+        }
+        RingFactory<C> cfac = a.ring.coFac;
+        List<ArrayList<C>> m = copyRows(a.matrix);
+        C prev = cfac.getONE();
+        boolean neg = false;
+        for (int k = 0; k < n; k++) {
+            int s = k;
+            while (s < n && m.get(s).get(k).isZERO()) {
+                s++;
+            }
+            if (s == n) {
+                return cfac.getZERO();
+            }
+            if (s != k) {
+                ArrayList<C> t = m.get(s);
+                m.set(s, m.get(k));
+                m.set(k, t);
+                neg = !neg;
+            }
+            ArrayList<C> mk = m.get(k);
+            C p = mk.get(k);
+            for (int i = k + 1; i < n; i++) {
+                ArrayList<C> mi = m.get(i);
+                C aik = mi.get(k);
+                for (int j = k + 1; j < n; j++) {
+                    C e = p.multiply(mi.get(j));
+                    if (!aik.isZERO()) {
+                        e = e.subtract(aik.multiply(mk.get(j)));
+                    }
+                    if (k > 0) {
+                        e = exactDivide(e, prev);
+                    }
+                    mi.set(j, e);
+                }
+                mi.set(k, cfac.getZERO());
+            }
+            prev = p;
+        }
+        if (neg) {
+            prev = prev.negate();
+        }
+        return prev;
+    }
+
+
+    /**
+     * Rank of a matrix.
+     * @param a matrix.
+     * @return rank(a).
+     */
+    public int rank(GenMatrix<C> a) {
+        List<ArrayList<C>> m = copyRows(a.matrix);
+        return echelon(a.ring.coFac, m, a.ring.cols, false).length;
+    }
+
+
+    /**
+     * Fraction free row echelon form. The entries of row i are i+1 x i+1
+     * minors of a.
+     * @param a matrix.
+     * @return upper triangular matrix which is row equivalent to a.
+     */
+    public GenMatrix<C> rowEchelonForm(GenMatrix<C> a) {
+        List<ArrayList<C>> m = copyRows(a.matrix);
+        echelon(a.ring.coFac, m, a.ring.cols, false);
+        return new GenMatrix<C>(a.ring, new ArrayList<ArrayList<C>>(m));
+    }
+
+
+    /**
+     * Fraction free reduced row echelon form. All pivots are equal to a
+     * non zero r x r minor d of a, where r is the rank of a, and all other
+     * entries in pivot columns are zero. Dividing by d gives the reduced row
+     * echelon form over the quotient field.
+     * @param a matrix.
+     * @return reduced row echelon form of a, scaled by d.
+     */
+    public GenMatrix<C> reducedRowEchelonForm(GenMatrix<C> a) {
+        List<ArrayList<C>> m = copyRows(a.matrix);
+        echelon(a.ring.coFac, m, a.ring.cols, true);
+        return new GenMatrix<C>(a.ring, new ArrayList<ArrayList<C>>(m));
+    }
+
+
+    /**
+     * Null space of a matrix.
+     * @param a matrix.
+     * @return list of linear independent vectors v with a * v = 0 which span
+     *         the null space over the quotient field.
+     */
+    public List<GenVector<C>> nullSpace(GenMatrix<C> a) {
+        int n = a.ring.cols;
+        RingFactory<C> cfac = a.ring.coFac;
+        List<ArrayList<C>> m = copyRows(a.matrix);
+        int[] piv = echelon(cfac, m, n, true);
+        GenVectorModul<C> vfac = new GenVectorModul<C>(cfac, n);
+        List<GenVector<C>> N = new ArrayList<GenVector<C>>(n - piv.length);
+        if (piv.length == n) {
+            return N;
+        }
+        C d = pivot(cfac, m, piv);
+        boolean[] isPivot = new boolean[n];
+        for (int j : piv) {
+            isPivot[j] = true;
+        }
+        for (int f = 0; f < n; f++) {
+            if (isPivot[f]) {
+                continue;
+            }
+            List<C> v = new ArrayList<C>(vfac.getZERO().val);
+            v.set(f, d);
+            for (int r = 0; r < piv.length; r++) {
+                v.set(piv[r], m.get(r).get(f).negate());
+            }
+            N.add(new GenVector<C>(vfac, v));
+        }
+        return N;
+    }
+
+
+    /**
+     * Test if n is a null space for the linear system: a * n = 0.
+     * @param a matrix.
+     * @param N list of vectors.
+     * @return true, if all vectors of N are in the null space of a, else
+     *         false.
+     */
+    public boolean isNullSpace(GenMatrix<C> a, List<GenVector<C>> N) {
+        BasicLinAlg<C> blas = new BasicLinAlg<C>();
+        for (GenVector<C> v : N) {
+            for (ArrayList<C> row : a.matrix) {
+                if (!blas.scalarProduct(row, v.val).isZERO()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Fraction free solution of a linear system: a x = d b.
+     * @param a matrix.
+     * @param b vector of right hand side.
+     * @return [x_0, ..., x_{n-1}, d] with a x = d b and d != 0, the free
+     *         variables of x are zero.
+     * @throws ArithmeticException if the system has no solution.
+     */
+    public List<C> solveFractionFree(GenMatrix<C> a, GenVector<C> b) {
+        int n = a.ring.cols;
+        if (b.modul.cols != a.ring.rows) {
+            throw new IllegalArgumentException("dimensions do not match " + a.ring + ", " + b.modul.cols);
+        }
+        RingFactory<C> cfac = a.ring.coFac;
+        List<ArrayList<C>> m = new ArrayList<ArrayList<C>>(a.ring.rows);
+        int i = 0;
+        for (ArrayList<C> row : a.matrix) {
+            ArrayList<C> r = new ArrayList<C>(n + 1);
+            r.addAll(row);
+            r.add(b.val.get(i++));
+            m.add(r);
+        }
+        int[] piv = echelon(cfac, m, n, true);
+        for (int r = piv.length; r < m.size(); r++) {
+            if (!m.get(r).get(n).isZERO()) {
+                throw new ArithmeticException("linear system not solvable, rank = " + piv.length);
+            }
+        }
+        List<C> x = new ArrayList<C>(n + 1);
+        for (int j = 0; j < n; j++) {
+            x.add(cfac.getZERO());
+        }
+        for (int r = 0; r < piv.length; r++) {
+            x.set(piv[r], m.get(r).get(n));
+        }
+        x.add(pivot(cfac, m, piv));
+        return x;
+    }
+
+
+    /**
+     * Solve a linear system: a x = b. The free variables of the solution
+     * are zero.
+     * @param a matrix.
+     * @param b vector of right hand side.
+     * @return a solution vector x.
+     * @throws ArithmeticException if the system has no solution in the
+     *             coefficient ring.
+     */
+    public GenVector<C> solve(GenMatrix<C> a, GenVector<C> b) {
+        int n = a.ring.cols;
+        List<C> x = solveFractionFree(a, b);
+        C d = x.remove(n);
+        if (!d.isONE()) {
+            boolean field = a.ring.coFac.isField();
+            for (int j = 0; j < n; j++) {
+                C xj = x.get(j);
+                if (xj.isZERO()) {
+                    continue;
+                }
+                C q = (field ? xj.divide(d) : exactDivide(xj, d));
+                if (!field && !q.multiply(d).equals(xj)) {
+                    throw new ArithmeticException("no solution in coefficient ring, denominator " + d);
+                }
+                x.set(j, q);
+            }
+        }
+        return new GenVector<C>(new GenVectorModul<C>(a.ring.coFac, n), x);
+    }
+
+
+    /**
+     * Fraction free Gaussian elimination in place.
+     * @param cfac coefficient factory.
+     * @param m matrix rows, will be modified.
+     * @param mc pivots are only searched in the first mc columns.
+     * @param reduce if true, the entries above the pivots are also
+     *            eliminated.
+     * @return the pivot columns, pivot r is in row r.
+     */
+    protected int[] echelon(RingFactory<C> cfac, List<ArrayList<C>> m, int mc, boolean reduce) {
+        int n = m.size();
+        if (n == 0) {
+            return new int[0];
+        }
+        int w = m.get(0).size();
+        C zero = cfac.getZERO();
+        int[] piv = new int[Math.min(n, mc)];
+        C prev = null; // == 1
+        int r = 0;
+        for (int j = 0; j < mc && r < n; j++) {
+            int s = r;
+            while (s < n && m.get(s).get(j).isZERO()) {
+                s++;
+            }
+            if (s == n) {
+                continue;
+            }
+            if (s != r) {
+                ArrayList<C> t = m.get(s);
+                m.set(s, m.get(r));
+                m.set(r, t);
+            }
+            ArrayList<C> mr = m.get(r);
+            C p = mr.get(j);
+            for (int i = (reduce ? 0 : r + 1); i < n; i++) {
+                if (i == r) {
+                    continue;
+                }
+                ArrayList<C> mi = m.get(i);
+                C aij = mi.get(j);
+                // entries of row r before column j are zero
+                for (int l = (i < r ? 0 : j + 1); l < w; l++) {
+                    if (l == j) {
+                        continue;
+                    }
+                    C e = mi.get(l);
+                    C f = mr.get(l);
+                    if (e.isZERO() && (f.isZERO() || aij.isZERO())) {
+                        continue;
+                    }
+                    e = p.multiply(e);
+                    if (!aij.isZERO() && !f.isZERO()) {
+                        e = e.subtract(aij.multiply(f));
+                    }
+                    if (prev != null) {
+                        e = exactDivide(e, prev);
+                    }
+                    mi.set(l, e);
+                }
+                mi.set(j, zero);
+            }
+            prev = p;
+            piv[r++] = j;
+        }
+        if (debug) {
+            logger.debug("pivots = " + Arrays.toString(Arrays.copyOf(piv, r)));
+        }
+        return Arrays.copyOf(piv, r);
+    }
+
+
+    /**
+     * Exact division. Polynomials are divided with pseudo division, which is
+     * exact if the leading coefficient of the divisor is not a unit but the
+     * division has no remainder.
+     * @param a ring element.
+     * @param b ring element which divides a.
+     * @return a / b.
+     */
+    @SuppressWarnings({ "unchecked", "cast" })
+    protected C exactDivide(C a, C b) {
+        if (a instanceof GenPolynomial && !b.isUnit()) {
+            GenPolynomial<?> bp = (GenPolynomial<?>) b;
+            if (!bp.leadingBaseCoefficient().isUnit()) {
+                return (C) (Object) PolyUtil.basePseudoDivide((GenPolynomial) a, (GenPolynomial) b);
+            }
+        }
+        return a.divide(b);
+    }
+
+
+    /**
+     * Last pivot.
+     * @param cfac coefficient factory.
+     * @param m matrix rows after elimination.
+     * @param piv pivot columns.
+     * @return the last pivot or 1 if there are no pivots.
+     */
+    C pivot(RingFactory<C> cfac, List<ArrayList<C>> m, int[] piv) {
+        if (piv.length == 0) {
+            return cfac.getONE();
+        }
+        int r = piv.length - 1;
+        return m.get(r).get(piv[r]);
+    }
+
+
+    /**
+     * Copy matrix rows.
+     * @param a matrix rows.
+     * @return copy of the row lists.
+     */
+    List<ArrayList<C>> copyRows(List<ArrayList<C>> a) {
+        List<ArrayList<C>> m = new ArrayList<ArrayList<C>>(a.size());
+        for (ArrayList<C> row : a) {
+            m.add(new ArrayList<C>(row));
+        }
+        return m;
+    }
+
+}
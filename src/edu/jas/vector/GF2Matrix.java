@@ -0,0 +1,726 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * GF2Matrix implements dense bit-packed matrices over GF(2). Each row is
+ * stored in (cols+63)/64 words of a flat <code>long[]</code> array, bit l of
+ * word k of a row is the entry in column 64 k + l. Row operations are XORs of
+ * words. Multiplication uses the method of Four Russians (M4RM), Gaussian
+ * elimination uses the method of Four Russians inversion (M4RI) with tables
+ * of all linear combinations of up to 8 pivot rows. Matrices can be
+ * converted from and to <code>GenMatrix</code> with coefficients of
+ * characteristic 2, e.g. ModInt or ModLong modulo 2.
+ * @author Heinz Kredel
+ */
+
+public class GF2Matrix implements Serializable {
+
+
+    private static final Logger logger = LogManager.getLogger(GF2Matrix.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Maximal number of rows combined in one Four Russians table.
+     */
+    public final static int MAX_TABLE_BITS = 8;
+
+
+    /**
+     * Number of rows.
+     */
+    public final int rows;
+
+
+    /**
+     * Number of columns.
+     */
+    public final int cols;
+
+
+    /**
+     * Number of words per row.
+     */
+    public final int words;
+
+
+    /**
+     * Entries in row major order, bit-packed.
+     */
+    protected final long[] val;
+
+
+    private int hashValue = 0;
+
+
+    /**
+     * Constructor for zero GF2Matrix.
+     * @param n number of rows.
+     * @param m number of columns.
+     */
+    public GF2Matrix(int n, int m) {
+        this(n, m, new long[n * words(m)]);
+    }
+
+
+    /**
+     * Constructor for GF2Matrix.
+     * @param n number of rows.
+     * @param m number of columns.
+     * @param a entries in row major order, (m+63)/64 words per row, bits
+     *            beyond column m must be zero, not copied.
+     */
+    public GF2Matrix(int n, int m, long[] a) {
+        if (a == null) {
+            throw new IllegalArgumentException("Empty a not allowed");
+        }
+        if (n < 0 || m < 0 || a.length != n * words(m)) {
+            throw new IllegalArgumentException("wrong dimensions " + n + " x " + m + ", length " + a.length);
+        }
+        rows = n;
+        cols = m;
+        words = words(m);
+        val = a;
+    }
+
+
+    /**
+     * Constructor for GF2Matrix.
+     * @param <C> coefficient type.
+     * @param A matrix with coefficients of characteristic 2, the non zero
+     *            entries are mapped to 1.
+     */
+    public <C extends RingElem<C>> GF2Matrix(GenMatrix<C> A) {
+        this(A.ring.rows, A.ring.cols);
+        if (!A.ring.coFac.characteristic().equals(java.math.BigInteger.valueOf(2L))) {
+            throw new IllegalArgumentException("only for characteristic 2: " + A.ring.coFac);
+        }
+        int i = 0;
+        for (ArrayList<C> row : A.matrix) {
+            int j = 0;
+            for (C c : row) {
+                if (!c.isZERO()) {
+                    val[i * words + (j >>> 6)] |= 1L << (j & 63);
+                }
+                j++;
+            }
+            i++;
+        }
+    }
+
+
+    /**
+     * Number of words for a row.
+     * @param m number of columns.
+     * @return (m+63)/64.
+     */
+    static int words(int m) {
+        return (m + 63) >>> 6;
+    }
+
+
+    /**
+     * Identity matrix.
+     * @param n number of rows and columns.
+     * @return the n x n identity matrix.
+     */
+    public static GF2Matrix one(int n) {
+        GF2Matrix E = new GF2Matrix(n, n);
+        for (int i = 0; i < n; i++) {
+            E.val[i * E.words + (i >>> 6)] = 1L << (i & 63);
+        }
+        return E;
+    }
+
+
+    /**
+     * Random matrix.
+     * @param n number of rows.
+     * @param m number of columns.
+     * @param q density of non zero entries.
+     * @param rnd random number generator.
+     * @return a random n x m matrix.
+     */
+    public static GF2Matrix random(int n, int m, float q, Random rnd) {
+        GF2Matrix R = new GF2Matrix(n, m);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                if (rnd.nextFloat() < q) {
+                    R.val[i * R.words + (j >>> 6)] |= 1L << (j & 63);
+                }
+            }
+        }
+        return R;
+    }
+
+
+    /**
+     * Convert to GenMatrix.
+     * @param <C> coefficient type.
+     * @param mfac matrix ring with rows x cols matrices over a ring of
+     *            characteristic 2.
+     * @return this as matrix over mfac.coFac.
+     */
+    public <C extends RingElem<C>> GenMatrix<C> toGenMatrix(GenMatrixRing<C> mfac) {
+        if (mfac.rows != rows || mfac.cols != cols) {
+            throw new IllegalArgumentException("wrong matrix ring " + mfac + " for " + rows + " x " + cols);
+        }
+        C zero = mfac.coFac.getZERO();
+        C one = mfac.coFac.getONE();
+        ArrayList<ArrayList<C>> m = new ArrayList<ArrayList<C>>(rows);
+        for (int i = 0; i < rows; i++) {
+            ArrayList<C> row = new ArrayList<C>(cols);
+            for (int j = 0; j < cols; j++) {
+                row.add(get(i, j) == 0 ? zero : one);
+            }
+            m.add(row);
+        }
+        return new GenMatrix<C>(mfac, m);
+    }
+
+
+    /**
+     * Get element at row i, column j.
+     * @param i row index.
+     * @param j column index.
+     * @return this(i,j) in {0,1}.
+     */
+    public int get(int i, int j) {
+        return (int) ((val[i * words + (j >>> 6)] >>> (j & 63)) & 1L);
+    }
+
+
+    /**
+     * Set element at row i, column j. Mutates this matrix.
+     * @param i row index.
+     * @param j column index.
+     * @param a element to set, only the lowest bit is used.
+     */
+    public void setMutate(int i, int j, long a) {
+        int k = i * words + (j >>> 6);
+        long b = 1L << (j & 63);
+        if ((a & 1L) == 0L) {
+            val[k] &= ~b;
+        } else {
+            val[k] |= b;
+        }
+        hashValue = 0; // invalidate
+    }
+
+
+    /**
+     * Get a row.
+     * @param i row index.
+     * @return copy of the words of row i.
+     */
+    public long[] getRow(int i) {
+        return Arrays.copyOfRange(val, i * words, (i + 1) * words);
+    }
+
+
+    /**
+     * Copy this matrix.
+     * @return a clone of this.
+     */
+    public GF2Matrix copy() {
+        return new GF2Matrix(rows, cols, val.clone());
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("[\n");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                s.append(",\n");
+            }
+            s.append("[ ");
+            for (int j = 0; j < cols; j++) {
+                if (j > 0) {
+                    s.append(", ");
+                }
+                s.append(get(i, j));
+            }
+            s.append(" ]");
+        }
+        s.append(" ] :: GF2Matrix(" + rows + "," + cols + ")");
+        return s.toString();
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GF2Matrix)) {
+            return false;
+        }
+        GF2Matrix om = (GF2Matrix) other;
+        if (rows != om.rows || cols != om.cols) {
+            return false;
+        }
+        return Arrays.equals(val, om.val);
+    }
+
+
+    /**
+     * Hash code for this matrix.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        if (hashValue == 0) {
+            hashValue = 37 * Arrays.hashCode(val) + rows;
+            if (hashValue == 0) {
+                hashValue = 1;
+            }
+        }
+        return hashValue;
+    }
+
+
+    /**
+     * Test if this is zero.
+     * @return true if this is 0, else false.
+     */
+    public boolean isZERO() {
+        for (long a : val) {
+            if (a != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Test if this is the identity matrix.
+     * @return true if this is 1, else false.
+     */
+    public boolean isONE() {
+        return rows == cols && equals(one(rows));
+    }
+
+
+    /**
+     * Sum of matrices, also the difference.
+     * @param S matrix.
+     * @return this+S.
+     */
+    public GF2Matrix sum(GF2Matrix S) {
+        if (rows != S.rows || cols != S.cols) {
+            throw new IllegalArgumentException("wrong dimensions " + S.rows + " x " + S.cols);
+        }
+        long[] c = val.clone();
+        for (int k = 0; k < c.length; k++) {
+            c[k] ^= S.val[k];
+        }
+        return new GF2Matrix(rows, cols, c);
+    }
+
+
+    /**
+     * Difference of matrices.
+     * @param S matrix.
+     * @return this-S = this+S.
+     */
+    public GF2Matrix subtract(GF2Matrix S) {
+        return sum(S);
+    }
+
+
+    /**
+     * Transposed matrix.
+     * @return transpose(this).
+     */
+    public GF2Matrix transpose() {
+        GF2Matrix T = new GF2Matrix(cols, rows);
+        for (int i = 0; i < rows; i++) {
+            int iw = i * words;
+            for (int k = 0; k < words; k++) {
+                long w = val[iw + k];
+                while (w != 0L) {
+                    int l = Long.numberOfTrailingZeros(w);
+                    w &= w - 1L;
+                    int j = 64 * k + l;
+                    T.val[j * T.words + (i >>> 6)] |= 1L << (i & 63);
+                }
+            }
+        }
+        return T;
+    }
+
+
+    /**
+     * Product of matrices with the method of Four Russians. The rows of S are
+     * combined in groups of t, for each group a table of all 2<sup>t</sup>
+     * sums of its rows is computed and the rows of the result are updated by
+     * one table lookup per group.
+     * @param S matrix.
+     * @return this*S.
+     */
+    public GF2Matrix multiply(GF2Matrix S) {
+        if (cols != S.rows) {
+            throw new IllegalArgumentException("wrong dimensions " + cols + " != " + S.rows);
+        }
+        int sw = S.words;
+        long[] c = new long[rows * sw];
+        int t = tableBits(rows);
+        long[] T = new long[(1 << t) * sw];
+        for (int k0 = 0; k0 < cols; k0 += t) {
+            int tk = Math.min(t, cols - k0);
+            int ts = 1 << tk;
+            for (int u = 1; u < ts; u++) { // T[u] = T[u - lowbit] + row
+                int low = Integer.numberOfTrailingZeros(u);
+                int uo = u * sw;
+                int vo = (u & (u - 1)) * sw;
+                int so = (k0 + low) * sw;
+                for (int l = 0; l < sw; l++) {
+                    T[uo + l] = T[vo + l] ^ S.val[so + l];
+                }
+            }
+            for (int i = 0; i < rows; i++) {
+                int u = bits(val, i * words, k0, tk);
+                if (u != 0) {
+                    int uo = u * sw;
+                    int co = i * sw;
+                    for (int l = 0; l < sw; l++) {
+                        c[co + l] ^= T[uo + l];
+                    }
+                }
+            }
+        }
+        return new GF2Matrix(rows, S.cols, c);
+    }
+
+
+    /**
+     * Product of matrices, row by row reference implementation.
+     * @param S matrix.
+     * @return this*S.
+     */
+    public GF2Matrix multiplySimple(GF2Matrix S) {
+        if (cols != S.rows) {
+            throw new IllegalArgumentException("wrong dimensions " + cols + " != " + S.rows);
+        }
+        int sw = S.words;
+        long[] c = new long[rows * sw];
+        for (int i = 0; i < rows; i++) {
+            for (int k = 0; k < cols; k++) {
+                if (get(i, k) != 0) {
+                    for (int l = 0; l < sw; l++) {
+                        c[i * sw + l] ^= S.val[k * sw + l];
+                    }
+                }
+            }
+        }
+        return new GF2Matrix(rows, S.cols, c);
+    }
+
+
+    /**
+     * Matrix vector product.
+     * @param v bit-packed vector with cols entries.
+     * @return this*v as bit-packed vector with rows entries.
+     */
+    public long[] multiply(long[] v) {
+        long[] c = new long[words(rows)];
+        for (int i = 0; i < rows; i++) {
+            long s = 0L;
+            int iw = i * words;
+            for (int k = 0; k < words; k++) {
+                s ^= val[iw + k] & v[k];
+            }
+            if ((Long.bitCount(s) & 1) != 0) {
+                c[i >>> 6] |= 1L << (i & 63);
+            }
+        }
+        return c;
+    }
+
+
+    /**
+     * Reduced row echelon form.
+     * @return the reduced row echelon form of this.
+     */
+    public GF2Matrix rowEchelonForm() {
+        long[] a = val.clone();
+        echelon(a, rows, words, cols);
+        return new GF2Matrix(rows, cols, a);
+    }
+
+
+    /**
+     * Rank.
+     * @return the rank of this.
+     */
+    public int rank() {
+        return echelon(val.clone(), rows, words, cols).length;
+    }
+
+
+    /**
+     * Determinant.
+     * @return the determinant of this square matrix, 0 or 1.
+     */
+    public int determinant() {
+        if (rows != cols) {
+            throw new IllegalArgumentException("matrix not square " + rows + " x " + cols);
+        }
+        return (rank() == rows ? 1 : 0);
+    }
+
+
+    /**
+     * Null space. The rows of the result are a basis of the vectors x with
+     * this * x = 0.
+     * @return matrix with cols - rank rows which span the right null space.
+     */
+    public GF2Matrix nullSpace() {
+        long[] a = val.clone();
+        int[] piv = echelon(a, rows, words, cols);
+        boolean[] isPivot = new boolean[cols];
+        for (int j : piv) {
+            isPivot[j] = true;
+        }
+        int d = cols - piv.length;
+        GF2Matrix N = new GF2Matrix(d, cols);
+        int k = 0;
+        for (int f = 0; f < cols; f++) {
+            if (isPivot[f]) {
+                continue;
+            }
+            int kw = k * words;
+            N.val[kw + (f >>> 6)] |= 1L << (f & 63);
+            for (int r = 0; r < piv.length; r++) {
+                if (((a[r * words + (f >>> 6)] >>> (f & 63)) & 1L) != 0L) {
+                    N.val[kw + (piv[r] >>> 6)] |= 1L << (piv[r] & 63);
+                }
+            }
+            k++;
+        }
+        return N;
+    }
+
+
+    /**
+     * Inverse matrix.
+     * @return S with this * S = 1.
+     * @throws NotInvertibleException if this is not invertible.
+     */
+    public GF2Matrix inverse() {
+        if (rows != cols) {
+            throw new NotInvertibleException("matrix not square " + rows + " x " + cols);
+        }
+        int n = rows;
+        int w = words(2 * n);
+        long[] a = new long[n * w];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(val, i * words, a, i * w, words);
+            int j = n + i;
+            a[i * w + (j >>> 6)] |= 1L << (j & 63);
+        }
+        int[] piv = echelon(a, n, w, n);
+        if (piv.length < n) {
+            throw new NotInvertibleException("matrix not invertible, rank = " + piv.length);
+        }
+        GF2Matrix B = new GF2Matrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int jn = n + j;
+                if (((a[i * w + (jn >>> 6)] >>> (jn & 63)) & 1L) != 0L) {
+                    B.val[i * B.words + (j >>> 6)] |= 1L << (j & 63);
+                }
+            }
+        }
+        return B;
+    }
+
+
+    /**
+     * Number of bits for the Four Russians tables.
+     * @param n number of rows.
+     * @return about 3/4 log_2(n), at least 1 and at most MAX_TABLE_BITS.
+     */
+    static int tableBits(int n) {
+        int l = 31 - Integer.numberOfLeadingZeros(Math.max(n, 2));
+        return Math.max(1, Math.min(MAX_TABLE_BITS, (3 * l) / 4));
+    }
+
+
+    /**
+     * Extract consecutive bits of a row.
+     * @param a words.
+     * @param o offset of the row in a.
+     * @param j first column.
+     * @param t number of bits, t &le; 32.
+     * @return the entries in columns j, ..., j+t-1 as bits 0, ..., t-1.
+     */
+    static int bits(long[] a, int o, int j, int t) {
+        int k = o + (j >>> 6);
+        int s = j & 63;
+        long w = a[k] >>> s;
+        if (s + t > 64) {
+            w |= a[k + 1] << (64 - s);
+        }
+        return (int) (w & ((1L << t) - 1L));
+    }
+
+
+    /**
+     * Gauss-Jordan elimination in place with the method of Four Russians.
+     * Pivots for up to t consecutive columns are found with the pivot rows
+     * kept reduced among themselves, then all other rows are reduced by one
+     * lookup in the table of all sums of the pivot rows.
+     * @param a entries of a n x m matrix with w words per row, will be
+     *            transformed to reduced row echelon form.
+     * @param n number of rows.
+     * @param w number of words per row.
+     * @param mc pivots are only searched in the first mc columns.
+     * @return the pivot columns, pivot r is in row r.
+     */
+    protected static int[] echelon(long[] a, int n, int w, int mc) {
+        int[] piv = new int[Math.min(n, mc)];
+        int t = tableBits(n);
+        long[] T = new long[(1 << t) * w];
+        int r = 0;
+        int j = 0;
+        while (j < mc && r < n) {
+            // find up to t pivots
+            int kk = 0;
+            while (kk < t && j < mc && r + kk < n) {
+                int s = r + kk;
+                for (; s < n; s++) {
+                    long b = (a[s * w + (j >>> 6)] >>> (j & 63)) & 1L;
+                    for (int l = 0; l < kk; l++) { // bit j of row s reduced by the pivots
+                        if (((a[s * w + (piv[r + l] >>> 6)] >>> (piv[r + l] & 63)) & 1L) != 0L) {
+                            b ^= (a[(r + l) * w + (j >>> 6)] >>> (j & 63)) & 1L;
+                        }
+                    }
+                    if (b != 0L) {
+                        break;
+                    }
+                }
+                if (s == n) {
+                    j++;
+                    continue;
+                }
+                int rk = r + kk;
+                swapRows(a, w, s, rk);
+                for (int l = 0; l < kk; l++) {
+                    int pc = piv[r + l];
+                    if (((a[rk * w + (pc >>> 6)] >>> (pc & 63)) & 1L) != 0L) {
+                        addRow(a, w, rk, r + l);
+                    }
+                }
+                for (int l = 0; l < kk; l++) {
+                    int rl = r + l;
+                    if (((a[rl * w + (j >>> 6)] >>> (j & 63)) & 1L) != 0L) {
+                        addRow(a, w, rl, rk);
+                    }
+                }
+                piv[rk] = j;
+                kk++;
+                j++;
+            }
+            if (kk == 0) {
+                break;
+            }
+            // table of all sums of the pivot rows
+            int ts = 1 << kk;
+            for (int u = 1; u < ts; u++) {
+                int low = Integer.numberOfTrailingZeros(u);
+                int uo = u * w;
+                int vo = (u & (u - 1)) * w;
+                int so = (r + low) * w;
+                for (int l = 0; l < w; l++) {
+                    T[uo + l] = T[vo + l] ^ a[so + l];
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                if (i >= r && i < r + kk) {
+                    continue;
+                }
+                int iw = i * w;
+                int u = 0;
+                for (int l = 0; l < kk; l++) {
+                    int pc = piv[r + l];
+                    u |= (int) ((a[iw + (pc >>> 6)] >>> (pc & 63)) & 1L) << l;
+                }
+                if (u != 0) {
+                    int uo = u * w;
+                    for (int l = 0; l < w; l++) {
+                        a[iw + l] ^= T[uo + l];
+                    }
+                }
+            }
+            r += kk;
+        }
+        if (debug) {
+            logger.debug("rank = " + r + ", table bits = " + t);
+        }
+        return Arrays.copyOf(piv, r);
+    }
+
+
+    /**
+     * Swap rows.
+     * @param a entries of a matrix with w words per row.
+     * @param w number of words per row.
+     * @param i row index.
+     * @param k row index.
+     */
+    static void swapRows(long[] a, int w, int i, int k) {
+        if (i == k) {
+            return;
+        }
+        int iw = i * w;
+        int kw = k * w;
+        for (int l = 0; l < w; l++) {
+            long t = a[iw + l];
+            a[iw + l] = a[kw + l];
+            a[kw + l] = t;
+        }
+    }
+
+
+    /**
+     * Add row k to row i, row(i) = row(i) + row(k).
+     * @param a entries of a matrix with w words per row.
+     * @param w number of words per row.
+     * @param i row index.
+     * @param k row index.
+     */
+    static void addRow(long[] a, int w, int i, int k) {
+        int iw = i * w;
+        int kw = k * w;
+        for (int l = 0; l < w; l++) {
+            a[iw + l] ^= a[kw + l];
+        }
+    }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.BigRational;
+
+
+/**
+ * Lattice basis reduction. Implements the integral version of the
+ * Lenstra-Lenstra-Lovasz (LLL) algorithm, see H. Cohen, A Course in
+ * Computational Algebraic Number Theory, algorithm 2.6.7. All computations are
+ * done with exact integers, the Gram-Schmidt coefficients are represented by
+ * the integers <code>lambda_ij = d_j mu_ij</code> and the Gram determinants
+ * <code>d_i</code>.
+ * @author Heinz Kredel
+ */
+
+public class LatticeReduction implements Serializable {
+
+
+    private static final Logger logger = LogManager.getLogger(LatticeReduction.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Lovasz constant, 1/4 &lt; delta &le; 1.
+     */
+    public final BigRational delta;
+
+
+    /**
+     * Constructor with delta = 3/4.
+     */
+    public LatticeReduction() {
+        this(new BigRational(3, 4));
+    }
+
+
+    /**
+     * Constructor.
+     * @param delta Lovasz constant, 1/4 &lt; delta &le; 1.
+     */
+    public LatticeReduction(BigRational delta) {
+        if (delta.compareTo(new BigRational(1, 4)) <= 0 || delta.compareTo(BigRational.ONE) > 0) {
+            throw new IllegalArgumentException("delta must be in (1/4,1]: " + delta);
+        }
+        this.delta = delta;
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "LatticeReduction(" + delta + ")";
+    }
+
+
+    /**
+     * LLL reduction of the rows of a matrix.
+     * @param A integer matrix with linear independent rows.
+     * @return LLL reduced basis of the lattice spanned by the rows of A.
+     */
+    public GenMatrix<edu.jas.arith.BigInteger> reduce(GenMatrix<edu.jas.arith.BigInteger> A) {
+        int n = A.ring.rows;
+        int m = A.ring.cols;
+        BigInteger[][] b = new BigInteger[n][m];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                b[i][j] = A.get(i, j).getVal();
+            }
+        }
+        reduce(b);
+        ArrayList<ArrayList<edu.jas.arith.BigInteger>> M = new ArrayList<ArrayList<edu.jas.arith.BigInteger>>(n);
+        for (int i = 0; i < n; i++) {
+            ArrayList<edu.jas.arith.BigInteger> row = new ArrayList<edu.jas.arith.BigInteger>(m);
+            for (int j = 0; j < m; j++) {
+                row.add(new edu.jas.arith.BigInteger(b[i][j]));
+            }
+            M.add(row);
+        }
+        return new GenMatrix<edu.jas.arith.BigInteger>(A.ring, M);
+    }
+
+
+    /**
+     * LLL reduction of the rows of a matrix in place.
+     * @param b integer matrix with linear independent rows, will be
+     *            modified.
+     * @return d = [d_0, ..., d_n] the Gram determinants of the reduced basis,
+     *         the squared length of the i-th Gram-Schmidt vector is
+     *         d_{i+1}/d_i.
+     */
+    public BigInteger[] reduce(BigInteger[][] b) {
+        int n = b.length;
+        BigInteger[] d = new BigInteger[n + 1];
+        d[0] = BigInteger.ONE;
+        if (n == 0) {
+            return d;
+        }
+        BigInteger[][] lambda = new BigInteger[n][n];
+        BigInteger dn = delta.num;
+        BigInteger dd = delta.den;
+        d[1] = dot(b[0], b[0]);
+        if (d[1].signum() == 0) {
+            throw new IllegalArgumentException("basis vectors are not linear independent");
+        }
+        int k = 1;
+        int kmax = 0;
+        long swaps = 0L;
+        while (k < n) {
+            if (k > kmax) { // incremental Gram-Schmidt
+                kmax = k;
+                for (int j = 0; j <= k; j++) {
+                    BigInteger u = dot(b[k], b[j]);
+                    for (int i = 0; i < j; i++) {
+                        u = d[i + 1].multiply(u).subtract(lambda[k][i].multiply(lambda[j][i])).divide(d[i]);
+                    }
+                    if (j < k) {
+                        lambda[k][j] = u;
+                    } else {
+                        if (u.signum() == 0) {
+                            throw new IllegalArgumentException("basis vectors are not linear independent");
+                        }
+                        d[k + 1] = u;
+                    }
+                }
+            }
+            reduce(b, lambda, d, k, k - 1);
+            // Lovasz condition: dd d_k d_{k-2} < dn d_{k-1}^2 - dd lambda^2
+            BigInteger l = lambda[k][k - 1];
+            BigInteger lhs = dd.multiply(d[k + 1]).multiply(d[k - 1]);
+            BigInteger rhs = dn.multiply(d[k].multiply(d[k])).subtract(dd.multiply(l.multiply(l)));
+            if (lhs.compareTo(rhs) < 0) {
+                swap(b, lambda, d, k, kmax);
+                swaps++;
+                if (k > 1) {
+                    k--;
+                }
+            } else {
+                for (int j = k - 2; j >= 0; j--) {
+                    reduce(b, lambda, d, k, j);
+                }
+                k++;
+            }
+        }
+        if (debug) {
+            logger.debug("LLL dimension = " + n + ", swaps = " + swaps);
+        }
+        return d;
+    }
+
+
+    /**
+     * Size reduction step.
+     */
+    void reduce(BigInteger[][] b, BigInteger[][] lambda, BigInteger[] d, int k, int l) {
+        BigInteger lkl = lambda[k][l];
+        BigInteger dl = d[l + 1];
+        if (lkl.shiftLeft(1).abs().compareTo(dl) <= 0) {
+            return;
+        }
+        // q = round(lambda_kl / d_l)
+        BigInteger[] qr = lkl.shiftLeft(1).add(dl).divideAndRemainder(dl.shiftLeft(1));
+        BigInteger q = qr[0];
+        if (qr[1].signum() < 0) { // floor division
+            q = q.subtract(BigInteger.ONE);
+        }
+        if (q.signum() == 0) {
+            return;
+        }
+        BigInteger[] bk = b[k];
+        BigInteger[] bl = b[l];
+        for (int j = 0; j < bk.length; j++) {
+            bk[j] = bk[j].subtract(q.multiply(bl[j]));
+        }
+        lambda[k][l] = lkl.subtract(q.multiply(dl));
+        for (int i = 0; i < l; i++) {
+            lambda[k][i] = lambda[k][i].subtract(q.multiply(lambda[l][i]));
+        }
+    }
+
+
+    /**
+     * Swap step.
+     */
+    void swap(BigInteger[][] b, BigInteger[][] lambda, BigInteger[] d, int k, int kmax) {
+        BigInteger[] t = b[k];
+        b[k] = b[k - 1];
+        b[k - 1] = t;
+        for (int j = 0; j < k - 1; j++) {
+            BigInteger s = lambda[k][j];
+            lambda[k][j] = lambda[k - 1][j];
+            lambda[k - 1][j] = s;
+        }
+        BigInteger l = lambda[k][k - 1];
+        // B = (d_{k-2} d_k + lambda^2) / d_{k-1}
+        BigInteger B = d[k - 1].multiply(d[k + 1]).add(l.multiply(l)).divide(d[k]);
+        for (int i = k + 1; i <= kmax; i++) {
+            BigInteger s = lambda[i][k];
+            lambda[i][k] = d[k + 1].multiply(lambda[i][k - 1]).subtract(l.multiply(s)).divide(d[k]);
+            lambda[i][k - 1] = B.multiply(s).add(l.multiply(lambda[i][k])).divide(d[k + 1]);
+        }
+        d[k] = B;
+    }
+
+
+    /**
+     * Scalar product.
+     * @param a integer vector.
+     * @param b integer vector.
+     * @return a*b.
+     */
+    public static BigInteger dot(BigInteger[] a, BigInteger[] b) {
+        BigInteger s = BigInteger.ZERO;
+        for (int i = 0; i < a.length; i++) {
+            s = s.add(a[i].multiply(b[i]));
+        }
+        return s;
+    }
+
+
+    /**
+     * Test if the rows of a matrix are LLL reduced.
+     * @param b integer matrix with linear independent rows.
+     * @return true, if b is size reduced and satisfies the Lovasz condition,
+     *         else false.
+     */
+    public boolean isReduced(BigInteger[][] b) {
+        int n = b.length;
+        if (n == 0) {
+            return true;
+        }
+        int m = b[0].length;
+        // rational Gram-Schmidt orthogonalization
+        BigRational[][] bs = new BigRational[n][m];
+        BigRational[] B = new BigRational[n];
+        BigRational[][] mu = new BigRational[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                bs[i][j] = new BigRational(b[i][j]);
+            }
+            for (int k = 0; k < i; k++) {
+                BigRational s = BigRational.ZERO;
+                for (int j = 0; j < m; j++) {
+                    s = s.sum(bs[k][j].multiply(new BigRational(b[i][j])));
+                }
+                mu[i][k] = s.divide(B[k]);
+                for (int j = 0; j < m; j++) {
+                    bs[i][j] = bs[i][j].subtract(mu[i][k].multiply(bs[k][j]));
+                }
+            }
+            BigRational s = BigRational.ZERO;
+            for (int j = 0; j < m; j++) {
+                s = s.sum(bs[i][j].multiply(bs[i][j]));
+            }
+            B[i] = s;
+        }
+        for (int i = 1; i < n; i++) {
+            for (int k = 0; k < i; k++) {
+                if (mu[i][k].abs().compareTo(BigRational.HALF) > 0) {
+                    return false;
+                }
+            }
+            BigRational l = delta.subtract(mu[i][i - 1].multiply(mu[i][i - 1])).multiply(B[i - 1]);
+            if (B[i].compareTo(l) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
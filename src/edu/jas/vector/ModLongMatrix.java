@@ -0,0 +1,725 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.ModularKernels;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.structure.NotInvertibleException;
+
+
+/**
+ * ModLongMatrix implements dense matrices over word size prime fields. The
+ * entries are stored row by row in a flat <code>long[]</code> array with
+ * values in [0,p). Matrix multiplication accumulates products without
+ * reduction as long as the sum cannot overflow, it is blocked for the caches
+ * and row blocks can be computed in parallel. Gaussian elimination, rank,
+ * determinant, null space and inverse are computed in place on copies of the
+ * array. Matrices can be converted from and to <code>GenMatrix&lt;ModLong&gt;</code>.
+ * @author Heinz Kredel
+ */
+
+public class ModLongMatrix implements Serializable {
+
+
+    private static final Logger logger = LogManager.getLogger(ModLongMatrix.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Default block size for blocked operations.
+     */
+    public final static int DEFAULT_BSIZE = 64;
+
+
+    /**
+     * Minimal number of multiplications of entries for parallel
+     * multiplication.
+     */
+    public final static long PARALLEL_WORK = 1L << 21;
+
+
+    /**
+     * Coefficient ring.
+     */
+    public final ModLongRing ring;
+
+
+    /**
+     * Number of rows.
+     */
+    public final int rows;
+
+
+    /**
+     * Number of columns.
+     */
+    public final int cols;
+
+
+    /**
+     * Entries in row major order.
+     */
+    protected final long[] val;
+
+
+    /**
+     * Number of products (p-1)^2 which can be added to a value less than p
+     * without overflow.
+     */
+    protected final long delay;
+
+
+    private int hashValue = 0;
+
+
+    /**
+     * Constructor for zero ModLongMatrix.
+     * @param r coefficient ring.
+     * @param n number of rows.
+     * @param m number of columns.
+     */
+    public ModLongMatrix(ModLongRing r, int n, int m) {
+        this(r, n, m, new long[n * m]);
+    }
+
+
+    /**
+     * Constructor for ModLongMatrix.
+     * @param r coefficient ring.
+     * @param n number of rows.
+     * @param m number of columns.
+     * @param a entries in row major order with values in [0,p), not copied.
+     */
+    public ModLongMatrix(ModLongRing r, int n, int m, long[] a) {
+        if (r == null || a == null) {
+            throw new IllegalArgumentException("Empty r or a not allowed, r = " + r + ", a = " + a);
+        }
+        if (n < 0 || m < 0 || a.length != n * m) {
+            throw new IllegalArgumentException("wrong dimensions " + n + " x " + m + ", length " + a.length);
+        }
+        ring = r;
+        rows = n;
+        cols = m;
+        val = a;
+        delay = delay(r.modul);
+    }
+
+
+    /**
+     * Constructor for ModLongMatrix.
+     * @param A matrix over ModLong.
+     */
+    public ModLongMatrix(GenMatrix<ModLong> A) {
+        this((ModLongRing) A.ring.coFac, A.ring.rows, A.ring.cols);
+        int k = 0;
+        for (ArrayList<ModLong> row : A.matrix) {
+            for (ModLong c : row) {
+                val[k++] = c.val;
+            }
+        }
+    }
+
+
+    /**
+     * Number of delayed reductions.
+     * @param p modulus.
+     * @return maximal t with p + t (p-1)^2 &le; Long.MAX_VALUE.
+     */
+    static long delay(long p) {
+        long t = ModularKernels.delay(p);
+        if (t < 1L) {
+            throw new IllegalArgumentException("modulus too large: " + p);
+        }
+        return t;
+    }
+
+
+    /**
+     * Identity matrix.
+     * @param r coefficient ring.
+     * @param n number of rows and columns.
+     * @return the n x n identity matrix.
+     */
+    public static ModLongMatrix one(ModLongRing r, int n) {
+        ModLongMatrix E = new ModLongMatrix(r, n, n);
+        for (int i = 0; i < n; i++) {
+            E.val[i * n + i] = 1L % r.modul;
+        }
+        return E;
+    }
+
+
+    /**
+     * Random matrix.
+     * @param r coefficient ring.
+     * @param n number of rows.
+     * @param m number of columns.
+     * @param q density of non zero entries.
+     * @param rnd random number generator.
+     * @return a random n x m matrix.
+     */
+    public static ModLongMatrix random(ModLongRing r, int n, int m, float q, Random rnd) {
+        ModLongMatrix R = new ModLongMatrix(r, n, m);
+        for (int k = 0; k < R.val.length; k++) {
+            if (rnd.nextFloat() < q) {
+                R.val[k] = Math.floorMod(rnd.nextLong(), r.modul);
+            }
+        }
+        return R;
+    }
+
+
+    /**
+     * Convert to GenMatrix.
+     * @return this as matrix over ModLong.
+     */
+    public GenMatrix<ModLong> toGenMatrix() {
+        return toGenMatrix(new GenMatrixRing<ModLong>(ring, rows, cols));
+    }
+
+
+    /**
+     * Convert to GenMatrix.
+     * @param mfac matrix ring with rows x cols matrices over ring.
+     * @return this as matrix over ModLong.
+     */
+    public GenMatrix<ModLong> toGenMatrix(GenMatrixRing<ModLong> mfac) {
+        if (mfac.rows != rows || mfac.cols != cols) {
+            throw new IllegalArgumentException("wrong matrix ring " + mfac + " for " + rows + " x " + cols);
+        }
+        ArrayList<ArrayList<ModLong>> m = new ArrayList<ArrayList<ModLong>>(rows);
+        for (int i = 0; i < rows; i++) {
+            ArrayList<ModLong> row = new ArrayList<ModLong>(cols);
+            for (int j = 0; j < cols; j++) {
+                row.add(new ModLong(ring, val[i * cols + j]));
+            }
+            m.add(row);
+        }
+        return new GenMatrix<ModLong>(mfac, m);
+    }
+
+
+    /**
+     * Get element at row i, column j.
+     * @param i row index.
+     * @param j column index.
+     * @return this(i,j) in [0,p).
+     */
+    public long get(int i, int j) {
+        return val[i * cols + j];
+    }
+
+
+    /**
+     * Set element at row i, column j. Mutates this matrix.
+     * @param i row index.
+     * @param j column index.
+     * @param a element to set.
+     */
+    public void setMutate(int i, int j, long a) {
+        val[i * cols + j] = Math.floorMod(a, ring.modul);
+        hashValue = 0; // invalidate
+    }
+
+
+    /**
+     * Copy this matrix.
+     * @return a clone of this.
+     */
+    public ModLongMatrix copy() {
+        return new ModLongMatrix(ring, rows, cols, val.clone());
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("[\n");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                s.append(",\n");
+            }
+            s.append("[ ");
+            for (int j = 0; j < cols; j++) {
+                if (j > 0) {
+                    s.append(", ");
+                }
+                s.append(val[i * cols + j]);
+            }
+            s.append(" ]");
+        }
+        s.append(" ] :: ModLongMatrix(" + rows + "," + cols + ") mod " + ring.modul);
+        return s.toString();
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ModLongMatrix)) {
+            return false;
+        }
+        ModLongMatrix om = (ModLongMatrix) other;
+        if (rows != om.rows || cols != om.cols || !ring.equals(om.ring)) {
+            return false;
+        }
+        return Arrays.equals(val, om.val);
+    }
+
+
+    /**
+     * Hash code for this matrix.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        if (hashValue == 0) {
+            hashValue = 37 * Arrays.hashCode(val) + rows;
+            if (hashValue == 0) {
+                hashValue = 1;
+            }
+        }
+        return hashValue;
+    }
+
+
+    /**
+     * Test if this is zero.
+     * @return true if this is 0, else false.
+     */
+    public boolean isZERO() {
+        for (long a : val) {
+            if (a != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Test if this is the identity matrix.
+     * @return true if this is 1, else false.
+     */
+    public boolean isONE() {
+        return rows == cols && equals(one(ring, rows));
+    }
+
+
+    /**
+     * Sum of matrices.
+     * @param S matrix.
+     * @return this+S.
+     */
+    public ModLongMatrix sum(ModLongMatrix S) {
+        checkSameSize(S);
+        long p = ring.modul;
+        long[] c = new long[val.length];
+        ModularKernels.sum(val, 0, S.val, 0, c, 0, c.length, p);
+        return new ModLongMatrix(ring, rows, cols, c);
+    }
+
+
+    /**
+     * Difference of matrices.
+     * @param S matrix.
+     * @return this-S.
+     */
+    public ModLongMatrix subtract(ModLongMatrix S) {
+        checkSameSize(S);
+        long p = ring.modul;
+        long[] c = new long[val.length];
+        ModularKernels.subtract(val, 0, S.val, 0, c, 0, c.length, p);
+        return new ModLongMatrix(ring, rows, cols, c);
+    }
+
+
+    /**
+     * Product with a scalar.
+     * @param s scalar.
+     * @return s*this.
+     */
+    public ModLongMatrix scalarMultiply(long s) {
+        long p = ring.modul;
+        s = Math.floorMod(s, p);
+        long[] c = new long[val.length];
+        ModularKernels.scale(s, val, 0, c, 0, c.length, p);
+        return new ModLongMatrix(ring, rows, cols, c);
+    }
+
+
+    /**
+     * Transposed matrix.
+     * @return transpose(this).
+     */
+    public ModLongMatrix transpose() {
+        long[] t = new long[val.length];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                t[j * rows + i] = val[i * cols + j];
+            }
+        }
+        return new ModLongMatrix(ring, cols, rows, t);
+    }
+
+
+    /**
+     * Multiply this with S. Rows blocks are computed in parallel if the
+     * matrices are large enough.
+     * @param S matrix.
+     * @return this * S.
+     */
+    public ModLongMatrix multiply(ModLongMatrix S) {
+        if ((long) rows * cols * S.cols >= PARALLEL_WORK && rows > DEFAULT_BSIZE
+                        && ComputerThreads.N_CPUS > 1 && !ComputerThreads.NO_THREADS) {
+            return multiplyPar(S);
+        }
+        return multiplySeq(S);
+    }
+
+
+    /**
+     * Multiply this with S. Sequential blocked algorithm with delayed
+     * reduction.
+     * @param S matrix.
+     * @return this * S.
+     */
+    public ModLongMatrix multiplySeq(ModLongMatrix S) {
+        checkProduct(S);
+        long[] c = new long[rows * S.cols];
+        multiplyBlock(S, c, 0, rows);
+        return new ModLongMatrix(ring, rows, S.cols, c);
+    }
+
+
+    /**
+     * Multiply this with S. Row blocks of the product are computed in
+     * parallel in the <code>ComputerThreads</code> pool.
+     * @param S matrix.
+     * @return this * S.
+     */
+    public ModLongMatrix multiplyPar(ModLongMatrix S) {
+        checkProduct(S);
+        final ModLongMatrix B = S;
+        final long[] c = new long[rows * S.cols];
+        int bs = Math.max(1, Math.min(DEFAULT_BSIZE, (rows + ComputerThreads.N_CPUS - 1) / ComputerThreads.N_CPUS));
+        List<Callable<Boolean>> cs = new ArrayList<Callable<Boolean>>(rows / bs + 1);
+        for (int ii = 0; ii < rows; ii += bs) {
+            final int i0 = ii;
+            final int i1 = Math.min(ii + bs, rows);
+            cs.add(new Callable<Boolean>() {
+
+
+                public Boolean call() {
+                    multiplyBlock(B, c, i0, i1);
+                    return true;
+                }
+            });
+        }
+        if (debug) {
+            logger.debug("parallel multiply with " + cs.size() + " row blocks");
+        }
+        ComputerThreads.invokeAll(cs, cs.size());
+        return new ModLongMatrix(ring, rows, S.cols, c);
+    }
+
+
+    /**
+     * Multiply rows of this with S. The products are accumulated in blocks
+     * of rows, columns and inner indices, the sums are reduced only after
+     * delay products.
+     * @param S matrix.
+     * @param c entries of the product, rows i0 to i1-1 are written.
+     * @param i0 first row.
+     * @param i1 last row + 1.
+     */
+    protected void multiplyBlock(ModLongMatrix S, long[] c, int i0, int i1) {
+        final int n = cols;
+        final int m = S.cols;
+        final long p = ring.modul;
+        final long[] a = val;
+        final long[] b = S.val;
+        final int bs = DEFAULT_BSIZE;
+        final int kb = (int) Math.min(bs, delay);
+        for (int ii = i0; ii < i1; ii += bs) {
+            int ie = Math.min(ii + bs, i1);
+            long[] acc = new long[(ie - ii) * m];
+            long pending = 0L;
+            for (int kk = 0; kk < n; kk += kb) {
+                int ke = Math.min(kk + kb, n);
+                if (pending + (ke - kk) > delay) {
+                    ModularKernels.reduce(acc, 0, acc.length, p);
+                    pending = 0L;
+                }
+                for (int jj = 0; jj < m; jj += bs) {
+                    int je = Math.min(jj + bs, m);
+                    for (int i = ii; i < ie; i++) {
+                        int ai = i * n;
+                        int ci = (i - ii) * m;
+                        for (int k = kk; k < ke; k++) {
+                            long aik = a[ai + k];
+                            if (aik == 0L) {
+                                continue;
+                            }
+                            ModularKernels.axpy(aik, b, k * m + jj, acc, ci + jj, je - jj);
+                        }
+                    }
+                }
+                pending += ke - kk;
+            }
+            ModularKernels.reduce(acc, 0, acc.length, p);
+            System.arraycopy(acc, 0, c, ii * m, acc.length);
+        }
+    }
+
+
+    /**
+     * Multiply this with S. Simple unblocked algorithm.
+     * @param S matrix.
+     * @return this * S.
+     */
+    public ModLongMatrix multiplySimple(ModLongMatrix S) {
+        checkProduct(S);
+        long p = ring.modul;
+        int m = S.cols;
+        long[] c = new long[rows * m];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < m; j++) {
+                long s = 0L;
+                for (int k = 0; k < cols; k++) {
+                    s = (s + val[i * cols + k] * S.val[k * m + j]) % p;
+                }
+                c[i * m + j] = s;
+            }
+        }
+        return new ModLongMatrix(ring, rows, m, c);
+    }
+
+
+    /**
+     * Reduced row echelon form.
+     * @return the reduced row echelon form of this.
+     */
+    public ModLongMatrix rowEchelonForm() {
+        long[] a = val.clone();
+        echelon(a, rows, cols, cols);
+        return new ModLongMatrix(ring, rows, cols, a);
+    }
+
+
+    /**
+     * Rank.
+     * @return the rank of this.
+     */
+    public int rank() {
+        return echelon(val.clone(), rows, cols, cols).length;
+    }
+
+
+    /**
+     * Determinant.
+     * @return the determinant of this square matrix.
+     */
+    public ModLong determinant() {
+        if (rows != cols) {
+            throw new IllegalArgumentException("matrix not square " + rows + " x " + cols);
+        }
+        long p = ring.modul;
+        long[] a = val.clone();
+        int n = rows;
+        long d = 1L % p;
+        for (int j = 0; j < n; j++) {
+            int r = j;
+            while (r < n && a[r * n + j] == 0L) {
+                r++;
+            }
+            if (r == n) {
+                return ring.getZERO();
+            }
+            if (r != j) {
+                swapRows(a, n, r, j);
+                d = (d == 0L ? 0L : p - d);
+            }
+            long ajj = a[j * n + j];
+            d = (d * ajj) % p;
+            long inv = ring.create(ajj).inverse().val;
+            for (int i = j + 1; i < n; i++) {
+                long aij = a[i * n + j];
+                if (aij != 0L) {
+                    addRow(a, n, i, j, p - (aij * inv) % p, j);
+                }
+            }
+        }
+        return new ModLong(ring, d);
+    }
+
+
+    /**
+     * Null space. The rows of the result are a basis of the vectors x with
+     * this * x = 0.
+     * @return matrix with cols - rank rows which span the right null space.
+     */
+    public ModLongMatrix nullSpace() {
+        long p = ring.modul;
+        long[] a = val.clone();
+        int[] piv = echelon(a, rows, cols, cols);
+        boolean[] isPivot = new boolean[cols];
+        for (int j : piv) {
+            isPivot[j] = true;
+        }
+        int d = cols - piv.length;
+        long[] N = new long[d * cols];
+        int k = 0;
+        for (int f = 0; f < cols; f++) {
+            if (isPivot[f]) {
+                continue;
+            }
+            N[k * cols + f] = 1L;
+            for (int r = 0; r < piv.length; r++) {
+                long arf = a[r * cols + f];
+                N[k * cols + piv[r]] = (arf == 0L ? 0L : p - arf);
+            }
+            k++;
+        }
+        return new ModLongMatrix(ring, d, cols, N);
+    }
+
+
+    /**
+     * Inverse matrix.
+     * @return S with this * S = 1.
+     * @throws NotInvertibleException if this is not invertible.
+     */
+    public ModLongMatrix inverse() {
+        if (rows != cols) {
+            throw new NotInvertibleException("matrix not square " + rows + " x " + cols);
+        }
+        int n = rows;
+        int w = 2 * n;
+        long[] a = new long[n * w];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(val, i * n, a, i * w, n);
+            a[i * w + n + i] = 1L % ring.modul;
+        }
+        int[] piv = echelon(a, n, w, n);
+        if (piv.length < n) {
+            throw new NotInvertibleException("matrix not invertible, rank = " + piv.length);
+        }
+        long[] b = new long[n * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(a, i * w + n, b, i * n, n);
+        }
+        return new ModLongMatrix(ring, n, n, b);
+    }
+
+
+    /**
+     * Gauss-Jordan elimination in place.
+     * @param a entries of a n x m matrix, will be transformed to reduced row
+     *            echelon form.
+     * @param n number of rows.
+     * @param m number of columns.
+     * @param mc pivots are only searched in the first mc columns.
+     * @return the pivot columns, pivot r is in row r.
+     */
+    protected int[] echelon(long[] a, int n, int m, int mc) {
+        long p = ring.modul;
+        int[] piv = new int[Math.min(n, mc)];
+        int r = 0;
+        for (int j = 0; j < mc && r < n; j++) {
+            int s = r;
+            while (s < n && a[s * m + j] == 0L) {
+                s++;
+            }
+            if (s == n) {
+                continue;
+            }
+            swapRows(a, m, s, r);
+            long inv = ring.create(a[r * m + j]).inverse().val;
+            ModularKernels.scale(inv, a, r * m + j, a, r * m + j, m - j, p);
+            for (int i = 0; i < n; i++) {
+                long aij = a[i * m + j];
+                if (i != r && aij != 0L) {
+                    addRow(a, m, i, r, p - aij, j);
+                }
+            }
+            piv[r++] = j;
+        }
+        return Arrays.copyOf(piv, r);
+    }
+
+
+    /**
+     * Swap rows.
+     * @param a entries of a matrix with m columns.
+     * @param m number of columns.
+     * @param i row index.
+     * @param k row index.
+     */
+    static void swapRows(long[] a, int m, int i, int k) {
+        if (i == k) {
+            return;
+        }
+        int im = i * m;
+        int km = k * m;
+        for (int l = 0; l < m; l++) {
+            long t = a[im + l];
+            a[im + l] = a[km + l];
+            a[km + l] = t;
+        }
+    }
+
+
+    /**
+     * Add a multiple of row k to row i, row(i) = row(i) + f row(k).
+     * @param a entries of a matrix with m columns.
+     * @param m number of columns.
+     * @param i row index.
+     * @param k row index.
+     * @param f factor in [0,p).
+     * @param j0 first column, the entries of row k before j0 are zero.
+     */
+    void addRow(long[] a, int m, int i, int k, long f, int j0) {
+        ModularKernels.axpy(f, a, k * m + j0, a, i * m + j0, m - j0, ring.modul);
+    }
+
+
+    void checkSameSize(ModLongMatrix S) {
+        if (rows != S.rows || cols != S.cols || !ring.equals(S.ring)) {
+            throw new IllegalArgumentException("incompatible matrices " + rows + " x " + cols + " and "
+                            + S.rows + " x " + S.cols);
+        }
+    }
+
+
+    void checkProduct(ModLongMatrix S) {
+        if (cols != S.rows || !ring.equals(S.ring)) {
+            throw new IllegalArgumentException("incompatible matrices " + rows + " x " + cols + " and "
+                            + S.rows + " x " + S.cols);
+        }
+    }
+
+}
@@ -16,6 +16,8 @@ import edu.jas.arith.BigRational;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.ufd.GCDCache;
+import edu.jas.ufd.GCDFactory;
 
 
 /**
@@ -274,4 +276,24 @@ public class LocalTest extends TestCase {
         }
     }
 
+
+
+    /**
+     * Test local ring with cached gcd engine.
+     */
+    public void testCachedEngine() {
+        GCDCache<BigRational> ufd = GCDFactory.getCachedProxy(mfac.coFac);
+        LocalRing<BigRational> cfac = new LocalRing<BigRational>(id, ufd);
+        assertTrue("engine == cache ", cfac.engine == ufd);
+
+        a = cfac.random(kl, ll, el, q);
+        b = cfac.random(kl, ll, el, q);
+        c = a.sum(b).subtract(b);
+        assertEquals("a+b-b == a ", a, c);
+        c = a.multiply(b);
+        d = b.multiply(a);
+        assertEquals("a*b == b*a ", c, d);
+        assertTrue("cache used " + ufd, ufd.getHits() + ufd.getMisses() > 0);
+    }
+
 }
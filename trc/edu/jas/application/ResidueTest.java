@@ -15,6 +15,8 @@ import junit.framework.TestSuite;
 //
 
 import edu.jas.arith.BigRational;
+import edu.jas.ufd.GCDCache;
+import edu.jas.ufd.GCDFactory;
 
 //import edu.jas.structure.RingElem;
 
@@ -247,4 +249,26 @@ public class ResidueTest extends TestCase {
      }
  }
 
+
+/**
+ * Test residue ring with cached gcd engine.
+ * 
+ */
+ public void testCachedEngine() {
+     GCDCache<BigRational> ufd = GCDFactory.getCachedProxy(mfac.coFac);
+     ResidueRing<BigRational> cfac = new ResidueRing<BigRational>(id, ufd);
+     assertTrue("engine == cache ", cfac.engine == ufd);
+
+     a = cfac.random(kl,ll,el,q);
+     b = cfac.random(kl,ll,el,q);
+     if ( a.isZERO() || b.isZERO() ) {
+        return;
+     }
+     c = a.gcd(b);
+     d = b.gcd(a);
+     assertEquals("gcd(a,b) == gcd(b,a) ", c, d);
+     assertEquals("misses == 1 ", 1L, ufd.getMisses());
+     assertEquals("hits == 1 ", 1L, ufd.getHits());
+ }
+
 }
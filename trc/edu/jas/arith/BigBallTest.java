@@ -0,0 +1,162 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.math.MathContext;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.structure.NotInvertibleException;
+
+
+/**
+ * BigBall tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class BigBallTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>BigBallTest</CODE> object.
+     * @param name String.
+     */
+    public BigBallTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(BigBallTest.class);
+        return suite;
+    }
+
+
+    Random rnd;
+
+
+    BigRational rfac;
+
+
+    MathContext mc = new MathContext(20);
+
+
+    @Override
+    protected void setUp() {
+        rnd = new Random(4711);
+        rfac = new BigRational();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        rnd = null;
+        rfac = null;
+    }
+
+
+    /**
+     * Test constants, conversion and parse.
+     */
+    public void testConstants() {
+        BigBall a = new BigBall(mc);
+        assertTrue("0 == 0 ", a.isZERO());
+        assertTrue("0 is exact ", a.isExact());
+        assertTrue("0 contains 0 ", a.containsZero());
+        assertFalse("0 is not a unit ", a.isUnit());
+        a = a.getONE();
+        assertTrue("1 == 1 ", a.isONE());
+        assertTrue("1 is a unit ", a.isUnit());
+        assertEquals("1 + 1 == 2 ", new BigBall(2L, mc), a.sum(a));
+
+        BigRational third = new BigRational(1, 3);
+        BigBall b = new BigBall(third, mc);
+        assertFalse("1/3 is not exact ", b.isExact());
+        assertTrue("1/3 in ball(1/3) ", b.contains(third));
+        assertFalse("1/3+10^-10 not in ball(1/3) ",
+                        b.contains(third.sum(new BigRational(1, 10000000000L))));
+        assertEquals("signum(1/3) == 1 ", 1, b.signum());
+
+        BigBall c = new BigBall("1.5 +- 0.25", mc);
+        assertEquals("lower(1.5 +- 0.25) == 1.25 ", 0, c.lower().compareTo(new java.math.BigDecimal("1.25")));
+        assertEquals("upper(1.5 +- 0.25) == 1.75 ", 0, c.upper().compareTo(new java.math.BigDecimal("1.75")));
+        assertEquals("parse(toString(c)) == c ", c, c.parse(c.toString()));
+        BigBall d = new BigBall("0.125 +- 0.25", mc);
+        assertTrue("-0.125 .. 0.375 contains 0 ", d.containsZero());
+        assertEquals("signum undecided ", 0, d.signum());
+        assertFalse("d is not a unit ", d.isUnit());
+        try {
+            d.inverse();
+            fail("inverse of a ball containing zero");
+        } catch (NotInvertibleException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test containment of exact results of arithmetic operations.
+     */
+    public void testContainment() {
+        for (int i = 0; i < 50; i++) {
+            BigRational x = rfac.random(100, rnd);
+            BigRational y = rfac.random(100, rnd);
+            if (y.isZERO()) {
+                y = BigRational.ONE;
+            }
+            BigBall a = new BigBall(x, mc);
+            BigBall b = new BigBall(y, mc);
+            assertTrue("x in ball(x) ", a.contains(x));
+            assertTrue("x+y in a+b ", a.sum(b).contains(x.sum(y)));
+            assertTrue("x-y in a-b ", a.subtract(b).contains(x.subtract(y)));
+            assertTrue("x*y in a*b ", a.multiply(b).contains(x.multiply(y)));
+            assertTrue("1/y in 1/b ", b.inverse().contains(y.inverse()));
+            assertTrue("x/y in a/b ", a.divide(b).contains(x.divide(y)));
+            assertTrue("-x in -a ", a.negate().contains(x.negate()));
+            assertTrue("|x| in |a| ", a.abs().contains(x.abs()));
+
+            // long Horner chain with cancellation
+            BigBall h = a;
+            BigRational hr = x;
+            for (int j = 0; j < 20; j++) {
+                h = h.multiply(b).subtract(a);
+                hr = hr.multiply(y).subtract(x);
+            }
+            assertTrue("horner(x) in horner(a) ", h.contains(hr));
+            assertTrue("a in a+0 ", a.sum(a.getZERO()).contains(a));
+        }
+    }
+
+
+    /**
+     * Test precision of contexts.
+     */
+    public void testPrecision() {
+        BigRational x = new BigRational(2, 7);
+        BigBall a = new BigBall(x, mc);
+        BigBall b = new BigBall(x, new MathContext(60));
+        assertTrue("rad(b) < rad(a) ", b.getRad().compareTo(a.getRad()) < 0);
+        assertTrue("b in a ", a.contains(b));
+        assertFalse("a not in b ", b.contains(a));
+        BigBall c = a.sum(b);
+        assertEquals("precision(a+b) == max ", 60, c.precision());
+        assertTrue("4/7 in a+b ", c.contains(x.sum(x)));
+    }
+
+}
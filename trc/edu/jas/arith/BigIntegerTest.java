@@ -250,6 +250,41 @@ public class BigIntegerTest extends TestCase {
     }
 
 
+    /**
+     * Test small values near the long boundaries.
+     */
+    public void testSmallValues() {
+        java.util.Random rnd = new java.util.Random();
+        int[] bits = new int[] { 1, 31, 32, 61, 62, 63, 64, 65, 100 };
+        for (int i = 0; i < 200; i++) {
+            java.math.BigInteger x = new java.math.BigInteger(bits[rnd.nextInt(bits.length)], rnd);
+            java.math.BigInteger y = new java.math.BigInteger(bits[rnd.nextInt(bits.length)], rnd);
+            if (rnd.nextBoolean()) {
+                x = x.negate();
+            }
+            if (rnd.nextBoolean()) {
+                y = y.negate();
+            }
+            a = new BigInteger(x);
+            b = new BigInteger(y);
+            assertEquals("a+b ", x.add(y), a.sum(b).getVal());
+            assertEquals("a-b ", x.subtract(y), a.subtract(b).getVal());
+            assertEquals("a*b ", x.multiply(y), a.multiply(b).getVal());
+            assertEquals("gcd(a,b) ", x.gcd(y), a.gcd(b).getVal());
+            assertEquals("gcd(a*b,b) ", x.multiply(y).gcd(y), a.multiply(b).gcd(b).getVal());
+        }
+        a = new BigInteger(Long.MAX_VALUE);
+        b = new BigInteger(Long.MIN_VALUE);
+        assertEquals("max+1 ", java.math.BigInteger.valueOf(Long.MAX_VALUE).add(java.math.BigInteger.ONE),
+                        a.sum(BigInteger.ONE).getVal());
+        assertEquals("min-1 ", java.math.BigInteger.valueOf(Long.MIN_VALUE).subtract(java.math.BigInteger.ONE),
+                        b.subtract(BigInteger.ONE).getVal());
+        assertEquals("gcd(min,max) ", java.math.BigInteger.ONE, a.gcd(b).getVal());
+        assertEquals("gcd(12,-18) = 6 ", 6L, BigInteger.gcd(12L, -18L));
+        assertEquals("gcd(0,-5) = 5 ", 5L, BigInteger.gcd(0L, -5L));
+    }
+
+
     /**
      * Test iterator.
      */
@@ -75,6 +75,51 @@ public class BigRationalTest extends TestCase {
     }
 
 
+    /**
+     * Test arithmetic with small numerators and denominators.
+     */
+    public void testSmallValues() {
+        java.util.Random rnd = new java.util.Random();
+        int[] bits = new int[] { 1, 5, 30, 31, 32, 33, 62, 64 };
+        for (int i = 0; i < 200; i++) {
+            java.math.BigInteger an = new java.math.BigInteger(bits[rnd.nextInt(bits.length)], rnd);
+            java.math.BigInteger ad = new java.math.BigInteger(bits[rnd.nextInt(bits.length)], rnd)
+                            .add(java.math.BigInteger.ONE);
+            java.math.BigInteger bn = new java.math.BigInteger(bits[rnd.nextInt(bits.length)], rnd);
+            java.math.BigInteger bd = new java.math.BigInteger(bits[rnd.nextInt(bits.length)], rnd)
+                            .add(java.math.BigInteger.ONE);
+            if (rnd.nextBoolean()) {
+                an = an.negate();
+            }
+            a = BigRational.RNRED(an, ad);
+            b = BigRational.RNRED(bn, bd);
+            assertTrue("gcd(num,den) = 1 ", a.num.gcd(a.den).equals(java.math.BigInteger.ONE) || a.isZERO());
+            assertTrue("den > 0 ", a.den.signum() > 0);
+            // reference values without small number paths
+            java.math.BigInteger sn = an.multiply(bd).add(bn.multiply(ad));
+            java.math.BigInteger sd = ad.multiply(bd);
+            java.math.BigInteger g = sn.gcd(sd);
+            c = a.sum(b);
+            assertEquals("num(a+b) ", sn.divide(g), c.num);
+            assertEquals("den(a+b) ", sd.divide(g), c.den);
+            java.math.BigInteger pn = an.multiply(bn);
+            g = pn.gcd(sd);
+            d = a.multiply(b);
+            assertEquals("num(a*b) ", pn.divide(g), d.num);
+            assertEquals("den(a*b) ", sd.divide(g), d.den);
+            assertEquals("a+b-b = a ", a, c.subtract(b));
+            if (!b.isZERO()) {
+                assertEquals("a*b/b = a ", a, d.divide(b));
+            }
+        }
+        a = new BigRational(-6, -4);
+        assertEquals("-6/-4 = 3/2 ", new BigRational(3, 2), a);
+        a = new BigRational(Long.MAX_VALUE, 3);
+        b = new BigRational(Long.MAX_VALUE - 1, 5);
+        assertEquals("a*b/b = a ", a, a.multiply(b).divide(b));
+    }
+
+
     /**
      * Test bitLength.
      */
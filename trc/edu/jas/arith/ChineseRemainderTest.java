@@ -0,0 +1,165 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * ChineseRemainder tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class ChineseRemainderTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ChineseRemainderTest</CODE> object.
+     * @param name String
+     */
+    public ChineseRemainderTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ChineseRemainderTest.class);
+        return suite;
+    }
+
+
+    Random rnd;
+
+
+    PrimeList primes;
+
+
+    @Override
+    protected void setUp() {
+        rnd = new Random(4711);
+        primes = new PrimeList(PrimeList.Range.large);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        rnd = null;
+        primes = null;
+    }
+
+
+    /**
+     * Test combine and remainders against incremental chinese remainder.
+     */
+    public void testCombine() {
+        for (int k : new int[] { 1, 2, 3, 7, 64, 101 }) {
+            List<java.math.BigInteger> ms = new ArrayList<java.math.BigInteger>();
+            java.math.BigInteger p = java.math.BigInteger.ONE.shiftLeft(31);
+            for (int i = 0; i < k; i++) {
+                p = p.nextProbablePrime();
+                ms.add(p);
+            }
+            ChineseRemainder cr = new ChineseRemainder(ms);
+            assertEquals("size == k ", k, cr.size());
+            java.math.BigInteger M = java.math.BigInteger.ONE;
+            for (java.math.BigInteger m : ms) {
+                M = M.multiply(m);
+            }
+            assertEquals("modul == prod(m_i) ", M, cr.getModul());
+            java.math.BigInteger S = new java.math.BigInteger(M.bitLength() + 10, rnd).mod(M);
+            java.math.BigInteger[] r = cr.remainders(S);
+            for (int i = 0; i < k; i++) {
+                assertEquals("r_i == S mod m_i ", S.mod(ms.get(i)), r[i]);
+            }
+            assertEquals("cra(S mod m_i) == S ", S, cr.combine(r));
+            java.math.BigInteger T = S.shiftRight(1).negate();
+            assertEquals("sym(cra(T mod m_i)) == T ", T, cr.symmetric(cr.combine(cr.remainders(T))));
+
+            // compare with incremental ModIntegerRing chinese remainder
+            List<ModInteger> a = new ArrayList<ModInteger>();
+            ModInteger c = null;
+            for (int i = 0; i < k; i++) {
+                ModIntegerRing ri = new ModIntegerRing(ms.get(i));
+                ModInteger ai = ri.fromInteger(new java.math.BigInteger(70, rnd));
+                a.add(ai);
+                if (c == null) {
+                    c = ai;
+                } else {
+                    ModIntegerRing rc = new ModIntegerRing(c.getModul().multiply(ri.getModul()));
+                    ModInteger ci = ri.fromInteger(c.getModul()).inverse();
+                    c = rc.chineseRemainder(c, ci, ai);
+                }
+            }
+            ModIntegerRing fac = new ModIntegerRing(M);
+            assertEquals("batch cra == incremental cra ", c, fac.chineseRemainder(cr, a));
+        }
+        List<java.math.BigInteger> ms = new ArrayList<java.math.BigInteger>();
+        ms.add(java.math.BigInteger.valueOf(6));
+        ms.add(java.math.BigInteger.valueOf(9));
+        try {
+            new ChineseRemainder(ms);
+            fail("moduli not coprime");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test rational reconstruction.
+     */
+    public void testRationalReconstruction() {
+        List<ModLongRing> rings = new ArrayList<ModLongRing>();
+        for (int i = 0; i < 10; i++) {
+            rings.add(new ModLongRing(primes.get(i), true));
+        }
+        ChineseRemainder cr = ChineseRemainder.<ModLong> fromFactories(rings);
+        int hb = cr.getModul().bitLength() / 2 - 2;
+        for (int i = 0; i < 10; i++) {
+            java.math.BigInteger n = new java.math.BigInteger(hb - 3 * i, rnd);
+            java.math.BigInteger d = new java.math.BigInteger(hb - 5 * i, rnd).add(java.math.BigInteger.ONE);
+            if (i % 2 == 1) {
+                n = n.negate();
+            }
+            BigRational q = new BigRational(new BigInteger(n), new BigInteger(d));
+            java.math.BigInteger[] r = new java.math.BigInteger[rings.size()];
+            for (int j = 0; j < r.length; j++) {
+                ModLongRing f = rings.get(j);
+                r[j] = f.fromInteger(q.numerator()).divide(f.fromInteger(q.denominator())).getInteger().getVal();
+            }
+            assertEquals("ratrec(cra(q mod p_i)) == q ", q, cr.rationalReconstruction(r));
+        }
+        // small and large fractions
+        java.math.BigInteger M = java.math.BigInteger.valueOf(1000003L);
+        assertEquals("ratrec(0) == 0 ", BigRational.ZERO,
+                        ChineseRemainder.rationalReconstruction(java.math.BigInteger.ZERO, M));
+        assertEquals("ratrec(-1) == -1 ", BigRational.ONE.negate(),
+                        ChineseRemainder.rationalReconstruction(M.subtract(java.math.BigInteger.ONE), M));
+        assertEquals("ratrec((M+1)/2) == 1/2 ", BigRational.HALF,
+                        ChineseRemainder.rationalReconstruction(M.shiftRight(1).add(java.math.BigInteger.ONE), M));
+        // 1000 / 1001 is too large for M
+        java.math.BigInteger x = java.math.BigInteger.valueOf(1000L)
+                        .multiply(java.math.BigInteger.valueOf(1001L).modInverse(M)).mod(M);
+        assertNull("ratrec(1000/1001) == null ", ChineseRemainder.rationalReconstruction(x, M));
+    }
+
+}
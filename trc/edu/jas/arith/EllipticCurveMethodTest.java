@@ -0,0 +1,98 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * EllipticCurveMethod tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class EllipticCurveMethodTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>EllipticCurveMethodTest</CODE> object.
+     * @param name String
+     */
+    public EllipticCurveMethodTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(EllipticCurveMethodTest.class);
+        return suite;
+    }
+
+
+    Random rnd;
+
+
+    @Override
+    protected void setUp() {
+        rnd = new Random(4711);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        rnd = null;
+    }
+
+
+    /**
+     * Test divisor of a product of a 15 and a 30 digit prime.
+     */
+    public void testDivisor() {
+        java.math.BigInteger p = java.math.BigInteger.probablePrime(50, rnd);
+        java.math.BigInteger q = java.math.BigInteger.probablePrime(100, rnd);
+        java.math.BigInteger n = p.multiply(q);
+        java.math.BigInteger d = null;
+        for (int i = 0; i < 3 && d == null; i++) {
+            d = EllipticCurveMethod.divisor(n, 11000, 90);
+        }
+        assertNotNull("divisor found ", d);
+        assertEquals("d == p ", p, d);
+    }
+
+
+    /**
+     * Test curve arithmetic with the Montgomery ladder.
+     */
+    public void testLadder() {
+        java.math.BigInteger n = java.math.BigInteger.probablePrime(80, rnd);
+        java.math.BigInteger a24 = new java.math.BigInteger(70, rnd);
+        java.math.BigInteger[] P = new java.math.BigInteger[] { new java.math.BigInteger(70, rnd),
+                java.math.BigInteger.ONE };
+        java.math.BigInteger[] P6 = EllipticCurveMethod.ladder(P, 6L, a24, n);
+        java.math.BigInteger[] P2 = EllipticCurveMethod.dbl(P, a24, n);
+        java.math.BigInteger[] P3 = EllipticCurveMethod.add(P2, P, P, n);
+        java.math.BigInteger[] Q6 = EllipticCurveMethod.dbl(P3, a24, n);
+        // compare x = X/Z
+        assertEquals("6 P == 2 (3 P) ", P6[0].multiply(Q6[1]).mod(n), Q6[0].multiply(P6[1]).mod(n));
+        java.math.BigInteger[] P5 = EllipticCurveMethod.ladder(P, 5L, a24, n);
+        java.math.BigInteger[] Q5 = EllipticCurveMethod.add(P3, P2, P, n);
+        assertEquals("5 P == 3 P + 2 P ", P5[0].multiply(Q5[1]).mod(n), Q5[0].multiply(P5[1]).mod(n));
+    }
+
+}
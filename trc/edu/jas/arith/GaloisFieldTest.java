@@ -0,0 +1,203 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.structure.NotInvertibleException;
+
+
+/**
+ * GaloisFieldRing and GaloisFieldElem tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class GaloisFieldTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GaloisFieldTest</CODE> object.
+     * @param name String.
+     */
+    public GaloisFieldTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GaloisFieldTest.class);
+        return suite;
+    }
+
+
+    GaloisFieldRing[] fields;
+
+
+    Random rnd;
+
+
+    GaloisFieldElem a, b, c, d, e;
+
+
+    @Override
+    protected void setUp() {
+        fields = new GaloisFieldRing[] { new GaloisFieldRing(2, 8), new GaloisFieldRing(3, 5),
+                new GaloisFieldRing(7, 1), new GaloisFieldRing(2, 40), new GaloisFieldRing(5, 17) };
+        rnd = new Random(4711);
+        a = b = c = d = e = null;
+    }
+
+
+    @Override
+    protected void tearDown() {
+        fields = null;
+        a = b = c = d = e = null;
+    }
+
+
+    /**
+     * Test constructor and toString.
+     */
+    public void testConstruction() {
+        GaloisFieldRing f = fields[0];
+        assertEquals("size = 2^8 ", 256L, f.size);
+        assertTrue("tables ", f.hasTables());
+        assertFalse("no tables ", fields[3].hasTables());
+        assertEquals("GF(2^8) ", "GF(2^8)", f.toString());
+        assertEquals("GF(2^8) == GF(2^8) ", f, new GaloisFieldRing(2, 8, "b"));
+        assertFalse("GF(2^8) != GF(2^4) ", f.equals(new GaloisFieldRing(2, 4)));
+
+        a = f.getGenerator();
+        assertEquals("a == parse(a) ", a, f.parse("a"));
+        b = f.parse("a^7 + a^3 + 1");
+        assertEquals("b == parse(b) ", b, f.parse(b.toString()));
+        assertEquals("toString(b) ", "a^7 + a^3 + 1", b.toString());
+        c = f.fromInteger(5);
+        assertTrue("5 == 1 mod 2 ", c.isONE());
+
+        GaloisFieldRing g = fields[1];
+        d = g.parse("{ 2 a^4 - a + 7 }");
+        assertEquals("d == create(d) ", d, g.create(new long[] { 1, 2, 0, 0, 2 }));
+        assertEquals("toScript(d) ", "2*a**4 + 2*a + 1", d.toScript());
+        assertEquals("a^5 == parse(a^5) ", g.getGenerator().power(5), g.parse("a^5"));
+
+        long[] m = f.getModul();
+        assertEquals("deg(f) == k ", 9, m.length);
+        assertEquals("lc(f) == 1 ", 1L, m[8]);
+        try {
+            new GaloisFieldRing(4, 2);
+            fail("4 is not prime");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+        try {
+            new GaloisFieldRing(3, 40);
+            fail("3^40 too large");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test field axioms.
+     */
+    public void testArithmetic() {
+        for (GaloisFieldRing f : fields) {
+            for (int i = 0; i < 50; i++) {
+                a = f.random(5, rnd);
+                b = f.random(5, rnd);
+                c = f.random(5, rnd);
+                assertEquals("a+b == b+a ", a.sum(b), b.sum(a));
+                assertEquals("(a+b)+c == a+(b+c) ", a.sum(b).sum(c), a.sum(b.sum(c)));
+                assertEquals("a+b-b == a ", a, a.sum(b).subtract(b));
+                assertTrue("a-a == 0 ", a.subtract(a).isZERO());
+                assertTrue("a+(-a) == 0 ", a.sum(a.negate()).isZERO());
+                assertEquals("a*b == b*a ", a.multiply(b), b.multiply(a));
+                assertEquals("(a*b)*c == a*(b*c) ", a.multiply(b).multiply(c), a.multiply(b.multiply(c)));
+                assertEquals("a*(b+c) == a*b+a*c ", a.multiply(b.sum(c)), a.multiply(b).sum(a.multiply(c)));
+                if (!b.isZERO()) {
+                    assertTrue("b*b^-1 == 1 ", b.multiply(b.inverse()).isONE());
+                    assertEquals("a*b/b == a ", a, a.multiply(b).divide(b));
+                    assertTrue("b^(q-1) == 1 ", b.power(f.size - 1).isONE());
+                    assertEquals("b^-2 == (b^2)^-1 ", b.multiply(b).inverse(), b.power(-2));
+                    long r = java.math.BigInteger.valueOf(Long.MIN_VALUE)
+                                    .mod(java.math.BigInteger.valueOf(f.size - 1)).longValue();
+                    assertEquals("b^MIN_VALUE == b^(MIN_VALUE mod q-1) ", b.power(r), b.power(Long.MIN_VALUE));
+                    assertEquals("b^-MAX_VALUE == (b^MAX_VALUE)^-1 ", b.power(Long.MAX_VALUE).inverse(),
+                                    b.power(-Long.MAX_VALUE));
+                }
+                assertEquals("a^q == a ", a, a.power(f.size));
+                assertEquals("(a+b)^p == a^p+b^p ", a.sum(b).frobenius(), a.frobenius().sum(b.frobenius()));
+                assertEquals("root(a)^p == a ", a, a.rootCharacteristic().frobenius());
+                assertEquals("a^3 == a*a*a ", a.multiply(a).multiply(a), a.power(3));
+            }
+            try {
+                f.getZERO().inverse();
+                fail("0 is not invertible");
+            } catch (NotInvertibleException ex) {
+                // pass
+            }
+        }
+    }
+
+
+    /**
+     * Test table arithmetic against packed polynomial arithmetic.
+     */
+    public void testTables() {
+        for (GaloisFieldRing f : new GaloisFieldRing[] { fields[0], fields[1], new GaloisFieldRing(3, 12),
+                new GaloisFieldRing(1021, 2) }) {
+            assertTrue("tables ", f.hasTables());
+            for (int i = 0; i < 100; i++) {
+                long x = f.random(5, rnd).val;
+                long y = f.random(5, rnd).val;
+                assertEquals("x*y ", f.multiplyPoly(x, y, f.modul, f.mask), f.multiply(x, y));
+                assertEquals("x+y ", f.sumPoly(x, y), f.sum(x, y));
+                assertEquals("-x ", f.negatePoly(x), f.negate(x));
+            }
+            // the generator is primitive
+            a = f.getGenerator();
+            long n = f.size - 1;
+            assertTrue("a^(q-1) == 1 ", a.power(n).isONE());
+            for (java.math.BigInteger r : PrimeInteger.factors(java.math.BigInteger.valueOf(n)).keySet()) {
+                assertFalse("a^((q-1)/r) != 1 ", a.power(n / r.longValue()).isONE());
+            }
+        }
+    }
+
+
+    /**
+     * Test iterator.
+     */
+    public void testIterator() {
+        GaloisFieldRing f = new GaloisFieldRing(3, 3);
+        long i = 0;
+        b = f.getZERO();
+        for (GaloisFieldElem x : f) {
+            assertEquals("x.val == i ", i, x.val);
+            b = b.sum(x);
+            i++;
+        }
+        assertEquals("#GF(27) == 27 ", 27L, i);
+        assertTrue("sum(GF(27)) == 0 ", b.isZERO());
+    }
+
+}
@@ -319,9 +319,11 @@ public class ModLongTest extends TestCase {
         assertEquals("cra(a mod 19,a mod 13) = a", a, e);
 
         java.math.BigInteger p1 = getPrime2();
+        z1 = new ModLongRing(p1);
+        assertEquals("p1 == modul ", p1, z1.getModul());
         try {
-            z1 = new ModLongRing(p1);
-            fail("p1 too large");
+            z1 = new ModLongRing(p1.shiftLeft(4));
+            fail("p1*2^4 too large");
         } catch (IllegalArgumentException e) {
             //pass
         }
@@ -355,6 +357,67 @@ public class ModLongTest extends TestCase {
     }
 
 
+    /**
+     * Test arithmetic with large moduli.
+     */
+    public void testLargeModul() {
+        java.math.BigInteger two = java.math.BigInteger.ONE.shiftLeft(1);
+        java.math.BigInteger[] ms = new java.math.BigInteger[] { getPrime2(),
+                java.math.BigInteger.ONE.shiftLeft(62).nextProbablePrime(),
+                java.math.BigInteger.ONE.shiftLeft(63).subtract(new java.math.BigInteger("25")),
+                java.math.BigInteger.ONE.shiftLeft(62).add(java.math.BigInteger.ONE), // odd composite
+                java.math.BigInteger.ONE.shiftLeft(61).add(two), // even
+                new java.math.BigInteger("3037000493") };
+        for (java.math.BigInteger m : ms) {
+            zm = new ModLongRing(m);
+            for (int i = 0; i < 20; i++) {
+                a = zm.random(64);
+                b = zm.random(64);
+                java.math.BigInteger ai = a.getInteger().getVal();
+                java.math.BigInteger bi = b.getInteger().getVal();
+                c = a.multiply(b);
+                assertEquals("a*b mod m ", ai.multiply(bi).mod(m), c.getInteger().getVal());
+                d = a.sum(b);
+                assertEquals("a+b mod m ", ai.add(bi).mod(m), d.getInteger().getVal());
+                e = a.subtract(b);
+                assertEquals("a-b mod m ", ai.subtract(bi).mod(m), e.getInteger().getVal());
+                assertTrue("a-a = 0 ", a.subtract(a).isZERO());
+                assertEquals("a*1 = a ", a, a.multiply(zm.getONE()));
+                if (m.isProbablePrime(30) && !a.isZERO()) {
+                    assertTrue("a*1/a = 1 ", a.multiply(a.inverse()).isONE());
+                    assertEquals("a*b/b = a ", b, c.divide(a));
+                }
+            }
+            a = new ModLong(zm, m.subtract(java.math.BigInteger.ONE));
+            assertTrue("(m-1)^2 = 1 ", a.multiply(a).isONE());
+            assertTrue("(m-1)+1 = 0 ", a.sum(zm.getONE()).isZERO());
+            assertEquals("symmetric(m-1) = -1 ", -1L, a.getSymmetricVal());
+        }
+
+        // chinese remainder with product of two 31 bit primes
+        java.math.BigInteger p1 = new java.math.BigInteger("2147483647");
+        java.math.BigInteger p2 = new java.math.BigInteger("2147483629");
+        zm = new ModLongRing(p1.multiply(p2));
+        z1 = new ModLongRing(p1, true);
+        z2 = new ModLongRing(p2, true);
+        for (int i = 0; i < 5; i++) {
+            a = zm.random(62);
+            b = new ModLong(z1, a.getVal());
+            c = new ModLong(z2, a.getVal());
+            d = new ModLong(z2, p1).inverse();
+            e = zm.chineseRemainder(b, d, c);
+            assertEquals("cra(a mod p1,a mod p2) = a ", a, e);
+        }
+        try {
+            ModLongRing.chineseRemainder(zm.getONE(), z1.getONE(), new ArrayList<ModLong>(),
+                            new ArrayList<ModLong>());
+            fail("modul overflow");
+        } catch (ArithmeticException ex) {
+            //pass
+        }
+    }
+
+
     /**
      * Test chinese remainder of lists.
      */
@@ -0,0 +1,180 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * ModularKernels tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class ModularKernelsTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ModularKernelsTest</CODE> object.
+     * @param name String
+     */
+    public ModularKernelsTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ModularKernelsTest.class);
+        return suite;
+    }
+
+
+    Random rnd;
+
+
+    // small, medium, largest 31 bit and largest possible modulus
+    long[] primes = new long[] { 2L, 3L, 65521L, 2147483647L, 3037000493L };
+
+
+    @Override
+    protected void setUp() {
+        rnd = new Random(4711);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        rnd = null;
+    }
+
+
+    long[] random(int n, long p) {
+        long[] a = new long[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = Math.floorMod(rnd.nextLong(), p);
+        }
+        // extreme values
+        if (n > 2) {
+            a[0] = p - 1L;
+            a[n - 1] = p - 1L;
+        }
+        return a;
+    }
+
+
+    static long mulMod(long a, long b, long p) {
+        return java.math.BigInteger.valueOf(a).multiply(java.math.BigInteger.valueOf(b))
+                        .mod(java.math.BigInteger.valueOf(p)).longValue();
+    }
+
+
+    /**
+     * Test delay.
+     */
+    public void testDelay() {
+        for (long p : primes) {
+            long d = ModularKernels.delay(p);
+            assertTrue("delay >= 1 ", d >= 1L);
+            java.math.BigInteger m = java.math.BigInteger.valueOf(p - 1L).pow(2)
+                            .multiply(java.math.BigInteger.valueOf(d)).add(java.math.BigInteger.valueOf(p));
+            assertTrue("p + d (p-1)^2 <= max ", m.bitLength() < 64);
+        }
+        try {
+            ModularKernels.delay(ModularKernels.MAX_MODUL + 2L);
+            fail("modulus too large");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test sum, difference, scale and axpy against scalar arithmetic.
+     */
+    public void testVector() {
+        for (long p : primes) {
+            for (int n : new int[] { 0, 1, 3, 4, 17, 100 }) {
+                long[] a = random(n + 3, p);
+                long[] b = random(n + 5, p);
+                long f = Math.floorMod(rnd.nextLong(), p);
+                long[] c = new long[n + 1];
+                ModularKernels.sum(a, 3, b, 5, c, 1, n, p);
+                for (int i = 0; i < n; i++) {
+                    assertEquals("a+b ", (a[3 + i] + b[5 + i]) % p, c[1 + i]);
+                }
+                ModularKernels.subtract(a, 3, b, 5, c, 1, n, p);
+                for (int i = 0; i < n; i++) {
+                    assertEquals("a-b ", Math.floorMod(a[3 + i] - b[5 + i], p), c[1 + i]);
+                }
+                ModularKernels.scale(f, a, 3, c, 1, n, p);
+                for (int i = 0; i < n; i++) {
+                    assertEquals("f*a ", mulMod(f, a[3 + i], p), c[1 + i]);
+                }
+                long[] y = b.clone();
+                ModularKernels.axpy(f, a, 3, y, 5, n, p);
+                for (int i = 0; i < n; i++) {
+                    assertEquals("y+f*a ", (b[5 + i] + mulMod(f, a[3 + i], p)) % p, y[5 + i]);
+                }
+                // in place
+                y = a.clone();
+                ModularKernels.sum(y, 3, b, 5, y, 3, n, p);
+                ModularKernels.subtract(y, 3, b, 5, y, 3, n, p);
+                assertTrue("a+b-b == a ", java.util.Arrays.equals(a, y));
+            }
+        }
+    }
+
+
+    /**
+     * Test lazy axpy and dot product with delayed reduction.
+     */
+    public void testDot() {
+        for (long p : primes) {
+            for (int n : new int[] { 0, 1, 2, 3, 5, 8, 13, 1000 }) {
+                long[] a = random(n + 1, p);
+                long[] b = random(n + 2, p);
+                java.math.BigInteger s = java.math.BigInteger.ZERO;
+                for (int i = 0; i < n; i++) {
+                    s = s.add(java.math.BigInteger.valueOf(a[1 + i]).multiply(java.math.BigInteger.valueOf(b[2 + i])));
+                }
+                long e = s.mod(java.math.BigInteger.valueOf(p)).longValue();
+                assertEquals("dot(a,b) ", e, ModularKernels.dot(a, 1, b, 2, n, p));
+
+                // lazy accumulation of rows, reduced after delay products
+                long d = ModularKernels.delay(p);
+                long[] y = new long[n];
+                long[] z = new long[n];
+                int cnt = 0;
+                for (int k = 0; k < 10; k++) {
+                    long f = Math.floorMod(rnd.nextLong(), p);
+                    if (cnt == d) {
+                        ModularKernels.reduce(y, 0, n, p);
+                        cnt = 0;
+                    }
+                    ModularKernels.axpy(f, b, 2, y, 0, n);
+                    cnt++;
+                    ModularKernels.axpy(f, b, 2, z, 0, n, p);
+                }
+                ModularKernels.reduce(y, 0, n, p);
+                assertTrue("lazy axpy == reduced axpy ", java.util.Arrays.equals(y, z));
+            }
+        }
+    }
+
+}
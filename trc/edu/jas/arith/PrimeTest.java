@@ -258,6 +258,28 @@ public class PrimeTest extends TestCase {
     }
 
 
+    /**
+     * Test factorize products of large primes.
+     */
+    public void testFactorSemiprime() {
+        java.util.Random rnd = new java.util.Random(4711);
+        java.math.BigInteger p = java.math.BigInteger.probablePrime(70, rnd); // 21 digits
+        java.math.BigInteger q = java.math.BigInteger.probablePrime(80, rnd); // 24 digits
+        java.math.BigInteger r = java.math.BigInteger.probablePrime(40, rnd);
+        java.math.BigInteger N = p.multiply(q).multiply(r).multiply(r).multiply(java.math.BigInteger.valueOf(60));
+        SortedMap<java.math.BigInteger, Integer> ff = PrimeInteger.factors(N);
+        //System.out.println("ff = " + ff);
+        java.math.BigInteger M = java.math.BigInteger.ONE;
+        for (java.util.Map.Entry<java.math.BigInteger, Integer> me : ff.entrySet()) {
+            assertTrue("isPrime: " + me.getKey(), me.getKey().isProbablePrime(32));
+            M = M.multiply(me.getKey().pow(me.getValue()));
+        }
+        assertEquals("prod(ff) == N ", N, M);
+        assertEquals("e(r) == 2 ", 2, (int) ff.get(r));
+        assertEquals("e(q) == 1 ", 1, (int) ff.get(q));
+    }
+
+
     /**
      * Test random integers.
      */
@@ -0,0 +1,93 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * QuadraticSieve tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class QuadraticSieveTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>QuadraticSieveTest</CODE> object.
+     * @param name String
+     */
+    public QuadraticSieveTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(QuadraticSieveTest.class);
+        return suite;
+    }
+
+
+    Random rnd;
+
+
+    @Override
+    protected void setUp() {
+        rnd = new Random(4711);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        rnd = null;
+    }
+
+
+    /**
+     * Test divisor of products of two primes.
+     */
+    public void testDivisor() {
+        for (int bits : new int[] { 30, 50, 66 }) {
+            java.math.BigInteger p = java.math.BigInteger.probablePrime(bits, rnd);
+            java.math.BigInteger q = java.math.BigInteger.probablePrime(bits + 3, rnd);
+            java.math.BigInteger n = p.multiply(q);
+            java.math.BigInteger d = QuadraticSieve.divisor(n);
+            assertNotNull("divisor found ", d);
+            assertTrue("d == p or d == q: " + d, d.equals(p) || d.equals(q));
+        }
+    }
+
+
+    /**
+     * Test modular square roots.
+     */
+    public void testSqrtMod() {
+        for (long p : new long[] { 3, 5, 13, 17, 97, 257, 65537, 2147483647L }) {
+            for (int i = 0; i < 10; i++) {
+                long x = (rnd.nextInt(Integer.MAX_VALUE) % (p - 1)) + 1;
+                long a = (x * x) % p;
+                long r = QuadraticSieve.sqrtMod(a, p);
+                assertEquals("r^2 == a mod " + p, a, (r * r) % p);
+                assertEquals("a * a^-1 == 1 ", 1L, (a * QuadraticSieve.modInverse(a, p)) % p);
+            }
+        }
+    }
+
+}
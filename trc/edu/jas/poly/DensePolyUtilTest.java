@@ -0,0 +1,228 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigComplex;
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * DensePolyUtil tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class DensePolyUtilTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>DensePolyUtilTest</CODE> object.
+     * @param name String
+     */
+    public DensePolyUtilTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(DensePolyUtilTest.class);
+        return suite;
+    }
+
+
+    TermOrder to = new TermOrder(TermOrder.INVLEX);
+
+
+    Random rnd;
+
+
+    @Override
+    protected void setUp() {
+        rnd = new Random(4711);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        rnd = null;
+    }
+
+
+    java.math.BigInteger[] random(int n, int bits) {
+        java.math.BigInteger[] a = new java.math.BigInteger[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = new java.math.BigInteger(bits, rnd).subtract(java.math.BigInteger.ONE.shiftLeft(bits - 1));
+        }
+        a[n - 1] = java.math.BigInteger.valueOf(1L + rnd.nextInt(100));
+        return a;
+    }
+
+
+    long[] random(int n, long p) {
+        long[] a = new long[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = Math.floorMod(rnd.nextLong(), p);
+        }
+        a[n - 1] = 1L + Math.floorMod(rnd.nextLong(), p - 1L);
+        return a;
+    }
+
+
+    /**
+     * Test integer Taylor shift and composition.
+     */
+    public void testInteger() {
+        for (int n : new int[] { 1, 2, DensePolyUtil.COMPOSITION_DEGREE + 3, 3 * DensePolyUtil.TAYLOR_SHIFT_DEGREE + 7 }) {
+            java.math.BigInteger[] a = random(n, 40);
+            for (long s : new long[] { 1L, -3L, 12345L }) {
+                java.math.BigInteger si = java.math.BigInteger.valueOf(s);
+                java.math.BigInteger[] b = DensePolyUtil.taylorShift(a, si);
+                assertTrue("fast == Horner ", Arrays.equals(DensePolyUtil.taylorShiftHorner(a, 0, n, si), b));
+                assertTrue("shift(shift(a,s),-s) == a ", Arrays.equals(a, DensePolyUtil.taylorShift(b, si.negate())));
+                java.math.BigInteger[] t = new java.math.BigInteger[] { si, java.math.BigInteger.ONE };
+                assertTrue("a(x+s) == shift(a,s) ", Arrays.equals(b, DensePolyUtil.compose(a, t)));
+            }
+            for (int m : new int[] { 1, 2, 3, 7 }) {
+                java.math.BigInteger[] t = random(m, 10);
+                java.math.BigInteger[] c = DensePolyUtil.compose(a, t);
+                assertEquals("deg(a(t)) ", (n - 1) * (m - 1) + 1, c.length);
+                assertTrue("fast == Horner ", Arrays.equals(DensePolyUtil.composeHorner(a, 0, n, t), c));
+            }
+        }
+    }
+
+
+    /**
+     * Test Taylor shift and composition modulo primes.
+     */
+    public void testModular() {
+        // convolution and divide and conquer
+        for (long p : new long[] { 2L, 5L, 101L, 2147483647L }) {
+            for (int n : new int[] { 1, 2, DensePolyUtil.COMPOSITION_DEGREE + 3, 3 * DensePolyUtil.TAYLOR_SHIFT_DEGREE + 7 }) {
+                long[] a = random(n, p);
+                long s = Math.floorMod(rnd.nextLong(), p - 1L) + 1L;
+                long[] b = DensePolyUtil.taylorShift(a, s, p);
+                assertTrue("fast == Horner ", Arrays.equals(DensePolyUtil.taylorShiftHorner(a, 0, n, s, p), b));
+                assertTrue("shift(shift(a,s),-s) == a ", Arrays.equals(a, DensePolyUtil.taylorShift(b, p - s, p)));
+                for (int m : new int[] { 1, 2, 3, 7 }) {
+                    long[] t = random(m, p);
+                    long[] c = DensePolyUtil.compose(a, t, p);
+                    assertEquals("deg(a(t)) ", (n - 1) * (m - 1) + 1, c.length);
+                    assertTrue("fast == Horner ", Arrays.equals(DensePolyUtil.composeHorner(a, 0, n, t, p), c));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Test PolyUtil Taylor shift and composition against the Horner scheme.
+     */
+    public void testPolyUtil() {
+        int n = 2 * DensePolyUtil.TAYLOR_SHIFT_DEGREE + 3;
+
+        BigInteger ifac = new BigInteger();
+        GenPolynomialRing<BigInteger> ipfac = new GenPolynomialRing<BigInteger>(ifac, 1, to);
+        GenPolynomial<BigInteger> A = ipfac.random(20, n, n, 0.8f);
+        GenPolynomial<BigInteger> T = ipfac.random(5, 4, 3, 0.9f);
+        BigInteger ia = ifac.fromInteger(-7);
+        assertEquals("taylorShift(A,a) == A(x+a) ",
+                        PolyUtil.<BigInteger> substituteHorner(ipfac, A, ipfac.univariate(0).sum(ia)),
+                        PolyUtil.<BigInteger> taylorShift(A, ia));
+        assertEquals("compose(A,T) == A(T) ", PolyUtil.<BigInteger> substituteHorner(ipfac, A, T),
+                        PolyUtil.<BigInteger> compose(A, T));
+
+        BigRational rfac = new BigRational();
+        GenPolynomialRing<BigRational> rpfac = new GenPolynomialRing<BigRational>(rfac, 1, to);
+        GenPolynomial<BigRational> B = rpfac.random(20, n, n, 0.8f);
+        GenPolynomial<BigRational> U = rpfac.random(5, 4, 3, 0.9f);
+        BigRational ra = new BigRational(-7, 3);
+        GenPolynomial<BigRational> Bs = PolyUtil.<BigRational> taylorShift(B, ra);
+        assertEquals("taylorShift(B,a) == B(x+a) ",
+                        PolyUtil.<BigRational> substituteHorner(rpfac, B, rpfac.univariate(0).sum(ra)), Bs);
+        assertEquals("seriesOfTaylor(B,a) == B(x+a) ", Bs, PolyUtil.<BigRational> seriesOfTaylor(B, ra));
+        assertEquals("compose(B,U) == B(U) ", PolyUtil.<BigRational> substituteHorner(rpfac, B, U),
+                        PolyUtil.<BigRational> substituteUnivariate(B, U));
+
+        for (long p : new long[] { 7L, 2147483647L }) {
+            ModLongRing mfac = new ModLongRing(p, true);
+            GenPolynomialRing<ModLong> mpfac = new GenPolynomialRing<ModLong>(mfac, 1, to);
+            GenPolynomial<ModLong> C = mpfac.random(20, n, n, 0.8f);
+            GenPolynomial<ModLong> V = mpfac.random(5, 4, 3, 0.9f);
+            ModLong ma = mfac.fromInteger(-7);
+            if (ma.isZERO()) {
+                ma = mfac.fromInteger(3);
+            }
+            assertEquals("taylorShift(C,a) == C(x+a) ",
+                            PolyUtil.<ModLong> substituteHorner(mpfac, C, mpfac.univariate(0).sum(ma)),
+                            PolyUtil.<ModLong> taylorShift(C, ma));
+            assertEquals("compose(C,V) == C(V) ", PolyUtil.<ModLong> substituteHorner(mpfac, C, V),
+                            PolyUtil.<ModLong> compose(C, V));
+        }
+
+        // generic coefficients with Horner scheme
+        BigComplex cfac = new BigComplex();
+        GenPolynomialRing<BigComplex> cpfac = new GenPolynomialRing<BigComplex>(cfac, 1, to);
+        GenPolynomial<BigComplex> D = cpfac.random(5, 30, 25, 0.8f);
+        BigComplex ca = new BigComplex(new BigRational(1, 2), new BigRational(-3));
+        assertEquals("taylorShift(D,a) == D(x+a) ",
+                        PolyUtil.<BigComplex> substituteHorner(cpfac, D, cpfac.univariate(0).sum(ca)),
+                        PolyUtil.<BigComplex> taylorShift(D, ca));
+    }
+
+
+    /**
+     * Test Taylor series and shift keep the coefficient factory. Coefficients
+     * of a different factory instance, e.g. from a refined real algebraic
+     * number ring, made later computations very slow.
+     */
+    public void testTaylorCoefficientFactory() {
+        BigRational cfac = new BigRational();
+        String[] w = new String[] { "w" };
+        GenPolynomialRing<BigRational> mfac = new GenPolynomialRing<BigRational>(cfac, 1, to, w);
+        GenPolynomialRing<BigRational> nfac = new GenPolynomialRing<BigRational>(cfac, 1, to, w);
+        AlgebraicNumberRing<BigRational> afac = new AlgebraicNumberRing<BigRational>(mfac.parse("w^2 - 2"), true);
+        AlgebraicNumberRing<BigRational> bfac = new AlgebraicNumberRing<BigRational>(nfac.parse("w^2 - 2"), true);
+        assertEquals("afac == bfac ", afac, bfac);
+        GenPolynomialRing<AlgebraicNumber<BigRational>> pfac = new GenPolynomialRing<AlgebraicNumber<BigRational>>(
+                        afac, 1, to);
+        // A = w x^5 + x^2 + 3 w
+        AlgebraicNumber<BigRational> g = afac.getGenerator();
+        GenPolynomial<AlgebraicNumber<BigRational>> A = pfac.univariate(0, 5).multiply(g)
+                        .sum(pfac.univariate(0, 2)).sum(g.multiply(afac.fromInteger(3)));
+        AlgebraicNumber<BigRational> a = bfac.getGenerator().sum(bfac.fromInteger(3));
+
+        GenPolynomial<AlgebraicNumber<BigRational>> B = PolyUtil.<AlgebraicNumber<BigRational>> seriesOfTaylor(A, a);
+        GenPolynomial<AlgebraicNumber<BigRational>> C = PolyUtil.<AlgebraicNumber<BigRational>> taylorShift(A, a);
+        assertEquals("seriesOfTaylor(A,a) == taylorShift(A,a) ", B, C);
+        for (AlgebraicNumber<BigRational> c : B.getMap().values()) {
+            assertTrue("factory(c) == factory(A) ", c.factory() == afac && c.val.ring == mfac);
+        }
+        for (AlgebraicNumber<BigRational> c : C.getMap().values()) {
+            assertTrue("factory(c) == factory(A) ", c.factory() == afac && c.val.ring == mfac);
+        }
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.GaloisFieldElem;
+import edu.jas.arith.GaloisFieldRing;
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModIntRing;
+
+
+/**
+ * GF2Polynomial tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class GF2PolynomialTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GF2PolynomialTest</CODE> object.
+     * @param name String.
+     */
+    public GF2PolynomialTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GF2PolynomialTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<ModInt> fac;
+
+
+    Random rnd;
+
+
+    GF2Polynomial a, b, c, d, e;
+
+
+    @Override
+    protected void setUp() {
+        fac = new GenPolynomialRing<ModInt>(new ModIntRing(2), new String[] { "x" });
+        rnd = new Random(4711);
+        a = b = c = d = e = null;
+    }
+
+
+    @Override
+    protected void tearDown() {
+        fac = null;
+        a = b = c = d = e = null;
+    }
+
+
+    /**
+     * Test constructor, conversion and toString.
+     */
+    public void testConstruction() {
+        a = GF2Polynomial.univariate(5).sum(GF2Polynomial.univariate(2)).sum(GF2Polynomial.ONE);
+        assertEquals("deg(a) == 5 ", 5, a.degree());
+        assertEquals("length(a) == 3 ", 3, a.length());
+        assertEquals("toString(a) ", "x^5 + x^2 + 1", a.toString());
+        assertEquals("from(a) ", fac.parse("x^5 + x^2 + 1"), PolyUtil.fromGF2Polynomial(fac, a));
+        assertEquals("X == x ", GF2Polynomial.X, PolyUtil.toGF2Polynomial(fac.univariate(0)));
+        assertEquals("deg(0) == -1 ", -1, GF2Polynomial.ZERO.degree());
+        assertTrue("0 == 0 ", new GF2Polynomial(new long[] { 0L, 0L }).isZERO());
+        assertTrue("1 == 1 ", new GF2Polynomial(new long[] { 1L, 0L }).isONE());
+        b = GF2Polynomial.univariate(200);
+        assertEquals("deg(x^200) == 200 ", 200, b.degree());
+        assertTrue("testBit(200) ", b.testBit(200));
+        assertFalse("testBit(199) ", b.testBit(199));
+        for (int i = 0; i < 10; i++) {
+            GenPolynomial<ModInt> A = fac.random(5, 50, 300, 0.3f);
+            a = PolyUtil.toGF2Polynomial(A);
+            assertEquals("deg(a) == deg(A) ", (A.isZERO() ? -1 : A.degree(0)), (long) a.degree());
+            assertEquals("from(to(A)) == A ", A, PolyUtil.fromGF2Polynomial(fac, a));
+            assertEquals("to(from(a)) == a ", a, PolyUtil.toGF2Polynomial(PolyUtil.fromGF2Polynomial(fac, a)));
+        }
+        try {
+            PolyUtil.toGF2Polynomial(new GenPolynomialRing<ModInt>(new ModIntRing(3), 1).univariate(0));
+            fail("only characteristic 2");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+        try {
+            GaloisFieldRing gf4 = new GaloisFieldRing(2L, 2);
+            PolyUtil.toGF2Polynomial(new GenPolynomialRing<GaloisFieldElem>(gf4, 1).univariate(0)
+                            .multiply(gf4.getGenerator()));
+            fail("only GF(2), not GF(4)");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test addition and shifts.
+     */
+    public void testAddition() {
+        for (int i = 0; i < 10; i++) {
+            a = GF2Polynomial.random(300, rnd);
+            b = GF2Polynomial.random(100 + 50 * i, rnd);
+            c = a.sum(b);
+            assertEquals("a+b == b+a ", c, b.sum(a));
+            assertEquals("a+b-b == a ", a, c.sum(b));
+            assertTrue("a+a == 0 ", a.sum(a).isZERO());
+            assertEquals("a+b == A+B ", PolyUtil.toGF2Polynomial(
+                            PolyUtil.fromGF2Polynomial(fac, a).sum(PolyUtil.fromGF2Polynomial(fac, b))), c);
+            for (int s : new int[] { 0, 1, 63, 64, 65, 200 }) {
+                d = a.shiftLeft(s);
+                assertEquals("a x^s == a * x^s ", a.multiply(GF2Polynomial.univariate(s)), d);
+                assertEquals("(a x^s) / x^s == a ", a, d.shiftRight(s));
+            }
+            assertEquals("a / x^70 == a div x^70 ", a.divide(GF2Polynomial.univariate(70)), a.shiftRight(70));
+        }
+    }
+
+
+    /**
+     * Test multiplication with comb and Karatsuba.
+     */
+    public void testMultiplication() {
+        for (int i = 0; i < 6; i++) {
+            a = GF2Polynomial.random(50 + 100 * i, rnd);
+            b = GF2Polynomial.random(70 + 80 * i, rnd);
+            c = a.multiply(b);
+            GenPolynomial<ModInt> C = PolyUtil.fromGF2Polynomial(fac, a)
+                            .multiply(PolyUtil.fromGF2Polynomial(fac, b));
+            assertEquals("a*b == A*B ", PolyUtil.toGF2Polynomial(C), c);
+            assertEquals("a*b == b*a ", c, b.multiply(a));
+            assertEquals("a^2 == a*a ", a.multiply(new GF2Polynomial(a.getWords())), a.square());
+        }
+        // Karatsuba sizes, balanced and unbalanced
+        int kw = 64 * GF2Polynomial.KARATSUBA_WORDS;
+        for (int i = 0; i < 3; i++) {
+            a = GF2Polynomial.random(3 * kw + 17 * i, rnd);
+            b = GF2Polynomial.random(kw + 5 + 1000 * i, rnd);
+            c = GF2Polynomial.random(2 * kw, rnd);
+            d = a.multiply(b);
+            assertEquals("a*b == b*a ", d, b.multiply(a));
+            assertEquals("a*(b+c) == a*b+a*c ", a.multiply(b.sum(c)), d.sum(a.multiply(c)));
+            assertEquals("(a*b)*c == a*(b*c) ", d.multiply(c), a.multiply(b.multiply(c)));
+            assertEquals("deg(a*b) == deg(a)+deg(b) ", a.degree() + b.degree(), d.degree());
+            // compare with the comb on the whole operands
+            long[] w = new long[a.val.length + b.val.length];
+            GF2Polynomial.mulComb(a.val, 0, a.val.length, b.val, 0, b.val.length, w, 0);
+            assertEquals("karatsuba(a,b) == comb(a,b) ", new GF2Polynomial(w), d);
+            assertEquals("a^2 == a*a ", a.multiply(new GF2Polynomial(a.getWords())), a.square());
+        }
+    }
+
+
+    /**
+     * Test division, gcd and modular power.
+     */
+    public void testDivision() {
+        for (int i = 0; i < 10; i++) {
+            a = GF2Polynomial.random(400, rnd);
+            b = GF2Polynomial.random(30 + 40 * i, rnd);
+            if (b.isZERO()) {
+                continue;
+            }
+            GF2Polynomial[] qr = a.quotientRemainder(b);
+            assertEquals("a == q*b+r ", a, qr[0].multiply(b).sum(qr[1]));
+            assertTrue("deg(r) < deg(b) ", qr[1].degree() < b.degree());
+            assertEquals("a/b == q ", qr[0], a.divide(b));
+            assertEquals("a%b == r ", qr[1], a.remainder(b));
+            GenPolynomial<ModInt> B = PolyUtil.fromGF2Polynomial(fac, b);
+            assertEquals("a%b == A%B ", PolyUtil.toGF2Polynomial(PolyUtil.fromGF2Polynomial(fac, a).remainder(B)),
+                            qr[1]);
+
+            c = GF2Polynomial.random(60, rnd).sum(GF2Polynomial.univariate(60));
+            d = a.multiply(c);
+            e = b.multiply(c);
+            assertTrue("gcd(a c, b c) % c == 0 ", d.gcd(e).remainder(c).isZERO());
+        }
+        // x^(2^k) == x mod f for f irreducible of degree k
+        GF2Polynomial f = PolyUtil.toGF2Polynomial(fac.parse("x^7 + x + 1"));
+        java.math.BigInteger q = java.math.BigInteger.ONE.shiftLeft(7);
+        assertEquals("x^(2^7) == x mod f ", GF2Polynomial.X, GF2Polynomial.X.modPower(q, f));
+        a = GF2Polynomial.random(7, rnd);
+        assertEquals("a^(2^7) == a mod f ", a, a.modPower(q, f));
+        b = GF2Polynomial.random(300, rnd);
+        assertEquals("b^5 mod f ", b.multiply(b).multiply(b).multiply(b).multiply(b).remainder(f),
+                        b.modPower(java.math.BigInteger.valueOf(5), f));
+        try {
+            a.divide(GF2Polynomial.ZERO);
+            fail("division by zero");
+        } catch (ArithmeticException ex) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test derivative and characteristic root.
+     */
+    public void testDerivative() {
+        for (int i = 0; i < 10; i++) {
+            a = GF2Polynomial.random(300, rnd);
+            GenPolynomial<ModInt> A = PolyUtil.fromGF2Polynomial(fac, a);
+            assertEquals("a' == A' ", PolyUtil.toGF2Polynomial(PolyUtil.<ModInt> baseDeriviative(A)),
+                            a.derivative());
+            b = a.square();
+            assertTrue("(a^2)' == 0 ", b.derivative().isZERO());
+            assertEquals("root(a^2) == a ", a, b.rootCharacteristic());
+        }
+        assertNull("root(x) == null ", GF2Polynomial.X.rootCharacteristic());
+    }
+
+}
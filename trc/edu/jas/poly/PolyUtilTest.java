@@ -15,8 +15,11 @@ import junit.framework.TestSuite;
 import edu.jas.arith.BigComplex;
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.ChineseRemainder;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Product;
 import edu.jas.arith.ProductRing;
 
@@ -363,6 +366,53 @@ public class PolyUtilTest extends TestCase {
     }
 
 
+    /**
+     * Test batch chinese remainder and rational reconstruction.
+     */
+    public void testChineseRemainderBatch() {
+        List<ModLongRing> rings = new ArrayList<ModLongRing>();
+        List<GenPolynomialRing<ModLong>> facs = new ArrayList<GenPolynomialRing<ModLong>>();
+        java.math.BigInteger p = java.math.BigInteger.ONE.shiftLeft(40);
+        for (int i = 0; i < 14; i++) {
+            p = p.nextProbablePrime();
+            ModLongRing r = new ModLongRing(p, true);
+            rings.add(r);
+            facs.add(new GenPolynomialRing<ModLong>(r, rl, to));
+        }
+        ChineseRemainder cr = ChineseRemainder.<ModLong> fromFactories(rings);
+        GenPolynomialRing<ModInteger> mfac = new GenPolynomialRing<ModInteger>(
+                        new ModIntegerRing(cr.getModul()), rl, to);
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(), rl, to);
+
+        for (int i = 0; i < 3; i++) {
+            c = dfac.random(300, ll * (i + 1), el + i, q);
+            List<GenPolynomial<ModLong>> cl = new ArrayList<GenPolynomial<ModLong>>();
+            for (GenPolynomialRing<ModLong> f : facs) {
+                cl.add(PolyUtil.<ModLong> fromIntegerCoefficients(f, c));
+            }
+            a = PolyUtil.<ModLong> integerFromChineseRemainder(dfac, cr, cl);
+            assertEquals("cra(c mod p_i) = c", c, a);
+
+            GenPolynomial<ModInteger> cm = PolyUtil.<ModInteger, ModLong> chineseRemainder(mfac, cr, cl);
+            assertEquals("cra(c mod p_i) = c mod M", PolyUtil.<ModInteger> fromIntegerCoefficients(mfac, c), cm);
+
+            // rational reconstruction
+            GenPolynomial<BigRational> r = rfac.random(50, ll, el, q);
+            List<GenPolynomial<ModLong>> rlist = new ArrayList<GenPolynomial<ModLong>>();
+            for (GenPolynomialRing<ModLong> f : facs) {
+                GenPolynomial<ModLong> rm = f.getZERO();
+                for (Monomial<BigRational> m : r) {
+                    ModLong mc = f.coFac.fromInteger(m.c.numerator()).divide(f.coFac.fromInteger(m.c.denominator()));
+                    rm = rm.sum(mc, m.e);
+                }
+                rlist.add(rm);
+            }
+            GenPolynomial<BigRational> rr = PolyUtil.<ModLong> rationalFromChineseRemainder(rfac, cr, rlist);
+            assertEquals("ratrec(cra(r mod p_i)) = r", r, rr);
+        }
+    }
+
+
     /**
      * Test complex conversion.
      */
@@ -0,0 +1,183 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * SubproductTree tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class SubproductTreeTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>SubproductTreeTest</CODE> object.
+     * @param name String
+     */
+    public SubproductTreeTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(SubproductTreeTest.class);
+        return suite;
+    }
+
+
+    TermOrder to = new TermOrder(TermOrder.INVLEX);
+
+
+    ModLongRing mfac;
+
+
+    GenPolynomialRing<ModLong> fac;
+
+
+    @Override
+    protected void setUp() {
+        mfac = new ModLongRing(2147483629L, true); // prime < 2^31
+        fac = new GenPolynomialRing<ModLong>(mfac, 1, to, new String[] { "x" });
+    }
+
+
+    @Override
+    protected void tearDown() {
+        mfac = null;
+        fac = null;
+    }
+
+
+    List<ModLong> points(int k) {
+        List<ModLong> a = new ArrayList<ModLong>(k);
+        for (int i = 0; i < k; i++) {
+            a.add(mfac.fromInteger(3L * i + 1L));
+        }
+        return a;
+    }
+
+
+    /**
+     * Test multipoint evaluation and interpolation.
+     */
+    public void testEvaluateInterpolate() {
+        for (int k : new int[] { 1, 2, 3, 17, 100, 257 }) {
+            List<ModLong> a = points(k);
+            SubproductTree<ModLong> tree = new SubproductTree<ModLong>(fac, a);
+            assertEquals("size == k ", k, tree.size());
+            GenPolynomial<ModLong> M = tree.getModul();
+            assertEquals("deg(M) == k ", k, M.degree(0));
+            for (ModLong ai : a) {
+                assertTrue("M(a_i) == 0 ", PolyUtil.<ModLong> evaluateMain(mfac, M, ai).isZERO());
+            }
+            // degrees below, at and far above k
+            for (int d : new int[] { k / 2, k - 1, k, 3 * k + 5 }) {
+                GenPolynomial<ModLong> A = fac.random(10, d + 1, Math.max(1, d), 0.7f);
+                List<ModLong> v = tree.evaluate(A);
+                for (int i = 0; i < k; i++) {
+                    assertEquals("A(a_i) ", PolyUtil.<ModLong> evaluateMain(mfac, A, a.get(i)), v.get(i));
+                }
+                GenPolynomial<ModLong> S = tree.interpolate(v);
+                assertTrue("deg(S) < k ", S.isZERO() || S.degree(0) < k);
+                if (d < k) {
+                    assertEquals("interpolate(evaluate(A)) == A ", A, S);
+                } else {
+                    assertEquals("interpolate(evaluate(A)) == A mod M ", PolyUtil.<ModLong> baseSparsePseudoRemainder(A, M), S);
+                }
+            }
+        }
+        List<ModLong> a = points(5);
+        a.add(a.get(2));
+        SubproductTree<ModLong> tree = new SubproductTree<ModLong>(fac, a);
+        try {
+            tree.interpolate(tree.evaluate(fac.univariate(0)));
+            fail("points not distinct");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test recursive multipoint evaluation and interpolation.
+     */
+    public void testRecursive() {
+        GenPolynomialRing<ModLong> dfac = new GenPolynomialRing<ModLong>(mfac, 2, to, new String[] { "y", "z" });
+        GenPolynomialRing<GenPolynomial<ModLong>> rfac = new GenPolynomialRing<GenPolynomial<ModLong>>(fac, dfac);
+        GenPolynomial<GenPolynomial<ModLong>> A = rfac.random(5, 6, 4, 0.5f);
+        int k = (int) PolyUtil.<ModLong> coeffMaxDegree(A) + 40;
+        List<ModLong> a = points(k);
+        SubproductTree<ModLong> tree = new SubproductTree<ModLong>(fac, a);
+        List<GenPolynomial<ModLong>> B = tree.evaluate(dfac, A);
+        for (int i = 0; i < k; i++) {
+            assertEquals("A(a_i) ", PolyUtil.<ModLong> evaluateFirstRec(fac, dfac, A, a.get(i)), B.get(i));
+        }
+        assertEquals("interpolate(evaluate(A)) == A ", A, tree.interpolate(rfac, B));
+    }
+
+
+    /**
+     * Test PolyUtil methods with and without subproduct trees.
+     */
+    public void testPolyUtil() {
+        ModIntegerRing ifac = new ModIntegerRing(java.math.BigInteger.ONE.shiftLeft(70).nextProbablePrime(),
+                        true);
+        GenPolynomialRing<ModInteger> gfac = new GenPolynomialRing<ModInteger>(ifac, 1, to,
+                        new String[] { "x" });
+        assertTrue("applicable(ModLong) ", SubproductTree.isApplicable(mfac));
+        assertFalse("applicable(ModInteger 71 bits) ", SubproductTree.isApplicable(ifac));
+        for (int k : new int[] { 10, PolyUtil.MULTIPOINT_THRESHOLD + 10,
+                        PolyUtil.MULTIPOINT_EVALUATION_THRESHOLD + 1 }) {
+            List<ModLong> a = points(k);
+            GenPolynomial<ModLong> A = fac.random(10, k, k - 1, 0.9f);
+            List<ModLong> v = PolyUtil.<ModLong> evaluateMainMultipoint(A, a);
+            for (int i = 0; i < k; i++) {
+                assertEquals("A(a_i) ", PolyUtil.<ModLong> evaluateMain(mfac, A, a.get(i)), v.get(i));
+            }
+            assertEquals("interpolate(evaluate(A)) == A ", A, PolyUtil.<ModLong> interpolateMultipoint(fac, a, v));
+
+            List<ModInteger> b = new ArrayList<ModInteger>(k);
+            for (int i = 0; i < k; i++) {
+                b.add(ifac.fromInteger(7L * i + 2L));
+            }
+            GenPolynomial<ModInteger> C = gfac.random(10, k, k - 1, 0.9f);
+            List<ModInteger> w = PolyUtil.<ModInteger> evaluateMainMultipoint(C, b);
+            assertEquals("interpolate(evaluate(C)) == C ", C, PolyUtil.<ModInteger> interpolateMultipoint(gfac, b, w));
+
+            GenPolynomialRing<ModLong> dfac = new GenPolynomialRing<ModLong>(mfac, 1, to, new String[] { "y" });
+            GenPolynomialRing<GenPolynomial<ModLong>> rfac = new GenPolynomialRing<GenPolynomial<ModLong>>(fac,
+                            dfac);
+            GenPolynomial<GenPolynomial<ModLong>> R = rfac.random(4, 5, 3, 0.6f);
+            List<GenPolynomial<ModLong>> B = PolyUtil.<ModLong> evaluateFirstRecMultipoint(fac, dfac, R, a);
+            assertEquals("interpolate(evaluate(R)) == R ", R,
+                            PolyUtil.<ModLong> interpolateRecursiveMultipoint(rfac, a, B));
+        }
+    }
+
+}
@@ -132,6 +132,8 @@ public class MultiVarPowerSeriesTest extends TestCase {
         //System.out.println("homCheck   = " + ones.homCheck.length());
         assertTrue("zeroCache is empty", ones.zeroCache.isEmpty());
         assertTrue("#coeffCache = " + m, ones.coeffCache.size() == (m + 1));
+        assertEquals("#cache == #coeffCache ", ones.getCache().size(), ones.coeffCache.size());
+        assertEquals("cache(0) == coeffCache(0) ", ones.getCache().get(0), ones.coeffCache.get(0L));
         assertTrue("#homCheck = " + m, ones.homCheck.length() == (m + 1));
 
         for (int i = 0; i <= m; i++) {
@@ -149,6 +151,62 @@ public class MultiVarPowerSeriesTest extends TestCase {
     }
 
 
+    /**
+     * Test concurrent coefficients and cache truncation.
+     */
+    @SuppressWarnings("unchecked")
+    public void testCoefficientCache() throws InterruptedException {
+        a = fac.getEXP(0).multiply(fac.getSIN(1)).sum(fac.getCOS(0));
+        final int m = fac.truncate();
+        final GenPolynomial<BigRational>[] hs = new GenPolynomial[m + 1];
+        for (int i = 0; i <= m; i++) {
+            hs[i] = a.homogeneousPart(i);
+        }
+
+        // concurrent readers of a shared series
+        final MultiVarPowerSeries<BigRational> s = fac.getEXP(0).multiply(fac.getSIN(1))
+                        .sum(fac.getCOS(0));
+        final boolean[] ok = new boolean[4];
+        Thread[] ts = new Thread[ok.length];
+        for (int t = 0; t < ts.length; t++) {
+            final int k = t;
+            ts[t] = new Thread() {
+
+
+                @Override
+                public void run() {
+                    boolean r = true;
+                    for (ExpVector e : new ExpVectorIterable(rl, true, m)) {
+                        BigRational c = s.coefficient(e);
+                        r = r && c.equals(hs[(int) e.totalDeg()].coefficient(e));
+                        if (k % 2 == 1) {
+                            int d = (int) e.totalDeg();
+                            r = r && hs[d].equals(s.homogeneousPart(d));
+                        }
+                    }
+                    ok[k] = r;
+                }
+            };
+            ts[t].start();
+        }
+        for (Thread t : ts) {
+            t.join();
+        }
+        for (int t = 0; t < ok.length; t++) {
+            assertTrue("concurrent coefficients == sequential coefficients " + t, ok[t]);
+        }
+
+        // cache limited to truncate
+        fac.setTruncateCache(true);
+        b = fac.getEXP(0).multiply(fac.getSIN(1)).sum(fac.getCOS(0));
+        for (int i = 0; i <= m + 2; i++) {
+            assertEquals("hom(a) == hom(b) ", a.homogeneousPart(i), b.homogeneousPart(i));
+        }
+        assertTrue("#coeffCache <= truncate+1 ", b.lazyCoeffs.coeffCache.size() <= m + 1);
+        fac.setTruncateCache(false);
+    }
+
+
     /**
      * Test constructor and generators.
      */
@@ -0,0 +1,171 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ps;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.jas.arith.BigRational;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomialRing;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * Standard base sequential and parallel tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class StandardBaseTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>StandardBaseTest</CODE> object.
+     * @param name String.
+     */
+    public StandardBaseTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(StandardBaseTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<BigRational> pfac;
+
+
+    MultiVarPowerSeriesRing<BigRational> fac;
+
+
+    StandardBaseSeq<BigRational> bbseq;
+
+
+    StandardBaseParallel<BigRational> bbpar;
+
+
+    ReductionSeq<BigRational> red;
+
+
+    @Override
+    protected void setUp() {
+        pfac = new GenPolynomialRing<BigRational>(new BigRational(1), new String[] { "x", "y", "z" });
+        fac = new MultiVarPowerSeriesRing<BigRational>(pfac);
+        bbseq = new StandardBaseSeq<BigRational>();
+        bbpar = new StandardBaseParallel<BigRational>(3);
+        red = new ReductionSeq<BigRational>();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        pfac = null;
+        fac = null;
+        bbseq = null;
+        bbpar = null;
+        red = null;
+    }
+
+
+    /**
+     * Power series from polynomials.
+     * @param ps polynomial strings.
+     * @return list of power series.
+     */
+    List<MultiVarPowerSeries<BigRational>> series(String... ps) {
+        List<MultiVarPowerSeries<BigRational>> L = new ArrayList<MultiVarPowerSeries<BigRational>>();
+        for (String p : ps) {
+            L.add(fac.fromPolynomial(pfac.parse(p)));
+        }
+        return L;
+    }
+
+
+    /**
+     * Order exponent vectors.
+     * @param L list of power series.
+     * @return list of order exponent vectors.
+     */
+    List<ExpVector> orders(List<MultiVarPowerSeries<BigRational>> L) {
+        List<ExpVector> E = new ArrayList<ExpVector>(L.size());
+        for (MultiVarPowerSeries<BigRational> p : L) {
+            E.add(p.orderExpVector());
+        }
+        return E;
+    }
+
+
+    /**
+     * Test sequential and parallel standard bases.
+     */
+    public void testStandardBase() {
+        fac.setTruncate(11);
+        List<MultiVarPowerSeries<BigRational>> L = series("x z - y z - y^2 z", "x z - y z + y^2 z",
+                        "z + y^2 z");
+        List<MultiVarPowerSeries<BigRational>> S = bbseq.STD(L);
+        assertTrue("isSTD(S) ", bbseq.isSTD(S));
+        assertTrue("S contains L ", red.contains(S, L));
+
+        List<MultiVarPowerSeries<BigRational>> P = bbpar.STD(L);
+        assertTrue("isSTD(P) ", bbseq.isSTD(P));
+        assertTrue("P contains L ", red.contains(P, L));
+        assertTrue("S contains P ", red.contains(S, P));
+        assertTrue("P contains S ", red.contains(P, S));
+        assertTrue("orders(P) == orders(S) ", orders(P).containsAll(orders(S))
+                        && orders(S).containsAll(orders(P)));
+    }
+
+
+    /**
+     * Test parallel standard base with truncated pairs.
+     */
+    public void testStandardBaseTruncated() {
+        fac.setTruncate(9);
+        List<MultiVarPowerSeries<BigRational>> L = series("x^5 - x y^6 + z^7", "x y + y^3 + z^3",
+                        "x^2 + y^2 - z^2");
+        List<MultiVarPowerSeries<BigRational>> S = bbseq.STD(L);
+        List<MultiVarPowerSeries<BigRational>> P = bbpar.STD(L);
+        assertTrue("isSTD(P) ", bbseq.isSTD(P));
+        assertTrue("P contains L ", red.contains(P, L));
+        assertTrue("orders(P) == orders(S) ", orders(P).containsAll(orders(S))
+                        && orders(S).containsAll(orders(P)));
+
+        // same result for one thread
+        StandardBaseParallel<BigRational> bb1 = new StandardBaseParallel<BigRational>(1);
+        List<MultiVarPowerSeries<BigRational>> Q = bb1.STD(L);
+        assertTrue("orders(Q) == orders(P) ", orders(P).containsAll(orders(Q))
+                        && orders(Q).containsAll(orders(P)));
+
+        OrderedSugarPairlist<BigRational> pl = new OrderedSugarPairlist<BigRational>(fac);
+        pl.put(S);
+        while (pl.hasNext()) {
+            Pair<BigRational> pair = pl.removeNext();
+            if (pair == null) {
+                continue;
+            }
+            MultiVarPowerSeries<BigRational> h = red.normalform(S, red.SPolynomial(pair.pi, pair.pj));
+            assertTrue("nf(spol(pair)) == 0 ", h.isZERO());
+        }
+    }
+
+}
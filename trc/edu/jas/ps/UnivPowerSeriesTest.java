@@ -5,7 +5,12 @@
 package edu.jas.ps;
 
 
+import java.util.List;
+
+import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 
@@ -99,6 +104,138 @@ public class UnivPowerSeriesTest extends TestCase {
     }
 
 
+    /**
+     * Test coefficient cache.
+     */
+    public void testCoefficientCache() throws InterruptedException {
+        // sequential reference
+        a = fac.getEXP().multiply(fac.getSIN()).sum(fac.getCOS());
+        final int n = 3 * fac.truncate;
+        final BigRational[] cs = new BigRational[n];
+        for (int i = 0; i < n; i++) {
+            cs[i] = a.coefficient(i);
+        }
+
+        // concurrent readers of a shared series
+        final UnivPowerSeries<BigRational> s = fac.getEXP().multiply(fac.getSIN()).sum(fac.getCOS());
+        final boolean[] ok = new boolean[4];
+        Thread[] ts = new Thread[ok.length];
+        for (int t = 0; t < ts.length; t++) {
+            final int k = t;
+            ts[t] = new Thread() {
+
+
+                @Override
+                public void run() {
+                    boolean r = true;
+                    for (int i = 0; i < n; i++) {
+                        int j = (k % 2 == 0) ? i : n - 1 - i;
+                        r = r && cs[j].equals(s.coefficient(j));
+                    }
+                    ok[k] = r;
+                }
+            };
+            ts[t].start();
+        }
+        for (Thread t : ts) {
+            t.join();
+        }
+        for (int t = 0; t < ok.length; t++) {
+            assertTrue("concurrent coefficients == sequential coefficients " + t, ok[t]);
+        }
+
+        // cache limited to truncate
+        boolean o = fac.setTruncateCache(true);
+        assertFalse("no cache truncation by default ", o);
+        b = fac.getEXP().multiply(fac.getSIN()).sum(fac.getCOS());
+        for (int i = 0; i < n; i++) {
+            assertEquals("a_i == b_i ", cs[i], b.coefficient(i));
+        }
+        assertTrue("#coeffCache <= truncate+1 ", b.lazyCoeffs.coeffCache.size() <= fac.truncate + 1);
+        assertEquals("#cache == #coeffCache ", b.lazyCoeffs.getCache().size(), b.lazyCoeffs.coeffCache.size());
+
+        // entries put into coeffCache are used
+        Coefficients<BigRational> cz = new Coefficients<BigRational>() {
+
+
+            @Override
+            public BigRational generate(int i) {
+                return cfac.getZERO();
+            }
+        };
+        cz.coeffCache.put(3, cfac.getONE());
+        assertTrue("get(3) == coeffCache(3) ", cz.get(3).isONE());
+        assertTrue("get(2) == 0 ", cz.get(2).isZERO());
+        assertEquals("#coeffCache == 2 ", 2, cz.coeffCache.size());
+        assertEquals("a == b ", a, b);
+        fac.setTruncateCache(false);
+
+        // pre-filled caches are kept
+        GenPolynomialRing<BigRational> pfac = new GenPolynomialRing<BigRational>(cfac, 1);
+        GenPolynomial<BigRational> p = pfac.univariate(0, 2 * fac.truncate).sum(pfac.getONE());
+        c = fac.fromPolynomial(p);
+        c.lazyCoeffs.setCacheLimit(fac.truncate);
+        assertTrue("c_{2 t} == 1 ", c.coefficient(2 * fac.truncate).isONE());
+    }
+
+
+    /**
+     * Test eager block arithmetic.
+     */
+    public void testEagerArithmetic() {
+        int n = 3 * PSUtil.KARATSUBA_THRESHOLD + 7;
+        a = fac.getEXP().sum(fac.getSIN());
+        b = fac.getCOS();
+
+        List<BigRational> c1 = a.multiply(b).coefficientList(n);
+        List<BigRational> c2 = a.multiplyEager(b).coefficientList(n);
+        assertEquals("a*b == multiplyEager(a,b) ", c1, c2);
+
+        c1 = a.inverse().coefficientList(n);
+        c2 = a.inverseEager().coefficientList(n);
+        assertEquals("1/a == inverseEager(a) ", c1, c2);
+
+        c1 = b.divide(a).coefficientList(n);
+        c2 = b.divideEager(a).coefficientList(n);
+        assertEquals("b/a == divideEager(b,a) ", c1, c2);
+
+        c = fac.getSIN();
+        c1 = fac.getEXP().coefficientList(n);
+        c2 = fac.getONE().shift(1).exp().coefficientList(n); // exp(x)
+        assertEquals("exp(x) == EXP ", c1, c2);
+
+        c1 = c.coefficientList(n);
+        c2 = c.exp().log().coefficientList(n);
+        assertEquals("log(exp(sin)) == sin ", c1, c2);
+
+        d = a.multiply(a);
+        c1 = a.coefficientList(n);
+        c2 = d.sqrt().coefficientList(n);
+        assertEquals("sqrt(a^2) == a ", c1, c2);
+
+        // generic Karatsuba multiplication
+        ModIntegerRing mr = new ModIntegerRing(1000003);
+        UnivPowerSeriesRing<ModInteger> mfac = new UnivPowerSeriesRing<ModInteger>(mr);
+        UnivPowerSeries<ModInteger> ma = mfac.getEXP().sum(mfac.getSIN());
+        UnivPowerSeries<ModInteger> mb = mfac.getCOS();
+        List<ModInteger> m1 = ma.multiply(mb).coefficientList(n);
+        List<ModInteger> m2 = PSUtil.<ModInteger> multiplyKaratsuba(mr, ma.coefficientList(n),
+                        mb.coefficientList(n));
+        assertEquals("a*b == multiplyKaratsuba(a,b) ", m1, m2.subList(0, n));
+        m2 = ma.multiplyEager(mb).coefficientList(n);
+        assertEquals("a*b == multiplyEager(a,b) ", m1, m2);
+
+        // Kronecker substitution for integers
+        BigInteger ir = new BigInteger();
+        UnivPowerSeriesRing<BigInteger> ifac = new UnivPowerSeriesRing<BigInteger>(ir);
+        UnivPowerSeries<BigInteger> ia = ifac.random(kl);
+        UnivPowerSeries<BigInteger> ib = ifac.random(kl);
+        List<BigInteger> i1 = ia.multiply(ib).coefficientList(n);
+        List<BigInteger> i2 = ia.multiplyEager(ib).coefficientList(n);
+        assertEquals("a*b == multiplyEager(a,b) ", i1, i2);
+    }
+
+
     /**
      * Test random polynomial.
      */
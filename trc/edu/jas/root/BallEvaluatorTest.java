@@ -0,0 +1,126 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.root;
+
+
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigBall;
+import edu.jas.arith.BigRational;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * BallEvaluator tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class BallEvaluatorTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>BallEvaluatorTest</CODE> object.
+     * @param name String.
+     */
+    public BallEvaluatorTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(BallEvaluatorTest.class);
+        return suite;
+    }
+
+
+    TermOrder to = new TermOrder(TermOrder.INVLEX);
+
+
+    GenPolynomialRing<BigRational> dfac;
+
+
+    BigRational cfac;
+
+
+    @Override
+    protected void setUp() {
+        cfac = new BigRational(1);
+        String[] vars = new String[] { "x" };
+        dfac = new GenPolynomialRing<BigRational>(cfac, 1, to, vars);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        dfac = null;
+        cfac = null;
+    }
+
+
+    /**
+     * Test certified sign against exact evaluation.
+     */
+    public void testSign() {
+        // Wilkinson like polynomial with roots 1/10, ..., 15/10
+        GenPolynomial<BigRational> f = dfac.getONE();
+        GenPolynomial<BigRational> x = dfac.univariate(0);
+        for (int i = 1; i <= 15; i++) {
+            f = f.multiply(x.subtract(dfac.fromInteger(i).divide(new BigRational(10))));
+        }
+        BallEvaluator<BigRational> ev = new BallEvaluator<BigRational>(f);
+        for (int i = -5; i <= 170; i++) {
+            BigRational c = new BigRational(i, 100);
+            BigRational e = PolyUtil.<BigRational> evaluateMain(cfac, f, c);
+            BigBall v = ev.evaluateCertified(c);
+            assertEquals("sign(f(c)) ", e.signum(), v.signum());
+            assertTrue("f(c) in ball ", v.contains(e));
+            if (!e.isZERO()) {
+                assertFalse("0 not in ball ", v.containsZero());
+                v = ev.evaluateCertified(c, 30);
+                assertTrue("f(c) in ball ", v.contains(e));
+                assertTrue("30 digits ", v.getRad().scaleByPowerOfTen(30).compareTo(v.getMid().abs()) <= 0);
+            }
+        }
+        // only the 15 roots need exact evaluation
+        assertEquals("exact evaluations ", 15, ev.exactEvaluations());
+    }
+
+
+    /**
+     * Test refinement with certified signs.
+     */
+    public void testRefine() {
+        RealRootsAbstract<BigRational> rr = new RealRootsSturm<BigRational>();
+        GenPolynomial<BigRational> f = dfac.parse("x^7 - 3 x^5 + x^2 - 1/3");
+        List<Interval<BigRational>> R = rr.realRoots(f);
+        BigRational eps = new BigRational(1, 1000000000000L).multiply(new BigRational(1, 1000000000000L));
+        for (Interval<BigRational> v : R) {
+            Interval<BigRational> w = rr.refineIntervalQIR(v, f, eps);
+            Interval<BigRational> u = rr.refineIntervalBisection(v, f, eps);
+            assertTrue("|w| < eps ", w.rationalLength().compareTo(eps) < 0);
+            assertTrue("|u| < eps ", u.rationalLength().compareTo(eps) < 0);
+            assertTrue("sign change in w ", rr.signChange(w, f) || w.left.equals(w.right));
+            assertTrue("w and u overlap ", w.left.compareTo(u.right) <= 0 && u.left.compareTo(w.right) <= 0);
+        }
+    }
+
+}
@@ -396,6 +396,62 @@ public class ComplexRootTest extends TestCase {
     }
 
 
+    /**
+     * Test complex roots with Aberth iteration, check with Sturm.
+     */
+    public void testComplexRootsAberth() {
+        assertTrue("default is Sturm ",
+                        RootFactory.<BigRational> getComplexRootsImplementation(cfac) instanceof ComplexRootsSturm);
+        ComplexRootsAbstract<BigRational> cr = RootFactory.<BigRational> getComplexRootsImplementation(cfac,
+                        RootFactory.ComplexRootAlgorithm.Aberth);
+        assertTrue("Aberth on request ", cr instanceof ComplexRootsAberth);
+        ComplexRootsSturm<BigRational> cs = new ComplexRootsSturm<BigRational>(cfac);
+
+        // random squarefree polynomial
+        a = dfac.random(kl, ll, el, q);
+        Squarefree<Complex<BigRational>> engine = SquarefreeFactory
+                        .<Complex<BigRational>> getImplementation(cfac);
+        a = engine.squarefreePart(a);
+        //System.out.println("a = " + a);
+        List<Rectangle<BigRational>> roots = cr.complexRoots(a);
+        //System.out.println("roots = " + roots);
+        assertTrue("#roots == deg(a) ", roots.size() == a.degree(0));
+        for (Rectangle<BigRational> r : roots) {
+            try {
+                assertTrue("#roots(r) == 1 ", cs.complexRootCount(r, a) == 1L);
+            } catch (InvalidBoundaryException e) {
+                fail("" + e);
+            }
+        }
+
+        // Gaussian roots (i + j I)/3 and a cluster around 1
+        a = dfac.getONE();
+        GenPolynomial<Complex<BigRational>> x = dfac.univariate(0);
+        for (int i = -2; i <= 2; i += 2) {
+            for (int j = -1; j <= 1; j++) {
+                Complex<BigRational> z = new Complex<BigRational>(cfac, new BigRational(i, 3),
+                                new BigRational(j, 3));
+                a = a.multiply(x.subtract(z));
+            }
+        }
+        BigRational one = BigRational.ONE;
+        BigRational d = new BigRational(1L, 1000000L);
+        a = a.multiply(x.subtract(new Complex<BigRational>(cfac, one.sum(d))));
+        a = a.multiply(x.subtract(new Complex<BigRational>(cfac, one, d)));
+        //System.out.println("a = " + a);
+        roots = cr.complexRoots(a);
+        //System.out.println("roots = " + roots);
+        assertTrue("#roots == deg(a) ", roots.size() == a.degree(0));
+        for (Rectangle<BigRational> r : roots) {
+            try {
+                assertTrue("#roots(r) == 1 ", cs.complexRootCount(r, a) == 1L);
+            } catch (InvalidBoundaryException e) {
+                fail("" + e);
+            }
+        }
+    }
+
+
     /**
      * Test complex root refinement.
      */
@@ -304,6 +304,31 @@ public class RealAlgebraicTest extends TestCase {
     }
 
 
+    /**
+     * Test cached sign of real algebraic numbers.
+     */
+    public void testSignumCached() {
+        Interval<BigRational> iv = fac.getRoot();
+        // alpha - 14142135/10^7 > 0, alpha - 14142136/10^7 < 0
+        BigRational lo = new BigRational(14142135L, 10000000L);
+        BigRational hi = new BigRational(14142136L, 10000000L);
+        a = alpha.subtract(fac.getONE().multiply(lo));
+        b = alpha.subtract(fac.getONE().multiply(hi));
+        assertEquals("sign(alpha - lo) == 1 ", 1, a.signum());
+        assertEquals("sign(alpha - hi) == -1 ", -1, b.signum());
+        assertEquals("sign(alpha - lo) == 1 ", 1, a.signum());
+        assertTrue("root contained in old root ", iv.contains(fac.getRoot()));
+        assertTrue("a > b ", a.compareTo(b) > 0);
+
+        for (int i = 0; i < 5; i++) {
+            c = fac.random(ll);
+            int s = fac.engine.realSign(iv, fac.algebraic.modul, c.number.val);
+            assertEquals("cached sign == Sturm sign ", s, c.signum());
+            assertEquals("cached sign == Sturm sign ", s, c.signum());
+        }
+    }
+
+
     /**
      * Test arithmetic of magnitude of real algebraic numbers.
      */
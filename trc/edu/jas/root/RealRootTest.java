@@ -19,6 +19,7 @@ import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.TermOrder;
 import edu.jas.structure.Power;
+import edu.jas.ufd.SquarefreeFactory;
 
 
 /**
@@ -540,4 +541,202 @@ public class RealRootTest extends TestCase {
         assertTrue("some |a(dd)| < eps ", t);
     }
 
+
+
+    /**
+     * Test real root isolation with Descartes' rule of signs, compare with
+     * Sturm sequences.
+     * 
+     */
+    public void testRealRootIsolationDescartes() {
+        RealRootsAbstract<BigRational> rd = new RealRootsDescartes<BigRational>();
+        RealRootsAbstract<BigRational> rs = new RealRootsSturm<BigRational>();
+        e = dfac.univariate(0);
+        for (int i = 0; i < 5; i++) {
+            a = dfac.random(kl, ll * 2, el * 2 + i, q);
+            a = a.multiply(e.subtract(dfac.fromInteger(i)));
+            a = a.multiply(e.sum(dfac.parse("1/3")));
+            if (i % 2 == 0) {
+                a = a.multiply(e);
+            }
+            a = SquarefreeFactory.getImplementation(new BigRational()).squarefreePart(a);
+            //System.out.println("a = " + a);
+            List<Interval<BigRational>> R = rd.realRoots(a);
+            //System.out.println("R = " + R);
+            List<Interval<BigRational>> S = rs.realRoots(a);
+            assertEquals("#roots(Descartes) == #roots(Sturm) ", S.size(), R.size());
+            Interval<BigRational> u = null;
+            for (Interval<BigRational> v : R) {
+                if (u != null) {
+                    assertTrue("intervals disjoint and sorted ", u.right.compareTo(v.left) <= 0);
+                }
+                if (!v.left.equals(v.right)) {
+                    assertTrue("sign change ", rd.signChange(v, a));
+                    assertEquals("one root in interval ", 1L, rs.realRootCount(v, a));
+                    assertEquals("one root in interval ", 1L, rd.realRootCount(v, a));
+                }
+                u = v;
+            }
+            BigRational M = rd.realRootBound(a);
+            Interval<BigRational> iv = new Interval<BigRational>(M.negate(), M);
+            assertEquals("realRootCount ", rs.realRootCount(iv, a), rd.realRootCount(iv, a));
+        }
+    }
+
+
+    /**
+     * Test real root isolation with Descartes' rule of signs of Wilkinson
+     * polynomials. p = (x-0)*(x-1)*(x-2)*(x-3)*...*(x-n)
+     */
+    public void testRealRootIsolationDescartesWilkinson() {
+        final int N = 40;
+        d = dfac.getONE();
+        e = dfac.univariate(0);
+
+        List<Interval<BigRational>> Rn = new ArrayList<Interval<BigRational>>(N);
+        a = d;
+        for (int i = 0; i < N; i++) {
+            c = dfac.fromInteger(2 * i - N).divide(dfac.fromInteger(3));
+            Rn.add(new Interval<BigRational>(c.leadingBaseCoefficient()));
+            b = e.subtract(c);
+            a = a.multiply(b);
+        }
+        //System.out.println("a = " + a);
+        assertTrue("default is Sturm ",
+                        RootFactory.<BigRational> getRealRootsImplementation() instanceof RealRootsSturm);
+        RealRootsAbstract<BigRational> rr = RootFactory.<BigRational> getRealRootsImplementation(
+                        RootFactory.RealRootAlgorithm.Descartes);
+        assertTrue("Descartes on request ", rr instanceof RealRootsDescartes);
+
+        List<Interval<BigRational>> R = rr.realRoots(a);
+        //System.out.println("R = " + R);
+        assertTrue("#roots = " + N + " ", R.size() == N);
+
+        R = rr.refineIntervals(R, a, eps);
+        //System.out.println("R = " + R);
+        BigDecimal eps1 = new BigDecimal(eps).multiply(new BigDecimal("1000"));
+        int i = 0;
+        for (Interval<BigRational> v : R) {
+            BigDecimal dd = v.toDecimal();
+            BigDecimal di = Rn.get(i++).toDecimal();
+            //System.out.println("v  = " + dd);
+            //System.out.println("vi = " + di);
+            assertTrue("|dd - di| < eps ", dd.subtract(di).abs().compareTo(eps1) <= 0);
+        }
+    }
+
+
+    /**
+     * Test Taylor shift and Kronecker multiplication for Descartes' rule of
+     * signs.
+     * 
+     */
+    public void testTaylorShift() {
+        java.util.Random rnd = new java.util.Random();
+        java.math.BigInteger[] p = new java.math.BigInteger[3 * RealRootsDescartes.TAYLOR_FAST_DEGREE + 7];
+        for (int i = 0; i < p.length; i++) {
+            p[i] = new java.math.BigInteger(50, rnd).subtract(java.math.BigInteger.ONE.shiftLeft(49));
+        }
+        java.math.BigInteger[] s = new java.math.BigInteger[] { java.math.BigInteger.ONE,
+                java.math.BigInteger.valueOf(-3L), java.math.BigInteger.valueOf(12345L) };
+        for (java.math.BigInteger si : s) {
+            java.math.BigInteger[] t = RealRootsDescartes.taylorShift(p, si);
+            java.math.BigInteger[] u = edu.jas.poly.DensePolyUtil.taylorShiftHorner(p, 0, p.length, si);
+            assertTrue("fast == classical Taylor shift ", java.util.Arrays.equals(t, u));
+            // p(x+s)(x-s) == p(x) with x -> x+s
+            java.math.BigInteger[] v = RealRootsDescartes.taylorShift(t, si.negate());
+            assertTrue("shift(shift(p,s),-s) == p ", java.util.Arrays.equals(p, v));
+        }
+    }
+
+
+
+    /**
+     * Test parallel real root isolation and refinement, compare with
+     * sequential computation.
+     * 
+     */
+    public void testRealRootIsolationParallel() {
+        RealRootsAbstract<BigRational> rs = new RealRootsSturm<BigRational>();
+        RealRootsAbstract<BigRational> rp = new RealRootsSturmPar<BigRational>(4);
+        final int N = 12;
+        e = dfac.univariate(0);
+        for (int i = 0; i < 3; i++) {
+            a = dfac.random(kl, ll, el + i, q);
+            for (int j = 0; j < N; j++) {
+                b = e.subtract(dfac.fromInteger(2 * j - N).divide(dfac.fromInteger(7)));
+                a = a.multiply(b);
+            }
+            a = SquarefreeFactory.getImplementation(new BigRational()).squarefreePart(a);
+            //System.out.println("a = " + a);
+            List<Interval<BigRational>> R = rs.realRoots(a);
+            List<Interval<BigRational>> P = rp.realRoots(a);
+            //System.out.println("P = " + P);
+            assertEquals("parallel == sequential isolation ", R, P);
+            assertTrue("#roots >= " + N + " ", P.size() >= N);
+
+            R = rs.refineIntervals(R, a, eps);
+            P = rp.refineIntervals(P, a, eps);
+            assertEquals("parallel == sequential refinement ", R, P);
+
+            List<BigDecimal> D = rs.approximateRoots(a, eps);
+            List<BigDecimal> E = rp.approximateRoots(a, eps);
+            assertEquals("parallel == sequential approximation ", D, E);
+        }
+    }
+
+
+
+    /**
+     * Test quadratic interval refinement, compare with bisection.
+     * 
+     */
+    public void testRealRootRefinementQIR() {
+        RealRootsAbstract<BigRational> rr = new RealRootsDescartes<BigRational>();
+        BigRational eps1 = Power.positivePower(new BigRational(1L, 2L), 60);
+        BigRational eps2 = Power.positivePower(new BigRational(1L, 2L), 1000);
+        for (int i = 0; i < 3; i++) {
+            a = dfac.random(kl, ll, el + 3 + i, q);
+            a = SquarefreeFactory.getImplementation(new BigRational()).squarefreePart(a);
+            //System.out.println("a = " + a);
+            List<Interval<BigRational>> R = rr.realRoots(a);
+            for (Interval<BigRational> v : R) {
+                Interval<BigRational> u = rr.refineIntervalQIR(v, a, eps2);
+                //System.out.println("u = " + u);
+                assertTrue("|u| < eps ", u.rationalLength().compareTo(eps2) < 0);
+                assertTrue("u in v ", v.contains(u.left) && v.contains(u.right));
+                if (!u.left.equals(u.right)) {
+                    assertTrue("sign change ", rr.signChange(u, a));
+                }
+                Interval<BigRational> w = rr.refineIntervalBisection(v, a, eps1);
+                assertTrue("|w| < eps ", w.rationalLength().compareTo(eps1) < 0);
+                assertTrue("u and w overlap ", u.left.compareTo(w.right) <= 0 && w.left.compareTo(u.right) <= 0);
+            }
+        }
+    }
+
+
+    /**
+     * Test approximation of real roots with more digits than DECIMAL64.
+     * 
+     */
+    public void testApproximateRootsDigits() {
+        RealRootsAbstract<BigRational> rr = new RealRootsSturm<BigRational>();
+        BigRational eps = Power.positivePower(new BigRational(1L, 10L), 50);
+        a = dfac.parse("x^2 - 2");
+        List<BigDecimal> R = rr.approximateRoots(a, eps);
+        assertTrue("#roots == 2 ", R.size() == 2);
+        BigRational two = new BigRational(2L);
+        for (BigDecimal d : R) {
+            java.math.BigDecimal v = d.val;
+            assertTrue("#digits(d) >= 50 ", v.precision() >= 50);
+            BigRational r = new BigRational(new edu.jas.arith.BigInteger(v.unscaledValue()))
+                            .divide(new BigRational(new edu.jas.arith.BigInteger(
+                                            java.math.BigInteger.TEN.pow(v.scale()))));
+            // |r - sqrt(2)| = |r^2 - 2| / |r + sqrt(2)| < |r^2 - 2| / 2
+            BigRational e = r.multiply(r).subtract(two).abs();
+            assertTrue("|d - sqrt(2)| < eps ", e.compareTo(two.multiply(eps)) < 0);
+        }
+    }
+
 }
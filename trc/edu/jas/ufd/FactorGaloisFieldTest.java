@@ -0,0 +1,214 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.GaloisFieldElem;
+import edu.jas.arith.GaloisFieldRing;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.AlgebraicNumber;
+import edu.jas.poly.AlgebraicNumberRing;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * Factor Galois field tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class FactorGaloisFieldTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>FactorGaloisFieldTest</CODE> object.
+     * @param name String.
+     */
+    public FactorGaloisFieldTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(FactorGaloisFieldTest.class);
+        return suite;
+    }
+
+
+    int kl = 5;
+
+
+    int ll = 5;
+
+
+    int el = 4;
+
+
+    float q = 0.5f;
+
+
+    TermOrder to = new TermOrder(TermOrder.INVLEX);
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Test univariate factorization.
+     */
+    public void testBaseFactorization() {
+        for (GaloisFieldRing cfac : new GaloisFieldRing[] { new GaloisFieldRing(2, 4),
+                new GaloisFieldRing(3, 3), new GaloisFieldRing(2, 24) }) {
+            GenPolynomialRing<GaloisFieldElem> pfac = new GenPolynomialRing<GaloisFieldElem>(cfac, 1, to);
+            FactorAbstract<GaloisFieldElem> fac = FactorFactory.getImplementation(cfac);
+            assertTrue("fac instanceof FactorGaloisField ", fac instanceof FactorGaloisField);
+            for (int i = 1; i < 4; i++) {
+                GenPolynomial<GaloisFieldElem> b = pfac.random(kl, ll, el + i, q);
+                GenPolynomial<GaloisFieldElem> c = pfac.random(kl, ll, el + i, q);
+                if (b.degree() == 0 || c.degree() == 0) {
+                    continue;
+                }
+                GenPolynomial<GaloisFieldElem> a = b.multiply(c).multiply(c).monic();
+                SortedMap<GenPolynomial<GaloisFieldElem>, Long> sm = fac.baseFactors(a);
+                //System.out.println("sm = " + sm);
+                assertTrue("prod(factor(a)) = a", fac.isFactorization(a, sm));
+                long sf = 0;
+                for (Map.Entry<GenPolynomial<GaloisFieldElem>, Long> me : sm.entrySet()) {
+                    assertTrue("irred(f) ", fac.isIrreducible(me.getKey()));
+                    sf += me.getValue();
+                }
+                assertTrue("#facs >= 3 ", sf >= 3);
+            }
+        }
+    }
+
+
+    /**
+     * Test known factorizations.
+     */
+    public void testKnownFactorization() {
+        // x^(q) - x splits into all linear factors
+        GaloisFieldRing cfac = new GaloisFieldRing(3, 2);
+        GenPolynomialRing<GaloisFieldElem> pfac = new GenPolynomialRing<GaloisFieldElem>(cfac,
+                        new String[] { "x" }, to);
+        FactorAbstract<GaloisFieldElem> fac = FactorFactory.getImplementation(cfac);
+        GenPolynomial<GaloisFieldElem> a = pfac.parse("x^9 - x");
+        SortedMap<GenPolynomial<GaloisFieldElem>, Long> sm = fac.baseFactors(a);
+        assertEquals("#facs == 9 ", 9, sm.size());
+        for (GenPolynomial<GaloisFieldElem> f : sm.keySet()) {
+            assertEquals("deg(f) == 1 ", 1, f.degree());
+        }
+        // x^2 + 1 is irreducible over GF(3) but not over GF(9)
+        a = pfac.parse("x^2 + 1");
+        assertFalse("x^2 + 1 reducible ", fac.isIrreducible(a));
+
+        // x^4 + x + 1 over GF(2^2) splits into two quadratic factors
+        GaloisFieldRing dfac = new GaloisFieldRing(2, 2);
+        GenPolynomialRing<GaloisFieldElem> qfac = new GenPolynomialRing<GaloisFieldElem>(dfac,
+                        new String[] { "x" }, to);
+        FactorAbstract<GaloisFieldElem> gac = FactorFactory.getImplementation(dfac);
+        GenPolynomial<GaloisFieldElem> b = qfac.parse("x^4 + x + 1");
+        List<GenPolynomial<GaloisFieldElem>> fl = gac.baseFactorsSquarefree(b);
+        assertEquals("#facs == 2 ", 2, fl.size());
+        for (GenPolynomial<GaloisFieldElem> f : fl) {
+            assertEquals("deg(f) == 2 ", 2, f.degree());
+        }
+        // coefficients in the extension
+        b = qfac.parse("x^2 + { a } x + 1");
+        assertTrue("prod(factor(b)) = b", gac.isFactorization(b, gac.baseFactors(b)));
+    }
+
+
+    /**
+     * Test squarefree decomposition with p-th powers.
+     */
+    public void testSquarefree() {
+        GaloisFieldRing cfac = new GaloisFieldRing(3, 4);
+        GenPolynomialRing<GaloisFieldElem> pfac = new GenPolynomialRing<GaloisFieldElem>(cfac, 1, to);
+        SquarefreeAbstract<GaloisFieldElem> sqf = SquarefreeFactory.getImplementation(cfac);
+        assertTrue("sqf instanceof SquarefreeFiniteFieldCharP ", sqf instanceof SquarefreeFiniteFieldCharP);
+        for (int i = 0; i < 3; i++) {
+            GenPolynomial<GaloisFieldElem> b = pfac.random(kl, ll, el, q);
+            GenPolynomial<GaloisFieldElem> c = pfac.random(kl, ll, el, q);
+            if (b.isZERO() || c.isZERO()) {
+                continue;
+            }
+            // c^3 has coefficients not in GF(3)
+            GenPolynomial<GaloisFieldElem> a = b.multiply(c.power(3)).multiply(c);
+            SortedMap<GenPolynomial<GaloisFieldElem>, Long> sm = sqf.squarefreeFactors(a);
+            assertTrue("isSquarefreeDecomposition ", sqf.isFactorization(a, sm));
+            for (GenPolynomial<GaloisFieldElem> f : sm.keySet()) {
+                assertTrue("isSquarefree(f) ", sqf.isSquarefree(f));
+            }
+        }
+    }
+
+
+    /**
+     * Test factorization over algebraic extensions and multivariate
+     * factorization.
+     */
+    public void testExtensionFactorization() {
+        GaloisFieldRing cfac = new GaloisFieldRing(5, 2);
+        GenPolynomialRing<GaloisFieldElem> pfac = new GenPolynomialRing<GaloisFieldElem>(cfac,
+                        new String[] { "x" }, to);
+        // the generator a is no square in GF(5^2)
+        GenPolynomial<GaloisFieldElem> m = pfac.parse("x^2 - { a }");
+        FactorAbstract<GaloisFieldElem> fac = FactorFactory.getImplementation(cfac);
+        assertTrue("irred(m) ", fac.isIrreducible(m));
+        AlgebraicNumberRing<GaloisFieldElem> afac = new AlgebraicNumberRing<GaloisFieldElem>(m, true);
+        assertEquals("[GF(5^2)(x):GF(5)] = 4 ", 4L, afac.totalExtensionDegree());
+        GenPolynomialRing<AlgebraicNumber<GaloisFieldElem>> apfac = new GenPolynomialRing<AlgebraicNumber<GaloisFieldElem>>(
+                        afac, new String[] { "y" }, to);
+        FactorAbstract<AlgebraicNumber<GaloisFieldElem>> afc = FactorFactory.getImplementation(afac);
+        GenPolynomial<AlgebraicNumber<GaloisFieldElem>> a = apfac.parse("y^2 - { a }");
+        SortedMap<GenPolynomial<AlgebraicNumber<GaloisFieldElem>>, Long> sm = afc.baseFactors(a);
+        assertTrue("prod(factor(a)) = a", afc.isFactorization(a, sm));
+        assertEquals("#facs == 2 ", 2, sm.size());
+
+        GenPolynomialRing<GaloisFieldElem> mfac = new GenPolynomialRing<GaloisFieldElem>(cfac,
+                        new String[] { "x", "y" }, to);
+        GenPolynomial<GaloisFieldElem> b = mfac.parse("x^2 + { a } y + 1");
+        GenPolynomial<GaloisFieldElem> c = mfac.parse("x y + { a^2 + 1 }");
+        GenPolynomial<GaloisFieldElem> d = b.multiply(c);
+        SortedMap<GenPolynomial<GaloisFieldElem>, Long> mm = fac.factors(d);
+        assertTrue("prod(factor(d)) = d", fac.isFactorization(d, mm));
+        int nf = 0;
+        for (GenPolynomial<GaloisFieldElem> f : mm.keySet()) {
+            if (!f.isConstant()) {
+                nf++;
+            }
+        }
+        assertEquals("#facs == 2 ", 2, nf);
+    }
+
+}
@@ -15,10 +15,12 @@ import junit.framework.TestSuite;
 
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
 import edu.jas.poly.TermOrder;
 
 
@@ -248,6 +250,109 @@ public class FactorIntegerTest extends TestCase {
     }
 
 
+    /**
+     * Test integer factorization with lattice factor recombination.
+     */
+    public void testIntegerFactorizationLattice() {
+        TermOrder to = new TermOrder(TermOrder.INVLEX);
+        BigInteger cfac = new BigInteger(4);
+        String[] vars = new String[] { "x" };
+        GenPolynomialRing<BigInteger> pfac = new GenPolynomialRing<BigInteger>(cfac, 1, to, vars);
+        FactorInteger<ModInteger> fac = new FactorInteger<ModInteger>();
+
+        // Swinnerton-Dyer polynomial for 2, 3, 5, 7, many modular factors
+        GenPolynomial<BigInteger> a = pfac.parse("( x^16 - 136 x^14 + 6476 x^12 - 141912 x^10 + 1513334 x^8 "
+                        + "- 7453176 x^6 + 13950764 x^4 - 5596840 x^2 + 46225 )");
+        List<GenPolynomial<BigInteger>> F = fac.baseFactorsSquarefree(a);
+        //System.out.println("F = " + F);
+        assertTrue("#F == 1: " + F, F.size() == 1);
+        assertEquals("a == F(0) ", a, F.get(0));
+
+        GenPolynomial<BigInteger> b = pfac.parse("( x^8 - 40 x^6 + 352 x^4 - 960 x^2 + 576 )");
+        GenPolynomial<BigInteger> c = pfac.parse("( 3 x^2 - 7 x + 1 )");
+        a = a.multiply(b).multiply(c);
+        F = fac.baseFactorsSquarefree(a);
+        //System.out.println("F = " + F);
+        assertTrue("#F == 3: " + F, F.size() == 3);
+        assertTrue("prod(factor(a)) = a", fac.isFactorization(a, F));
+        assertTrue("F contains c: " + F, F.contains(c));
+    }
+
+
+    /**
+     * Test lattice factor recombination directly on many modular factors.
+     */
+    public void testSearchFactorsLattice() {
+        TermOrder to = new TermOrder(TermOrder.INVLEX);
+        BigInteger cfac = new BigInteger(4);
+        String[] vars = new String[] { "x" };
+        GenPolynomialRing<BigInteger> pfac = new GenPolynomialRing<BigInteger>(cfac, 1, to, vars);
+        FactorInteger<ModInteger> fac = new FactorInteger<ModInteger>();
+
+        // Swinnerton-Dyer polynomials split into factors of degree <= 2 modulo each prime
+        GenPolynomial<BigInteger> a = pfac.parse("( x^16 - 136 x^14 + 6476 x^12 - 141912 x^10 + 1513334 x^8 "
+                        + "- 7453176 x^6 + 13950764 x^4 - 5596840 x^2 + 46225 )");
+        GenPolynomial<BigInteger> b = pfac.parse("( x^8 - 40 x^6 + 352 x^4 - 960 x^2 + 576 )");
+        GenPolynomial<BigInteger> c = pfac.parse("( 3 x^2 - 7 x + 1 )");
+        GenPolynomial<BigInteger> d = a.multiply(b).multiply(c);
+
+        ModIntegerRing mcfac = new ModIntegerRing(1009L);
+        GenPolynomialRing<ModInteger> mfac = new GenPolynomialRing<ModInteger>(mcfac, pfac);
+        GenPolynomial<ModInteger> dm = PolyUtil.<ModInteger> fromIntegerCoefficients(mfac, d).monic();
+        FactorModular<ModInteger> mengine = new FactorModular<ModInteger>(mcfac);
+        assertTrue("squarefree mod p: " + dm, mengine.isSquarefree(dm));
+        List<GenPolynomial<ModInteger>> mlist = mengine.baseFactorsSquarefree(dm);
+        //System.out.println("mlist = " + mlist);
+        assertTrue("#mlist > LATTICE_FACTORS: " + mlist.size(), mlist.size() > FactorInteger.LATTICE_FACTORS);
+
+        List<GenPolynomial<BigInteger>> F = fac.searchFactorsLattice(d, mlist);
+        //System.out.println("F = " + F);
+        assertNotNull("lattice recombination succeeded", F);
+        assertTrue("#F == 3: " + F, F.size() == 3);
+        assertTrue("prod(factor(d)) = d", fac.isFactorization(d, F));
+        for (GenPolynomial<BigInteger> f : F) {
+            assertTrue("irreducible(" + f + ")", fac.isIrreducible(f));
+        }
+    }
+
+
+    /**
+     * Test parallel integer factorization.
+     */
+    public void testIntegerFactorizationParallel() {
+        TermOrder to = new TermOrder(TermOrder.INVLEX);
+        BigInteger cfac = new BigInteger(4);
+        String[] vars = new String[] { "x" };
+        GenPolynomialRing<BigInteger> pfac = new GenPolynomialRing<BigInteger>(cfac, 1, to, vars);
+        FactorInteger<ModInteger> sfac = new FactorInteger<ModInteger>();
+        FactorIntegerPar<ModInteger> fac = new FactorIntegerPar<ModInteger>(cfac, 4);
+
+        // non monic, many modular factors
+        GenPolynomial<BigInteger> a = pfac.parse("( x^8 - 40 x^6 + 352 x^4 - 960 x^2 + 576 )");
+        GenPolynomial<BigInteger> b = pfac.parse("( 3 x^2 - 7 x + 1 )");
+        GenPolynomial<BigInteger> c = pfac.parse("( 5 x^3 + 2 x - 11 )");
+        a = a.multiply(b).multiply(c);
+        List<GenPolynomial<BigInteger>> F = fac.baseFactorsSquarefree(a);
+        //System.out.println("F = " + F);
+        assertTrue("#F == 3: " + F, F.size() == 3);
+        assertTrue("prod(factor(a)) = a", fac.isFactorization(a, F));
+        assertEquals("par == seq ", sfac.baseFactorsSquarefree(a), F);
+
+        for (int i = 0; i < 3; i++) {
+            b = pfac.random(kl * 2, 5, el + 2, q).abs();
+            c = pfac.random(kl * 2, 5, el + 2, q).abs();
+            if (b.degree() < 1 || c.degree() < 1) {
+                continue;
+            }
+            a = b.multiply(c);
+            SortedMap<GenPolynomial<BigInteger>, Long> sm = fac.baseFactors(a);
+            //System.out.println("sm = " + sm);
+            assertTrue("prod(factor(a)) = a", fac.isFactorization(a, sm));
+            assertEquals("par == seq ", sfac.baseFactors(a), sm);
+        }
+    }
+
+
     /**
      * Test bi-variate integer factorization.
      */
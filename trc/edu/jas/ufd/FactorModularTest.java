@@ -5,6 +5,8 @@
 package edu.jas.ufd;
 
 
+import java.util.List;
+import java.util.Map;
 import java.util.SortedMap;
 
 import junit.framework.Test;
@@ -13,11 +15,15 @@ import junit.framework.TestSuite;
 
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.arith.PrimeList;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
 import edu.jas.poly.TermOrder;
+import edu.jas.structure.Power;
 
 
 /**
@@ -318,4 +324,66 @@ public class FactorModularTest extends TestCase {
         assertTrue("prod(factor(a)) = a", t);
     }
 
+
+
+    /**
+     * Test dense baby-step giant-step distinct and equal degree
+     * factorization.
+     * 
+     */
+    public void testDenseFactorization() {
+        PrimeList pl = new PrimeList(PrimeList.Range.medium);
+        long[] primes = new long[] { 2L, 3L, 101L, pl.get(3).longValue() };
+        TermOrder to = new TermOrder(TermOrder.INVLEX);
+        for (long pr : primes) {
+            ModLongRing cfac = new ModLongRing(pr, true);
+            GenPolynomialRing<ModLong> pfac = new GenPolynomialRing<ModLong>(cfac, 1, to);
+            FactorModular<ModLong> fac = new FactorModular<ModLong>(cfac);
+            GreatestCommonDivisor<ModLong> engine = GCDFactory.getImplementation(cfac);
+            Power<GenPolynomial<ModLong>> pow = new Power<GenPolynomial<ModLong>>(pfac);
+            GenPolynomial<ModLong> x = pfac.univariate(0);
+            java.math.BigInteger p = java.math.BigInteger.valueOf(pr);
+            for (int i = 0; i < 3; i++) {
+                GenPolynomial<ModLong> a = pfac.random(kl, 20 * (i + 1), 10 * (i + 3), 0.9f);
+                a = a.multiply(pfac.random(kl, 10, 5 * (i + 1), 0.9f));
+                if (a.degree(0) < FactorModular.DENSE_DEGREE) {
+                    continue;
+                }
+                a = a.monic();
+                GenPolynomial<ModLong> g = engine.gcd(a, PolyUtil.<ModLong> baseDeriviative(a));
+                if (!g.isONE()) {
+                    continue;
+                }
+                //System.out.println("a = " + a);
+                SortedMap<Long, GenPolynomial<ModLong>> dfacs = fac.baseDistinctDegreeFactors(a);
+                //System.out.println("dfacs = " + dfacs);
+                GenPolynomial<ModLong> b = pfac.getONE();
+                for (Map.Entry<Long, GenPolynomial<ModLong>> me : dfacs.entrySet()) {
+                    long e = me.getKey();
+                    GenPolynomial<ModLong> f = me.getValue();
+                    b = b.multiply(f);
+                    // x^(p^d) - x has no common factor for d < e, and f | x^(p^e) - x
+                    GenPolynomial<ModLong> h = x;
+                    for (long d = 1; d <= e; d++) {
+                        h = pow.modPower(h, p, f);
+                        if (d < e) {
+                            assertTrue("gcd(x^(p^d) - x, f) == 1 ",
+                                            engine.gcd(h.subtract(x), f).isONE());
+                        }
+                    }
+                    assertEquals("x^(p^e) == x mod f ", x.remainder(f), h);
+                    List<GenPolynomial<ModLong>> efacs = fac.baseEqualDegreeFactors(f, e);
+                    //System.out.println("efacs = " + efacs);
+                    GenPolynomial<ModLong> c = pfac.getONE();
+                    for (GenPolynomial<ModLong> ef : efacs) {
+                        assertEquals("deg(ef) == e ", e, ef.degree(0));
+                        c = c.multiply(ef);
+                    }
+                    assertEquals("prod(efacs) == f ", f, c);
+                }
+                assertEquals("prod(dfacs) == a ", a, b);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,229 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * GreatestCommonDivisor cache tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class GCDCacheTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>GCDCacheTest</CODE> object.
+     * @param name String.
+     */
+    public GCDCacheTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GCDCacheTest.class);
+        return suite;
+    }
+
+
+    TermOrder to = new TermOrder(TermOrder.INVLEX);
+
+
+    GenPolynomialRing<BigInteger> dfac;
+
+
+    GenPolynomial<BigInteger> a, b, c, d, e;
+
+
+    int rl = 3;
+
+
+    int kl = 5;
+
+
+    int ll = 5;
+
+
+    int el = 3;
+
+
+    float q = 0.3f;
+
+
+    @Override
+    protected void setUp() {
+        a = b = c = d = e = null;
+        dfac = new GenPolynomialRing<BigInteger>(new BigInteger(1), rl, to);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = e = null;
+        dfac = null;
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Test cached gcd, cofactors and statistics.
+     */
+    public void testCachedGcd() {
+        GCDCache<BigInteger> ufd = GCDFactory.getCache(new GreatestCommonDivisorSubres<BigInteger>());
+        //System.out.println("ufd = " + ufd);
+
+        a = dfac.random(kl, ll, el, q);
+        b = dfac.random(kl, ll, el, q);
+        c = dfac.random(kl, ll, el, q);
+        if (a.isZERO() || b.isZERO() || c.isZERO()) {
+            return;
+        }
+        c = ufd.e1.primitivePart(c).abs();
+        a = a.multiply(c);
+        b = b.multiply(c);
+
+        d = ufd.gcd(a, b);
+        e = PolyUtil.<BigInteger> basePseudoRemainder(d, c);
+        assertTrue("c | gcd(ac,bc) " + e, e.isZERO());
+        assertEquals("misses == 1 ", 1L, ufd.getMisses());
+        assertEquals("hits == 0 ", 0L, ufd.getHits());
+
+        e = ufd.gcd(a, b);
+        assertEquals("gcd(a,b) == gcd(a,b) ", d, e);
+        e = ufd.gcd(b, a);
+        assertEquals("gcd(a,b) == gcd(b,a) ", d, e);
+        assertEquals("hits == 2 ", 2L, ufd.getHits());
+        assertEquals("size == 1 ", 1, ufd.size());
+
+        GenPolynomial<BigInteger>[] gc = ufd.gcdCofactors(b, a);
+        assertEquals("g*cb == b ", b, gc[0].multiply(gc[1]));
+        assertEquals("g*ca == a ", a, gc[0].multiply(gc[2]));
+        // returned arrays are not shared with the cache
+        gc[0] = null;
+        gc = ufd.gcdCofactors(a, b);
+        assertEquals("g*ca == a ", a, gc[0].multiply(gc[1]));
+        gc[1] = null;
+        gc = ufd.gcdCofactors(a, b);
+        assertEquals("g*cb == b ", b, gc[0].multiply(gc[2]));
+        assertNotNull("cofactor cached ", gc[1]);
+
+        e = ufd.lcm(a, b);
+        assertTrue("a | lcm(a,b) ", PolyUtil.<BigInteger> basePseudoRemainder(e, a).isZERO());
+        assertTrue("b | lcm(a,b) ", PolyUtil.<BigInteger> basePseudoRemainder(e, b).isZERO());
+
+        ufd.clear();
+        assertEquals("size == 0 ", 0, ufd.size());
+        assertEquals("weight == 0 ", 0L, ufd.getWeight());
+    }
+
+
+    /**
+     * Test cache eviction.
+     */
+    public void testEviction() {
+        GCDCache<BigInteger> ufd = GCDFactory.getCache(new GreatestCommonDivisorSubres<BigInteger>(), 3,
+                        1000L);
+        for (int i = 0; i < 10; i++) {
+            a = dfac.random(kl, ll, el, q);
+            b = dfac.random(kl, ll, el, q);
+            if (a.isZERO() || b.isZERO()) {
+                continue;
+            }
+            d = ufd.gcd(a, b);
+            assertTrue("size <= 3 ", ufd.size() <= 3);
+        }
+        //System.out.println("ufd = " + ufd);
+        assertTrue("weight <= 1000 ", ufd.getWeight() <= 1000L);
+
+        ufd = GCDFactory.getCache(new GreatestCommonDivisorSubres<BigInteger>(), 100, 1L);
+        a = dfac.univariate(0).sum(dfac.getONE());
+        b = dfac.univariate(1).sum(dfac.getONE());
+        d = ufd.gcd(a, b);
+        assertTrue("gcd(a,b) == 1 " + d, d.isONE());
+        assertEquals("too heavy for cache ", 0, ufd.size());
+    }
+
+
+    /**
+     * Test cache after serialization.
+     */
+    @SuppressWarnings("unchecked")
+    public void testSerialization() throws Exception {
+        GCDCache<BigInteger> ufd = GCDFactory.getCache(new GreatestCommonDivisorSubres<BigInteger>());
+        a = dfac.univariate(0).sum(dfac.getONE());
+        b = dfac.univariate(1).sum(dfac.getONE());
+        c = dfac.univariate(2).subtract(dfac.getONE());
+        d = ufd.gcd(a.multiply(c), b.multiply(c));
+        assertEquals("size == 1 ", 1, ufd.size());
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bout);
+        out.writeObject(ufd);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()));
+        GCDCache<BigInteger> ufd2 = (GCDCache<BigInteger>) in.readObject();
+        in.close();
+        //System.out.println("ufd2 = " + ufd2);
+        assertEquals("size == 0 ", 0, ufd2.size());
+        assertEquals("weight == 0 ", 0L, ufd2.getWeight());
+
+        e = ufd2.gcd(a.multiply(c), b.multiply(c));
+        assertEquals("gcd(ac,bc) == c ", c, e);
+        assertEquals("size == 1 ", 1, ufd2.size());
+        e = ufd2.gcd(b.multiply(c), a.multiply(c));
+        assertEquals("gcd(bc,ac) == c ", c, e);
+        assertEquals("hits == 1 ", ufd.getHits() + 1L, ufd2.getHits());
+    }
+
+
+    /**
+     * Test cached proxy in quotient ring.
+     */
+    public void testQuotientRing() {
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(1), 2, to);
+        GCDCache<BigRational> ufd = GCDFactory.getCachedProxy(rfac.coFac);
+        QuotientRing<BigRational> qfac = new QuotientRing<BigRational>(rfac, ufd);
+
+        Quotient<BigRational> x = qfac.random(kl, ll, el, q);
+        Quotient<BigRational> y = qfac.random(kl, ll, el, q);
+        Quotient<BigRational> z = x.sum(y).subtract(y);
+        assertEquals("x+y-y == x ", x, z);
+        z = x.sum(y).sum(y).subtract(y).subtract(y);
+        assertEquals("x+y+y-y-y == x ", x, z);
+        if (!x.den.isONE() && !y.den.isONE()) {
+            assertTrue("cache used " + ufd, ufd.getHits() + ufd.getMisses() > 0);
+        }
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * HenselSparseUtil tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class HenselSparseUtilTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>HenselSparseUtilTest</CODE> object.
+     * @param name String.
+     */
+    public HenselSparseUtilTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(HenselSparseUtilTest.class);
+        return suite;
+    }
+
+
+    TermOrder tord = new TermOrder(TermOrder.INVLEX);
+
+
+    java.math.BigInteger p = new java.math.BigInteger("19");
+
+
+    long k = 5L;
+
+
+    ModLongRing pkm;
+
+
+    GenPolynomialRing<ModLong> pkfac;
+
+
+    GenPolynomialRing<BigInteger> dfac;
+
+
+    int kl = 5;
+
+
+    int ll = 5;
+
+
+    int el = 3;
+
+
+    float q = 0.3f;
+
+
+    @Override
+    protected void setUp() {
+        pkm = new ModLongRing(p.pow((int) k), false);
+        pkfac = new GenPolynomialRing<ModLong>(pkm, 2, tord, new String[] { "x", "y" });
+        dfac = new GenPolynomialRing<BigInteger>(new BigInteger(), pkfac);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        pkm = null;
+        pkfac = null;
+        dfac = null;
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Test Taylor coefficients.
+     */
+    public void testTaylorCoefficient() {
+        GenPolynomialRing<GenPolynomial<ModLong>> rfac = pkfac.recursive(1);
+        ModLong v = pkm.fromInteger(3L);
+        GenPolynomial<ModLong> xv = pkfac.univariate(0, 1).subtract(pkfac.fromInteger(3L));
+        for (int i = 0; i < 3; i++) {
+            GenPolynomial<ModLong> a = pkfac.random(kl, ll, el + i, q);
+            GenPolynomial<GenPolynomial<ModLong>> ar = PolyUtil.<ModLong> recursive(rfac, a);
+            // a = sum_e c_e (y-v)^e
+            GenPolynomial<ModLong> b = pkfac.getZERO();
+            GenPolynomial<ModLong> mon = pkfac.getONE();
+            for (long e = 0; e <= a.degree(1); e++) {
+                GenPolynomial<ModLong> c = HenselSparseUtil.<ModLong> taylorCoefficient(ar, e, v);
+                b = b.sum(c.extend(pkfac, 0, 0L).multiply(mon));
+                mon = mon.multiply(xv);
+            }
+            assertEquals("sum c_e (y-v)^e == a ", a, b);
+        }
+    }
+
+
+    /**
+     * Test multivariate Hensel lifting, compare with dense lifting.
+     */
+    public void testHenselLifting() {
+        List<BigInteger> V = new ArrayList<BigInteger>(1);
+        V.add(new BigInteger(3L));
+        ModLong v = pkm.fromInteger(3L);
+
+        List<GenPolynomial<BigInteger>> A = new ArrayList<GenPolynomial<BigInteger>>();
+        A.add(dfac.parse(" ( x^3 y - 1 ) "));
+        A.add(dfac.parse(" ( 1 + y ) "));
+        A.add(dfac.parse(" ( y^2 - x ) "));
+        GreatestCommonDivisor<BigInteger> ufd = GCDFactory.getImplementation(new BigInteger());
+        A = ufd.coPrime(A);
+        GenPolynomial<BigInteger> c = A.get(0).multiply(A.get(1)).multiply(A.get(2));
+        GenPolynomial<ModLong> cp = PolyUtil.<ModLong> fromIntegerCoefficients(pkfac, c);
+
+        // leading coefficients of factors
+        GenPolynomialRing<GenPolynomial<BigInteger>> irfac = dfac.recursive(dfac.nvar - 1);
+        GenPolynomial<GenPolynomial<BigInteger>> crr = PolyUtil.<BigInteger> switchVariables(
+                        PolyUtil.<BigInteger> recursive(irfac, c));
+        GenPolynomial<BigInteger> cl = crr.leadingBaseCoefficient();
+        FactorAbstract<BigInteger> factorizer = FactorFactory.getImplementation(new BigInteger());
+        List<GenPolynomial<BigInteger>> CF = factorizer.factorsRadical(cl);
+        List<GenPolynomial<BigInteger>> CL = new ArrayList<GenPolynomial<BigInteger>>(3);
+        CL.add(CF.get(0));
+        CL.add(CF.get(2));
+        CL.add(CF.get(1));
+
+        GenPolynomialRing<ModLong> ckfac = pkfac.contract(1);
+        List<GenPolynomial<ModLong>> Ae = new ArrayList<GenPolynomial<ModLong>>(A.size());
+        for (GenPolynomial<BigInteger> ai : A) {
+            GenPolynomial<ModLong> ap = PolyUtil.<ModLong> fromIntegerCoefficients(pkfac, ai);
+            Ae.add(PolyUtil.<ModLong> evaluateMain(ckfac, ap, v));
+        }
+        //System.out.println("A(v) mod p^k = " + Ae);
+
+        try {
+            List<GenPolynomial<ModLong>> lift = HenselSparseUtil.<ModLong> liftHensel(c, cp, Ae, V, k, CL);
+            //System.out.println("lift   = " + lift);
+            assertTrue("isHenselLift: ", HenselMultUtil.<ModLong> isHenselLift(c, cp, Ae, lift));
+
+            List<GenPolynomial<ModLong>> dlift = HenselMultUtil.<ModLong> liftHensel(c, cp, Ae, V, k, CL);
+            assertEquals("sparse lift == dense lift ", dlift, lift);
+
+            List<GenPolynomial<ModLong>> plift = HenselSparseUtil.<ModLong> liftHensel(c, cp, Ae, V, k, CL,
+                            true);
+            assertEquals("parallel lift == sequential lift ", lift, plift);
+
+            List<GenPolynomial<ModLong>> flift = HenselSparseUtil.<ModLong> liftHenselDenseFallback(c, cp, Ae, V,
+                            k, CL, false);
+            assertEquals("lift with fall back == sparse lift ", lift, flift);
+        } catch (NoLiftingException e) {
+            fail("" + e);
+        }
+    }
+
+
+    /**
+     * Test multivariate diophantine equations.
+     */
+    public void testDiophant() {
+        List<ModLong> V = new ArrayList<ModLong>(1);
+        V.add(pkm.fromInteger(2L));
+        List<GenPolynomial<ModLong>> A = new ArrayList<GenPolynomial<ModLong>>();
+        A.add(pkfac.parse(" ( x^2 + y + 1 ) "));
+        A.add(pkfac.parse(" ( x + y^2 + 3 ) "));
+        A.add(pkfac.parse(" ( x^3 + x y + 5 ) "));
+        GenPolynomial<ModLong> B = pkfac.getONE();
+        for (GenPolynomial<ModLong> a : A) {
+            B = B.multiply(a);
+        }
+        GenPolynomial<ModLong> C = pkfac.parse(" ( x^4 y^2 + 5 x y - 7 ) ");
+        long d = 3L;
+        try {
+            List<GenPolynomial<ModLong>> S = HenselSparseUtil.<ModLong> liftDiophant(A, C, V, d, k);
+            //System.out.println("S = " + S);
+            // C - sum_i s_i B_i == 0 mod (y-v)^(d+1)
+            GenPolynomial<ModLong> E = C;
+            for (int i = 0; i < A.size(); i++) {
+                E = E.subtract(S.get(i).multiply(PolyUtil.<ModLong> basePseudoDivide(B, A.get(i))));
+            }
+            GenPolynomialRing<GenPolynomial<ModLong>> rfac = pkfac.recursive(1);
+            GenPolynomial<GenPolynomial<ModLong>> Er = PolyUtil.<ModLong> recursive(rfac, E);
+            for (long e = 0; e <= d; e++) {
+                GenPolynomial<ModLong> c = HenselSparseUtil.<ModLong> taylorCoefficient(Er, e, V.get(0));
+                assertTrue("c_" + e + " == 0: " + c, c.isZERO());
+            }
+            List<GenPolynomial<ModLong>> P = HenselSparseUtil.<ModLong> liftDiophant(A, C, V, d, k, true);
+            assertEquals("parallel == sequential ", S, P);
+        } catch (NoLiftingException e) {
+            fail("" + e);
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+
+
+/**
+ * FractionFreeElimination and DeterminantModular tests with JUnit
+ * @author Heinz Kredel
+ */
+
+public class FractionFreeEliminationTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>FractionFreeEliminationTest</CODE> object.
+     * @param name String.
+     */
+    public FractionFreeEliminationTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(FractionFreeEliminationTest.class);
+        return suite;
+    }
+
+
+    int kl = 10;
+
+
+    float q = 0.8f;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Determinant by Laplace expansion along the first row.
+     * @param a square matrix.
+     * @return det(a).
+     */
+    <C extends edu.jas.structure.RingElem<C>> C laplace(GenMatrix<C> a) {
+        int n = a.ring.rows;
+        if (n == 1) {
+            return a.get(0, 0);
+        }
+        GenMatrixRing<C> mfac = new GenMatrixRing<C>(a.ring.coFac, n - 1, n - 1);
+        C d = a.ring.coFac.getZERO();
+        for (int j = 0; j < n; j++) {
+            if (a.get(0, j).isZERO()) {
+                continue;
+            }
+            List<List<C>> m = new ArrayList<List<C>>(n - 1);
+            for (int i = 1; i < n; i++) {
+                List<C> row = new ArrayList<C>(a.matrix.get(i));
+                row.remove(j);
+                m.add(row);
+            }
+            C t = a.get(0, j).multiply(laplace(mfac.fromList(m)));
+            d = (j % 2 == 0 ? d.sum(t) : d.subtract(t));
+        }
+        return d;
+    }
+
+
+    /**
+     * Test integer determinant.
+     */
+    public void testIntegerDeterminant() {
+        FractionFreeElimination<BigInteger> ffe = new FractionFreeElimination<BigInteger>();
+        DeterminantModular dm = new DeterminantModular();
+        GenMatrixRing<BigInteger> mfac = new GenMatrixRing<BigInteger>(new BigInteger(), 5, 5);
+        for (int k = 0; k < 3; k++) {
+            GenMatrix<BigInteger> a = mfac.random(kl, q);
+            GenMatrix<BigInteger> b = mfac.random(kl, q);
+            BigInteger da = ffe.determinant(a);
+            assertEquals("det(a) == laplace(a) ", laplace(a), da);
+            assertEquals("det(a) == detmod(a) ", da, dm.determinant(a));
+            BigInteger dab = ffe.determinant(a.multiply(b));
+            assertEquals("det(a*b) == det(a)*det(b) ", da.multiply(ffe.determinant(b)), dab);
+            assertEquals("det(a*b) == detmod(a*b) ", dab, dm.determinant(a.multiply(b)));
+        }
+        GenMatrix<BigInteger> c = mfac.parse("[ [0, 2, 1, 0, 0], [3, 0, 0, 1, 0], [0, 0, 0, 0, 5], "
+                        + "[1, 1, 1, 1, 1], [0, 4, 0, 0, 0] ]");
+        assertEquals("det(c) == laplace(c) ", laplace(c), ffe.determinant(c));
+        assertEquals("det(c) == detmod(c) ", laplace(c), dm.determinant(c));
+        assertTrue("det(1) == 1 ", ffe.determinant(mfac.getONE()).isONE());
+        assertTrue("det(0) == 0 ", dm.determinant(mfac.getZERO()).isZERO());
+
+        // large entries need many primes
+        GenMatrixRing<BigInteger> lfac = new GenMatrixRing<BigInteger>(new BigInteger(), 12, 12);
+        GenMatrix<BigInteger> l = lfac.random(200, 1.0f);
+        assertEquals("det(l) == detmod(l) ", ffe.determinant(l), dm.determinant(l));
+        assertEquals("det(l) == detmod1(l) ", ffe.determinant(l), new DeterminantModular(1).determinant(l));
+    }
+
+
+    /**
+     * Test polynomial determinant.
+     */
+    public void testPolynomialDeterminant() {
+        GenPolynomialRing<BigInteger> pfac = new GenPolynomialRing<BigInteger>(new BigInteger(), new String[] {
+                        "x", "y" });
+        FractionFreeElimination<GenPolynomial<BigInteger>> ffe = new FractionFreeElimination<GenPolynomial<BigInteger>>();
+        GenMatrixRing<GenPolynomial<BigInteger>> mfac = new GenMatrixRing<GenPolynomial<BigInteger>>(pfac, 4, 4);
+        GenMatrix<GenPolynomial<BigInteger>> a = mfac.random(3, 0.7f);
+        GenPolynomial<BigInteger> d = ffe.determinant(a);
+        assertEquals("det(a) == laplace(a) ", laplace(a), d);
+
+        // Sylvester matrix of x^2 + y and x - y: res = y^2 + y
+        GenMatrixRing<GenPolynomial<BigInteger>> sfac = new GenMatrixRing<GenPolynomial<BigInteger>>(pfac, 3,
+                        3);
+        GenMatrix<GenPolynomial<BigInteger>> s = sfac.parse("[ [1, 0, y], [1, -y, 0], [0, 1, -y] ]");
+        assertEquals("det(s) == y^2 + y ", pfac.parse("y^2 + y"), ffe.determinant(s));
+        assertEquals("rank(s) == 3 ", 3, ffe.rank(s));
+    }
+
+
+    /**
+     * Test rank, row echelon form and null space.
+     */
+    public void testRankNullSpace() {
+        FractionFreeElimination<BigInteger> ffe = new FractionFreeElimination<BigInteger>();
+        GenMatrixRing<BigInteger> afac = new GenMatrixRing<BigInteger>(new BigInteger(), 6, 3);
+        GenMatrixRing<BigInteger> bfac = new GenMatrixRing<BigInteger>(new BigInteger(), 3, 7);
+        for (int k = 0; k < 3; k++) {
+            GenMatrix<BigInteger> a = afac.random(kl, q);
+            GenMatrix<BigInteger> b = bfac.random(kl, q);
+            GenMatrix<BigInteger> c = a.multiply(b);
+            int r = ffe.rank(c);
+            assertTrue("rank(a*b) <= 3 ", r <= 3);
+            GenMatrix<BigInteger> e = ffe.rowEchelonForm(c);
+            assertEquals("rank(ref(c)) == rank(c) ", r, ffe.rank(e));
+            for (int i = r; i < e.ring.rows; i++) {
+                for (int j = 0; j < e.ring.cols; j++) {
+                    assertTrue("ref(c)(i,j) == 0 ", e.get(i, j).isZERO());
+                }
+            }
+            GenMatrix<BigInteger> f = ffe.reducedRowEchelonForm(c);
+            assertEquals("rank(rref(c)) == rank(c) ", r, ffe.rank(f));
+
+            List<GenVector<BigInteger>> N = ffe.nullSpace(c);
+            assertEquals("rank + nullity == cols ", c.ring.cols, r + N.size());
+            assertTrue("c * N == 0 ", ffe.isNullSpace(c, N));
+            if (N.size() > 0) {
+                GenMatrixRing<BigInteger> nfac = new GenMatrixRing<BigInteger>(new BigInteger(), N.size(),
+                                c.ring.cols);
+                List<List<BigInteger>> nl = new ArrayList<List<BigInteger>>();
+                for (GenVector<BigInteger> v : N) {
+                    nl.add(v.val);
+                }
+                assertEquals("rank(N) == nullity ", N.size(), ffe.rank(nfac.fromList(nl)));
+            }
+        }
+        GenMatrix<BigInteger> z = afac.getZERO();
+        assertEquals("rank(0) == 0 ", 0, ffe.rank(z));
+        assertEquals("nullity(0) == cols ", 3, ffe.nullSpace(z).size());
+    }
+
+
+    /**
+     * Test solving linear systems.
+     */
+    public void testSolve() {
+        FractionFreeElimination<BigInteger> ffe = new FractionFreeElimination<BigInteger>();
+        GenMatrixRing<BigInteger> mfac = new GenMatrixRing<BigInteger>(new BigInteger(), 4, 4);
+        GenVectorModul<BigInteger> vfac = new GenVectorModul<BigInteger>(new BigInteger(), 4);
+        BasicLinAlg<BigInteger> blas = new BasicLinAlg<BigInteger>();
+        GenMatrix<BigInteger> a = mfac.random(kl, q);
+        while (ffe.determinant(a).isZERO()) {
+            a = mfac.random(kl, q);
+        }
+        GenVector<BigInteger> x = vfac.random(kl, q);
+        List<BigInteger> ax = new ArrayList<BigInteger>(4);
+        for (List<BigInteger> row : a.matrix) {
+            ax.add(blas.scalarProduct(row, x.val));
+        }
+        GenVector<BigInteger> b = new GenVector<BigInteger>(vfac, ax);
+        // a x = b, with x integral
+        assertEquals("solve(a, a x) == x ", x, ffe.solve(a, b));
+
+        List<BigInteger> y = ffe.solveFractionFree(a, x);
+        BigInteger d = y.remove(4);
+        assertFalse("d != 0 ", d.isZERO());
+        for (int i = 0; i < 4; i++) {
+            assertEquals("a y == d x ", x.val.get(i).multiply(d), blas.scalarProduct(a.matrix.get(i), y));
+        }
+
+        // over the rational numbers
+        GenMatrixRing<BigRational> rfac = new GenMatrixRing<BigRational>(new BigRational(), 3, 3);
+        GenVectorModul<BigRational> wfac = new GenVectorModul<BigRational>(new BigRational(), 3);
+        FractionFreeElimination<BigRational> ffr = new FractionFreeElimination<BigRational>();
+        GenMatrix<BigRational> r = rfac.parse("[ [2, 1, 0], [1, 3, 1], [0, 1, 4] ]");
+        GenVector<BigRational> c = wfac.parse("[1, 2, 3]");
+        GenVector<BigRational> s = ffr.solve(r, c);
+        BasicLinAlg<BigRational> rlas = new BasicLinAlg<BigRational>();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("r s == c ", c.val.get(i), rlas.scalarProduct(r.matrix.get(i), s.val));
+        }
+
+        // singular and inconsistent system
+        GenMatrix<BigInteger> e = mfac.parse("[ [1, 2, 3, 4], [2, 4, 6, 8], [0, 1, 0, 1], [1, 3, 3, 5] ]");
+        try {
+            ffe.solve(e, vfac.parse("[1, 1, 1, 1]"));
+            fail("inconsistent system solved");
+        } catch (ArithmeticException ex) {
+            // pass
+        }
+        GenVector<BigInteger> f = ffe.solve(e, vfac.parse("[1, 2, 1, 2]"));
+        for (int i = 0; i < 4; i++) {
+            assertEquals("e f == g ", new BigInteger(i % 2 + 1), blas.scalarProduct(e.matrix.get(i), f.val));
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModIntRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.structure.NotInvertibleException;
+
+
+/**
+ * GF2Matrix tests with JUnit
+ * @author Heinz Kredel
+ */
+
+public class GF2MatrixTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GF2MatrixTest</CODE> object.
+     * @param name String.
+     */
+    public GF2MatrixTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GF2MatrixTest.class);
+        return suite;
+    }
+
+
+    ModIntRing fac;
+
+
+    Random rnd;
+
+
+    float q = 0.5f;
+
+
+    @Override
+    protected void setUp() {
+        fac = new ModIntRing(2);
+        rnd = new Random(4711);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        fac = null;
+        rnd = null;
+    }
+
+
+    /**
+     * Test conversion from and to GenMatrix.
+     */
+    public void testConversion() {
+        GenMatrixRing<ModInt> mfac = new GenMatrixRing<ModInt>(fac, 5, 70);
+        GenMatrix<ModInt> A = mfac.random(5, q);
+        GF2Matrix a = new GF2Matrix(A);
+        assertEquals("rows ", 5, a.rows);
+        assertEquals("cols ", 70, a.cols);
+        assertEquals("words ", 2, a.words);
+        assertEquals("a(2,66) == A(2,66) ", A.get(2, 66).val, a.get(2, 66));
+        assertEquals("to(from(A)) == A ", A, a.toGenMatrix(mfac));
+        assertEquals("from(to(a)) == a ", a, new GF2Matrix(a.toGenMatrix(mfac)));
+
+        GenMatrix<ModInt> At = A.transpose(mfac.transpose());
+        assertEquals("from(A^t) == from(A)^t ", new GF2Matrix(At), a.transpose());
+        assertTrue("1 == 1 ", GF2Matrix.one(67).isONE());
+        assertTrue("0 == 0 ", new GF2Matrix(3, 5).isZERO());
+
+        GenMatrixRing<ModLong> lfac = new GenMatrixRing<ModLong>(new ModLongRing(2L), 5, 70);
+        assertEquals("to(a) over ModLong ", a, new GF2Matrix(a.toGenMatrix(lfac)));
+        a.setMutate(1, 69, 1);
+        assertEquals("a(1,69) == 1 ", 1, a.get(1, 69));
+        a.setMutate(1, 69, 0);
+        assertEquals("a(1,69) == 0 ", 0, a.get(1, 69));
+        try {
+            new GF2Matrix(new GenMatrixRing<ModInt>(new ModIntRing(3), 2, 2).getONE());
+            fail("only characteristic 2");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test addition and multiplication.
+     */
+    public void testMultiplication() {
+        int[][] dims = new int[][] { { 3, 5, 4 }, { 17, 65, 33 }, { 70, 130, 129 }, { 200, 150, 90 } };
+        for (int[] d : dims) {
+            GF2Matrix a = GF2Matrix.random(d[0], d[1], q, rnd);
+            GF2Matrix b = GF2Matrix.random(d[1], d[2], q, rnd);
+            GF2Matrix c = GF2Matrix.random(d[1], d[2], q, rnd);
+            assertEquals("a+b-b == a ", b, b.sum(c).subtract(c));
+            assertTrue("a+a == 0 ", a.sum(a).isZERO());
+            GF2Matrix ab = a.multiply(b);
+            assertEquals("a*b == simple(a*b) ", a.multiplySimple(b), ab);
+            assertEquals("a*(b+c) == a*b+a*c ", a.multiply(b.sum(c)), ab.sum(a.multiply(c)));
+            assertEquals("(a*b)^t == b^t*a^t ", ab.transpose(), b.transpose().multiply(a.transpose()));
+            assertEquals("a*1 == a ", a, a.multiply(GF2Matrix.one(d[1])));
+            if (d[0] < 20) {
+                GenMatrixRing<ModInt> afac = new GenMatrixRing<ModInt>(fac, d[0], d[1]);
+                GenMatrixRing<ModInt> bfac = new GenMatrixRing<ModInt>(fac, d[1], d[2]);
+                GenMatrixRing<ModInt> cfac = new GenMatrixRing<ModInt>(fac, d[0], d[2]);
+                GenMatrix<ModInt> AB = a.toGenMatrix(afac).multiply(b.toGenMatrix(bfac));
+                assertEquals("a*b == A*B ", AB, ab.toGenMatrix(cfac));
+            }
+            long[] v = c.getRow(d[1] - 1);
+            GF2Matrix V = new GF2Matrix(d[2], 1);
+            for (int j = 0; j < d[2]; j++) {
+                V.setMutate(j, 0, c.get(d[1] - 1, j));
+            }
+            GF2Matrix bv = b.multiply(V);
+            long[] w = b.multiply(v);
+            for (int i = 0; i < d[1]; i++) {
+                assertEquals("b*v == b*V ", bv.get(i, 0), (int) ((w[i >>> 6] >>> (i & 63)) & 1L));
+            }
+        }
+    }
+
+
+    /**
+     * Test elimination, rank, null space and inverse.
+     */
+    public void testElimination() {
+        int[][] dims = new int[][] { { 4, 4 }, { 10, 30 }, { 65, 64 }, { 130, 200 }, { 300, 100 } };
+        for (int[] d : dims) {
+            GF2Matrix a = GF2Matrix.random(d[0], d[1], q, rnd);
+            GF2Matrix r = a.rowEchelonForm();
+            int rk = a.rank();
+            assertEquals("rank(a) == rank(ref(a)) ", rk, r.rank());
+            assertEquals("ref(ref(a)) == ref(a) ", r, r.rowEchelonForm());
+            assertEquals("rank(a) == rank(a^t) ", rk, a.transpose().rank());
+            // compare with word size prime field elimination
+            GenMatrixRing<ModLong> mfac = new GenMatrixRing<ModLong>(new ModLongRing(2L), d[0], d[1]);
+            ModLongMatrix b = new ModLongMatrix(a.toGenMatrix(mfac));
+            assertEquals("ref(a) == ref(b) ", new GF2Matrix(b.rowEchelonForm().toGenMatrix()), r);
+            GF2Matrix N = a.nullSpace();
+            assertEquals("dim(N) == cols - rank ", a.cols - rk, N.rows);
+            assertTrue("a * N^t == 0 ", a.multiply(N.transpose()).isZERO());
+            assertEquals("rank(N) == dim(N) ", N.rows, N.rank());
+        }
+        for (int n : new int[] { 1, 7, 64, 100, 257 }) {
+            GF2Matrix a = GF2Matrix.random(n, n, q, rnd);
+            if (a.determinant() == 0) {
+                try {
+                    a.inverse();
+                    fail("a not invertible");
+                } catch (NotInvertibleException ex) {
+                    // pass
+                }
+                // make an invertible matrix a = l * u
+                GF2Matrix l = GF2Matrix.random(n, n, q, rnd);
+                GF2Matrix u = GF2Matrix.random(n, n, q, rnd);
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        l.setMutate(i, j, (j > i ? 0 : (j == i ? 1 : l.get(i, j))));
+                        u.setMutate(i, j, (j < i ? 0 : (j == i ? 1 : u.get(i, j))));
+                    }
+                }
+                a = l.multiply(u);
+            }
+            assertEquals("det(a) == 1 ", 1, a.determinant());
+            GF2Matrix b = a.inverse();
+            assertTrue("a * a^-1 == 1 ", a.multiply(b).isONE());
+            assertTrue("a^-1 * a == 1 ", b.multiply(a).isONE());
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigRational;
+
+
+/**
+ * LatticeReduction tests with JUnit
+ * @author Heinz Kredel
+ */
+
+public class LatticeReductionTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>LatticeReductionTest</CODE> object.
+     * @param name String.
+     */
+    public LatticeReductionTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(LatticeReductionTest.class);
+        return suite;
+    }
+
+
+    int rows = 6;
+
+
+    int bits = 40;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Test reduction of a small example.
+     */
+    public void testExample() {
+        LatticeReduction lll = new LatticeReduction();
+        GenMatrixRing<edu.jas.arith.BigInteger> mfac = new GenMatrixRing<edu.jas.arith.BigInteger>(
+                        new edu.jas.arith.BigInteger(), 3, 3);
+        GenMatrix<edu.jas.arith.BigInteger> A = mfac.parse("[ [1, 1, 1], [-1, 0, 2], [3, 5, 6] ]");
+        GenMatrix<edu.jas.arith.BigInteger> R = lll.reduce(A);
+        //System.out.println("R = " + R);
+        GenMatrix<edu.jas.arith.BigInteger> E = mfac.parse("[ [0, 1, 0], [1, 0, 1], [-1, 0, 2] ]");
+        assertEquals("lll(A) == E ", E, R);
+    }
+
+
+    /**
+     * Test reduction of random lattices.
+     */
+    public void testRandom() {
+        Random rnd = new Random();
+        LatticeReduction lll = new LatticeReduction(new BigRational(99, 100));
+        BigInteger[][] b = new BigInteger[rows][rows + 1];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < rows + 1; j++) {
+                b[i][j] = new BigInteger(bits, rnd).subtract(BigInteger.ONE.shiftLeft(bits - 1));
+            }
+        }
+        // Gram determinant is invariant
+        BigInteger[] d0 = lll.reduce(copy(b));
+        BigInteger[][] c = copy(b);
+        BigInteger[] d = lll.reduce(c);
+        //System.out.println("d = " + java.util.Arrays.toString(d));
+        assertTrue("is reduced ", lll.isReduced(c));
+        assertEquals("det(b) == det(c) ", d0[rows], d[rows]);
+        assertTrue("|c_0| <= |b_0| ",
+                        LatticeReduction.dot(c[0], c[0]).compareTo(LatticeReduction.dot(b[0], b[0])) <= 0);
+
+        // reduced basis is not changed
+        BigInteger[][] e = copy(c);
+        lll.reduce(e);
+        for (int i = 0; i < rows; i++) {
+            assertEquals("|e_i| == |c_i| ", LatticeReduction.dot(c[i], c[i]), LatticeReduction.dot(e[i], e[i]));
+        }
+    }
+
+
+    BigInteger[][] copy(BigInteger[][] b) {
+        BigInteger[][] c = new BigInteger[b.length][];
+        for (int i = 0; i < b.length; i++) {
+            c[i] = b[i].clone();
+        }
+        return c;
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.structure.NotInvertibleException;
+
+
+/**
+ * ModLongMatrix tests with JUnit
+ * @author Heinz Kredel
+ */
+
+public class ModLongMatrixTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>ModLongMatrixTest</CODE> object.
+     * @param name String.
+     */
+    public ModLongMatrixTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ModLongMatrixTest.class);
+        return suite;
+    }
+
+
+    ModLongRing fac;
+
+
+    ModLongRing bfac;
+
+
+    Random rnd;
+
+
+    float q = 0.7f;
+
+
+    @Override
+    protected void setUp() {
+        fac = new ModLongRing(32749L, true);
+        bfac = new ModLongRing(2147483647L, true);
+        rnd = new Random(4711);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        fac = null;
+        bfac = null;
+        rnd = null;
+    }
+
+
+    /**
+     * Test conversion from and to GenMatrix.
+     */
+    public void testConversion() {
+        GenMatrixRing<ModLong> mfac = new GenMatrixRing<ModLong>(fac, 4, 7);
+        GenMatrix<ModLong> A = mfac.random(5, q);
+        ModLongMatrix a = new ModLongMatrix(A);
+        assertEquals("rows ", 4, a.rows);
+        assertEquals("cols ", 7, a.cols);
+        assertEquals("a(2,3) == A(2,3) ", A.get(2, 3).val, a.get(2, 3));
+        assertEquals("to(from(A)) == A ", A, a.toGenMatrix());
+        assertEquals("to(from(A)) == A ", A, a.toGenMatrix(mfac));
+        assertEquals("from(to(a)) == a ", a, new ModLongMatrix(a.toGenMatrix()));
+
+        GenMatrix<ModLong> At = A.transpose(mfac.transpose());
+        assertEquals("from(A^t) == from(A)^t ", new ModLongMatrix(At), a.transpose());
+        assertTrue("1 == 1 ", ModLongMatrix.one(fac, 5).isONE());
+        assertTrue("0 == 0 ", new ModLongMatrix(fac, 3, 5).isZERO());
+    }
+
+
+    /**
+     * Test addition.
+     */
+    public void testAddition() {
+        for (ModLongRing r : new ModLongRing[] { fac, bfac }) {
+            ModLongMatrix a = ModLongMatrix.random(r, 6, 5, q, rnd);
+            ModLongMatrix b = ModLongMatrix.random(r, 6, 5, q, rnd);
+            ModLongMatrix c = a.sum(b);
+            assertEquals("a+b-b == a ", a, c.subtract(b));
+            assertTrue("a-a == 0 ", a.subtract(a).isZERO());
+            assertEquals("a+a == 2 a ", a.sum(a), a.scalarMultiply(2));
+            assertEquals("a+b == A+B ", a.toGenMatrix().sum(b.toGenMatrix()), c.toGenMatrix());
+        }
+    }
+
+
+    /**
+     * Test multiplication with blocks and delayed reduction.
+     */
+    public void testMultiplication() {
+        for (ModLongRing r : new ModLongRing[] { fac, bfac }) {
+            ModLongMatrix a = ModLongMatrix.random(r, 70, 75, q, rnd);
+            ModLongMatrix b = ModLongMatrix.random(r, 75, 67, q, rnd);
+            ModLongMatrix c = a.multiplySimple(b);
+            assertEquals("a*b == simple(a*b) ", c, a.multiplySeq(b));
+            assertEquals("a*b == par(a*b) ", c, a.multiplyPar(b));
+            assertEquals("a*b == a*b ", c, a.multiply(b));
+
+            ModLongMatrix d = ModLongMatrix.random(r, 5, 7, q, rnd);
+            ModLongMatrix e = ModLongMatrix.random(r, 7, 3, q, rnd);
+            GenMatrix<ModLong> D = d.toGenMatrix();
+            GenMatrix<ModLong> E = e.toGenMatrix();
+            assertEquals("d*e == D*E ", D.multiply(E), d.multiply(e).toGenMatrix());
+            assertEquals("(d*e)^t == e^t*d^t ", d.multiply(e).transpose(), e.transpose().multiply(
+                            d.transpose()));
+            assertEquals("1*d == d ", d, ModLongMatrix.one(r, 5).multiply(d));
+        }
+    }
+
+
+    /**
+     * Test rank, row echelon form and null space.
+     */
+    public void testRankNullSpace() {
+        for (ModLongRing r : new ModLongRing[] { fac, bfac }) {
+            ModLongMatrix a = ModLongMatrix.random(r, 8, 4, q, rnd);
+            ModLongMatrix b = ModLongMatrix.random(r, 4, 9, q, rnd);
+            ModLongMatrix c = a.multiply(b);
+            int rk = c.rank();
+            assertTrue("rank(a*b) <= 4 ", rk <= 4);
+            ModLongMatrix e = c.rowEchelonForm();
+            assertEquals("rank(ref(c)) == rank(c) ", rk, e.rank());
+            assertEquals("ref(ref(c)) == ref(c) ", e, e.rowEchelonForm());
+
+            ModLongMatrix n = c.nullSpace();
+            assertEquals("rank + nullity == cols ", c.cols, rk + n.rows);
+            assertEquals("rank(null(c)) == nullity ", n.rows, n.rank());
+            assertTrue("c * null(c)^t == 0 ", c.multiply(n.transpose()).isZERO());
+
+            ModLongMatrix z = new ModLongMatrix(r, 3, 4);
+            assertEquals("rank(0) == 0 ", 0, z.rank());
+            assertEquals("nullity(0) == cols ", 4, z.nullSpace().rows);
+        }
+    }
+
+
+    /**
+     * Test determinant and inverse.
+     */
+    public void testInverse() {
+        for (ModLongRing r : new ModLongRing[] { fac, bfac }) {
+            ModLongMatrix a = ModLongMatrix.random(r, 7, 7, q, rnd);
+            ModLongMatrix b = ModLongMatrix.random(r, 7, 7, q, rnd);
+            ModLong da = a.determinant();
+            ModLong db = b.determinant();
+            assertEquals("det(a*b) == det(a)*det(b) ", da.multiply(db), a.multiply(b).determinant());
+            assertEquals("det(a^t) == det(a) ", da, a.transpose().determinant());
+            assertTrue("det(1) == 1 ", ModLongMatrix.one(r, 7).determinant().isONE());
+            if (da.isZERO()) {
+                continue;
+            }
+            assertEquals("rank(a) == 7 ", 7, a.rank());
+            ModLongMatrix ai = a.inverse();
+            assertTrue("a * a^-1 == 1 ", a.multiply(ai).isONE());
+            assertTrue("a^-1 * a == 1 ", ai.multiply(a).isONE());
+            assertEquals("ref(a) == 1 ", ModLongMatrix.one(r, 7), a.rowEchelonForm());
+        }
+        ModLongMatrix c = ModLongMatrix.random(fac, 5, 3, q, rnd).multiply(
+                        ModLongMatrix.random(fac, 3, 5, q, rnd));
+        assertTrue("det(c) == 0 ", c.determinant().isZERO());
+        try {
+            c.inverse();
+            fail("singular matrix inverted");
+        } catch (NotInvertibleException e) {
+            // pass
+        }
+    }
+
+}